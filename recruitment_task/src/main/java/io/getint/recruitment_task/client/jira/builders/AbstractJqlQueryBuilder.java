@@ -48,6 +48,44 @@ public abstract class AbstractJqlQueryBuilder<T extends AbstractJqlQueryBuilder<
         return self();
     }
 
+    /**
+     * Restricts the JQL query to issue types given by id.
+     * <p>
+     * Ids are unambiguous and need no quoting, unlike names such as {@code Sub-task}; use
+     * {@code JiraMetadataCache#resolveIssueTypeIds} to resolve names first.
+     *
+     * @param issueTypeIds the list of issue type ids
+     * @return the builder instance
+     */
+    public T setIssueTypeIds(List<String> issueTypeIds) {
+        if (!issueTypeIds.isEmpty()) {
+            query.append(" AND ").append(JqlQueryFields.ISSUE_TYPE).append(" ").append(JqlQueryFields.IN)
+                    .append(" (").append(String.join(", ", issueTypeIds)).append(")");
+        }
+        return self();
+    }
+
+    /**
+     * Restricts the JQL query to issues with ids in the given range, e.g. {@code id >= 10000 AND id < 20000}.
+     * <p>
+     * Issue ids grow with creation, so id ranges slice a project by age. Unlike date clauses, which JQL only
+     * knows to the minute and reads in the time zone of the JIRA user, id bounds are exact, so adjacent ranges
+     * never share an issue.
+     *
+     * @param fromId the inclusive lower bound, or {@link Long#MIN_VALUE} for none
+     * @param toId the exclusive upper bound, or {@link Long#MAX_VALUE} for none
+     * @return the builder instance
+     */
+    public T setIdRange(long fromId, long toId) {
+        if (fromId != Long.MIN_VALUE) {
+            query.append(" AND ").append(JqlQueryFields.ID).append(" >= ").append(fromId);
+        }
+        if (toId != Long.MAX_VALUE) {
+            query.append(" AND ").append(JqlQueryFields.ID).append(" < ").append(toId);
+        }
+        return self();
+    }
+
     /**
      * Sets the order by field for the JQL query.
      *
@@ -2,6 +2,10 @@ package io.getint.recruitment_task.client.jira.builders;
 
 import io.getint.recruitment_task.client.jira.utils.JqlQueryFields;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 /**
  * Builder class for constructing JQL queries specifically for issues.
  */
@@ -17,6 +21,36 @@ public class IssueJqlQueryBuilder extends AbstractJqlQueryBuilder<IssueJqlQueryB
         return this;
     }
 
+    /**
+     * Restricts the JQL query to issues updated at or after the given time.
+     * <p>
+     * The bound is written relative to now ({@code updated >= "-90m"}), as absolute JQL dates are read in the
+     * time zone of the JIRA user. JQL only has minute precision, so the bound is rounded down by up to a minute
+     * and callers needing an exact bound filter the results themselves.
+     *
+     * @param updatedMillis the lower bound in epoch milliseconds
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the builder instance
+     */
+    public IssueJqlQueryBuilder setUpdatedSince(long updatedMillis, long nowMillis) {
+        long minutesAgo = TimeUnit.MILLISECONDS.toMinutes(Math.max(0, nowMillis - updatedMillis)) + 1;
+        query.append(" AND ").append(JqlQueryFields.UPDATED).append(" >= \"-").append(minutesAgo).append("m\"");
+        return self();
+    }
+
+    /**
+     * Restricts the JQL query to issues carrying any of the given labels. The labels are quoted, so they may
+     * contain characters reserved in JQL, such as {@code -}, but no double quotes.
+     *
+     * @param labels the labels, at least one
+     * @return the builder instance
+     */
+    public IssueJqlQueryBuilder setAnyLabel(List<String> labels) {
+        query.append(" AND ").append(JqlQueryFields.LABELS).append(" ").append(JqlQueryFields.IN).append(" (")
+                .append(labels.stream().map(label -> "\"" + label + "\"").collect(Collectors.joining(", "))).append(")");
+        return self();
+    }
+
     /**
      * Sets the order by created date for the JQL query.
      *
@@ -27,6 +61,16 @@ public class IssueJqlQueryBuilder extends AbstractJqlQueryBuilder<IssueJqlQueryB
         return setOrderBy(JqlQueryFields.CREATED, descending);
     }
 
+    /**
+     * Sets the order by issue id for the JQL query.
+     *
+     * @param descending true for descending order, false for ascending order
+     * @return the builder instance
+     */
+    public IssueJqlQueryBuilder setIdOrder(boolean descending) {
+        return setOrderBy(JqlQueryFields.ID, descending);
+    }
+
     /**
      * Sets the order by updated date for the JQL query.
      *
@@ -0,0 +1,137 @@
+package io.getint.recruitment_task.client.jira.chunking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sizes the bulk move chunks of a JIRA instance from how its recent bulk tasks went.
+ * <p>
+ * The time of a task is modelled as a cost per issue plus a cost per mapping key, where a key costs as much as
+ * {@code keyCostIssues} issues. After every finished task the size is set to what would finish within
+ * {@code targetTaskMs} at the recent cost and fan-out, growing by at most a factor of two per task, and is
+ * lowered further by the recent share of issues JIRA failed to move. A task that failed as a whole halves the
+ * size. The size always stays between {@code minSize} and {@code maxSize}, and never exceeds the
+ * {@value #JIRA_MAX_CHUNK_SIZE} issues JIRA accepts per bulk move.
+ * <p>
+ * Recent values are exponentially weighted moving averages, so a single slow task does not collapse the size.
+ */
+public class AdaptiveChunkSizer {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveChunkSizer.class);
+    public static final int JIRA_MAX_CHUNK_SIZE = 1000;
+    private static final double SMOOTHING = 0.3;
+
+    private final String name;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetTaskMs;
+    private final int maxMappingKeys;
+    private final int keyCostIssues;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double size;
+    private double millisPerUnit = Double.NaN;
+    private double keysPerIssue = Double.NaN;
+    private double failureRate;
+
+    /**
+     * Constructs a new sizer starting at the maximum size.
+     *
+     * @param name the name of the JIRA instance, used in logs
+     * @param minSize the minimum number of issues per chunk
+     * @param maxSize the maximum number of issues per chunk
+     * @param targetTaskMs the time a bulk task should take
+     * @param maxMappingKeys the maximum number of mapping keys per chunk
+     * @param keyCostIssues the number of issues a mapping key costs as much time as
+     */
+    public AdaptiveChunkSizer(String name, int minSize, int maxSize, long targetTaskMs, int maxMappingKeys, int keyCostIssues) {
+        this.name = name;
+        this.maxSize = Math.max(1, Math.min(maxSize, JIRA_MAX_CHUNK_SIZE));
+        this.minSize = Math.max(1, Math.min(minSize, this.maxSize));
+        this.targetTaskMs = targetTaskMs;
+        this.maxMappingKeys = Math.max(1, maxMappingKeys);
+        this.keyCostIssues = Math.max(0, keyCostIssues);
+        this.size = this.maxSize;
+    }
+
+    /**
+     * Returns the number of issues the next chunk should have at most.
+     *
+     * @return the current chunk size
+     */
+    public int getChunkSize() {
+        lock.lock();
+        try {
+            return (int) size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxChunkSize() {
+        return maxSize;
+    }
+
+    public int getMaxMappingKeys() {
+        return maxMappingKeys;
+    }
+
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return failureRate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts the size to a bulk task JIRA finished.
+     *
+     * @param issues the number of issues of the task
+     * @param mappingKeys the number of mapping keys of the task
+     * @param durationMs the time from submitting the task until it was reported as finished
+     * @param failedIssues the number of issues JIRA did not move
+     */
+    public void onTaskFinished(int issues, int mappingKeys, long durationMs, int failedIssues) {
+        if (issues <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            double units = issues + (double) keyCostIssues * mappingKeys;
+            millisPerUnit = smooth(millisPerUnit, Math.max(durationMs, 1) / units);
+            keysPerIssue = smooth(keysPerIssue, (double) mappingKeys / issues);
+            failureRate = smooth(failureRate, (double) failedIssues / issues);
+            double withinTarget = targetTaskMs / (millisPerUnit * (1 + keyCostIssues * keysPerIssue));
+            resize(Math.min(2 * size, withinTarget) * (1 - failureRate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Halves the size after a bulk task failed as a whole, e.g. because it timed out or JIRA rejected it.
+     */
+    public void onTaskFailed() {
+        lock.lock();
+        try {
+            failureRate = smooth(failureRate, 1);
+            resize(size / 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resize(double next) {
+        double clamped = Math.max(minSize, Math.min(maxSize, next));
+        if ((int) clamped != (int) size) {
+            log.debug("Bulk move chunk size of JIRA instance {} changed from {} to {}", name, (int) size, (int) clamped);
+        }
+        size = clamped;
+    }
+
+    private static double smooth(double average, double sample) {
+        return Double.isNaN(average) ? sample : average + SMOOTHING * (sample - average);
+    }
+}
@@ -0,0 +1,66 @@
+package io.getint.recruitment_task.client.jira.chunking;
+
+/**
+ * Outcome of {@link ChunkPlanner#plan}: an order of the pending issues and the chunks cut from its front.
+ * <p>
+ * Once the issues are rearranged in {@link #getOrder()}, the issues without a mapping key come first, followed
+ * by the planned chunks as consecutive ranges, followed by the issues kept back for a later plan, including the
+ * held ones.
+ */
+public final class ChunkPlan {
+    private final int[] order;
+    private final int skipped;
+    private final int held;
+    private final int[] chunkBounds;
+
+    ChunkPlan(int[] order, int skipped, int held, int[] chunkBounds) {
+        this.order = order;
+        this.skipped = skipped;
+        this.held = held;
+        this.chunkBounds = chunkBounds;
+    }
+
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the number of issues without a mapping key, which are at the front of the order and in no chunk.
+     *
+     * @return the number of skipped issues
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the number of issues marked as {@link ChunkPlanner#HELD}, which are kept back whether or not the
+     * plan flushes.
+     *
+     * @return the number of held issues
+     */
+    public int getHeld() {
+        return held;
+    }
+
+    public int getChunkCount() {
+        return chunkBounds.length - 1;
+    }
+
+    public int getChunkFrom(int chunk) {
+        return chunkBounds[chunk];
+    }
+
+    public int getChunkTo(int chunk) {
+        return chunkBounds[chunk + 1];
+    }
+
+    /**
+     * Returns the number of issues at the front of the order that were either skipped or planned into a chunk.
+     *
+     * @return the number of consumed issues
+     */
+    public int getConsumed() {
+        return chunkBounds[chunkBounds.length - 1];
+    }
+}
@@ -0,0 +1,182 @@
+package io.getint.recruitment_task.client.jira.chunking;
+
+import io.getint.recruitment_task.client.jira.search.LongInterner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cuts pending issues into bulk move chunks with as few mapping keys per chunk as possible.
+ * <p>
+ * Every mapping key of a chunk becomes an entry of its {@code targetToSourcesMapping}, which JIRA moves as an
+ * operation of its own, so a chunk of many keys takes much longer than a chunk of the same size with one key.
+ * The issues of each key are therefore kept together: a key with at least a chunk worth of issues fills whole
+ * chunks on its own, and the remainders of all keys are packed first-fit-decreasing into chunks of at most
+ * {@code maxMappingKeys} keys, never splitting a remainder across chunks.
+ * <p>
+ * While the search is still running, remainders are only packed into chunks which are nearly full or have
+ * reached the key limit; the others wait for more issues of their keys, unless twice a chunk worth of issues
+ * is already waiting. Issues marked as {@link #HELD}, e.g. subtasks waiting for their parent to be moved, are
+ * always kept back.
+ */
+public final class ChunkPlanner {
+    /**
+     * Key code of an issue that has a mapping key but must not be planned yet.
+     */
+    public static final int HELD = -2;
+    private static final double FULL_FRACTION = 0.9;
+
+    private ChunkPlanner() {
+    }
+
+    /**
+     * Plans the chunks of the given issues.
+     *
+     * @param keyCodes the mapping key code of each pending issue, {@link LongInterner#NO_CODE} to skip it or
+     *                 {@link #HELD} to keep it back
+     * @param chunkSize the maximum number of issues per chunk
+     * @param maxMappingKeys the maximum number of mapping keys per chunk
+     * @param flush true to plan all issues, false to keep back the issues that do not fill a chunk yet
+     * @return the plan
+     */
+    public static ChunkPlan plan(int[] keyCodes, int chunkSize, int maxMappingKeys, boolean flush) {
+        int count = keyCodes.length;
+        int keyCount = 0;
+        int skipped = 0;
+        int held = 0;
+        for (int keyCode : keyCodes) {
+            if (keyCode == LongInterner.NO_CODE) {
+                skipped++;
+            } else if (keyCode == HELD) {
+                held++;
+            } else {
+                keyCount = Math.max(keyCount, keyCode + 1);
+            }
+        }
+
+        // Counting sort of the issue indices by key, keeping the order of the issues of each key
+        int[] keyStart = new int[keyCount + 1];
+        for (int keyCode : keyCodes) {
+            if (keyCode >= 0) {
+                keyStart[keyCode + 1]++;
+            }
+        }
+        for (int key = 0; key < keyCount; key++) {
+            keyStart[key + 1] += keyStart[key];
+        }
+        int[] byKey = new int[count - skipped - held];
+        int[] filled = Arrays.copyOf(keyStart, keyCount);
+        for (int i = 0; i < count; i++) {
+            if (keyCodes[i] >= 0) {
+                byKey[filled[keyCodes[i]]++] = i;
+            }
+        }
+
+        List<Bin> chunks = new ArrayList<>();
+        List<Bin> bins = new ArrayList<>();
+        List<Integer> remainderKeys = new ArrayList<>();
+        for (int key = 0; key < keyCount; key++) {
+            int start = keyStart[key];
+            int end = keyStart[key + 1];
+            for (; end - start >= chunkSize; start += chunkSize) {
+                chunks.add(new Bin().add(start, start + chunkSize));
+            }
+            if (end > start) {
+                remainderKeys.add(key);
+            }
+        }
+        remainderKeys.sort(Comparator.comparingInt((Integer key) -> remainderOf(keyStart, key, chunkSize)).reversed());
+        for (int key : remainderKeys) {
+            int size = remainderOf(keyStart, key, chunkSize);
+            int start = keyStart[key + 1] - size;
+            Bin bin = bins.stream()
+                    .filter(candidate -> candidate.size + size <= chunkSize && candidate.keys < maxMappingKeys)
+                    .findFirst()
+                    .orElseGet(() -> {
+                        Bin opened = new Bin();
+                        bins.add(opened);
+                        return opened;
+                    });
+            bin.add(start, start + size);
+        }
+
+        if (flush) {
+            chunks.addAll(bins);
+        } else {
+            int waiting = 0;
+            List<Bin> open = new ArrayList<>();
+            for (Bin bin : bins) {
+                if (bin.size >= chunkSize * FULL_FRACTION || bin.keys >= maxMappingKeys) {
+                    chunks.add(bin);
+                } else {
+                    open.add(bin);
+                    waiting += bin.size;
+                }
+            }
+            open.sort(Comparator.comparingInt((Bin bin) -> bin.size).reversed());
+            if (waiting >= 2 * chunkSize) {
+                for (Bin bin : open) {
+                    if (waiting < chunkSize) {
+                        break;
+                    }
+                    chunks.add(bin);
+                    waiting -= bin.size;
+                }
+            }
+        }
+
+        int[] order = new int[count];
+        boolean[] placed = new boolean[count];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            if (keyCodes[i] == LongInterner.NO_CODE) {
+                order[position++] = i;
+                placed[i] = true;
+            }
+        }
+        int[] chunkBounds = new int[chunks.size() + 1];
+        chunkBounds[0] = position;
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            int[] ranges = chunks.get(chunk).ranges;
+            for (int range = 0; range < chunks.get(chunk).keys; range++) {
+                for (int j = ranges[2 * range]; j < ranges[2 * range + 1]; j++) {
+                    order[position++] = byKey[j];
+                    placed[byKey[j]] = true;
+                }
+            }
+            chunkBounds[chunk + 1] = position;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!placed[i]) {
+                order[position++] = i;
+            }
+        }
+        return new ChunkPlan(order, skipped, held, chunkBounds);
+    }
+
+    private static int remainderOf(int[] keyStart, int key, int chunkSize) {
+        return (keyStart[key + 1] - keyStart[key]) % chunkSize;
+    }
+
+    /**
+     * A chunk being packed: the ranges of {@code byKey} it holds, one per mapping key.
+     */
+    private static final class Bin {
+        private int[] ranges = new int[4];
+        private int keys;
+        private int size;
+
+        private Bin add(int from, int to) {
+            if (2 * keys + 2 > ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[2 * keys] = from;
+            ranges[2 * keys + 1] = to;
+            keys++;
+            size += to - from;
+            return this;
+        }
+    }
+}
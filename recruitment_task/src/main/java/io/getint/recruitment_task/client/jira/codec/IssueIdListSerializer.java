@@ -0,0 +1,45 @@
+package io.getint.recruitment_task.client.jira.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link IssueIdList} as a JSON array of id strings straight from its primitive ids.
+ */
+class IssueIdListSerializer extends StdSerializer<IssueIdList> {
+    private static final int MAX_LONG_DIGITS = 20;
+
+    IssueIdListSerializer() {
+        super(IssueIdList.class);
+    }
+
+    @Override
+    public void serialize(IssueIdList ids, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] digits = new char[MAX_LONG_DIGITS];
+        generator.writeStartArray(ids, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int start = formatId(ids.getId(i), digits);
+            generator.writeString(digits, start, digits.length - start);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes the decimal digits of a non-negative id right-aligned into the buffer.
+     *
+     * @return the index of the first digit
+     */
+    private static int formatId(long id, char[] digits) {
+        int position = digits.length;
+        long remaining = id;
+        do {
+            digits[--position] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        } while (remaining > 0);
+        return position;
+    }
+}
@@ -0,0 +1,153 @@
+package io.getint.recruitment_task.client.jira.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.getint.recruitment_task.client.jira.dto.BulkCreateIssuesRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.CommentDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.dto.TransitionRequestDto;
+import org.apache.http.HttpEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared JSON codec for all payloads exchanged with the JIRA API.
+ * <p>
+ * Holds a single tuned {@link ObjectMapper} together with pre-resolved writers, so serializers are looked up
+ * once per application instead of once per request.
+ */
+@Component
+public class JiraJsonCodec {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter bulkMoveWriter;
+    private final ObjectWriter bulkCreateWriter;
+    private final ObjectWriter commentWriter;
+    private final ObjectWriter transitionWriter;
+    private final boolean gzipRequests;
+
+    /**
+     * Constructs a new codec.
+     *
+     * @param gzipRequests true to gzip request payloads sent to JIRA
+     */
+    public JiraJsonCodec(@Value("${jira.api.gzipRequests:false}") boolean gzipRequests) {
+        this.gzipRequests = gzipRequests;
+        this.objectMapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE)
+                .registerModule(new SimpleModule("JiraPayloads").addSerializer(IssueIdList.class, new IssueIdListSerializer()));
+        this.objectMapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.bulkMoveWriter = objectMapper.writerFor(BulkMoveTasksRequestDto.class);
+        this.bulkCreateWriter = objectMapper.writerFor(BulkCreateIssuesRequestDto.class);
+        this.commentWriter = objectMapper.writerFor(CommentDto.class);
+        this.transitionWriter = objectMapper.writerFor(TransitionRequestDto.class);
+        // Resolves and caches the serializer of the map values ahead of the first request
+        this.objectMapper.canSerialize(BulkMoveTasksRequestDto.TargetToSourcesMapping.class);
+    }
+
+    /**
+     * Creates a streaming parser over a response body.
+     *
+     * @param content the response body stream
+     * @return a parser that closes the stream when it is closed itself
+     * @throws IOException if the parser cannot be created
+     */
+    public JsonParser createParser(InputStream content) throws IOException {
+        return objectMapper.getFactory().createParser(content);
+    }
+
+    /**
+     * Reads a response body into the given type.
+     *
+     * @param content the response body stream
+     * @param type the type to read
+     * @param <T> the type to read
+     * @return the decoded value
+     * @throws IOException if the body cannot be read or decoded
+     */
+    public <T> T read(InputStream content, Class<T> type) throws IOException {
+        return objectMapper.readValue(content, type);
+    }
+
+    /**
+     * Reads a JSON string into the given type.
+     *
+     * @param json the JSON to read
+     * @param type the type to read
+     * @param <T> the type to read
+     * @return the decoded value
+     * @throws JsonProcessingException if the JSON cannot be decoded
+     */
+    public <T> T read(String json, Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(json, type);
+    }
+
+    /**
+     * Creates a request entity streaming the given bulk move payload.
+     *
+     * @param requestDto the bulk move payload
+     * @return the request entity
+     */
+    public HttpEntity bulkMoveEntity(BulkMoveTasksRequestDto requestDto) {
+        return new JsonStreamingEntity(bulkMoveWriter, requestDto, gzipRequests);
+    }
+
+    /**
+     * Creates a request entity streaming the given bulk issue creation payload.
+     *
+     * @param requestDto the bulk creation payload
+     * @return the request entity
+     */
+    public HttpEntity bulkCreateEntity(BulkCreateIssuesRequestDto requestDto) {
+        return new JsonStreamingEntity(bulkCreateWriter, requestDto, gzipRequests);
+    }
+
+    /**
+     * Creates a request entity streaming the given comment.
+     *
+     * @param comment the comment to add
+     * @return the request entity
+     */
+    public HttpEntity commentEntity(CommentDto comment) {
+        return new JsonStreamingEntity(commentWriter, comment, gzipRequests);
+    }
+
+    /**
+     * Creates a request entity streaming the given transition.
+     *
+     * @param transition the transition to perform
+     * @return the request entity
+     */
+    public HttpEntity transitionEntity(TransitionRequestDto transition) {
+        return new JsonStreamingEntity(transitionWriter, transition, gzipRequests);
+    }
+
+    /**
+     * Serializes the given bulk move payload into a String. Intended for diagnostics only.
+     *
+     * @param requestDto the bulk move payload
+     * @return the JSON representation of the payload
+     * @throws JsonProcessingException if the payload cannot be serialized
+     */
+    public String writeBulkMoveAsString(BulkMoveTasksRequestDto requestDto) throws JsonProcessingException {
+        return bulkMoveWriter.writeValueAsString(requestDto);
+    }
+
+    /**
+     * Returns the shared object mapper for payloads without a dedicated writer.
+     *
+     * @return the shared object mapper
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
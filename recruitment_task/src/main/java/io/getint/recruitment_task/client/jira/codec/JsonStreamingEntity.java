@@ -0,0 +1,84 @@
+package io.getint.recruitment_task.client.jira.codec;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP entity serializing a value as JSON directly into the connection output stream.
+ * <p>
+ * The payload is never held in memory as a whole; it is sent with chunked transfer encoding and can
+ * optionally be gzip compressed on the fly. Serialization is repeated for every write, so the entity
+ * stays repeatable and can be resent on retry.
+ */
+public class JsonStreamingEntity extends AbstractHttpEntity {
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final ObjectWriter writer;
+    private final Object value;
+    private final boolean gzip;
+
+    /**
+     * Constructs a new entity.
+     *
+     * @param writer the writer used to serialize the value
+     * @param value the value to serialize
+     * @param gzip true to compress the payload with gzip
+     */
+    public JsonStreamingEntity(ObjectWriter writer, Object value, boolean gzip) {
+        this.writer = writer;
+        this.value = value;
+        this.gzip = gzip;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+        if (gzip) {
+            setContentEncoding(GZIP);
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Serializes the payload into memory. Only used by callers that need the entity as an input stream;
+     * requests sent by the HTTP client go through {@link #writeTo(OutputStream)}.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writeTo(buffer);
+        return new ByteArrayInputStream(buffer.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (gzip) {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(outStream, GZIP_BUFFER_SIZE);
+            writer.writeValue(gzipStream, value);
+            gzipStream.finish();
+        } else {
+            writer.writeValue(outStream, value);
+        }
+        outStream.flush();
+    }
+}
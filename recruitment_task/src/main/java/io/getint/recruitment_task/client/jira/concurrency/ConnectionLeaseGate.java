@@ -0,0 +1,85 @@
+package io.getint.recruitment_task.client.jira.concurrency;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraConnectionPoolExhaustedException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits requests to the blocking JIRA HTTP client only while its connection pool has a free connection.
+ * <p>
+ * The pool of HttpClient 4 waits for a free connection while holding a monitor, which pins the carrier thread
+ * of a virtual thread for as long as the pool is exhausted. When running on virtual threads, requests
+ * therefore wait on this fair semaphore instead, so that the pool never has to block. All requests go to the
+ * single JIRA route, so the semaphore holds as many permits as that route may have connections. On platform
+ * threads the gate is open and the pool keeps doing the waiting.
+ * <p>
+ * Running out of connections is local saturation, not a sign of an unhealthy JIRA, so a timeout is reported as
+ * {@link JiraConnectionPoolExhaustedException}, which neither is retried nor counts against the circuit breaker.
+ */
+@Component
+public class ConnectionLeaseGate {
+    private static final ConnectionLeaseGate OPEN = new ConnectionLeaseGate(new JiraThreading(false), 1, 1, 0);
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    /**
+     * Constructs a new gate matching the connection pool of the blocking client.
+     *
+     * @param threading the threading mode of the application
+     * @param maxTotalConnections the maximum number of connections of the pool
+     * @param maxConnectionsPerRoute the maximum number of connections per route
+     * @param connectionRequestTimeoutMs how long a request waits for a connection before failing
+     */
+    public ConnectionLeaseGate(JiraThreading threading,
+                               @Value("${jira.api.maxTotalConnections}") int maxTotalConnections,
+                               @Value("${jira.api.maxConnectionsPerRoute}") int maxConnectionsPerRoute,
+                               @Value("${jira.api.connectionRequestTimeoutMs}") long connectionRequestTimeoutMs) {
+        this.permits = threading.isVirtual() ? new Semaphore(Math.min(maxTotalConnections, maxConnectionsPerRoute), true) : null;
+        this.timeoutMillis = connectionRequestTimeoutMs;
+    }
+
+    /**
+     * Returns a gate which admits every request right away.
+     *
+     * @return the open gate
+     */
+    public static ConnectionLeaseGate open() {
+        return OPEN;
+    }
+
+    /**
+     * Waits until a connection is free; every successful call must be matched by {@link #release()}.
+     *
+     * @throws JiraConnectionPoolExhaustedException if no connection became free within the connection request timeout
+     * @throws JiraClientException if the thread is interrupted while waiting
+     */
+    public void acquire() throws JiraClientException {
+        if (permits == null) {
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new JiraConnectionPoolExhaustedException("No JIRA connection became free within " + timeoutMillis + " ms",
+                        new ConnectionPoolTimeoutException("Timeout waiting for connection from pool"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while waiting for a JIRA connection", e);
+        }
+    }
+
+    /**
+     * Hands back the connection taken by {@link #acquire()}.
+     */
+    public void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+}
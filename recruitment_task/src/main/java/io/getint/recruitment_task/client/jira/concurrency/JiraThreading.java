@@ -0,0 +1,107 @@
+package io.getint.recruitment_task.client.jira.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Decides whether blocking work runs on platform or on virtual threads and creates the executors for it.
+ * <p>
+ * Virtual threads are opted into with {@code jira.threads.virtual} and need a Java 21 runtime. The project is
+ * still built for Java 17, so they are created reflectively; on an older runtime the setting is ignored with a
+ * warning and platform threads are used.
+ */
+@Component
+public class JiraThreading {
+    private static final Logger log = LoggerFactory.getLogger(JiraThreading.class);
+    static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+
+    private final boolean virtual;
+
+    /**
+     * Constructs a new JiraThreading.
+     *
+     * @param virtualRequested whether blocking work should run on virtual threads
+     */
+    public JiraThreading(@Value("${jira.threads.virtual}") boolean virtualRequested) {
+        this.virtual = virtualRequested && supportsVirtualThreads();
+        if (virtualRequested && !virtual) {
+            log.warn("Virtual threads need Java {} or later, running on platform threads under Java {}",
+                    VIRTUAL_THREADS_FEATURE_VERSION, Runtime.version());
+        } else if (virtual) {
+            log.info("Running sync jobs, JIRA I/O and web requests on virtual threads");
+        }
+    }
+
+    /**
+     * Tells whether the running JVM can create virtual threads.
+     *
+     * @return true on Java 21 or later
+     */
+    public static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE_VERSION;
+    }
+
+    /**
+     * Tells whether blocking work runs on virtual threads.
+     *
+     * @return true if virtual threads were requested and are supported
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Creates a factory of threads named with the given prefix: virtual threads, or daemon platform threads.
+     *
+     * @param prefix the prefix of the thread names
+     * @return the thread factory
+     */
+    public ThreadFactory threadFactory(String prefix) {
+        return virtual ? virtualThreadFactory(prefix) : platformThreadFactory(prefix);
+    }
+
+    /**
+     * Creates an executor for blocking work: a new virtual thread per task, or a fixed pool of the given number of
+     * platform threads, further tasks waiting in its queue. Virtual threads are never pooled, so the number of
+     * platform threads does not limit how many tasks run at the same time on them.
+     *
+     * @param prefix the prefix of the thread names
+     * @param platformThreads the number of threads used when running on platform threads
+     * @return the executor
+     */
+    public ExecutorService newTaskExecutor(String prefix, int platformThreads) {
+        if (!virtual) {
+            return Executors.newFixedThreadPool(platformThreads, platformThreadFactory(prefix));
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, virtualThreadFactory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create a virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create a virtual thread factory", e);
+        }
+    }
+}
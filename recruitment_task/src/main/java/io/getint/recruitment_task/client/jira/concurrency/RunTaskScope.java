@@ -0,0 +1,114 @@
+package io.getint.recruitment_task.client.jira.concurrency;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor owning the background tasks of a single sync run, such as prefetching search pages and tracking
+ * bulk tasks, in the spirit of a structured task scope.
+ * <p>
+ * Tasks run on the shared executor the scope wraps. Closing the scope rejects new tasks, interrupts the tasks
+ * still running and waits until every task forked in the scope has ended, so no work of a run outlives it.
+ * Locks and conditions are used instead of monitors, so waiting does not pin the carrier of a virtual thread.
+ */
+public class RunTaskScope implements Executor, AutoCloseable {
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition allEnded = lock.newCondition();
+    private final Set<Thread> runners = new HashSet<>();
+    private int unfinishedTasks;
+    private boolean closed;
+
+    /**
+     * Constructs a new scope.
+     *
+     * @param executor the executor running the tasks of the scope
+     */
+    public RunTaskScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Forks a task in this scope.
+     *
+     * @param task the task to run
+     * @throws RejectedExecutionException if the scope is closed or the underlying executor rejects the task
+     */
+    @Override
+    public void execute(Runnable task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Task scope of the sync run is closed");
+            }
+            unfinishedTasks++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            onTaskEnded(null);
+            throw e;
+        }
+    }
+
+    /**
+     * Rejects new tasks, interrupts the running ones and waits until all tasks of the scope have ended.
+     * If the closing thread is interrupted, it stops waiting and keeps its interrupt flag set.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            runners.forEach(Thread::interrupt);
+            while (unfinishedTasks > 0) {
+                allEnded.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Runnable task) {
+        Thread thread = Thread.currentThread();
+        lock.lock();
+        try {
+            if (closed) {
+                unfinishedTasks--;
+                allEnded.signalAll();
+                return;
+            }
+            runners.add(thread);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            task.run();
+        } finally {
+            onTaskEnded(thread);
+        }
+    }
+
+    private void onTaskEnded(Thread thread) {
+        lock.lock();
+        try {
+            if (thread != null) {
+                runners.remove(thread);
+                // A pooled thread must not carry an interrupt meant for this task into its next task
+                Thread.interrupted();
+            }
+            unfinishedTasks--;
+            allEnded.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.getint.recruitment_task.client.jira.concurrency;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Opens the {@link RunTaskScope} of every sync run on the shared JIRA I/O executor.
+ */
+@Component
+public class RunTaskScopes {
+    private final Executor ioExecutor;
+
+    /**
+     * Constructs a new RunTaskScopes.
+     *
+     * @param ioExecutor the executor running the background JIRA I/O of all runs
+     */
+    public RunTaskScopes(@Qualifier("jiraIoExecutor") Executor ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Opens the scope of a new run; it must be closed when the run ends.
+     *
+     * @return the new scope
+     */
+    public RunTaskScope open() {
+        return new RunTaskScope(ioExecutor);
+    }
+}
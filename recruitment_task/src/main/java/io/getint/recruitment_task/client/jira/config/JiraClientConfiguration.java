@@ -1,5 +1,9 @@
 package io.getint.recruitment_task.client.jira.config;
 
+import io.getint.recruitment_task.client.jira.concurrency.JiraThreading;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
 import org.apache.http.*;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.protocol.RequestAcceptEncoding;
@@ -7,12 +11,23 @@ import org.apache.http.client.protocol.ResponseContentEncoding;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Configuration class for setting up the JIRA HTTP client.
@@ -41,43 +56,214 @@ public class JiraClientConfiguration {
     @Value("${jira.api.maxConnectionsPerRoute}")
     private int maxConnectionsPerRoute;
 
+    @Value("${jira.api.ioThreads}")
+    private int ioThreads;
+
+    @Value("${jira.api.reactorThreads}")
+    private int reactorThreads;
+
+    /**
+     * Bean definition for the connection pool of the JIRA HTTP client.
+     *
+     * @return a {@link PoolingHttpClientConnectionManager} sized from the configuration
+     */
+    @Bean(name = "jiraConnectionManager")
+    public PoolingHttpClientConnectionManager jiraConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * Bean definition exposing the leased, available and pending connections of the JIRA connection pool
+     * as {@code httpcomponents.httpclient.pool.*} gauges tagged {@code httpclient=jira} and {@code instance=default}.
+     * The pools of named instances are bound by {@code JiraInstanceRegistry} with their own instance tag.
+     *
+     * @param connectionManager the connection pool of the JIRA HTTP client
+     * @return the binder registering the pool gauges
+     */
+    @Bean
+    public MeterBinder jiraConnectionPoolMetrics(@Qualifier("jiraConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "jira",
+                JiraInstanceRegistry.INSTANCE_TAG, JiraInstanceRegistry.DEFAULT_INSTANCE);
+    }
+
     /**
      * Bean definition for the JIRA HTTP client.
      *
+     * @param connectionManager the connection pool of the client
      * @return a configured {@link CloseableHttpClient} instance
      */
     @Bean(name = "jiraHttpClient")
-    public CloseableHttpClient jiraHttpClient() {
-        RequestConfig requestConfig = RequestConfig.custom()
-                .setConnectTimeout(connectTimeoutMs)
-                .setSocketTimeout(socketTimeoutMs)
-                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+    public CloseableHttpClient jiraHttpClient(@Qualifier("jiraConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return newHttpClient(connectionManager, requestConfig(connectTimeoutMs, socketTimeoutMs, connectionRequestTimeoutMs),
+                jiraApiUsername, jiraApiToken);
+    }
+
+    /**
+     * Builds a blocking JIRA HTTP client on the given connection pool, decoding compressed responses and
+     * authorizing every request with the given credentials.
+     *
+     * @param connectionManager the connection pool of the client
+     * @param requestConfig the timeouts of the client, see {@link #requestConfig(int, int, int)}
+     * @param username the name of the JIRA user
+     * @param token the API token of the JIRA user
+     * @return the new client
+     */
+    public static CloseableHttpClient newHttpClient(PoolingHttpClientConnectionManager connectionManager, RequestConfig requestConfig,
+                                                    String username, String token) {
+        return HttpClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionManager(connectionManager)
+                .addInterceptorFirst(new RequestAcceptEncoding())
+                .addInterceptorFirst(new ResponseContentEncoding())
+                .addInterceptorFirst(authorization(username, token))
                 .build();
+    }
 
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    /**
+     * Bean definition for the connection pool of the non-blocking JIRA HTTP client. It has the same limits as
+     * the pool of the blocking client; all of its connections are served by {@code jira.api.reactorThreads}
+     * I/O dispatcher threads.
+     *
+     * @return a {@link PoolingNHttpClientConnectionManager} sized from the configuration
+     * @throws IOReactorException if the I/O reactor cannot be created
+     */
+    @Bean(name = "jiraAsyncConnectionManager")
+    public PoolingNHttpClientConnectionManager jiraAsyncConnectionManager() throws IOReactorException {
+        return newAsyncConnectionManager(reactorThreads, connectTimeoutMs, socketTimeoutMs, maxTotalConnections, maxConnectionsPerRoute);
+    }
+
+    /**
+     * Builds the connection pool of a non-blocking JIRA HTTP client, served by its own I/O reactor.
+     *
+     * @param reactorThreads the number of I/O dispatcher threads of the reactor
+     * @param connectTimeoutMs how long to wait for a connection to be established
+     * @param socketTimeoutMs how long to wait for data on an established connection
+     * @param maxTotalConnections the maximum number of connections of the pool
+     * @param maxConnectionsPerRoute the maximum number of connections per route
+     * @return the new connection pool
+     * @throws IOReactorException if the I/O reactor cannot be created
+     */
+    public static PoolingNHttpClientConnectionManager newAsyncConnectionManager(int reactorThreads, int connectTimeoutMs, int socketTimeoutMs,
+                                                                                int maxTotalConnections, int maxConnectionsPerRoute)
+            throws IOReactorException {
+        IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(reactorThreads)
+                .setConnectTimeout(connectTimeoutMs)
+                .setSoTimeout(socketTimeoutMs)
+                .build();
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig));
         connectionManager.setMaxTotal(maxTotalConnections);
         connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
 
-        return HttpClients.custom()
+    /**
+     * Bean definition exposing the connection pool gauges of the non-blocking client, tagged {@code httpclient=jira-async}
+     * and {@code instance=default}.
+     *
+     * @param connectionManager the connection pool of the non-blocking JIRA HTTP client
+     * @return the binder registering the pool gauges
+     */
+    @Bean
+    public MeterBinder jiraAsyncConnectionPoolMetrics(@Qualifier("jiraAsyncConnectionManager") PoolingNHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "jira-async",
+                JiraInstanceRegistry.INSTANCE_TAG, JiraInstanceRegistry.DEFAULT_INSTANCE);
+    }
+
+    /**
+     * Bean definition for the non-blocking JIRA HTTP client, sharing the timeouts and authorization of the
+     * blocking one. The client is started right away and closed with the context.
+     * <p>
+     * Compressed responses are requested, but not decoded by the client; {@code AsyncJiraProxy} does that.
+     *
+     * @param connectionManager the connection pool of the client
+     * @return a started {@link CloseableHttpAsyncClient} instance
+     */
+    @Bean(name = "jiraHttpAsyncClient", destroyMethod = "close")
+    public CloseableHttpAsyncClient jiraHttpAsyncClient(@Qualifier("jiraAsyncConnectionManager") PoolingNHttpClientConnectionManager connectionManager) {
+        return newHttpAsyncClient(connectionManager, requestConfig(connectTimeoutMs, socketTimeoutMs, connectionRequestTimeoutMs),
+                jiraApiUsername, jiraApiToken);
+    }
+
+    /**
+     * Builds and starts a non-blocking JIRA HTTP client on the given connection pool, requesting compressed
+     * responses and authorizing every request with the given credentials.
+     *
+     * @param connectionManager the connection pool of the client
+     * @param requestConfig the timeouts of the client, see {@link #requestConfig(int, int, int)}
+     * @param username the name of the JIRA user
+     * @param token the API token of the JIRA user
+     * @return the started client
+     */
+    public static CloseableHttpAsyncClient newHttpAsyncClient(PoolingNHttpClientConnectionManager connectionManager, RequestConfig requestConfig,
+                                                              String username, String token) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
                 .setDefaultRequestConfig(requestConfig)
                 .setConnectionManager(connectionManager)
                 .addInterceptorFirst(new RequestAcceptEncoding())
-                .addInterceptorFirst(new ResponseContentEncoding())
-                .addInterceptorFirst(this::addAuthorizationHeader)
+                .addInterceptorFirst(authorization(username, token))
+                .build();
+        client.start();
+        return client;
+    }
+
+    /**
+     * Bean definition for the executor running background JIRA I/O, such as prefetching search pages.
+     *
+     * @param threading the threading mode of the application
+     * @return a fixed size {@link ExecutorService} with daemon threads, or a virtual thread per task
+     */
+    @Bean(name = "jiraIoExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService jiraIoExecutor(JiraThreading threading) {
+        return threading.newTaskExecutor("jira-io-", ioThreads);
+    }
+
+    /**
+     * Bean definition for the scheduler timing delayed JIRA work, such as polling queued bulk tasks.
+     * The scheduled actions only hand work over to {@code jiraIoExecutor}, so a single thread is enough.
+     *
+     * @return a single threaded {@link ScheduledExecutorService} with a daemon thread
+     */
+    @Bean(name = "jiraScheduler", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService jiraScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("jira-scheduler-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Builds the timeouts of a JIRA HTTP client.
+     *
+     * @param connectTimeoutMs how long to wait for a connection to be established
+     * @param socketTimeoutMs how long to wait for data on an established connection
+     * @param connectionRequestTimeoutMs how long to wait for a free connection of the pool
+     * @return the request configuration
+     */
+    public static RequestConfig requestConfig(int connectTimeoutMs, int socketTimeoutMs, int connectionRequestTimeoutMs) {
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(socketTimeoutMs)
+                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
                 .build();
     }
 
     /**
-     * Adds the authorization header to the HTTP request.
+     * Creates the interceptor adding the authorization header to every HTTP request.
      *
-     * @param request the HTTP request
-     * @param context the HTTP context
+     * @param username the name of the JIRA user
+     * @param token the API token of the JIRA user
+     * @return the interceptor
      */
-    private void addAuthorizationHeader(HttpRequest request, HttpContext context) {
-        String auth = jiraApiUsername + ":" + jiraApiToken;
+    private static HttpRequestInterceptor authorization(String username, String token) {
+        String auth = username + ":" + token;
         String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
         String authHeader = "Basic " + encodedAuth;
-        request.addHeader(HttpHeaders.AUTHORIZATION, authHeader);
-        request.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+        return (HttpRequest request, HttpContext context) -> {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authHeader);
+            request.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+        };
     }
 }
\ No newline at end of file
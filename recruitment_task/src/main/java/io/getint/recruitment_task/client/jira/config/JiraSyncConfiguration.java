@@ -0,0 +1,49 @@
+package io.getint.recruitment_task.client.jira.config;
+
+import io.getint.recruitment_task.client.jira.concurrency.JiraThreading;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration class for the executors running sync jobs and web requests.
+ */
+@Configuration
+public class JiraSyncConfiguration {
+
+    /**
+     * Bean definition for the executor running sync jobs submitted through the job API.
+     * <p>
+     * Every admitted job starts right away, so that the bulk task slots, not the order of submission, decide how
+     * the jobs share JIRA. On platform threads the pool therefore has a thread for every job the sync backlog
+     * ({@code jira.sync.maxBacklog}) can hold; on virtual threads every job gets a thread of its own.
+     *
+     * @param threading the threading mode of the application
+     * @param maxBacklog the maximum number of queued and running jobs
+     * @return the {@link ExecutorService} running the jobs
+     */
+    @Bean(name = "jiraSyncExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService jiraSyncExecutor(JiraThreading threading, @Value("${jira.sync.maxBacklog}") int maxBacklog) {
+        return threading.newTaskExecutor("jira-sync-", maxBacklog);
+    }
+
+    /**
+     * Bean definition handing Tomcat request processing to a virtual thread per request when running on
+     * virtual threads. Tomcat keeps its own worker pool otherwise.
+     *
+     * @param threading the threading mode of the application
+     * @return the customizer of the Tomcat protocol handler
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(JiraThreading threading) {
+        return protocolHandler -> {
+            if (threading.isVirtual()) {
+                protocolHandler.setExecutor(threading.newTaskExecutor("http-vt-", 0));
+            }
+        };
+    }
+}
@@ -1,14 +1,28 @@
 package io.getint.recruitment_task.client.jira.controllers;
 
-import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
-import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.dto.JiraClientStatsDto;
+import io.getint.recruitment_task.client.jira.dto.SyncBatchDto;
+import io.getint.recruitment_task.client.jira.dto.SyncBatchRequest;
+import io.getint.recruitment_task.client.jira.dto.SyncJobDto;
+import io.getint.recruitment_task.client.jira.dto.SyncMode;
+import io.getint.recruitment_task.client.jira.dto.SyncProgressDto;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import io.getint.recruitment_task.client.jira.exceptions.SyncBacklogFullException;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.instances.JiraInstance;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.jobs.SyncJob;
+import io.getint.recruitment_task.client.jira.jobs.SyncJobService;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
 import lombok.AllArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 
@@ -16,33 +30,224 @@ import java.util.List;
 @RequestMapping("/api/jira")
 @AllArgsConstructor
 public class JiraController {
-    private static final Logger log = LoggerFactory.getLogger(JiraController.class);
 
-    private final JiraSynchronizer jiraSynchronizer;
+    private final SyncJobService syncJobService;
+    private final MovedIssueIndex movedIssueIndex;
+    private final JiraInstanceRegistry instanceRegistry;
 
     /**
      * Endpoint to synchronize tasks from one Jira project to another.
+     * <p>
+     * The synchronization runs as a background job; the response only carries the job id and its location.
      *
      * @param sourceProjectKey Key of the source project from which to move tasks.
      * @param targetProjectKey Key of the target project to which tasks are moved.
      * @param maxIssuesToMove Maximum number of issues to move.
      * @param issueTypeNames List of issue types to be moved (optional).
-     * @return ResponseEntity with status and message.
+     * @param incremental Whether to sync only issues updated since the previous incremental run (optional).
+     * @param instance Name of the Jira instance holding both projects (optional, the default instance if omitted).
+     * @param mode Whether to move the issues or to recreate them in the target project (optional, MOVE if omitted).
+     * @return ResponseEntity with status 202 and the submitted job, 400 if maxIssuesToMove is not positive, the
+     * instance is unknown or an incremental copy is requested, or 429 if the sync backlog is full.
      */
     @PostMapping("/sync-tasks")
-    public ResponseEntity<String> syncTasks(@RequestParam String sourceProjectKey,
-                                            @RequestParam String targetProjectKey,
-                                            @RequestParam int maxIssuesToMove,
-                                            @RequestParam(required = false) List<String> issueTypeNames) {
+    public ResponseEntity<SyncJobDto> syncTasks(@RequestParam String sourceProjectKey,
+                                                @RequestParam String targetProjectKey,
+                                                @RequestParam int maxIssuesToMove,
+                                                @RequestParam(required = false) List<String> issueTypeNames,
+                                                @RequestParam(defaultValue = "false") boolean incremental,
+                                                @RequestParam(required = false) String instance,
+                                                @RequestParam(defaultValue = "MOVE") SyncMode mode) {
+        if (maxIssuesToMove <= 0 || !instanceRegistry.isConfigured(instance) || (incremental && mode == SyncMode.COPY)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (issueTypeNames == null) {
+            issueTypeNames = Collections.emptyList();
+        }
+        SyncJob job;
+        try {
+            job = syncJobService.submit(SyncTasksRequest.builder()
+                    .sourceProjectKey(sourceProjectKey)
+                    .targetProjectKey(targetProjectKey)
+                    .maxIssuesToMove(maxIssuesToMove)
+                    .issueTypeNames(issueTypeNames)
+                    .incremental(incremental)
+                    .instance(instance)
+                    .mode(mode)
+                    .build());
+        } catch (SyncBacklogFullException e) {
+            return backlogFull(e);
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(toDto(job));
+    }
+
+    /**
+     * Endpoint to synchronize several pairs of Jira projects at once.
+     * <p>
+     * Every pair runs as a job of its own, sharing the bulk task slots with all other jobs in proportion to its
+     * weight, so that a large project does not starve the others. Either all pairs are admitted or none.
+     *
+     * @param batch Project pairs with their issue type filters, limits, weights and Jira instances.
+     * @return ResponseEntity with status 202 and the submitted jobs, 400 if a pair is incomplete or names an
+     * unknown instance, or 429 if the
+     * sync backlog cannot take all pairs.
+     */
+    @PostMapping("/sync-batches")
+    public ResponseEntity<SyncBatchDto> syncBatch(@RequestBody SyncBatchRequest batch) {
+        List<SyncTasksRequest> requests = batch.getSyncs() == null ? List.of() : batch.getSyncs();
+        if (requests.isEmpty() || !requests.stream().allMatch(this::isComplete)) {
+            return ResponseEntity.badRequest().build();
+        }
+        requests.stream()
+                .filter(request -> request.getIssueTypeNames() == null)
+                .forEach(request -> request.setIssueTypeNames(Collections.emptyList()));
         try {
-            if (issueTypeNames == null) {
-                issueTypeNames = Collections.emptyList();
+            List<SyncJob> jobs = syncJobService.submitAll(requests);
+            return ResponseEntity.accepted().body(SyncBatchDto.builder()
+                    .jobs(jobs.stream().map(this::toDto).toList())
+                    .build());
+        } catch (SyncBacklogFullException e) {
+            return backlogFull(e);
+        }
+    }
+
+    /**
+     * Endpoint returning the status and progress of a synchronization job.
+     *
+     * @param jobId Id of the job.
+     * @return ResponseEntity with the job, or 404 if the job is unknown.
+     */
+    @GetMapping("/sync-tasks/{jobId}")
+    public ResponseEntity<SyncJobDto> getSyncJob(@PathVariable String jobId) {
+        return ResponseEntity.of(syncJobService.find(jobId).map(this::toDto));
+    }
+
+    /**
+     * Endpoint returning only the progress counters of a synchronization job.
+     *
+     * @param jobId Id of the job.
+     * @return ResponseEntity with the progress, or 404 if the job is unknown.
+     */
+    @GetMapping("/sync-tasks/{jobId}/progress")
+    public ResponseEntity<SyncProgressDto> getSyncJobProgress(@PathVariable String jobId) {
+        return ResponseEntity.of(syncJobService.find(jobId).map(this::toProgressDto));
+    }
+
+    /**
+     * Endpoint to cancel a synchronization job.
+     *
+     * @param jobId Id of the job.
+     * @return ResponseEntity with the job, or 404 if the job is unknown.
+     */
+    @DeleteMapping("/sync-tasks/{jobId}")
+    public ResponseEntity<SyncJobDto> cancelSyncJob(@PathVariable String jobId) {
+        return ResponseEntity.of(syncJobService.cancel(jobId).map(this::toDto));
+    }
+
+    /**
+     * Endpoint returning the retry, circuit breaker and rate limit counters of the JIRA client.
+     *
+     * @param instance Name of the Jira instance (optional, the default instance if omitted).
+     * @return ResponseEntity with the client statistics, or 400 if the instance is unknown.
+     */
+    @GetMapping("/client-stats")
+    public ResponseEntity<JiraClientStatsDto> getClientStats(@RequestParam(required = false) String instance) {
+        if (!instanceRegistry.isConfigured(instance)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (JiraInstanceRegistry.Lease lease = instanceRegistry.lease(instance)) {
+            return ResponseEntity.ok(lease.getInstance().getProxy().getClientStats());
+        }
+    }
+
+    /**
+     * Endpoint to drop cached project metadata, e.g. after issue types or workflows were changed in JIRA.
+     *
+     * @param projectKey Key of the project whose metadata to drop (optional, all projects if missing).
+     * @param instance Name of the Jira instance holding the project (optional, the default instance if omitted).
+     * @return ResponseEntity with status 204, or 400 if the instance is unknown.
+     */
+    @DeleteMapping("/metadata-cache")
+    public ResponseEntity<Void> invalidateMetadataCache(@RequestParam(required = false) String projectKey,
+                                                        @RequestParam(required = false) String instance) {
+        if (!instanceRegistry.isConfigured(instance)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (JiraInstanceRegistry.Lease lease = instanceRegistry.lease(instance)) {
+            JiraMetadataCache metadataCache = lease.getInstance().getMetadataCache();
+            if (projectKey == null) {
+                metadataCache.invalidateAll();
+            } else {
+                metadataCache.invalidate(projectKey);
             }
-            jiraSynchronizer.moveTasksToOtherProject(sourceProjectKey, targetProjectKey, maxIssuesToMove, issueTypeNames);
-            return ResponseEntity.ok("Tasks synchronization initiated successfully.");
-        } catch (JiraClientException e) {
-            log.error("Error during tasks synchronization", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to synchronize tasks: " + e.getMessage());
         }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint to forget which issues were already moved between two projects, e.g. after moving them back.
+     *
+     * @param sourceProjectKey Key of the source project.
+     * @param targetProjectKey Key of the target project.
+     * @param instance Name of the Jira instance holding both projects (optional, the default instance if omitted).
+     * @return ResponseEntity with status 204, or 400 if the instance is unknown.
+     */
+    @DeleteMapping("/moved-index")
+    public ResponseEntity<Void> clearMovedIndex(@RequestParam String sourceProjectKey,
+                                                @RequestParam String targetProjectKey,
+                                                @RequestParam(required = false) String instance) {
+        if (!instanceRegistry.isConfigured(instance)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (JiraInstanceRegistry.Lease lease = instanceRegistry.lease(instance)) {
+            JiraInstance jiraInstance = lease.getInstance();
+            movedIssueIndex.clear(jiraInstance.qualify(sourceProjectKey), jiraInstance.qualify(targetProjectKey));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isComplete(SyncTasksRequest request) {
+        return request.getSourceProjectKey() != null && request.getTargetProjectKey() != null
+                && request.getMaxIssuesToMove() > 0 && request.getWeight() > 0
+                && instanceRegistry.isConfigured(request.getInstance())
+                && !(request.isIncremental() && request.getMode() == SyncMode.COPY);
+    }
+
+    private static <T> ResponseEntity<T> backlogFull(SyncBacklogFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .build();
+    }
+
+    private SyncJobDto toDto(SyncJob job) {
+        return SyncJobDto.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .sourceProjectKey(job.getRequest().getSourceProjectKey())
+                .targetProjectKey(job.getRequest().getTargetProjectKey())
+                .createdAt(job.getCreatedAtMillis())
+                .startedAt(job.getStartedAtMillis())
+                .finishedAt(job.getFinishedAtMillis())
+                .error(job.getError())
+                .progress(toProgressDto(job))
+                .build();
+    }
+
+    private SyncProgressDto toProgressDto(SyncJob job) {
+        SyncProgress progress = job.getProgress();
+        long elapsedMs = job.getElapsedMillis();
+        return SyncProgressDto.builder()
+                .issuesFetched(progress.getIssuesFetched())
+                .chunksSubmitted(progress.getChunksSubmitted())
+                .chunksCompleted(progress.getChunksCompleted())
+                .issuesMoved(progress.getIssuesMoved())
+                .issuesFailed(progress.getIssuesFailed())
+                .elapsedMs(elapsedMs)
+                .issuesMovedPerSecond(elapsedMs == 0 ? 0 : progress.getIssuesMoved() * 1000.0 / elapsedMs)
+                .build();
     }
-}
\ No newline at end of file
+}
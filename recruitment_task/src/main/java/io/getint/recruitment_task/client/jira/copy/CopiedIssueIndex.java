@@ -0,0 +1,55 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.storage.StateFiles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Local index of the issues already copied between pairs of projects, one {@link CopiedIssueMap} file per pair
+ * in {@code jira.sync.copiedIndexDir}.
+ * <p>
+ * Unlike moved issues, copied issues stay in the source project and match the search of every later copy run,
+ * so the index is what keeps a re-run from creating them again; it also resolves the parents of subtasks copied
+ * by an earlier run.
+ */
+@Component
+public class CopiedIssueIndex {
+    private static final String SUFFIX = ".copied";
+
+    private final boolean enabled;
+    private final Path directory;
+
+    /**
+     * Constructs a new index.
+     *
+     * @param enabled whether copied issues are recorded at all
+     * @param directory the directory holding the index files
+     */
+    public CopiedIssueIndex(@Value("${jira.sync.copiedIndexEnabled}") boolean enabled,
+                            @Value("${jira.sync.copiedIndexDir}") String directory) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+    }
+
+    /**
+     * Opens the map of the issues copied between two projects for a copy run.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     * @param expectedSize the number of issues expected to be copied by the run
+     * @return the open map, an in-memory one if indexing is switched off
+     * @throws JiraClientException if the map cannot be opened, or is held by another copy run of the pair
+     */
+    public CopiedIssueMap open(String sourceProjectKey, String targetProjectKey, int expectedSize) throws JiraClientException {
+        String key = MovedIssueIndex.key(sourceProjectKey, targetProjectKey);
+        if (!enabled) {
+            return CopiedIssueMap.inMemory(key, expectedSize);
+        }
+        return CopiedIssueMap.open(key, directory.resolve(StateFiles.fileNameFor(key) + SUFFIX), expectedSize);
+    }
+}
@@ -0,0 +1,282 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import io.getint.recruitment_task.client.jira.storage.LockedAppendFile;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The issues copied from one project to another so far, as a map from source issue ids to the ids of the
+ * issues created for them.
+ * <p>
+ * Lookups go to an {@link IssueIdMap} loaded from the file of the pair when the map is opened. The file is a log
+ * of fixed-size records of a kind and two longs, forced to disk on every append. Before a batch is sent to JIRA
+ * its source issues are recorded as submitted; once JIRA answered, the created ones are recorded with their
+ * target ids and the rejected ones as not created. An issue still submitted when the map is loaded again may or
+ * may not have been created, as JIRA can create a batch without the answer reaching the client; such issues
+ * are {@link #getUnconfirmed() unconfirmed} until the copier looks them up in the target project.
+ * <p>
+ * Once the status and comments of a created issue were copied, or as many of them as could be, that is recorded
+ * too, so a later run copies only what is still missing instead of counting the issue as copied.
+ * <p>
+ * A torn record at the end of the file is dropped on load. The file is locked while the map is open, so two copy
+ * runs of the same pair never create the same issues side by side.
+ */
+public class CopiedIssueMap implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CopiedIssueMap.class);
+    private static final int SUBMITTED = 1;
+    private static final int CREATED = 2;
+    private static final int NOT_CREATED = 3;
+    private static final int FOLLOWED_UP = 4;
+    private static final long STATUS_COPIED = 1;
+    private static final int RECORD_BYTES = Integer.BYTES + 2 * Long.BYTES;
+    private static final int READ_BUFFER_RECORDS = 4096;
+
+    private final String key;
+    private final Path file;
+    private final IssueIdMap ids;
+    private final IssueIdMap followUps;
+    private final Roaring64Bitmap unconfirmed;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LockedAppendFile appendFile;
+
+    private CopiedIssueMap(String key, Path file, LockedAppendFile appendFile, IssueIdMap ids, IssueIdMap followUps,
+                           Roaring64Bitmap unconfirmed) {
+        this.key = key;
+        this.file = file;
+        this.appendFile = appendFile;
+        this.ids = ids;
+        this.followUps = followUps;
+        this.unconfirmed = unconfirmed;
+    }
+
+    /**
+     * Opens the map of a pair of projects, loading the issues copied by earlier runs.
+     *
+     * @param key the source to target pair key
+     * @param file the file of the pair
+     * @param expectedSize the number of issues expected to be copied by this run
+     * @return the open map
+     * @throws SyncRunInProgressException if another copy run of the pair holds the map
+     * @throws JiraClientException if the file cannot be read or written
+     */
+    static CopiedIssueMap open(String key, Path file, int expectedSize) throws JiraClientException {
+        try {
+            LockedAppendFile appendFile = LockedAppendFile.open(file, () -> new SyncRunInProgressException(
+                    "Copy run " + key + " is already in progress, its copied issue index " + file + " is in use"));
+            long size = appendFile.size();
+            long validLength = size - size % RECORD_BYTES;
+            IssueIdMap ids = new IssueIdMap((int) Math.min(Integer.MAX_VALUE / 2, validLength / RECORD_BYTES + expectedSize));
+            IssueIdMap followUps = new IssueIdMap(expectedSize);
+            Roaring64Bitmap unconfirmed = new Roaring64Bitmap();
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_BYTES);
+            long position = 0;
+            while (position < validLength) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), validLength - position));
+                appendFile.readFully(buffer, position);
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    apply(buffer.getInt(), buffer.getLong(), buffer.getLong(), ids, followUps, unconfirmed);
+                }
+                position += buffer.limit();
+            }
+            if (validLength < size) {
+                log.warn("Dropping torn record at the end of copied issue index {}", file);
+            }
+            appendFile.truncate(validLength);
+            log.info("Opened copied issue index {} with {} issues, {} of them unconfirmed", key, ids.size(), unconfirmed.getLongCardinality());
+            return new CopiedIssueMap(key, file, appendFile, ids, followUps, unconfirmed);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to open copied issue index " + file, e);
+        }
+    }
+
+    /**
+     * Returns a map that only lives as long as the run, for disabled indexes.
+     *
+     * @param key the source to target pair key
+     * @param expectedSize the number of issues expected to be copied
+     * @return an in-memory map
+     */
+    public static CopiedIssueMap inMemory(String key, int expectedSize) {
+        return new CopiedIssueMap(key, null, null, new IssueIdMap(expectedSize), new IssueIdMap(expectedSize), new Roaring64Bitmap());
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the id of the issue created for a source issue, by this or an earlier run.
+     *
+     * @param sourceId the id of the source issue
+     * @return the id of the created issue, or {@link IssueIdMap#NO_ID} if the issue has not been copied
+     */
+    public long get(long sourceId) {
+        return ids.get(sourceId);
+    }
+
+    /**
+     * Returns the number of copied issues.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns whether the status of a source issue was copied to the issue created for it.
+     *
+     * @param sourceId the id of the source issue
+     * @return true once the created issue is in the status of its source issue
+     */
+    public boolean isStatusCopied(long sourceId) {
+        long state = followUps.get(sourceId);
+        return state != IssueIdMap.NO_ID && (state & STATUS_COPIED) != 0;
+    }
+
+    /**
+     * Returns the number of comments of a source issue copied to the issue created for it, oldest first.
+     *
+     * @param sourceId the id of the source issue
+     * @return the number of copied comments
+     */
+    public int getCopiedComments(long sourceId) {
+        long state = followUps.get(sourceId);
+        return state == IssueIdMap.NO_ID ? 0 : (int) (state >>> 1);
+    }
+
+    /**
+     * Returns the source issues that were submitted for creation without JIRA confirming whether it created them.
+     *
+     * @return the ids of the source issues, in ascending order
+     */
+    public long[] getUnconfirmed() {
+        lock.lock();
+        try {
+            return unconfirmed.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a batch of source issues is about to be submitted for creation, forcing the records to disk
+     * before returning.
+     *
+     * @param sourceIds the ids of the source issues
+     * @param count the number of entries to record
+     * @throws JiraClientException if the entries cannot be written
+     */
+    public void recordSubmitted(long[] sourceIds, int count) throws JiraClientException {
+        record(SUBMITTED, sourceIds, null, count);
+    }
+
+    /**
+     * Records the issues created for a batch of source issues, forcing them to disk before returning.
+     *
+     * @param sourceIds the ids of the source issues
+     * @param targetIds the ids of the issues created for them, in the same order
+     * @param count the number of entries to record
+     * @throws JiraClientException if the entries cannot be written
+     */
+    public void putAll(long[] sourceIds, long[] targetIds, int count) throws JiraClientException {
+        record(CREATED, sourceIds, targetIds, count);
+    }
+
+    /**
+     * Records that JIRA did not create the issues for a batch of submitted source issues, forcing the records to
+     * disk before returning.
+     *
+     * @param sourceIds the ids of the source issues
+     * @param count the number of entries to record
+     * @throws JiraClientException if the entries cannot be written
+     */
+    public void recordNotCreated(long[] sourceIds, int count) throws JiraClientException {
+        record(NOT_CREATED, sourceIds, null, count);
+    }
+
+    /**
+     * Records how far the status and comments of a source issue were copied, forcing the record to disk before
+     * returning.
+     *
+     * @param sourceId the id of the source issue
+     * @param statusCopied whether the created issue is in the status of its source issue
+     * @param copiedComments the number of comments copied so far, oldest first
+     * @throws JiraClientException if the record cannot be written
+     */
+    public void recordFollowUps(long sourceId, boolean statusCopied, int copiedComments) throws JiraClientException {
+        record(FOLLOWED_UP, new long[]{sourceId}, new long[]{(long) copiedComments << 1 | (statusCopied ? STATUS_COPIED : 0)}, 1);
+    }
+
+    /**
+     * Closes the file of the map, releasing the pair for other runs.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (appendFile == null || !appendFile.isOpen()) {
+                return;
+            }
+            appendFile.close();
+        } catch (IOException e) {
+            log.warn("Failed to close copied issue index {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(int kind, long[] sourceIds, long[] values, int count) throws JiraClientException {
+        if (count == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (appendFile != null) {
+                ByteBuffer records = ByteBuffer.allocate(count * RECORD_BYTES);
+                for (int i = 0; i < count; i++) {
+                    records.putInt(kind).putLong(sourceIds[i]).putLong(values == null ? 0 : values[i]);
+                }
+                append(records.flip());
+            }
+            for (int i = 0; i < count; i++) {
+                apply(kind, sourceIds[i], values == null ? 0 : values[i], ids, followUps, unconfirmed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void apply(int kind, long sourceId, long value, IssueIdMap ids, IssueIdMap followUps, Roaring64Bitmap unconfirmed) {
+        switch (kind) {
+            case SUBMITTED -> unconfirmed.addLong(sourceId);
+            case CREATED -> {
+                ids.put(sourceId, value);
+                unconfirmed.removeLong(sourceId);
+            }
+            case NOT_CREATED -> unconfirmed.removeLong(sourceId);
+            case FOLLOWED_UP -> followUps.put(sourceId, value);
+            default -> log.warn("Ignoring copied issue index record of unknown kind {}", kind);
+        }
+    }
+
+    private void append(ByteBuffer records) throws JiraClientException {
+        if (!appendFile.isOpen()) {
+            throw new JiraClientException("Copied issue index " + file + " is closed");
+        }
+        try {
+            appendFile.append(records, true);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to append to copied issue index " + file, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import io.getint.recruitment_task.client.jira.search.LongInterner;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Map from the ids of copied source issues to the ids of the issues created for them in the target project.
+ * <p>
+ * Source ids are interned into dense codes which index a primitive array of target ids, so the map neither
+ * boxes nor allocates per issue. Batches completing concurrently record their issues under a lock; later
+ * phases of a copy, such as resolving the parent of a subtask or the issue a comment is added to, look the
+ * target up here instead of asking JIRA.
+ */
+public class IssueIdMap {
+    public static final long NO_ID = -1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongInterner sourceIds;
+    private long[] targetIds;
+
+    /**
+     * Constructs a new map.
+     *
+     * @param expectedSize the number of issues expected to be copied
+     */
+    public IssueIdMap(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        this.sourceIds = new LongInterner(capacity);
+        this.targetIds = new long[capacity];
+    }
+
+    /**
+     * Records the issue created for a source issue.
+     *
+     * @param sourceId the id of the source issue
+     * @param targetId the id of the created issue
+     */
+    public void put(long sourceId, long targetId) {
+        lock.lock();
+        try {
+            int code = sourceIds.intern(sourceId);
+            if (code >= targetIds.length) {
+                targetIds = Arrays.copyOf(targetIds, Math.max(targetIds.length * 2, code + 1));
+            }
+            targetIds[code] = targetId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the id of the issue created for a source issue.
+     *
+     * @param sourceId the id of the source issue
+     * @return the id of the created issue, or {@link #NO_ID} if the issue has not been copied
+     */
+    public long get(long sourceId) {
+        lock.lock();
+        try {
+            int code = sourceIds.find(sourceId);
+            return code == LongInterner.NO_CODE ? NO_ID : targetIds[code];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of copied issues.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return sourceIds.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
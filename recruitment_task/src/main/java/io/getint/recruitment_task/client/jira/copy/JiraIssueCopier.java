@@ -0,0 +1,855 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import io.getint.recruitment_task.client.jira.builders.IssueJqlQueryBuilder;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScope;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScopes;
+import io.getint.recruitment_task.client.jira.dto.BulkCreateIssuesRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkCreateIssuesResponseDto;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.CommentDto;
+import io.getint.recruitment_task.client.jira.dto.CommentPageDto;
+import io.getint.recruitment_task.client.jira.dto.IssueDetailsDto;
+import io.getint.recruitment_task.client.jira.dto.IssueSearchResultDto;
+import io.getint.recruitment_task.client.jira.dto.StatusDto;
+import io.getint.recruitment_task.client.jira.dto.TransitionDto;
+import io.getint.recruitment_task.client.jira.dto.TransitionsDto;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncCancelledException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import io.getint.recruitment_task.client.jira.instances.JiraInstance;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.metadata.IssueTypeMapping;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.getint.recruitment_task.client.jira.utils.CompletableFutures;
+import io.getint.recruitment_task.client.jira.utils.JiraFields;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Copies issues into another project by recreating them, instead of moving them.
+ * <p>
+ * The source issues are searched with their summary, description, priority, issue type, parent, status and
+ * comments, one page always downloading in the background. They are created in the target project through JIRA's
+ * bulk issue creation in batches of at most 50, several batches in flight at once. Every created issue is recorded
+ * in the {@link CopiedIssueMap} of the pair, so the later phases resolve targets without another request: subtasks
+ * are created along with the other issues as soon as their parent has been created, and the remaining ones in a
+ * second phase once all other issues exist.
+ * <p>
+ * As soon as a batch has been created, while the following batches are created, a pipeline moves its issues to
+ * the status of their source issue and copies their comments, several issues concurrently and the comments of one
+ * issue in order. A status is reached with a single transition of the same name out of the initial status of the
+ * target workflow; the initial status and its transitions are looked up once per target issue type and run.
+ * Issues whose status cannot be reached that way are created, but reported as failed.
+ * <p>
+ * The copied issue map persists across runs: a copy run that is started again skips the issues an earlier run
+ * copied completely, and only one run at a time copies between the same pair of projects. How far the status and
+ * comments of every created issue were copied is recorded as well, so for issues an earlier run created but could
+ * not complete, a later run copies only the missing status or comments. Bulk creation cannot be retried
+ * safely, as JIRA may have created a batch although its answer never arrived, so every created issue is labelled
+ * with the id of its source issue and a batch is recorded in the map before it is sent. A run first looks up the
+ * issues of batches an earlier run sent without an answer by their label, and only creates the ones not found.
+ */
+@Component
+public class JiraIssueCopier {
+    private static final Logger log = LoggerFactory.getLogger(JiraIssueCopier.class);
+    /**
+     * The maximum number of issues JIRA creates with a single bulk request.
+     */
+    public static final int MAX_BATCH_SIZE = 50;
+    private static final int SEARCH_PAGE_SIZE = 100;
+    private static final int COMMENT_PAGE_SIZE = 100;
+    private static final int EXPECTED_ISSUES = 4096;
+    private static final int LABELS_PER_LOOKUP = 50;
+    private static final String SOURCE_LABEL_PREFIX = "copied-from-";
+    private static final SearchProjection LOOKUP_FIELDS = SearchProjection.of(JiraFields.LABELS);
+    private static final SearchProjection COPY_FIELDS = SearchProjection.of(JiraFields.SUMMARY, JiraFields.DESCRIPTION,
+            JiraFields.PRIORITY, JiraFields.ISSUE_TYPE, JiraFields.PARENT, JiraFields.STATUS, JiraFields.COMMENT);
+
+    private final JiraMetrics metrics;
+    private final RunTaskScopes taskScopes;
+    private final CopiedIssueIndex copiedIssueIndex;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final int maxCommentsInFlight;
+
+    /**
+     * Constructs a new copier.
+     *
+     * @param metrics the meters recording fetched and skipped issues and the time spent creating them
+     * @param taskScopes the factory of the task scope of every copy run
+     * @param copiedIssueIndex the index of the issues copied so far
+     * @param batchSize the number of issues created per bulk request, at most {@link #MAX_BATCH_SIZE}
+     * @param maxBatchesInFlight the maximum number of batches being created or completed at once
+     * @param maxCommentsInFlight the maximum number of created issues having their status set and comments copied at once
+     */
+    public JiraIssueCopier(JiraMetrics metrics,
+                           RunTaskScopes taskScopes,
+                           CopiedIssueIndex copiedIssueIndex,
+                           @Value("${jira.sync.copy.batchSize}") int batchSize,
+                           @Value("${jira.sync.copy.maxBatchesInFlight}") int maxBatchesInFlight,
+                           @Value("${jira.sync.copy.maxCommentsInFlight}") int maxCommentsInFlight) {
+        this.metrics = metrics;
+        this.taskScopes = taskScopes;
+        this.copiedIssueIndex = copiedIssueIndex;
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, batchSize));
+        this.maxBatchesInFlight = Math.max(1, maxBatchesInFlight);
+        this.maxCommentsInFlight = Math.max(1, maxCommentsInFlight);
+    }
+
+    /**
+     * Copies the issues matching a query into the target project of the issue type mapping.
+     * <p>
+     * In the returned result, moved issues are the source issues that were created in the target project.
+     * Issues that could not be created are failed; so are created issues whose status could not be set or whose
+     * comments were not all copied. Issues copied completely by an earlier run are skipped; issues an earlier run
+     * created without their status or all their comments get only those copied, and are not counted as copied
+     * again, though failures to complete them are reported.
+     *
+     * @param instance the JIRA instance holding both projects
+     * @param jqlQuery the JQL query selecting the issues to copy, oldest first so parents precede their subtasks
+     * @param maxIssues the maximum number of issues to copy
+     * @param sourceProjectKey the key of the project the issues are copied from
+     * @param targetProjectKey the key of the project to create the issues in
+     * @param issueTypeMapping the mapping of source issue types onto target issue types
+     * @param progress the counters updated during the run; cancelling it stops the run
+     * @return the per-issue result of all batches
+     * @throws SyncRunInProgressException if another copy run between the same projects is in progress
+     * @throws JiraClientException if the issues could not be searched
+     * @throws SyncCancelledException if the run was cancelled through the progress
+     */
+    public BulkMoveResult copyIssues(JiraInstance instance, String jqlQuery, int maxIssues, String sourceProjectKey, String targetProjectKey,
+                                     IssueTypeMapping issueTypeMapping, SyncProgress progress) throws JiraClientException {
+        try (CopiedIssueMap copiedIssues = copiedIssueIndex.open(instance.qualify(sourceProjectKey), instance.qualify(targetProjectKey),
+                Math.min(maxIssues, EXPECTED_ISSUES));
+             RunTaskScope scope = taskScopes.open()) {
+            CopyRun run = new CopyRun(instance.getProxy(), targetProjectKey, issueTypeMapping, progress, scope,
+                    copiedIssues, new FollowUpPipeline(scope, maxCommentsInFlight), metrics.forInstance(instance.getName()));
+            try {
+                lookUpUnconfirmedIssues(run);
+                List<IssueDetailsDto> heldSubtasks = searchAndCreateIssues(jqlQuery, maxIssues, run);
+                awaitBatches(0, run);
+                if (!heldSubtasks.isEmpty()) {
+                    log.info("Creating {} subtasks whose parents were created after them", heldSubtasks.size());
+                    for (int from = 0; from < heldSubtasks.size(); from += batchSize) {
+                        submitBatch(new ArrayList<>(heldSubtasks.subList(from, Math.min(heldSubtasks.size(), from + batchSize))), run);
+                    }
+                    awaitBatches(0, run);
+                }
+            } catch (JiraClientException e) {
+                run.batches.forEach(batch -> batch.cancel(true));
+                log.error("Error during copy operation", e);
+                throw e;
+            }
+            log.info("Copy finished: {}", run.result);
+            return run.result;
+        }
+    }
+
+    /**
+     * Looks up the issues of batches that were sent without JIRA answering, by the label of their source issue,
+     * and records whether they were created, so the search creates only the missing ones.
+     */
+    private void lookUpUnconfirmedIssues(CopyRun run) throws JiraClientException {
+        long[] unconfirmed = run.ids.getUnconfirmed();
+        if (unconfirmed.length == 0) {
+            return;
+        }
+        log.info("Looking up {} issues in {} whose creation was not confirmed", unconfirmed.length, run.targetProjectKey);
+        long started = System.nanoTime();
+        int found = 0;
+        for (int from = 0; from < unconfirmed.length; from += LABELS_PER_LOOKUP) {
+            long[] sourceIds = Arrays.copyOfRange(unconfirmed, from, Math.min(unconfirmed.length, from + LABELS_PER_LOOKUP));
+            List<String> labels = new ArrayList<>(sourceIds.length);
+            for (long sourceId : sourceIds) {
+                labels.add(sourceLabel(sourceId));
+            }
+            String jql = new IssueJqlQueryBuilder().setProjectKey(run.targetProjectKey).setAnyLabel(labels).setIdOrder(false).build();
+            // Oldest first, so the first copy wins should an issue have been created more than once
+            Map<Long, Long> targetIds = new HashMap<>();
+            int startAt = 0;
+            while (true) {
+                IssueSearchResultDto page = run.proxy.searchIssueDetails(jql, startAt, SEARCH_PAGE_SIZE, LOOKUP_FIELDS);
+                List<IssueDetailsDto> issues = page.getIssues() == null ? List.of() : page.getIssues();
+                for (IssueDetailsDto issue : issues) {
+                    List<String> issueLabels = issue.getFields() == null ? null : issue.getFields().getLabels();
+                    for (String label : issueLabels == null ? List.<String>of() : issueLabels) {
+                        if (labels.contains(label)) {
+                            targetIds.putIfAbsent(Long.parseLong(label.substring(SOURCE_LABEL_PREFIX.length())), Long.parseLong(issue.getId()));
+                        }
+                    }
+                }
+                startAt += issues.size();
+                if (issues.isEmpty() || startAt >= page.getTotal()) {
+                    break;
+                }
+            }
+            long[] createdIds = new long[targetIds.size()];
+            long[] createdTargetIds = new long[targetIds.size()];
+            long[] notCreatedIds = new long[sourceIds.length];
+            int createdCount = 0;
+            int notCreatedCount = 0;
+            for (long sourceId : sourceIds) {
+                Long targetId = targetIds.get(sourceId);
+                if (targetId != null) {
+                    createdTargetIds[createdCount] = targetId;
+                    createdIds[createdCount++] = sourceId;
+                } else {
+                    notCreatedIds[notCreatedCount++] = sourceId;
+                }
+            }
+            run.ids.putAll(createdIds, createdTargetIds, createdCount);
+            run.ids.recordNotCreated(notCreatedIds, notCreatedCount);
+            found += createdCount;
+            run.checkNotCancelled();
+        }
+        run.metrics.recordStage("lookup", System.nanoTime() - started);
+        log.info("Found {} of {} unconfirmed issues in {}, the others are created again", found, unconfirmed.length, run.targetProjectKey);
+    }
+
+    private static String sourceLabel(long sourceId) {
+        return SOURCE_LABEL_PREFIX + sourceId;
+    }
+
+    /**
+     * Pages through the search results and submits the issues in batches, holding back the subtasks whose
+     * parent has not been created yet.
+     *
+     * @return the held back subtasks
+     */
+    private List<IssueDetailsDto> searchAndCreateIssues(String jqlQuery, int maxIssues, CopyRun run) throws JiraClientException {
+        List<IssueDetailsDto> heldSubtasks = new ArrayList<>();
+        List<IssueDetailsDto> batch = new ArrayList<>(batchSize);
+        List<CreatedIssue> incomplete = new ArrayList<>();
+        int fetched = 0;
+        int alreadyCopied = 0;
+        int incompleteCount = 0;
+        CompletableFuture<IssueSearchResultDto> nextPage = fetchPage(jqlQuery, 0, Math.min(SEARCH_PAGE_SIZE, maxIssues), run);
+        while (nextPage != null) {
+            long searchStarted = System.nanoTime();
+            IssueSearchResultDto page = CompletableFutures.join(nextPage, "Failed to search issues to copy");
+            run.metrics.recordStage("search", System.nanoTime() - searchStarted);
+            List<IssueDetailsDto> issues = page.getIssues() == null ? List.of() : page.getIssues();
+            if (issues.size() > maxIssues - fetched) {
+                issues = issues.subList(0, maxIssues - fetched);
+            }
+            fetched += issues.size();
+            nextPage = issues.isEmpty() || fetched >= maxIssues || page.getStartAt() + page.getIssues().size() >= page.getTotal()
+                    ? null
+                    : fetchPage(jqlQuery, page.getStartAt() + page.getIssues().size(), Math.min(SEARCH_PAGE_SIZE, maxIssues - fetched), run);
+            run.progress.onIssuesFetched(issues.size());
+            run.metrics.onIssuesFetched(issues.size());
+
+            for (IssueDetailsDto issue : issues) {
+                long sourceId = Long.parseLong(issue.getId());
+                // Issues created in the source project during the search shift the later pages
+                if (run.searchedIds.contains(sourceId)) {
+                    continue;
+                }
+                run.searchedIds.addLong(sourceId);
+                long targetId = run.ids.get(sourceId);
+                if (targetId != IssueIdMap.NO_ID) {
+                    if (hasMissingFollowUps(issue, run)) {
+                        incomplete.add(new CreatedIssue(issue, targetId, targetIssueTypeId(issue, run)));
+                        if (incomplete.size() == batchSize) {
+                            incompleteCount += incomplete.size();
+                            submitIncomplete(incomplete, run);
+                            incomplete = new ArrayList<>();
+                        }
+                    } else {
+                        alreadyCopied++;
+                    }
+                    continue;
+                }
+                if (isSubtask(issue) && issue.getFields().getParent() != null
+                        && run.ids.get(Long.parseLong(issue.getFields().getParent().getId())) == IssueIdMap.NO_ID) {
+                    heldSubtasks.add(issue);
+                    continue;
+                }
+                batch.add(issue);
+                if (batch.size() == batchSize) {
+                    submitBatch(batch, run);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            run.checkNotCancelled();
+        }
+        if (!batch.isEmpty()) {
+            submitBatch(batch, run);
+        }
+        if (!incomplete.isEmpty()) {
+            incompleteCount += incomplete.size();
+            submitIncomplete(incomplete, run);
+        }
+        if (incompleteCount > 0) {
+            log.info("Copying the missing statuses and comments of {} issues created by earlier runs", incompleteCount);
+        }
+        if (alreadyCopied > 0) {
+            log.info("Skipping {} issues already copied to {}", alreadyCopied, run.ids.getKey());
+            run.metrics.onIssuesSkipped("already-copied", alreadyCopied);
+        }
+        return heldSubtasks;
+    }
+
+    private static CompletableFuture<IssueSearchResultDto> fetchPage(String jqlQuery, int startAt, int maxResults, CopyRun run) {
+        return CompletableFuture.supplyAsync(() -> run.proxy.searchIssueDetails(jqlQuery, startAt, maxResults, COPY_FIELDS), run.scope);
+    }
+
+    /**
+     * Waits for a free batch slot and creates the batch in the background, followed by the statuses and comments
+     * of its issues.
+     */
+    private void submitBatch(List<IssueDetailsDto> batch, CopyRun run) throws JiraClientException {
+        submit(() -> CompletableFuture.supplyAsync(() -> createBatch(batch, run), run.scope), run);
+    }
+
+    /**
+     * Waits for a free batch slot and copies the missing statuses and comments of issues created by earlier runs.
+     * The issues are not counted as created again.
+     */
+    private void submitIncomplete(List<CreatedIssue> issues, CopyRun run) throws JiraClientException {
+        submit(() -> CompletableFuture.completedFuture(new CreatedBatch(new long[0], issues, new LinkedHashMap<>())), run);
+    }
+
+    private void submit(Supplier<CompletableFuture<CreatedBatch>> create, CopyRun run) throws JiraClientException {
+        awaitBatches(maxBatchesInFlight - 1, run);
+        run.progress.onChunkSubmitted();
+        run.batches.add(create.get()
+                .thenCompose(created -> completeBatch(created, run))
+                .thenAccept(result -> {
+                    run.progress.onChunkCompleted(result);
+                    run.result.merge(result);
+                }));
+    }
+
+    /**
+     * Waits until no more than the given number of batches are in flight, rethrowing the failure of any
+     * finished batch.
+     */
+    private static void awaitBatches(int maxPending, CopyRun run) throws JiraClientException {
+        while (true) {
+            for (int i = run.batches.size() - 1; i >= 0; i--) {
+                if (run.batches.get(i).isDone()) {
+                    CompletableFutures.join(run.batches.remove(i), "Failed to copy a batch of issues");
+                }
+            }
+            run.checkNotCancelled();
+            if (run.batches.size() <= maxPending) {
+                return;
+            }
+            CompletableFuture<?>[] waits = run.batches.toArray(new CompletableFuture<?>[run.batches.size() + 1]);
+            waits[waits.length - 1] = run.progress.getCancellation();
+            CompletableFuture.anyOf(waits).exceptionally(error -> null).join();
+        }
+    }
+
+    /**
+     * Creates the issues of a batch with a single bulk request and records the created ones in the copied issue
+     * map. Issues JIRA rejected, or that could not be sent at all, are failed; the run goes on with the next batch.
+     * <p>
+     * The batch is recorded as submitted before it is sent. If no answer arrives, its issues stay unconfirmed and
+     * the next run looks them up instead of creating them again.
+     */
+    private CreatedBatch createBatch(List<IssueDetailsDto> batch, CopyRun run) {
+        Map<Long, List<String>> failedIssues = new LinkedHashMap<>();
+        List<IssueDetailsDto> submitted = new ArrayList<>(batch.size());
+        List<BulkCreateIssuesRequestDto.IssueUpdate> issueUpdates = new ArrayList<>(batch.size());
+        for (IssueDetailsDto issue : batch) {
+            Map<String, Object> fields = createFields(issue, run, failedIssues);
+            if (fields != null) {
+                submitted.add(issue);
+                issueUpdates.add(BulkCreateIssuesRequestDto.IssueUpdate.builder().fields(fields).build());
+            }
+        }
+        if (submitted.isEmpty()) {
+            return new CreatedBatch(new long[0], List.of(), failedIssues);
+        }
+        long[] submittedIds = new long[submitted.size()];
+        for (int i = 0; i < submittedIds.length; i++) {
+            submittedIds[i] = Long.parseLong(submitted.get(i).getId());
+        }
+        run.ids.recordSubmitted(submittedIds, submittedIds.length);
+
+        long started = System.nanoTime();
+        BulkCreateIssuesResponseDto response;
+        try {
+            response = run.proxy.createIssuesBulk(BulkCreateIssuesRequestDto.builder().issueUpdates(issueUpdates).build());
+        } catch (JiraClientException e) {
+            log.warn("Failed to create a batch of {} issues, the next run looks them up before creating them again: {}",
+                    submitted.size(), e.getMessage());
+            for (IssueDetailsDto issue : submitted) {
+                failedIssues.put(Long.parseLong(issue.getId()), List.of(e.getMessage()));
+            }
+            return new CreatedBatch(new long[0], List.of(), failedIssues);
+        } finally {
+            run.metrics.recordStage("create", System.nanoTime() - started);
+        }
+
+        Map<Integer, List<String>> errors = new HashMap<>();
+        if (response.getErrors() != null) {
+            for (BulkCreateIssuesResponseDto.CreateError error : response.getErrors()) {
+                errors.put(error.getFailedElementNumber(), errorMessages(error));
+            }
+        }
+        List<BulkCreateIssuesResponseDto.CreatedIssue> created = response.getIssues() == null ? List.of() : response.getIssues();
+        long[] createdIds = new long[submitted.size()];
+        long[] targetIds = new long[submitted.size()];
+        long[] rejectedIds = new long[submitted.size()];
+        int createdCount = 0;
+        int rejectedCount = 0;
+        List<CreatedIssue> createdIssues = new ArrayList<>(submitted.size());
+        for (int i = 0; i < submitted.size(); i++) {
+            IssueDetailsDto issue = submitted.get(i);
+            long sourceId = Long.parseLong(issue.getId());
+            if (errors.containsKey(i)) {
+                failedIssues.put(sourceId, errors.get(i));
+                rejectedIds[rejectedCount++] = sourceId;
+            } else if (createdCount < created.size()) {
+                long targetId = Long.parseLong(created.get(createdCount).getId());
+                targetIds[createdCount] = targetId;
+                createdIds[createdCount++] = sourceId;
+                createdIssues.add(new CreatedIssue(issue, targetId, targetIssueTypeId(issue, run)));
+            } else {
+                // Left unconfirmed, so the next run looks the issue up
+                failedIssues.put(sourceId, List.of("JIRA did not report the issue as created"));
+            }
+        }
+        run.ids.putAll(createdIds, targetIds, createdCount);
+        run.ids.recordNotCreated(rejectedIds, rejectedCount);
+        return new CreatedBatch(Arrays.copyOf(createdIds, createdCount), createdIssues, failedIssues);
+    }
+
+    /**
+     * Builds the fields of the issue created for a source issue, or returns null if the issue cannot be created.
+     */
+    private Map<String, Object> createFields(IssueDetailsDto issue, CopyRun run, Map<Long, List<String>> failedIssues) {
+        IssueDetailsDto.Fields source = issue.getFields();
+        if (source == null || source.getIssueType() == null || source.getIssueType().getId() == null) {
+            log.warn("Issue {} does not have an 'issuetype' field in 'fields'", issue.getId());
+            run.metrics.onIssuesSkipped("no-issue-type", 1);
+            return null;
+        }
+        long targetIssueTypeId = run.issueTypeMapping.targetIssueTypeId(Long.parseLong(source.getIssueType().getId()));
+        if (targetIssueTypeId == IssueTypeMapping.UNMAPPED) {
+            log.warn("Issue {} has an issue type that does not exist in the target project", issue.getId());
+            run.metrics.onIssuesSkipped("unmapped-type", 1);
+            return null;
+        }
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put(JiraFields.PROJECT, Map.of(JiraFields.KEY, run.targetProjectKey));
+        fields.put(JiraFields.ISSUE_TYPE, Map.of(JiraFields.ID, Long.toString(targetIssueTypeId)));
+        fields.put(JiraFields.SUMMARY, source.getSummary());
+        fields.put(JiraFields.LABELS, List.of(sourceLabel(Long.parseLong(issue.getId()))));
+        if (source.getDescription() != null && !source.getDescription().isNull()) {
+            fields.put(JiraFields.DESCRIPTION, source.getDescription());
+        }
+        if (source.getPriority() != null && source.getPriority().getId() != null) {
+            fields.put(JiraFields.PRIORITY, Map.of(JiraFields.ID, source.getPriority().getId()));
+        }
+        if (isSubtask(issue)) {
+            if (source.getParent() == null || source.getParent().getId() == null) {
+                log.warn("Issue {} is a subtask but has no parent field", issue.getId());
+                run.metrics.onIssuesSkipped("no-parent", 1);
+                return null;
+            }
+            long targetParentId = run.ids.get(Long.parseLong(source.getParent().getId()));
+            if (targetParentId == IssueIdMap.NO_ID) {
+                failedIssues.put(Long.parseLong(issue.getId()), List.of("Parent issue " + source.getParent().getId() + " was not copied"));
+                return null;
+            }
+            fields.put(JiraFields.PARENT, Map.of(JiraFields.ID, Long.toString(targetParentId)));
+        }
+        return fields;
+    }
+
+    private static long targetIssueTypeId(IssueDetailsDto issue, CopyRun run) {
+        return run.issueTypeMapping.targetIssueTypeId(Long.parseLong(issue.getFields().getIssueType().getId()));
+    }
+
+    /**
+     * Returns whether the status or some comments of a source issue have not been copied to the issue created for
+     * it by an earlier run.
+     */
+    private static boolean hasMissingFollowUps(IssueDetailsDto issue, CopyRun run) {
+        if (issue.getFields() == null || issue.getFields().getIssueType() == null || issue.getFields().getIssueType().getId() == null) {
+            return false;
+        }
+        long sourceId = Long.parseLong(issue.getId());
+        StatusDto status = issue.getFields().getStatus();
+        CommentPageDto comments = issue.getFields().getComment();
+        return status != null && status.getName() != null && !run.ids.isStatusCopied(sourceId)
+                || comments != null && comments.getTotal() > run.ids.getCopiedComments(sourceId);
+    }
+
+    private static boolean isSubtask(IssueDetailsDto issue) {
+        return issue.getFields() != null && issue.getFields().getIssueType() != null && issue.getFields().getIssueType().isSubtask();
+    }
+
+    private static List<String> errorMessages(BulkCreateIssuesResponseDto.CreateError error) {
+        List<String> messages = new ArrayList<>();
+        if (error.getElementErrors() != null) {
+            if (error.getElementErrors().getErrorMessages() != null) {
+                messages.addAll(error.getElementErrors().getErrorMessages());
+            }
+            if (error.getElementErrors().getErrors() != null) {
+                error.getElementErrors().getErrors().forEach((field, message) -> messages.add(field + ": " + message));
+            }
+        }
+        if (messages.isEmpty()) {
+            messages.add("JIRA rejected the issue with HTTP " + error.getStatus());
+        }
+        return messages;
+    }
+
+    /**
+     * Queues every created issue of a batch with a status or comments still to copy on the follow-up pipeline and
+     * completes with the result of the batch once all of them are done. How far each issue got is recorded in the
+     * copied issue map, so a later run copies only what is still missing.
+     */
+    private CompletableFuture<BulkMoveResult> completeBatch(CreatedBatch batch, CopyRun run) {
+        List<CompletableFuture<Void>> followUps = new ArrayList<>();
+        for (CreatedIssue issue : batch.createdIssues) {
+            long sourceId = Long.parseLong(issue.source.getId());
+            StatusDto status = issue.source.getFields().getStatus();
+            CommentPageDto comments = issue.source.getFields().getComment();
+            boolean copyStatus = status != null && status.getName() != null && !run.ids.isStatusCopied(sourceId);
+            int copiedComments = run.ids.getCopiedComments(sourceId);
+            boolean copyComments = comments != null && comments.getTotal() > copiedComments;
+            if (copyStatus || copyComments) {
+                followUps.add(run.followUps.submit(() -> {
+                    List<String> failures = new ArrayList<>(2);
+                    String statusFailure = copyStatus ? copyStatus(issue, status.getName(), run) : null;
+                    if (statusFailure != null) {
+                        failures.add(statusFailure);
+                    }
+                    int copied = copyComments ? copyComments(issue, comments, copiedComments, run, failures) : copiedComments;
+                    run.ids.recordFollowUps(sourceId, statusFailure == null, copied);
+                    return failures;
+                }).thenAccept(failures -> {
+                    if (!failures.isEmpty()) {
+                        batch.addFailure(Long.parseLong(issue.source.getId()), failures);
+                    }
+                }));
+            }
+        }
+        return CompletableFuture.allOf(followUps.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> batch.toResult());
+    }
+
+    /**
+     * Moves the issue created for a source issue to the status of the same name, with the transition leading
+     * there from the initial status of the target workflow.
+     *
+     * @return null if the issue is in the status of its source issue, the reason otherwise
+     */
+    private String copyStatus(CreatedIssue issue, String statusName, CopyRun run) {
+        long started = System.nanoTime();
+        String targetId = Long.toString(issue.targetId);
+        try {
+            TargetWorkflow workflow = workflowOf(issue, run);
+            String status = statusName.toLowerCase(Locale.ROOT);
+            if (status.equals(workflow.initialStatus)) {
+                return null;
+            }
+            String transitionId = workflow.transitionIds.get(status);
+            if (transitionId == null) {
+                return "No transition of issue " + targetId + " leads to status '" + statusName + "'";
+            }
+            run.proxy.transitionIssue(targetId, transitionId);
+            return null;
+        } catch (JiraClientException e) {
+            log.warn("Failed to move issue {} to status '{}': {}", targetId, statusName, e.getMessage());
+            return "Failed to move issue " + targetId + " to status '" + statusName + "': " + e.getMessage();
+        } finally {
+            run.metrics.recordStage("status", System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Returns the workflow of the target issue type of a created issue, looking it up from that issue if it is the
+     * first one of its type. A failed lookup is not remembered, so the next issue of the type tries again.
+     */
+    private static TargetWorkflow workflowOf(CreatedIssue issue, CopyRun run) throws JiraClientException {
+        CompletableFuture<TargetWorkflow> lookup = new CompletableFuture<>();
+        CompletableFuture<TargetWorkflow> workflow = run.workflows.putIfAbsent(issue.targetIssueTypeId, lookup);
+        if (workflow != null) {
+            return CompletableFutures.join(workflow, "Failed to look up the workflow of issue type " + issue.targetIssueTypeId);
+        }
+        try {
+            String targetId = Long.toString(issue.targetId);
+            StatusDto initialStatus = run.proxy.getIssueStatus(targetId);
+            TransitionsDto transitions = run.proxy.getTransitions(targetId);
+            Map<String, String> transitionIds = new HashMap<>();
+            if (transitions.getTransitions() != null) {
+                for (TransitionDto transition : transitions.getTransitions()) {
+                    if (transition.getTo() != null && transition.getTo().getName() != null) {
+                        transitionIds.putIfAbsent(transition.getTo().getName().toLowerCase(Locale.ROOT), transition.getId());
+                    }
+                }
+            }
+            TargetWorkflow loaded = new TargetWorkflow(initialStatus == null || initialStatus.getName() == null
+                    ? null : initialStatus.getName().toLowerCase(Locale.ROOT), transitionIds);
+            lookup.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            run.workflows.remove(issue.targetIssueTypeId, lookup);
+            lookup.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the comments of a source issue to the issue created for it, oldest first, skipping the ones copied
+     * before. The comments embedded in the search result are added first if they continue where the copy stopped;
+     * any further ones are fetched page by page.
+     *
+     * @param alreadyCopied the number of comments copied by earlier runs
+     * @param failures the list the reason is added to if not all comments were copied
+     * @return the number of comments copied so far, including the ones copied before
+     */
+    private int copyComments(CreatedIssue issue, CommentPageDto embedded, int alreadyCopied, CopyRun run, List<String> failures) {
+        long started = System.nanoTime();
+        String targetId = Long.toString(issue.targetId);
+        int copied = alreadyCopied;
+        try {
+            List<CommentDto> comments = embedded.getComments() == null ? List.of() : embedded.getComments();
+            int position = embedded.getStartAt();
+            if (position > copied || position + comments.size() <= copied) {
+                comments = List.of();
+                position = copied;
+            }
+            while (true) {
+                for (CommentDto comment : comments) {
+                    if (position++ < copied) {
+                        continue;
+                    }
+                    run.proxy.addComment(targetId, CommentDto.builder().body(comment.getBody()).build());
+                    copied++;
+                }
+                if (copied >= embedded.getTotal() || run.progress.isCancelled()) {
+                    break;
+                }
+                comments = run.proxy.getComments(issue.source.getId(), copied, COMMENT_PAGE_SIZE).getComments();
+                position = copied;
+                if (comments == null || comments.isEmpty()) {
+                    break;
+                }
+            }
+            if (copied < embedded.getTotal()) {
+                failures.add("Copied " + copied + " of " + embedded.getTotal() + " comments to issue " + targetId);
+            }
+            return copied;
+        } catch (JiraClientException e) {
+            log.warn("Failed to copy the comments of issue {} to issue {}: {}", issue.source.getId(), targetId, e.getMessage());
+            failures.add("Copied " + copied + " of " + embedded.getTotal() + " comments to issue " + targetId + ": " + e.getMessage());
+            return copied;
+        } finally {
+            run.metrics.recordStage("comments", System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * An issue created in the target project together with the source issue it was created for.
+     */
+    private static final class CreatedIssue {
+        private final IssueDetailsDto source;
+        private final long targetId;
+        private final long targetIssueTypeId;
+
+        private CreatedIssue(IssueDetailsDto source, long targetId, long targetIssueTypeId) {
+            this.source = source;
+            this.targetId = targetId;
+            this.targetIssueTypeId = targetIssueTypeId;
+        }
+    }
+
+    /**
+     * The initial status of the workflow of a target issue type and the transitions leading out of it, keyed by the
+     * lower-case name of the status they lead to.
+     */
+    private static final class TargetWorkflow {
+        private final String initialStatus;
+        private final Map<String, String> transitionIds;
+
+        private TargetWorkflow(String initialStatus, Map<String, String> transitionIds) {
+            this.initialStatus = initialStatus;
+            this.transitionIds = transitionIds;
+        }
+    }
+
+    /**
+     * Outcome of the bulk request of a batch, to which the failures of setting statuses and copying comments are added.
+     */
+    private static final class CreatedBatch {
+        private final long[] createdSourceIds;
+        private final List<CreatedIssue> createdIssues;
+        private final Map<Long, List<String>> failedIssues;
+
+        private CreatedBatch(long[] createdSourceIds, List<CreatedIssue> createdIssues, Map<Long, List<String>> failedIssues) {
+            this.createdSourceIds = createdSourceIds;
+            this.createdIssues = createdIssues;
+            this.failedIssues = failedIssues;
+        }
+
+        private synchronized void addFailure(long sourceId, List<String> reasons) {
+            failedIssues.put(sourceId, reasons);
+        }
+
+        private synchronized BulkMoveResult toResult() {
+            return BulkMoveResult.of(createdSourceIds, failedIssues, 0);
+        }
+    }
+
+    /**
+     * Runs the status and comment copies of all batches on the task scope of the run, no more than a fixed number
+     * at once. Copies wait in a queue instead of occupying a thread, so a batch with many commented issues does not
+     * hold back the creation of the following batches.
+     */
+    private static final class FollowUpPipeline {
+        private final RunTaskScope scope;
+        private final int maxInFlight;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<QueuedCopy<?>> queue = new ArrayDeque<>();
+        private int inFlight;
+
+        private FollowUpPipeline(RunTaskScope scope, int maxInFlight) {
+            this.scope = scope;
+            this.maxInFlight = maxInFlight;
+        }
+
+        private <T> CompletableFuture<T> submit(Supplier<T> copy) {
+            QueuedCopy<T> queued = new QueuedCopy<>(copy);
+            lock.lock();
+            try {
+                queue.add(queued);
+            } finally {
+                lock.unlock();
+            }
+            drain();
+            return queued.future;
+        }
+
+        /**
+         * Starts queued copies while slots are free. Once the scope of the run is closed, the queued copies fail.
+         */
+        private void drain() {
+            while (true) {
+                QueuedCopy<?> next;
+                lock.lock();
+                try {
+                    if (inFlight >= maxInFlight || queue.isEmpty()) {
+                        return;
+                    }
+                    inFlight++;
+                    next = queue.poll();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    scope.execute(() -> {
+                        try {
+                            next.run();
+                        } finally {
+                            onEnded();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    List<QueuedCopy<?>> rejected = new ArrayList<>();
+                    lock.lock();
+                    try {
+                        inFlight--;
+                        rejected.add(next);
+                        rejected.addAll(queue);
+                        queue.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    rejected.forEach(copy -> copy.future.completeExceptionally(e));
+                    return;
+                }
+            }
+        }
+
+        private void onEnded() {
+            lock.lock();
+            try {
+                inFlight--;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+    }
+
+    private static final class QueuedCopy<T> {
+        private final Supplier<T> copy;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private QueuedCopy(Supplier<T> copy) {
+            this.copy = copy;
+        }
+
+        private void run() {
+            try {
+                future.complete(copy.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * State of a single copy run.
+     */
+    private static final class CopyRun {
+        private final JiraProxy proxy;
+        private final String targetProjectKey;
+        private final IssueTypeMapping issueTypeMapping;
+        private final SyncProgress progress;
+        private final RunTaskScope scope;
+        private final CopiedIssueMap ids;
+        private final FollowUpPipeline followUps;
+        private final JiraMetrics metrics;
+        private final Map<Long, CompletableFuture<TargetWorkflow>> workflows = new ConcurrentHashMap<>();
+        private final Roaring64Bitmap searchedIds = new Roaring64Bitmap();
+        private final List<CompletableFuture<Void>> batches = new ArrayList<>();
+        private final BulkMoveResult result = new BulkMoveResult();
+
+        private CopyRun(JiraProxy proxy, String targetProjectKey, IssueTypeMapping issueTypeMapping, SyncProgress progress,
+                        RunTaskScope scope, CopiedIssueMap ids, FollowUpPipeline followUps, JiraMetrics metrics) {
+            this.proxy = proxy;
+            this.targetProjectKey = targetProjectKey;
+            this.issueTypeMapping = issueTypeMapping;
+            this.progress = progress;
+            this.scope = scope;
+            this.ids = ids;
+            this.followUps = followUps;
+            this.metrics = metrics;
+        }
+
+        private void checkNotCancelled() throws SyncCancelledException {
+            if (progress.isCancelled()) {
+                throw new SyncCancelledException("Sync run was cancelled");
+            }
+        }
+    }
+}
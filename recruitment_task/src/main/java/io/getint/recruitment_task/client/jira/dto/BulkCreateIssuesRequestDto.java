@@ -0,0 +1,29 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateIssuesRequestDto {
+    @Builder.Default
+    private List<IssueUpdate> issueUpdates = List.of();
+
+    /**
+     * The fields of a single issue to create, keyed by the field names of {@code JiraFields}.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IssueUpdate {
+        private Map<String, Object> fields;
+    }
+}
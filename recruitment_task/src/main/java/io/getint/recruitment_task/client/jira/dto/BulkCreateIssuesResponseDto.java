@@ -0,0 +1,56 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of a bulk issue creation.
+ * <p>
+ * JIRA lists the created issues in request order, leaving out the failed elements, which are reported with
+ * their index in the request instead.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateIssuesResponseDto {
+    @Builder.Default
+    private List<CreatedIssue> issues = List.of();
+    @Builder.Default
+    private List<CreateError> errors = List.of();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreatedIssue {
+        private String id;
+        private String key;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreateError {
+        private int failedElementNumber;
+        private int status;
+        private ElementErrors elementErrors;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ElementErrors {
+        @Builder.Default
+        private List<String> errorMessages = List.of();
+        @Builder.Default
+        private Map<String, String> errors = Map.of();
+    }
+}
@@ -0,0 +1,136 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-issue outcome of one or more JIRA bulk move tasks.
+ * <p>
+ * Moved ids are kept in a primitive array; only failed issues, which are expected to be rare, carry their
+ * error messages. Results of concurrently running tasks are combined with {@link #merge(BulkMoveResult)}.
+ */
+public class BulkMoveResult {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] movedIssueIds = new long[INITIAL_CAPACITY];
+    private int movedCount;
+    private final Map<Long, List<String>> failedIssues = new LinkedHashMap<>();
+    private int invalidOrInaccessibleCount;
+    private int completedTasks;
+
+    /**
+     * Builds the result of a single finished bulk task.
+     *
+     * @param progress the final progress reported by JIRA
+     * @param requestedIds the ids that were submitted with the task
+     * @return the per-issue result of the task
+     */
+    public static BulkMoveResult fromProgress(BulkTaskProgressDto progress, long[] requestedIds) {
+        BulkMoveResult result = new BulkMoveResult();
+        result.completedTasks = 1;
+        result.invalidOrInaccessibleCount = progress.getInvalidOrInaccessibleIssueCount();
+
+        long[] processed = progress.getProcessedAccessibleIssues() == null ? new long[0] : progress.getProcessedAccessibleIssues();
+        for (long id : processed) {
+            result.addMoved(id);
+        }
+        if (progress.getFailedAccessibleIssues() != null) {
+            progress.getFailedAccessibleIssues().forEach((id, errors) -> result.failedIssues.put(Long.parseLong(id), errors));
+        }
+
+        if (progress.getStatus() != BulkTaskProgressDto.Status.COMPLETE) {
+            List<String> reason = List.of("Bulk task " + progress.getTaskId() + " finished with status " + progress.getStatus());
+            long[] sortedProcessed = processed.clone();
+            Arrays.sort(sortedProcessed);
+            for (long id : requestedIds) {
+                if (Arrays.binarySearch(sortedProcessed, id) < 0) {
+                    result.failedIssues.putIfAbsent(id, reason);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the result of a single finished bulk task, e.g. from a journal.
+     *
+     * @param movedIssueIds the ids of the moved issues
+     * @param failedIssues the errors of the issues that could not be moved
+     * @param invalidOrInaccessibleCount the number of issues JIRA reported as invalid or inaccessible
+     * @return the per-issue result of the task
+     */
+    public static BulkMoveResult of(long[] movedIssueIds, Map<Long, List<String>> failedIssues, int invalidOrInaccessibleCount) {
+        BulkMoveResult result = new BulkMoveResult();
+        result.completedTasks = 1;
+        result.invalidOrInaccessibleCount = invalidOrInaccessibleCount;
+        for (long id : movedIssueIds) {
+            result.addMoved(id);
+        }
+        result.failedIssues.putAll(failedIssues);
+        return result;
+    }
+
+    /**
+     * Builds the result of issues the sync run gave up on without submitting them to JIRA. It counts no task.
+     *
+     * @param failedIssues the reasons the issues were not moved
+     * @return the per-issue result
+     */
+    public static BulkMoveResult unsubmitted(Map<Long, List<String>> failedIssues) {
+        BulkMoveResult result = new BulkMoveResult();
+        result.failedIssues.putAll(failedIssues);
+        return result;
+    }
+
+    /**
+     * Adds all issues of another result to this one.
+     *
+     * @param other the result to merge
+     */
+    public synchronized void merge(BulkMoveResult other) {
+        synchronized (other) {
+            for (int i = 0; i < other.movedCount; i++) {
+                addMoved(other.movedIssueIds[i]);
+            }
+            failedIssues.putAll(other.failedIssues);
+            invalidOrInaccessibleCount += other.invalidOrInaccessibleCount;
+            completedTasks += other.completedTasks;
+        }
+    }
+
+    private void addMoved(long id) {
+        if (movedCount == movedIssueIds.length) {
+            movedIssueIds = Arrays.copyOf(movedIssueIds, movedCount * 2);
+        }
+        movedIssueIds[movedCount++] = id;
+    }
+
+    public synchronized int getMovedCount() {
+        return movedCount;
+    }
+
+    public synchronized long[] getMovedIssueIds() {
+        return Arrays.copyOf(movedIssueIds, movedCount);
+    }
+
+    public synchronized Map<Long, List<String>> getFailedIssues() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failedIssues));
+    }
+
+    public synchronized int getInvalidOrInaccessibleCount() {
+        return invalidOrInaccessibleCount;
+    }
+
+    public synchronized int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BulkMoveResult(moved=" + movedCount + ", failed=" + failedIssues.size()
+                + ", invalidOrInaccessible=" + invalidOrInaccessibleCount + ", tasks=" + completedTasks + ")";
+    }
+}
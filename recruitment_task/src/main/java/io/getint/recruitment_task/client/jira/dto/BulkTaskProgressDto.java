@@ -0,0 +1,48 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskProgressDto {
+    private String taskId;
+    private Status status;
+    private int progressPercent;
+    private int totalIssueCount;
+    private long[] processedAccessibleIssues;
+    private Map<String, List<String>> failedAccessibleIssues;
+    private int invalidOrInaccessibleIssueCount;
+
+    /**
+     * Status of a queued JIRA bulk operation.
+     */
+    public enum Status {
+        ENQUEUED,
+        RUNNING,
+        COMPLETE,
+        FAILED,
+        CANCEL_REQUESTED,
+        CANCELLED,
+        DEAD,
+        @JsonEnumDefaultValue
+        UNKNOWN;
+
+        /**
+         * Checks whether the bulk operation has stopped and its result is final.
+         *
+         * @return true if the operation will not make any further progress
+         */
+        public boolean isFinished() {
+            return this == COMPLETE || this == FAILED || this == CANCELLED || this == DEAD;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskSubmissionDto {
+    private String taskId;
+}
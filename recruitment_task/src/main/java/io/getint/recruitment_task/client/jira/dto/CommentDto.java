@@ -0,0 +1,21 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A comment of an issue; its body is an Atlassian Document Format node copied as is.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CommentDto {
+    private String id;
+    private JsonNode body;
+}
@@ -0,0 +1,39 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An issue returned by a search with the fields needed to recreate it in another project.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueDetailsDto {
+    private String id;
+    private String key;
+    private Fields fields;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Fields {
+        private String summary;
+        private JsonNode description;
+        private IssueRefDto priority;
+        @JsonProperty("issuetype")
+        private IssueTypeDto issueType;
+        private IssueRefDto parent;
+        private StatusDto status;
+        private CommentPageDto comment;
+        private List<String> labels;
+    }
+}
@@ -0,0 +1,56 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of issue ids backed by a primitive array.
+ * <p>
+ * Lets bulk operation payloads carry thousands of ids without a String per issue; the textual form of an
+ * id is only produced when an element is actually read.
+ */
+public class IssueIdList extends AbstractList<String> implements RandomAccess {
+    private final long[] ids;
+
+    /**
+     * Constructs a new list over the given ids. The array is not copied and must not be modified afterwards.
+     *
+     * @param ids the issue ids
+     */
+    public IssueIdList(long[] ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String get(int index) {
+        return Long.toString(ids[index]);
+    }
+
+    /**
+     * Returns the id at the given index without converting it to a String.
+     *
+     * @param index the index of the id
+     * @return the issue id
+     */
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the id at the given index of a list of issue ids, without a String round trip if the list is an
+     * {@code IssueIdList}.
+     *
+     * @param issueIds the ids, an {@code IssueIdList} or textual ids
+     * @param index the index of the id
+     * @return the issue id
+     */
+    public static long idAt(List<String> issueIds, int index) {
+        return issueIds instanceof IssueIdList ? ((IssueIdList) issueIds).getId(index) : Long.parseLong(issueIds.get(index));
+    }
+}
@@ -0,0 +1,17 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reference to another JIRA entity by id, e.g. the parent or priority of an issue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueRefDto {
+    private String id;
+}
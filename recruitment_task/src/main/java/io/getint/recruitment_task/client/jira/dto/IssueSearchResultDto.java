@@ -0,0 +1,20 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueSearchResultDto {
+    private int startAt;
+    private int maxResults;
+    private int total;
+    @Builder.Default
+    private List<IssueDetailsDto> issues = List.of();
+}
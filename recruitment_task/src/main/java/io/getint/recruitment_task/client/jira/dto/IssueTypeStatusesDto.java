@@ -0,0 +1,23 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Statuses available to a single issue type of a project.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueTypeStatusesDto {
+    private String id;
+    private String name;
+    private boolean subtask;
+    @Builder.Default
+    private List<StatusDto> statuses = List.of();
+}
@@ -0,0 +1,22 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class JiraClientStatsDto {
+    private String circuitBreakerState;
+    private int consecutiveFailures;
+    private long circuitBreakerOpenedCount;
+    private long rejectedCalls;
+    private long retries;
+    private long backoffMs;
+    private Map<String, Double> requestsPerSecond;
+    private Map<String, Long> throttledResponses;
+    private long responseCacheHits;
+    private long responseCacheMisses;
+    private long responseCacheRevalidations;
+}
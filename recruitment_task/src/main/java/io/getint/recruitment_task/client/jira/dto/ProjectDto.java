@@ -0,0 +1,20 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDto {
+    private String id;
+    private String key;
+    private String name;
+    @Builder.Default
+    private List<IssueTypeDto> issueTypes = List.of();
+}
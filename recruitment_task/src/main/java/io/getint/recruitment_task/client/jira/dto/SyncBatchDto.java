@@ -0,0 +1,12 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SyncBatchDto {
+    private List<SyncJobDto> jobs;
+}
@@ -0,0 +1,18 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SyncJobDto {
+    private String jobId;
+    private String status;
+    private String sourceProjectKey;
+    private String targetProjectKey;
+    private long createdAt;
+    private long startedAt;
+    private long finishedAt;
+    private String error;
+    private SyncProgressDto progress;
+}
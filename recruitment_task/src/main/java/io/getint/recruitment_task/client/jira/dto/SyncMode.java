@@ -0,0 +1,16 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+/**
+ * How a sync run brings the issues of the source project into the target project.
+ */
+public enum SyncMode {
+    /**
+     * Moves the issues with JIRA bulk move tasks; they leave the source project and keep their ids.
+     */
+    MOVE,
+    /**
+     * Recreates the issues in the target project with bulk issue creation and copies their comments; the
+     * source project is left untouched.
+     */
+    COPY
+}
@@ -0,0 +1,16 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SyncProgressDto {
+    private long issuesFetched;
+    private long chunksSubmitted;
+    private long chunksCompleted;
+    private long issuesMoved;
+    private long issuesFailed;
+    private long elapsedMs;
+    private double issuesMovedPerSecond;
+}
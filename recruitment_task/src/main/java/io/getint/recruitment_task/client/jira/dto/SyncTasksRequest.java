@@ -0,0 +1,26 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTasksRequest {
+    private String sourceProjectKey;
+    private String targetProjectKey;
+    private int maxIssuesToMove;
+    @Builder.Default
+    private List<String> issueTypeNames = List.of();
+    private boolean incremental;
+    @Builder.Default
+    private int weight = 1;
+    private String instance;
+    @Builder.Default
+    private SyncMode mode = SyncMode.MOVE;
+}
@@ -0,0 +1,19 @@
+package io.getint.recruitment_task.client.jira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A workflow transition available to an issue, with the status it leads to.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionDto {
+    private String id;
+    private String name;
+    private StatusDto to;
+}
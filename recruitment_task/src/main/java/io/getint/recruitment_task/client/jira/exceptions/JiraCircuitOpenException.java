@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class JiraCircuitOpenException extends JiraCommunicationException {
+    public JiraCircuitOpenException(String message) {
+        super(message, null);
+    }
+}
@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class JiraConnectionPoolExhaustedException extends JiraClientException {
+    public JiraConnectionPoolExhaustedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
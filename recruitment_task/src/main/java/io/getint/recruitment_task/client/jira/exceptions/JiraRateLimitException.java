@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class JiraRateLimitException extends JiraCommunicationException {
+    public JiraRateLimitException(String message) {
+        super(message, null);
+    }
+}
@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class JiraServerException extends JiraCommunicationException {
+    public JiraServerException(String message) {
+        super(message, null);
+    }
+}
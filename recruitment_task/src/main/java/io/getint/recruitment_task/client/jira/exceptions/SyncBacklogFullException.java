@@ -0,0 +1,14 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class SyncBacklogFullException extends JiraClientException {
+    private final long retryAfterSeconds;
+
+    public SyncBacklogFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class SyncCancelledException extends JiraClientException {
+    public SyncCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package io.getint.recruitment_task.client.jira.exceptions;
+
+public class SyncRunInProgressException extends JiraClientException {
+    public SyncRunInProgressException(String message) {
+        super(message);
+    }
+}
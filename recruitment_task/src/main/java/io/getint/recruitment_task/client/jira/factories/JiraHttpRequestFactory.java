@@ -17,8 +17,16 @@ public class JiraHttpRequestFactory implements HttpRequestFactory {
 
     private static final Logger log = LoggerFactory.getLogger(JiraHttpRequestFactory.class);
 
-    @Value("${jira.api.url}")
-    private String baseUrl;
+    private final String baseUrl;
+
+    /**
+     * Constructs a new JiraHttpRequestFactory.
+     *
+     * @param baseUrl the URL of the JIRA instance all request paths are appended to
+     */
+    public JiraHttpRequestFactory(@Value("${jira.api.url}") String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
 
     /**
      * Creates an HTTP GET request with the specified path.
@@ -0,0 +1,65 @@
+package io.getint.recruitment_task.client.jira.httpcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Body of a successful GET response together with the validators JIRA sent for it.
+ */
+public final class CachedResponse {
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final String key;
+    private final String etag;
+    private final String lastModified;
+    private final byte[] body;
+
+    /**
+     * Constructs a new cached response.
+     *
+     * @param key the URI of the request
+     * @param etag the {@code ETag} of the response, or null
+     * @param lastModified the {@code Last-Modified} date of the response, or null
+     * @param body the decoded response body
+     */
+    public CachedResponse(String key, String etag, String lastModified, byte[] body) {
+        this.key = key;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.body = body;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Opens a stream over the cached body.
+     *
+     * @return a new stream positioned at the start of the body
+     */
+    public InputStream openBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * Estimates the memory held by this entry, which is what the memory tier is bounded by.
+     *
+     * @return the estimated size in bytes
+     */
+    int weight() {
+        return body.length + 2 * key.length() + ENTRY_OVERHEAD_BYTES;
+    }
+}
@@ -0,0 +1,359 @@
+package io.getint.recruitment_task.client.jira.httpcache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conditional request cache of the GET responses received from JIRA.
+ * <p>
+ * Successful responses carrying an {@code ETag} or {@code Last-Modified} validator are kept in an in-memory LRU
+ * bounded by bytes. When the same URI is requested again, the validators are sent as {@code If-None-Match} and
+ * {@code If-Modified-Since}, and a {@code 304 Not Modified} answer is served from the cached body, so an unchanged
+ * resource costs a request without a body. Entries evicted from memory move to an optional on-disk tier, which
+ * also keeps them across restarts.
+ * <p>
+ * The cache never fails a request: bodies larger than {@code maxEntryBytes} are streamed without being cached,
+ * and disk errors only lose the affected entry.
+ */
+@Component
+public class JiraResponseCache implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(JiraResponseCache.class);
+    private static final String NO_STORE = "no-store";
+
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final int maxEntryBytes;
+    private final ResponseDiskStore diskStore;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param enabled whether GET responses are cached at all
+     * @param maxMemoryBytes the maximum size of the in-memory tier
+     * @param maxEntryBytes the maximum body size of a cached response
+     * @param diskDirectory the directory of the on-disk tier, or an empty string to keep entries in memory only
+     * @param maxDiskBytes the maximum size of the on-disk tier
+     */
+    public JiraResponseCache(@Value("${jira.responseCache.enabled}") boolean enabled,
+                             @Value("${jira.responseCache.maxMemoryBytes}") long maxMemoryBytes,
+                             @Value("${jira.responseCache.maxEntryBytes}") int maxEntryBytes,
+                             @Value("${jira.responseCache.diskDir}") String diskDirectory,
+                             @Value("${jira.responseCache.maxDiskBytes}") long maxDiskBytes) {
+        this.enabled = enabled;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxEntryBytes = (int) Math.min(maxEntryBytes, maxMemoryBytes);
+        this.diskStore = enabled && !diskDirectory.isBlank() ? openDiskStore(diskDirectory, maxDiskBytes) : null;
+    }
+
+    /**
+     * Returns a cache which never caches anything.
+     *
+     * @return a disabled cache
+     */
+    public static JiraResponseCache disabled() {
+        return new JiraResponseCache(false, 0, 0, "", 0);
+    }
+
+    /**
+     * Looks up the cached response of a request and makes the request conditional on it.
+     * <p>
+     * Must be called before every attempt of the request, so that a retried request carries the validators of
+     * the entry it is checked against.
+     *
+     * @param request the request about to be sent
+     * @return the cached response the validators were taken from, or null if the request is not conditional
+     */
+    public CachedResponse prepare(HttpUriRequest request) {
+        if (!enabled || !HttpGet.METHOD_NAME.equals(request.getMethod())) {
+            return null;
+        }
+        request.removeHeaders(HttpHeaders.IF_NONE_MATCH);
+        request.removeHeaders(HttpHeaders.IF_MODIFIED_SINCE);
+        CachedResponse cached = find(request.getURI().toString());
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.getEtag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+        if (cached.getLastModified() != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+        revalidations.increment();
+        return cached;
+    }
+
+    /**
+     * Serves a {@code 304 Not Modified} answer from the cached response.
+     *
+     * @param cached the response returned by {@link #prepare(HttpUriRequest)}
+     * @return a stream over the cached body
+     */
+    public InputStream onNotModified(CachedResponse cached) {
+        hits.increment();
+        return cached.openBody();
+    }
+
+    /**
+     * Wraps the body of a response so that it can be stored once it was read successfully.
+     * <p>
+     * Cacheable bodies up to {@code maxEntryBytes} are buffered right away; larger or non-cacheable bodies are
+     * streamed through unchanged. Closing the returned body closes the given stream.
+     *
+     * @param request the request the response belongs to
+     * @param response the response
+     * @param content the body stream of the response
+     * @return the possibly buffered body
+     * @throws IOException if the body cannot be read
+     */
+    public CapturedBody capture(HttpUriRequest request, HttpResponse response, InputStream content) throws IOException {
+        if (!enabled || !HttpGet.METHOD_NAME.equals(request.getMethod())) {
+            return new CapturedBody(content, null, null);
+        }
+        String key = request.getURI().toString();
+        String etag = headerValue(response, HttpHeaders.ETAG);
+        String lastModified = headerValue(response, HttpHeaders.LAST_MODIFIED);
+        String cacheControl = headerValue(response, HttpHeaders.CACHE_CONTROL);
+        String vary = headerValue(response, HttpHeaders.VARY);
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || (etag == null && lastModified == null)
+                || (cacheControl != null && cacheControl.contains(NO_STORE)) || "*".equals(vary)) {
+            invalidate(key);
+            return new CapturedBody(content, null, null);
+        }
+        long contentLength = response.getEntity() == null ? -1 : response.getEntity().getContentLength();
+        if (contentLength > maxEntryBytes) {
+            invalidate(key);
+            return new CapturedBody(content, null, null);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 8192);
+        byte[] chunk = new byte[8192];
+        int read;
+        while (buffer.size() <= maxEntryBytes && (read = content.read(chunk, 0, Math.min(chunk.length, maxEntryBytes + 1 - buffer.size()))) >= 0) {
+            buffer.write(chunk, 0, read);
+        }
+        if (buffer.size() > maxEntryBytes) {
+            invalidate(key);
+            return new CapturedBody(new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), content), null, null);
+        }
+        byte[] body = buffer.toByteArray();
+        return new CapturedBody(new ByteArrayInputStream(body), content, new CachedResponse(key, etag, lastModified, body));
+    }
+
+    /**
+     * Tells whether the cache is enabled.
+     *
+     * @return true if GET responses are cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Returns the size of the in-memory tier.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getMemoryBytes() {
+        lock.lock();
+        try {
+            return memoryBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the on-disk tier.
+     *
+     * @return the total size of the entry files, 0 without a disk tier
+     */
+    public long getDiskBytes() {
+        return diskStore == null ? 0 : diskStore.getSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("jira.client.cache.lookups", hits, LongAdder::sum)
+                .description("GET requests answered with 304 Not Modified and served from the response cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jira.client.cache.lookups", misses, LongAdder::sum)
+                .description("GET requests sent without a cached response to revalidate")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("jira.client.cache.revalidations", revalidations, LongAdder::sum)
+                .description("Conditional GET requests sent to revalidate a cached response")
+                .register(registry);
+        FunctionCounter.builder("jira.client.cache.evictions", memoryEvictions, LongAdder::sum)
+                .tag("tier", "memory")
+                .register(registry);
+        Gauge.builder("jira.client.cache.size", this, JiraResponseCache::getMemoryBytes)
+                .baseUnit("bytes")
+                .tag("tier", "memory")
+                .register(registry);
+        if (diskStore != null) {
+            FunctionCounter.builder("jira.client.cache.evictions", diskStore, ResponseDiskStore::getEvictions)
+                    .tag("tier", "disk")
+                    .register(registry);
+            Gauge.builder("jira.client.cache.size", diskStore, ResponseDiskStore::getSize)
+                    .baseUnit("bytes")
+                    .tag("tier", "disk")
+                    .register(registry);
+        }
+    }
+
+    private CachedResponse find(String key) {
+        lock.lock();
+        try {
+            CachedResponse cached = entries.get(key);
+            if (cached != null || diskStore == null) {
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+        CachedResponse cached = diskStore.get(key);
+        if (cached != null) {
+            put(cached);
+        }
+        return cached;
+    }
+
+    private void put(CachedResponse response) {
+        List<CachedResponse> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            CachedResponse previous = entries.put(response.getKey(), response);
+            memoryBytes += response.weight() - (previous == null ? 0 : previous.weight());
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                CachedResponse entry = eldest.next().getValue();
+                eldest.remove();
+                memoryBytes -= entry.weight();
+                memoryEvictions.increment();
+                evicted.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (diskStore != null) {
+            evicted.forEach(diskStore::put);
+        }
+    }
+
+    private void invalidate(String key) {
+        lock.lock();
+        try {
+            CachedResponse previous = entries.remove(key);
+            if (previous != null) {
+                memoryBytes -= previous.weight();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static ResponseDiskStore openDiskStore(String directory, long maxBytes) {
+        try {
+            return new ResponseDiskStore(Paths.get(directory).toAbsolutePath(), maxBytes);
+        } catch (IOException e) {
+            log.warn("Response cache directory {} is not usable, caching JIRA responses in memory only", directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Body of a response, buffered if it can be cached.
+     */
+    public final class CapturedBody {
+        private final InputStream content;
+        private final CachedResponse response;
+
+        private CapturedBody(InputStream content, InputStream source, CachedResponse response) {
+            this.content = source == null ? content : new FilterInputStream(content) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        source.close();
+                    }
+                }
+            };
+            this.response = response;
+        }
+
+        /**
+         * Returns the body stream; closing it closes the stream of the response.
+         *
+         * @return the body stream
+         */
+        public InputStream getContent() {
+            return content;
+        }
+
+        /**
+         * Caches the body, once it was read without errors; does nothing if the response cannot be cached.
+         */
+        public void store() {
+            if (response != null) {
+                put(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package io.getint.recruitment_task.client.jira.httpcache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Overflow tier of the response cache, keeping the entries evicted from memory as one file each.
+ * <p>
+ * Files are named after the SHA-256 of the request URI and written to a temporary file first, which is then
+ * renamed over the old one. The directory is indexed on startup, so cached responses survive a restart; a file
+ * that cannot be read is deleted and treated as a miss. The tier is bounded by the total size of its files and
+ * evicts the least recently used file first.
+ */
+class ResponseDiskStore {
+    private static final Logger log = LoggerFactory.getLogger(ResponseDiskStore.class);
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, DiskEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long evictions;
+
+    /**
+     * Opens the store, indexing the entries written by earlier processes.
+     *
+     * @param directory the directory holding the entry files
+     * @param maxBytes the maximum total size of the entry files
+     * @throws IOException if the directory cannot be created or listed
+     */
+    ResponseDiskStore(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * Reads the entry of the given request URI.
+     *
+     * @param key the request URI
+     * @return the entry, or null if the store does not hold it
+     */
+    CachedResponse get(String key) {
+        lock.lock();
+        try {
+            DiskEntry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                CachedResponse response = read(entry.file);
+                if (response != null && key.equals(response.getKey())) {
+                    return response;
+                }
+                log.warn("Dropping response cache file {} which does not hold {}", entry.file, key);
+            } catch (IOException e) {
+                log.warn("Dropping unreadable response cache file {}", entry.file, e);
+            }
+            remove(key);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes an entry, replacing the earlier entry of its request URI, and evicts old entries beyond the limit.
+     *
+     * @param response the entry to write
+     */
+    void put(CachedResponse response) {
+        Path file = directory.resolve(fileName(response.getKey()));
+        Path tempFile = directory.resolve(file.getFileName() + TEMP_SUFFIX);
+        lock.lock();
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(response.getKey());
+                out.writeUTF(response.getEtag() == null ? "" : response.getEtag());
+                out.writeUTF(response.getLastModified() == null ? "" : response.getLastModified());
+                out.writeInt(response.getBody().length);
+                out.write(response.getBody());
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long fileSize = Files.size(file);
+            DiskEntry previous = index.put(response.getKey(), new DiskEntry(file, fileSize));
+            size += fileSize - (previous == null ? 0 : previous.size);
+            evictBeyondLimit();
+        } catch (IOException e) {
+            log.warn("Failed to write response cache file {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getEntryCount() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getEvictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictBeyondLimit() {
+        Iterator<Map.Entry<String, DiskEntry>> eldest = index.entrySet().iterator();
+        while (size > maxBytes && eldest.hasNext()) {
+            DiskEntry entry = eldest.next().getValue();
+            eldest.remove();
+            size -= entry.size;
+            evictions++;
+            delete(entry.file);
+        }
+    }
+
+    private void remove(String key) {
+        DiskEntry entry = index.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+            delete(entry.file);
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    delete(file);
+                } else if (file.getFileName().toString().endsWith(SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+        // Oldest first, so that the access order of the index starts out as the write order of the files
+        files.sort(Comparator.comparing(ResponseDiskStore::lastModifiedTime));
+        for (Path file : files) {
+            try {
+                String key = readKey(file);
+                if (key == null) {
+                    delete(file);
+                    continue;
+                }
+                long fileSize = Files.size(file);
+                index.put(key, new DiskEntry(file, fileSize));
+                size += fileSize;
+            } catch (IOException e) {
+                log.warn("Dropping unreadable response cache file {}", file, e);
+                delete(file);
+            }
+        }
+        evictBeyondLimit();
+        if (!index.isEmpty()) {
+            log.info("Indexed {} cached JIRA responses ({} bytes) in {}", index.size(), size, directory);
+        }
+    }
+
+    private static CachedResponse read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String key = in.readUTF();
+            String etag = in.readUTF();
+            String lastModified = in.readUTF();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(key, etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, body);
+        }
+    }
+
+    private static String readKey(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return in.readInt() == FORMAT_VERSION ? in.readUTF() : null;
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static FileTime lastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete response cache file {}", file, e);
+        }
+    }
+
+    private static final class DiskEntry {
+        private final Path file;
+        private final long size;
+
+        private DiskEntry(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.getint.recruitment_task.client.jira.idempotency;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.storage.StateFiles;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local index of the issues already moved between pairs of projects, one {@link MovedIssueSet} per pair.
+ * <p>
+ * Overlapping sync requests and re-runs drop issues found in the index before building bulk move payloads,
+ * instead of sending them to JIRA again. All index files in {@code jira.sync.movedIndexDir} are mapped at
+ * startup; sets of new pairs are created on first use.
+ */
+@Component
+public class MovedIssueIndex {
+    private static final Logger log = LoggerFactory.getLogger(MovedIssueIndex.class);
+    private static final String SUFFIX = ".bitmap";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Map<String, MovedIssueSet> sets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new index and maps the sets persisted so far.
+     *
+     * @param enabled whether moved issues are indexed at all
+     * @param directory the directory holding the index files
+     * @throws JiraClientException if the directory cannot be read
+     */
+    public MovedIssueIndex(@Value("${jira.sync.movedIndexEnabled}") boolean enabled,
+                           @Value("${jira.sync.movedIndexDir}") String directory) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Builds the key of a pair of projects.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     * @return the pair key
+     */
+    public static String key(String sourceProjectKey, String targetProjectKey) {
+        return sourceProjectKey + "->" + targetProjectKey;
+    }
+
+    /**
+     * Returns the set of issues moved between two projects.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     * @return the set of the pair, a disabled one if indexing is switched off
+     */
+    public MovedIssueSet forPair(String sourceProjectKey, String targetProjectKey) {
+        String key = key(sourceProjectKey, targetProjectKey);
+        if (!enabled) {
+            return MovedIssueSet.disabled(key);
+        }
+        return sets.computeIfAbsent(key, k -> new MovedIssueSet(k, directory.resolve(StateFiles.fileNameFor(k) + SUFFIX), new MutableRoaringBitmap()));
+    }
+
+    /**
+     * Forgets the issues moved between two projects, e.g. after they were moved back by hand.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     */
+    public void clear(String sourceProjectKey, String targetProjectKey) {
+        MovedIssueSet set = sets.get(key(sourceProjectKey, targetProjectKey));
+        if (set != null) {
+            set.clear();
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    MovedIssueSet set = MovedIssueSet.map(file);
+                    sets.put(set.getKey(), set);
+                    log.info("Mapped moved issue index {} with {} ids from {}", set.getKey(), set.size(), file);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Ignoring unreadable moved issue index {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to read moved issue index directory " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.getint.recruitment_task.client.jira.idempotency;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed set of the ids of issues already moved from one project to another.
+ * <p>
+ * The ids persisted so far are read straight from a memory-mapped Roaring bitmap; ids added since the last
+ * {@link #flush()} live in a small on-heap bitmap. Lookups never box and cost a couple of binary searches,
+ * and a few million ids take a few megabytes. Roaring bitmaps hold unsigned 32-bit values, which covers
+ * JIRA issue ids; ids outside that range are never reported as moved.
+ * <p>
+ * The file starts with a header holding the pair key, followed by the portable Roaring serialization. It is
+ * rewritten as a whole on flush through a temporary file and an atomic rename, like the watermark file.
+ */
+public class MovedIssueSet {
+    private static final Logger log = LoggerFactory.getLogger(MovedIssueSet.class);
+
+    static final int MAGIC = 0x4d564944;
+    static final int VERSION = 1;
+    private static final long MAX_INDEXED_ID = 0xFFFFFFFFL;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final String key;
+    private final Path file;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MutableRoaringBitmap added = new MutableRoaringBitmap();
+    private ImmutableRoaringBitmap persisted;
+
+    MovedIssueSet(String key, Path file, ImmutableRoaringBitmap persisted) {
+        this.key = key;
+        this.file = file;
+        this.persisted = persisted;
+    }
+
+    /**
+     * Returns a set that never reports an issue as moved and remembers nothing, for disabled indexes.
+     *
+     * @param key the source to target pair key
+     * @return a disabled set
+     */
+    public static MovedIssueSet disabled(String key) {
+        return new MovedIssueSet(key, null, new MutableRoaringBitmap());
+    }
+
+    /**
+     * Maps the set persisted in the given file.
+     *
+     * @param file the index file
+     * @return the mapped set
+     * @throws IOException if the file cannot be mapped or is not an index file
+     */
+    static MovedIssueSet map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a moved issue index: " + file);
+            }
+            byte[] key = new byte[buffer.getInt()];
+            buffer.get(key);
+            return new MovedIssueSet(new String(key, StandardCharsets.UTF_8), file, new ImmutableRoaringBitmap(buffer.slice()));
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Checks whether an issue was already moved.
+     *
+     * @param issueId the id of the issue
+     * @return true if the issue is in the set
+     */
+    public boolean contains(long issueId) {
+        if (issueId < 0 || issueId > MAX_INDEXED_ID) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return persisted.contains((int) issueId) || added.contains((int) issueId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the ids of moved issues. They are persisted on the next {@link #flush()}.
+     *
+     * @param issueIds the ids of the moved issues
+     */
+    public void addAll(long[] issueIds) {
+        if (file == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long issueId : issueIds) {
+                if (issueId >= 0 && issueId <= MAX_INDEXED_ID && !persisted.contains((int) issueId)) {
+                    added.add((int) issueId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return the number of moved issues
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return persisted.getLongCardinality() + added.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Persists the ids added since the last flush and maps the rewritten file.
+     *
+     * @throws JiraClientException if the file cannot be written
+     */
+    public void flush() {
+        if (file == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (added.isEmpty()) {
+                return;
+            }
+            MutableRoaringBitmap merged = ImmutableRoaringBitmap.or(persisted, added);
+            merged.runOptimize();
+            write(merged);
+            persisted = map(file).persisted;
+            added.clear();
+            log.debug("Flushed moved issue index {} with {} ids to {}", key, merged.getLongCardinality(), file);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to write moved issue index " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets all ids and deletes the file, e.g. after issues were moved back to the source project.
+     *
+     * @throws JiraClientException if the file cannot be deleted
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            persisted = new MutableRoaringBitmap();
+            added.clear();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to delete moved issue index " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(MutableRoaringBitmap bitmap) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        Files.createDirectories(file.getParent());
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            bitmap.serialize(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,130 @@
+package io.getint.recruitment_task.client.jira.instances;
+
+import io.getint.recruitment_task.client.jira.chunking.AdaptiveChunkSizer;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.partitioning.SearchPartitioner;
+import io.getint.recruitment_task.client.jira.scheduling.WeightedSlotScheduler;
+import io.getint.recruitment_task.client.jira.services.AsyncJiraProxy;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+
+import java.io.Closeable;
+
+/**
+ * A JIRA site the synchronizer talks to, with the proxies, metadata cache, chunk sizer, search partitioner and bulk
+ * task slots bound to it.
+ * <p>
+ * The proxies of every named instance have connection pools, credentials, a rate limiter and a circuit breaker of
+ * their own, the blocking and the non-blocking proxy sharing the rate limiter and circuit breaker, so a slow or failing site only ever uses up its own connections; likewise bulk tasks stalled on one site
+ * only ever hold the bulk task slots of that site. The default instance is made of the
+ * application-wide beans configured with {@code jira.api.*}.
+ */
+public final class JiraInstance {
+    private final String name;
+    private final JiraProxy proxy;
+    private final AsyncJiraProxy asyncProxy;
+    private final JiraMetadataCache metadataCache;
+    private final AdaptiveChunkSizer chunkSizer;
+    private final SearchPartitioner searchPartitioner;
+    private final WeightedSlotScheduler bulkTaskSlots;
+    private final Closeable resources;
+    private int leases;
+    private long idleSince;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param name the name of the instance
+     * @param proxy the proxy sending requests to the instance
+     * @param asyncProxy the non-blocking proxy sending requests to the instance, or null if there is none
+     * @param metadataCache the project metadata cache of the instance
+     * @param chunkSizer the sizer of the bulk move chunks sent to the instance
+     * @param searchPartitioner the partitioner of large searches sent to the instance
+     * @param bulkTaskSlots the slots bulk tasks running on the instance are submitted through
+     * @param resources the resources released when the instance is evicted, e.g. its HTTP clients, or null
+     */
+    JiraInstance(String name, JiraProxy proxy, AsyncJiraProxy asyncProxy, JiraMetadataCache metadataCache, AdaptiveChunkSizer chunkSizer,
+                 SearchPartitioner searchPartitioner, WeightedSlotScheduler bulkTaskSlots, Closeable resources) {
+        this.name = name;
+        this.proxy = proxy;
+        this.asyncProxy = asyncProxy;
+        this.metadataCache = metadataCache;
+        this.chunkSizer = chunkSizer;
+        this.searchPartitioner = searchPartitioner;
+        this.bulkTaskSlots = bulkTaskSlots;
+        this.resources = resources;
+        this.idleSince = System.currentTimeMillis();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JiraProxy getProxy() {
+        return proxy;
+    }
+
+    public AsyncJiraProxy getAsyncProxy() {
+        return asyncProxy;
+    }
+
+    public JiraMetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    public AdaptiveChunkSizer getChunkSizer() {
+        return chunkSizer;
+    }
+
+    public SearchPartitioner getSearchPartitioner() {
+        return searchPartitioner;
+    }
+
+    public WeightedSlotScheduler getBulkTaskSlots() {
+        return bulkTaskSlots;
+    }
+
+    /**
+     * Returns whether this is the default instance configured with {@code jira.api.*}.
+     *
+     * @return true for the default instance
+     */
+    public boolean isDefault() {
+        return JiraInstanceRegistry.DEFAULT_INSTANCE.equals(name);
+    }
+
+    /**
+     * Scopes a key of persisted sync state, such as a watermark or journal key, to this instance. Keys of the
+     * default instance are returned unchanged, so state written before instances existed stays valid.
+     *
+     * @param key the key of the state
+     * @return the key qualified with the name of the instance
+     */
+    public String qualify(String key) {
+        return isDefault() ? key : name + ":" + key;
+    }
+
+    // Lease bookkeeping, guarded by the lock of the registry
+
+    void lease() {
+        leases++;
+    }
+
+    void release(long now) {
+        if (--leases == 0) {
+            idleSince = now;
+        }
+    }
+
+    boolean isIdleSince(long threshold) {
+        return leases == 0 && idleSince <= threshold;
+    }
+
+    Closeable getResources() {
+        return resources;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,414 @@
+package io.getint.recruitment_task.client.jira.instances;
+
+import io.getint.recruitment_task.client.jira.chunking.AdaptiveChunkSizer;
+import io.getint.recruitment_task.client.jira.concurrency.ConnectionLeaseGate;
+import io.getint.recruitment_task.client.jira.concurrency.JiraThreading;
+import io.getint.recruitment_task.client.jira.config.JiraClientConfiguration;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.factories.JiraHttpRequestFactory;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.partitioning.SearchPartitioner;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraRateLimiter;
+import io.getint.recruitment_task.client.jira.resilience.JiraResilience;
+import io.getint.recruitment_task.client.jira.scheduling.WeightedSlotScheduler;
+import io.getint.recruitment_task.client.jira.services.AsyncJiraProxy;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registry of the JIRA sites sync runs can read from and write to.
+ * <p>
+ * Besides the default instance configured with {@code jira.api.*}, every site with a
+ * {@code jira.instances.<name>.api.url} property is an instance of its own. Every other setting of the client
+ * can be overridden per instance the same way, e.g. {@code jira.instances.<name>.api.token},
+ * {@code jira.instances.<name>.api.maxConnectionsPerRoute} or {@code jira.instances.<name>.rateLimit.searchPerSecond};
+ * settings which are not overridden fall back to the application-wide ones.
+ * <p>
+ * A named instance is created on its first lease, with blocking and non-blocking connection pools, a rate limiter, circuit breaker,
+ * metadata cache, bulk move chunk sizer and bulk task slots of its own, and is closed again once nobody leased it
+ * for {@code jira.instances.idleEvictMs}. Chunk sizing is configured with {@code jira.sync.chunk.*}, search
+ * partitioning with {@code jira.sync.partition.*} and the number of bulk task slots with
+ * {@code jira.sync.bulkMaxInFlight}. The connection pool gauges of a named instance are tagged
+ * with its name and removed again when it is closed, together with its HTTP clients. Named instances still open
+ * are closed with the registry.
+ */
+@Component
+public class JiraInstanceRegistry implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JiraInstanceRegistry.class);
+    public static final String DEFAULT_INSTANCE = "default";
+    public static final String INSTANCE_TAG = "instance";
+    private static final String PREFIX = "jira.instances.";
+
+    private final JiraInstance defaultInstance;
+    private final JiraThreading threading;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final long idleEvictMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, JiraInstance> instances = new HashMap<>();
+
+    /**
+     * Constructs a new JiraInstanceRegistry.
+     *
+     * @param defaultProxy the proxy of the default instance
+     * @param defaultAsyncProxy the non-blocking proxy of the default instance, or null to open named instances without one
+     * @param defaultMetadataCache the metadata cache of the default instance
+     * @param threading the threading mode of the application
+     * @param environment the environment holding the settings of the named instances
+     * @param meterRegistry the registry the connection pools of named instances are bound to, or null
+     * @param scheduler the scheduler checking for idle instances, or null to keep instances open
+     * @param idleEvictMs how long a named instance stays open without being leased
+     */
+    public JiraInstanceRegistry(JiraProxy defaultProxy,
+                                AsyncJiraProxy defaultAsyncProxy,
+                                JiraMetadataCache defaultMetadataCache,
+                                JiraThreading threading,
+                                Environment environment,
+                                MeterRegistry meterRegistry,
+                                @Qualifier("jiraScheduler") ScheduledExecutorService scheduler,
+                                @Value("${jira.instances.idleEvictMs}") long idleEvictMs) {
+        this.threading = threading;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultInstance = new JiraInstance(DEFAULT_INSTANCE, defaultProxy, defaultAsyncProxy, defaultMetadataCache, chunkSizer(DEFAULT_INSTANCE),
+                searchPartitioner(DEFAULT_INSTANCE), bulkTaskSlots(DEFAULT_INSTANCE), null);
+        this.idleEvictMs = idleEvictMs;
+        if (scheduler != null && idleEvictMs > 0) {
+            long period = Math.max(idleEvictMs / 2, 1);
+            try {
+                scheduler.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.warn("Idle JIRA instances will not be evicted, the scheduler is shut down");
+            }
+        }
+    }
+
+    /**
+     * Creates a registry knowing only the default instance.
+     *
+     * @param defaultProxy the proxy of the default instance
+     * @param defaultMetadataCache the metadata cache of the default instance
+     * @return the new registry
+     */
+    public static JiraInstanceRegistry single(JiraProxy defaultProxy, JiraMetadataCache defaultMetadataCache) {
+        return new JiraInstanceRegistry(defaultProxy, null, defaultMetadataCache, new JiraThreading(false), new StandardEnvironment(), null, null, 0);
+    }
+
+    /**
+     * Returns whether an instance of the given name is configured.
+     *
+     * @param name the name of the instance; null or blank for the default instance
+     * @return true for the default instance and every configured named instance
+     */
+    public boolean isConfigured(String name) {
+        return isDefault(name) || environment.containsProperty(PREFIX + name + ".api.url");
+    }
+
+    /**
+     * Leases an instance, creating it if it is not open yet. The instance is not evicted until the lease is closed.
+     *
+     * @param name the name of the instance; null or blank for the default instance
+     * @return the lease of the instance
+     * @throws JiraClientException if no instance of the given name is configured
+     */
+    public Lease lease(String name) throws JiraClientException {
+        if (isDefault(name)) {
+            return new Lease(defaultInstance);
+        }
+        if (!isConfigured(name)) {
+            throw new JiraClientException("Unknown JIRA instance '" + name + "'");
+        }
+        lock.lock();
+        try {
+            JiraInstance instance = instances.computeIfAbsent(name, this::open);
+            instance.lease();
+            return new Lease(instance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of named instances which are currently open.
+     *
+     * @return the number of open instances, not counting the default instance
+     */
+    public int getOpenInstances() {
+        lock.lock();
+        try {
+            return instances.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the named instances that have not been leased for {@code jira.instances.idleEvictMs}.
+     */
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleEvictMs;
+        List<JiraInstance> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<JiraInstance> iterator = instances.values().iterator();
+            while (iterator.hasNext()) {
+                JiraInstance instance = iterator.next();
+                if (instance.isIdleSince(threshold)) {
+                    iterator.remove();
+                    evicted.add(instance);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (JiraInstance instance : evicted) {
+            log.info("Closing JIRA instance {} after {} ms without a lease", instance.getName(), idleEvictMs);
+            closeResources(instance);
+        }
+    }
+
+    /**
+     * Closes all named instances, whether leased or not.
+     */
+    @Override
+    public void close() {
+        List<JiraInstance> closed;
+        lock.lock();
+        try {
+            closed = new ArrayList<>(instances.values());
+            instances.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (JiraInstance instance : closed) {
+            log.info("Closing JIRA instance {}", instance.getName());
+            closeResources(instance);
+        }
+    }
+
+    private static void closeResources(JiraInstance instance) {
+        try {
+            instance.getResources().close();
+        } catch (IOException e) {
+            log.warn("Failed to close the clients of JIRA instance {}", instance.getName(), e);
+        }
+    }
+
+    private void release(JiraInstance instance) {
+        if (instance.isDefault()) {
+            return;
+        }
+        lock.lock();
+        try {
+            instance.release(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JiraInstance open(String name) {
+        int maxTotalConnections = setting(name, "api.maxTotalConnections", Integer.class);
+        int maxConnectionsPerRoute = setting(name, "api.maxConnectionsPerRoute", Integer.class);
+        int connectionRequestTimeoutMs = setting(name, "api.connectionRequestTimeoutMs", Integer.class);
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        CloseableHttpClient httpClient = JiraClientConfiguration.newHttpClient(connectionManager,
+                JiraClientConfiguration.requestConfig(setting(name, "api.connectTimeoutMs", Integer.class),
+                        setting(name, "api.socketTimeoutMs", Integer.class), connectionRequestTimeoutMs),
+                setting(name, "api.username", String.class), setting(name, "api.token", String.class));
+
+        JiraHttpRequestFactory requestFactory = new JiraHttpRequestFactory(environment.getRequiredProperty(PREFIX + name + ".api.url"));
+        JiraRateLimiter rateLimiter = new JiraRateLimiter(setting(name, "rateLimit.enabled", Boolean.class),
+                setting(name, "rateLimit.searchPerSecond", Double.class),
+                setting(name, "rateLimit.bulkMovePerSecond", Double.class),
+                setting(name, "rateLimit.otherPerSecond", Double.class),
+                setting(name, "rateLimit.maxThrottleRetries", Integer.class));
+        JiraResilience resilience = new JiraResilience(setting(name, "resilience.maxAttempts", Integer.class),
+                setting(name, "resilience.backoffBaseMs", Long.class),
+                setting(name, "resilience.backoffMaxMs", Long.class),
+                setting(name, "resilience.breakerFailureThreshold", Integer.class),
+                setting(name, "resilience.breakerOpenMs", Long.class));
+        JiraProxy proxy = defaultInstance.getProxy().forInstance(name, httpClient, requestFactory, rateLimiter, resilience,
+                new ConnectionLeaseGate(threading, maxTotalConnections, maxConnectionsPerRoute, connectionRequestTimeoutMs));
+        PoolingNHttpClientConnectionManager asyncConnectionManager = null;
+        CloseableHttpAsyncClient asyncClient = null;
+        AsyncJiraProxy asyncProxy = null;
+        if (defaultInstance.getAsyncProxy() != null) {
+            try {
+                asyncConnectionManager = JiraClientConfiguration.newAsyncConnectionManager(setting(name, "api.reactorThreads", Integer.class),
+                        setting(name, "api.connectTimeoutMs", Integer.class), setting(name, "api.socketTimeoutMs", Integer.class),
+                        maxTotalConnections, maxConnectionsPerRoute);
+            } catch (IOReactorException e) {
+                closeQuietly(name, httpClient);
+                throw new JiraClientException("Failed to open JIRA instance " + name, e);
+            }
+            asyncClient = JiraClientConfiguration.newHttpAsyncClient(asyncConnectionManager,
+                    JiraClientConfiguration.requestConfig(setting(name, "api.connectTimeoutMs", Integer.class),
+                            setting(name, "api.socketTimeoutMs", Integer.class), connectionRequestTimeoutMs),
+                    setting(name, "api.username", String.class), setting(name, "api.token", String.class));
+            asyncProxy = defaultInstance.getAsyncProxy().forInstance(name, asyncClient, requestFactory, rateLimiter, resilience);
+        }
+        JiraMetadataCache metadataCache = new JiraMetadataCache(proxy,
+                setting(name, "metadataCache.maxEntries", Integer.class),
+                setting(name, "metadataCache.ttlMs", Long.class));
+        List<Meter> poolMeters = bindConnectionPools(name, connectionManager, asyncConnectionManager);
+        log.info("Opened JIRA instance {} with at most {} connections", name, maxTotalConnections);
+        CloseableHttpAsyncClient openedAsyncClient = asyncClient;
+        return new JiraInstance(name, proxy, asyncProxy, metadataCache, chunkSizer(name), searchPartitioner(name), bulkTaskSlots(name), () -> {
+            poolMeters.forEach(meterRegistry::remove);
+            try {
+                httpClient.close();
+            } finally {
+                if (openedAsyncClient != null) {
+                    openedAsyncClient.close();
+                }
+            }
+        });
+    }
+
+    private static void closeQuietly(String name, Closeable client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the HTTP client of JIRA instance {}", name, e);
+        }
+    }
+
+    /**
+     * Binds the connection pool gauges of a named instance, tagged with its name.
+     *
+     * @param name the name of the instance
+     * @param connectionManager the connection pool of the instance
+     * @param asyncConnectionManager the connection pool of the non-blocking client of the instance, or null
+     * @return the meters registered for the pools, to be removed once the instance is closed
+     */
+    private List<Meter> bindConnectionPools(String name, PoolingHttpClientConnectionManager connectionManager,
+                                            PoolingNHttpClientConnectionManager asyncConnectionManager) {
+        if (meterRegistry == null) {
+            return List.of();
+        }
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "jira", INSTANCE_TAG, name).bindTo(meterRegistry);
+        if (asyncConnectionManager != null) {
+            new PoolingHttpClientConnectionManagerMetricsBinder(asyncConnectionManager, "jira-async", INSTANCE_TAG, name).bindTo(meterRegistry);
+        }
+        return meterRegistry.getMeters().stream()
+                .filter(meter -> name.equals(meter.getId().getTag(INSTANCE_TAG)))
+                .filter(meter -> meter.getId().getName().startsWith("httpcomponents.httpclient.pool"))
+                .toList();
+    }
+
+    /**
+     * Creates the chunk sizer of an instance from the {@code sync.chunk.*} settings, which have built-in defaults.
+     *
+     * @param name the name of the instance
+     * @return the new chunk sizer
+     */
+    private AdaptiveChunkSizer chunkSizer(String name) {
+        return new AdaptiveChunkSizer(name,
+                setting(name, "sync.chunk.minSize", Integer.class, 50),
+                setting(name, "sync.chunk.maxSize", Integer.class, AdaptiveChunkSizer.JIRA_MAX_CHUNK_SIZE),
+                setting(name, "sync.chunk.targetTaskMs", Long.class, 60_000L),
+                setting(name, "sync.chunk.maxMappingKeys", Integer.class, 100),
+                setting(name, "sync.chunk.keyCostIssues", Integer.class, 5));
+    }
+
+    /**
+     * Creates the search partitioner of an instance from the {@code sync.partition.*} settings, which have
+     * built-in defaults.
+     *
+     * @param name the name of the instance
+     * @return the new search partitioner
+     */
+    private SearchPartitioner searchPartitioner(String name) {
+        return new SearchPartitioner(name,
+                setting(name, "sync.partition.enabled", Boolean.class, true),
+                setting(name, "sync.partition.minIssues", Integer.class, 20_000),
+                setting(name, "sync.partition.targetIssues", Integer.class, 10_000),
+                setting(name, "sync.partition.maxPartitions", Integer.class, 16),
+                setting(name, "sync.partition.readAheadPages", Integer.class, 4));
+    }
+
+    /**
+     * Creates the bulk task slots of an instance, sized with the {@code sync.bulkMaxInFlight} setting.
+     *
+     * @param name the name of the instance
+     * @return the new slots
+     */
+    private WeightedSlotScheduler bulkTaskSlots(String name) {
+        return new WeightedSlotScheduler(setting(name, "sync.bulkMaxInFlight", Integer.class, 4));
+    }
+
+    /**
+     * Reads a setting of a named instance, falling back to the application-wide setting.
+     *
+     * @param name the name of the instance
+     * @param key the key of the setting below {@code jira.}, e.g. {@code api.token}
+     * @param type the type of the setting
+     * @param <T> the type of the setting
+     * @return the value of the setting
+     */
+    private <T> T setting(String name, String key, Class<T> type) {
+        T value = environment.getProperty(PREFIX + name + "." + key, type);
+        return value != null ? value : environment.getRequiredProperty("jira." + key, type);
+    }
+
+    private <T> T setting(String name, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty(PREFIX + name + "." + key, type);
+        return value != null ? value : environment.getProperty("jira." + key, type, defaultValue);
+    }
+
+    private static boolean isDefault(String name) {
+        return name == null || name.isBlank() || DEFAULT_INSTANCE.equals(name);
+    }
+
+    /**
+     * A lease of an instance, keeping it open until the lease is closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private final JiraInstance instance;
+        private boolean closed;
+
+        private Lease(JiraInstance instance) {
+            this.instance = instance;
+        }
+
+        public JiraInstance getInstance() {
+            return instance;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(instance);
+            }
+        }
+    }
+}
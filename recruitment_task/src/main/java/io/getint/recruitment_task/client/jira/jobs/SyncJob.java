@@ -0,0 +1,61 @@
+package io.getint.recruitment_task.client.jira.jobs;
+
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import lombok.Getter;
+
+import java.util.concurrent.Future;
+
+/**
+ * A sync run submitted through the job API.
+ */
+@Getter
+public class SyncJob {
+    private final String id;
+    private final SyncTasksRequest request;
+    private final SyncProgress progress = new SyncProgress();
+    private final long createdAtMillis = System.currentTimeMillis();
+    private volatile SyncJobStatus status = SyncJobStatus.QUEUED;
+    private volatile long startedAtMillis;
+    private volatile long finishedAtMillis;
+    private volatile String error;
+    private volatile Future<?> execution;
+
+    public SyncJob(String id, SyncTasksRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    void setExecution(Future<?> execution) {
+        this.execution = execution;
+    }
+
+    synchronized boolean markRunning() {
+        if (status != SyncJobStatus.QUEUED) {
+            return false;
+        }
+        status = SyncJobStatus.RUNNING;
+        startedAtMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    synchronized void markFinished(SyncJobStatus finalStatus, String failure) {
+        if (status.isFinished()) {
+            return;
+        }
+        status = finalStatus;
+        error = failure;
+        finishedAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the time the job has been running for, or ran for if it is finished.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        if (startedAtMillis == 0) {
+            return 0;
+        }
+        return (finishedAtMillis == 0 ? System.currentTimeMillis() : finishedAtMillis) - startedAtMillis;
+    }
+}
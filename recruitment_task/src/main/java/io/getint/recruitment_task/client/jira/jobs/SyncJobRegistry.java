@@ -0,0 +1,82 @@
+package io.getint.recruitment_task.client.jira.jobs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of sync jobs.
+ * <p>
+ * Running jobs are always kept. Finished jobs are dropped once they are older than
+ * {@code jira.sync.jobRetentionMs}, and the oldest finished jobs are dropped first whenever more than
+ * {@code jira.sync.jobRetentionMaxJobs} jobs are registered.
+ */
+@Component
+public class SyncJobRegistry {
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+    private final int maxJobs;
+    private final long retentionMs;
+
+    public SyncJobRegistry(@Value("${jira.sync.jobRetentionMaxJobs}") int maxJobs,
+                           @Value("${jira.sync.jobRetentionMs}") long retentionMs) {
+        this.maxJobs = maxJobs;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Registers a new job, evicting expired finished jobs first.
+     *
+     * @param job the job to register
+     */
+    public void register(SyncJob job) {
+        evict();
+        jobs.put(job.getId(), job);
+    }
+
+    /**
+     * Looks up a job by id.
+     *
+     * @param jobId the id of the job
+     * @return the job, or empty if it is unknown or was already evicted
+     */
+    public Optional<SyncJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Returns the number of registered jobs.
+     *
+     * @return the number of jobs
+     */
+    public int size() {
+        return jobs.size();
+    }
+
+    /**
+     * Returns the number of jobs that are queued or running.
+     *
+     * @return the number of unfinished jobs
+     */
+    public int countUnfinished() {
+        return (int) jobs.values().stream().filter(job -> !job.getStatus().isFinished()).count();
+    }
+
+    private void evict() {
+        long expiredBefore = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAtMillis() < expiredBefore);
+
+        int excess = jobs.size() + 1 - maxJobs;
+        if (excess > 0) {
+            jobs.values().stream()
+                    .filter(job -> job.getStatus().isFinished())
+                    .sorted(Comparator.comparingLong(SyncJob::getFinishedAtMillis))
+                    .limit(excess)
+                    .map(SyncJob::getId)
+                    .forEach(jobs::remove);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.getint.recruitment_task.client.jira.jobs;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import io.getint.recruitment_task.client.jira.exceptions.SyncBacklogFullException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncCancelledException;
+import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs sync requests as background jobs and exposes their state.
+ * <p>
+ * New jobs are only admitted while fewer than {@code jira.sync.maxBacklog} jobs are queued or running; beyond
+ * that, submissions are rejected as a whole, so that clients back off instead of piling up work the synchronizer
+ * cannot start for a long time. Admitted jobs start right away and share JIRA through the bulk task slots.
+ */
+@Component
+public class SyncJobService {
+    private static final Logger log = LoggerFactory.getLogger(SyncJobService.class);
+
+    private final JiraSynchronizer jiraSynchronizer;
+    private final SyncJobRegistry jobRegistry;
+    private final ExecutorService syncExecutor;
+    private final int maxBacklog;
+    private final long backlogRetryAfterSeconds;
+    private final ReentrantLock admissionLock = new ReentrantLock();
+
+    /**
+     * Constructs a new SyncJobService.
+     *
+     * @param jiraSynchronizer the synchronizer running the jobs
+     * @param jobRegistry the registry keeping track of submitted jobs
+     * @param syncExecutor the executor the jobs run on, with room to start every admitted job right away
+     * @param maxBacklog the maximum number of queued and running jobs
+     * @param backlogRetryAfterSeconds the delay suggested to clients whose submission was rejected
+     */
+    public SyncJobService(JiraSynchronizer jiraSynchronizer,
+                          SyncJobRegistry jobRegistry,
+                          @Qualifier("jiraSyncExecutor") ExecutorService syncExecutor,
+                          @Value("${jira.sync.maxBacklog}") int maxBacklog,
+                          @Value("${jira.sync.backlogRetryAfterSeconds}") long backlogRetryAfterSeconds) {
+        this.jiraSynchronizer = jiraSynchronizer;
+        this.jobRegistry = jobRegistry;
+        this.syncExecutor = syncExecutor;
+        this.maxBacklog = maxBacklog;
+        this.backlogRetryAfterSeconds = backlogRetryAfterSeconds;
+    }
+
+    /**
+     * Registers a new job and schedules it for execution.
+     *
+     * @param request the sync request
+     * @return the registered job
+     * @throws SyncBacklogFullException if the backlog of queued and running jobs is full
+     */
+    public SyncJob submit(SyncTasksRequest request) {
+        return submitAll(List.of(request)).get(0);
+    }
+
+    /**
+     * Registers a job for each of the given requests and schedules them for execution, admitting either all of
+     * them or none.
+     * <p>
+     * All jobs start right away and share the bulk task slots with all other jobs; the weight of each request sets
+     * its share of the slots, so a large project does not hold back the small ones submitted with it.
+     *
+     * @param requests the sync requests
+     * @return the registered jobs, in the order of the requests
+     * @throws SyncBacklogFullException if the jobs would not fit into the backlog of queued and running jobs
+     */
+    public List<SyncJob> submitAll(List<SyncTasksRequest> requests) {
+        List<SyncJob> jobs = new ArrayList<>(requests.size());
+        admissionLock.lock();
+        try {
+            int backlog = jobRegistry.countUnfinished();
+            if (backlog + requests.size() > maxBacklog) {
+                log.warn("Rejecting {} sync jobs, {} of at most {} jobs are queued or running", requests.size(), backlog, maxBacklog);
+                throw new SyncBacklogFullException("Sync backlog is full: " + backlog + " of at most " + maxBacklog
+                        + " jobs are queued or running", backlogRetryAfterSeconds);
+            }
+            for (SyncTasksRequest request : requests) {
+                SyncJob job = new SyncJob(UUID.randomUUID().toString(), request);
+                jobRegistry.register(job);
+                jobs.add(job);
+            }
+        } finally {
+            admissionLock.unlock();
+        }
+        for (SyncJob job : jobs) {
+            job.setExecution(syncExecutor.submit(() -> run(job)));
+            log.info("Sync job {} submitted: {}", job.getId(), job.getRequest());
+        }
+        return jobs;
+    }
+
+    /**
+     * Looks up a job by id.
+     *
+     * @param jobId the id of the job
+     * @return the job, or empty if it is unknown
+     */
+    public Optional<SyncJob> find(String jobId) {
+        return jobRegistry.find(jobId);
+    }
+
+    /**
+     * Cancels a job. A queued job never starts; a running job stops at the next page or chunk boundary and
+     * stops tracking its in-flight bulk tasks.
+     *
+     * @param jobId the id of the job
+     * @return the job, or empty if it is unknown
+     */
+    public Optional<SyncJob> cancel(String jobId) {
+        Optional<SyncJob> job = jobRegistry.find(jobId);
+        job.ifPresent(this::cancel);
+        return job;
+    }
+
+    private void cancel(SyncJob job) {
+        if (job.getStatus().isFinished()) {
+            return;
+        }
+        log.info("Cancelling sync job {}", job.getId());
+        job.getProgress().cancel();
+        if (job.getStatus() == SyncJobStatus.QUEUED) {
+            job.markFinished(SyncJobStatus.CANCELLED, null);
+        }
+        Future<?> execution = job.getExecution();
+        if (execution != null) {
+            execution.cancel(true);
+        }
+    }
+
+    private void run(SyncJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject(job.getRequest(), job.getProgress());
+            log.info("Sync job {} finished: {}", job.getId(), result);
+            job.markFinished(SyncJobStatus.SUCCEEDED, null);
+        } catch (SyncCancelledException e) {
+            log.info("Sync job {} cancelled", job.getId());
+            job.markFinished(SyncJobStatus.CANCELLED, null);
+        } catch (RuntimeException e) {
+            if (job.getProgress().isCancelled()) {
+                log.info("Sync job {} cancelled", job.getId());
+                job.markFinished(SyncJobStatus.CANCELLED, null);
+            } else {
+                log.error("Sync job {} failed", job.getId(), e);
+                job.markFinished(SyncJobStatus.FAILED, e.getMessage());
+            }
+        }
+    }
+}
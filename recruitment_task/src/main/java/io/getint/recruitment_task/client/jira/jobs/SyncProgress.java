@@ -0,0 +1,79 @@
+package io.getint.recruitment_task.client.jira.jobs;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a single sync run, updated by the synchronizer and read by the job API.
+ * <p>
+ * Also carries the cancellation flag the synchronizer checks between pages and chunks.
+ */
+public class SyncProgress {
+    private final AtomicLong issuesFetched = new AtomicLong();
+    private final AtomicLong chunksSubmitted = new AtomicLong();
+    private final AtomicLong chunksCompleted = new AtomicLong();
+    private final AtomicLong issuesMoved = new AtomicLong();
+    private final AtomicLong issuesFailed = new AtomicLong();
+    private final CompletableFuture<Void> cancellation = new CompletableFuture<>();
+
+    public void onIssuesFetched(int count) {
+        issuesFetched.addAndGet(count);
+    }
+
+    public void onChunkSubmitted() {
+        chunksSubmitted.incrementAndGet();
+    }
+
+    /**
+     * Records the outcome of a finished bulk task.
+     *
+     * @param result the per-issue result of the task
+     */
+    public void onChunkCompleted(BulkMoveResult result) {
+        chunksCompleted.incrementAndGet();
+        issuesMoved.addAndGet(result.getMovedCount());
+        issuesFailed.addAndGet(result.getFailedIssues().size());
+    }
+
+    /**
+     * Requests the run to stop at the next page or chunk boundary.
+     */
+    public void cancel() {
+        cancellation.complete(null);
+    }
+
+    public boolean isCancelled() {
+        return cancellation.isDone();
+    }
+
+    /**
+     * Returns a future completed as soon as the run is cancelled, so waits can be combined with it.
+     *
+     * @return the cancellation future
+     */
+    public CompletableFuture<Void> getCancellation() {
+        return cancellation;
+    }
+
+    public long getIssuesFetched() {
+        return issuesFetched.get();
+    }
+
+    public long getChunksSubmitted() {
+        return chunksSubmitted.get();
+    }
+
+    public long getChunksCompleted() {
+        return chunksCompleted.get();
+    }
+
+    public long getIssuesMoved() {
+        return issuesMoved.get();
+    }
+
+    public long getIssuesFailed() {
+        return issuesFailed.get();
+    }
+}
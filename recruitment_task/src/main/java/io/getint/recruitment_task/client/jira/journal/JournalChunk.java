@@ -0,0 +1,29 @@
+package io.getint.recruitment_task.client.jira.journal;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import lombok.Getter;
+
+/**
+ * State of a single chunk of an interrupted sync run, as replayed from its {@link SyncJournal}.
+ */
+@Getter
+public class JournalChunk {
+    private final int sequence;
+    private final BulkMoveTasksRequestDto request;
+    private String taskId;
+    private BulkMoveResult result;
+
+    JournalChunk(int sequence, BulkMoveTasksRequestDto request) {
+        this.sequence = sequence;
+        this.request = request;
+    }
+
+    void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    void setResult(BulkMoveResult result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,430 @@
+package io.getint.recruitment_task.client.jira.journal;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import io.getint.recruitment_task.client.jira.storage.LockedAppendFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk journal of a single sync run.
+ * <p>
+ * Every chunk is recorded with its issues before it is submitted, followed by the id of the JIRA task once
+ * JIRA accepted it and by its outcome once the task finished. A run that is started again after a crash
+ * replays the journal: finished chunks are taken as they are, accepted chunks are tracked by their task id
+ * instead of being submitted again, and the issues of all recorded chunks are left out of new chunks.
+ * <p>
+ * Records are CRC-checked text lines appended to a {@link LockedAppendFile}. Forcing them to disk is batched:
+ * it happens every {@code fsyncBatchSize} records or {@code fsyncIntervalMs}, whichever comes first, and
+ * always for task ids, which are what prevents a chunk from being submitted twice. Once records are left
+ * unsynced, a force is scheduled for when the interval has passed, so they reach the disk even if no further
+ * record is appended; a journal opened without a scheduler only checks the interval on the next append. A torn
+ * record at the end of the file is dropped on replay.
+ * <p>
+ * A journal is held under an exclusive file lock for as long as it is open, so a second run with the same key
+ * is rejected instead of replaying chunks the first run still has in flight. A record interrupted while it is
+ * written is written again rather than lost.
+ * <p>
+ * Records are appended under a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting for the
+ * disk does not pin its carrier thread.
+ */
+public class SyncJournal implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SyncJournal.class);
+
+    private static final String RUN = "RUN";
+    private static final String CHUNK = "CHUNK";
+    private static final String SUBMITTED = "SUBMITTED";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String END = "END";
+    private static final String EMPTY = "-";
+
+    private final Path file;
+    private final LockedAppendFile appendFile;
+    private final int fsyncBatchSize;
+    private final long fsyncIntervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor forceExecutor;
+    private final List<JournalChunk> replayedChunks = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int nextSequence;
+    private int unsyncedRecords;
+    private long lastSyncNanos = System.nanoTime();
+    private ScheduledFuture<?> scheduledForce;
+
+    private SyncJournal(Path file, LockedAppendFile appendFile, int fsyncBatchSize, long fsyncIntervalMs,
+                        ScheduledExecutorService scheduler, Executor forceExecutor) {
+        this.file = file;
+        this.appendFile = appendFile;
+        this.fsyncBatchSize = Math.max(1, fsyncBatchSize);
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.scheduler = scheduler;
+        this.forceExecutor = forceExecutor;
+    }
+
+    /**
+     * Opens the journal of a run without a scheduler, so the fsync interval is only checked on the next append.
+     *
+     * @param file the journal file
+     * @param runKey the key identifying the run
+     * @param fsyncBatchSize the number of records after which the journal is forced to disk
+     * @param fsyncIntervalMs the time after which the journal is forced to disk on the next append
+     * @return the open journal
+     * @throws SyncRunInProgressException if the journal is held by another run with the same key
+     * @throws JiraClientException if the journal cannot be read or written
+     * @see #open(Path, String, int, long, ScheduledExecutorService, Executor)
+     */
+    public static SyncJournal open(Path file, String runKey, int fsyncBatchSize, long fsyncIntervalMs) throws JiraClientException {
+        return open(file, runKey, fsyncBatchSize, fsyncIntervalMs, null, null);
+    }
+
+    /**
+     * Opens the journal of a run, replaying what an earlier, unfinished attempt of the same run recorded.
+     *
+     * @param file the journal file
+     * @param runKey the key identifying the run
+     * @param fsyncBatchSize the number of records after which the journal is forced to disk
+     * @param fsyncIntervalMs the time after which unsynced records are forced to disk
+     * @param scheduler the scheduler timing the force of unsynced records, or null to check on the next append
+     * @param forceExecutor the executor the scheduled force runs on
+     * @return the open journal
+     * @throws SyncRunInProgressException if the journal is held by another run with the same key
+     * @throws JiraClientException if the journal cannot be read or written
+     */
+    public static SyncJournal open(Path file, String runKey, int fsyncBatchSize, long fsyncIntervalMs,
+                                   ScheduledExecutorService scheduler, Executor forceExecutor) throws JiraClientException {
+        try {
+            LockedAppendFile appendFile = LockedAppendFile.open(file, () -> new SyncRunInProgressException(
+                    "Sync run " + runKey + " is already in progress, its journal " + file + " is in use"));
+            SyncJournal journal = new SyncJournal(file, appendFile, fsyncBatchSize, fsyncIntervalMs, scheduler, forceExecutor);
+            journal.replay(runKey);
+            return journal;
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to open sync journal " + file, e);
+        }
+    }
+
+    /**
+     * Returns a journal that records nothing, for runs that must not be resumed.
+     *
+     * @return a disabled journal
+     */
+    public static SyncJournal disabled() {
+        return new SyncJournal(null, null, 1, 0, null, null);
+    }
+
+    /**
+     * Returns the chunks recorded by an earlier attempt of the run, in submission order.
+     *
+     * @return the replayed chunks, empty for a fresh run
+     */
+    public List<JournalChunk> getReplayedChunks() {
+        return Collections.unmodifiableList(replayedChunks);
+    }
+
+    /**
+     * Records a chunk before it is submitted.
+     *
+     * @param request the bulk move payload of the chunk
+     * @return the sequence number of the chunk
+     */
+    public int recordChunk(BulkMoveTasksRequestDto request) {
+        lock.lock();
+        try {
+            int sequence = nextSequence++;
+            if (appendFile != null) {
+                append(CHUNK + " " + sequence + " " + formatMappings(request), false);
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the JIRA task a chunk was accepted as. The record is forced to disk before returning.
+     *
+     * @param sequence the sequence number of the chunk
+     * @param taskId the id of the JIRA task
+     */
+    public void recordSubmitted(int sequence, String taskId) {
+        lock.lock();
+        try {
+            append(SUBMITTED + " " + sequence + " " + taskId, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a chunk.
+     *
+     * @param sequence the sequence number of the chunk
+     * @param result the result of the chunk's bulk task
+     */
+    public void recordCompleted(int sequence, BulkMoveResult result) {
+        lock.lock();
+        try {
+            if (appendFile != null) {
+                append(COMPLETED + " " + sequence + " " + formatResult(result), false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the run as finished and deletes the journal; a later run with the same key starts from scratch.
+     * The file is deleted while it is still locked, so a run waiting for the key never replays a finished journal.
+     */
+    public void complete() {
+        lock.lock();
+        try {
+            if (appendFile == null || !appendFile.isOpen()) {
+                return;
+            }
+            append(END, true);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete finished sync journal {}", file, e);
+            }
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces outstanding records to disk and closes the journal, keeping it for a later attempt.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (appendFile == null || !appendFile.isOpen()) {
+                return;
+            }
+            cancelScheduledForce();
+            appendFile.force();
+            appendFile.close();
+        } catch (IOException e) {
+            log.warn("Failed to close sync journal {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String payload, boolean durable) {
+        if (appendFile == null) {
+            return;
+        }
+        if (!appendFile.isOpen()) {
+            throw new JiraClientException("Sync journal " + file + " is closed");
+        }
+        byte[] bytes = (checksum(payload) + " " + payload + "\n").getBytes(StandardCharsets.UTF_8);
+        long now = System.nanoTime();
+        boolean force = durable || unsyncedRecords + 1 >= fsyncBatchSize || now - lastSyncNanos >= fsyncIntervalNanos;
+        try {
+            appendFile.append(ByteBuffer.wrap(bytes), force);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to append to sync journal " + file, e);
+        }
+        if (force) {
+            unsyncedRecords = 0;
+            lastSyncNanos = now;
+            cancelScheduledForce();
+        } else {
+            unsyncedRecords++;
+            scheduleForce(fsyncIntervalNanos - (now - lastSyncNanos));
+        }
+    }
+
+    /**
+     * Schedules a force of the unsynced records, unless one is scheduled already. If the scheduler or the
+     * executor is shut down, the records are forced by the next append or on close instead.
+     */
+    private void scheduleForce(long delayNanos) {
+        if (scheduler == null || scheduledForce != null) {
+            return;
+        }
+        try {
+            scheduledForce = scheduler.schedule(() -> {
+                try {
+                    forceExecutor.execute(this::forceUnsynced);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Not forcing sync journal {}, the executor is shut down", file);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not scheduling a force of sync journal {}, the scheduler is shut down", file);
+        }
+    }
+
+    private void cancelScheduledForce() {
+        if (scheduledForce != null) {
+            scheduledForce.cancel(false);
+            scheduledForce = null;
+        }
+    }
+
+    private void forceUnsynced() {
+        lock.lock();
+        try {
+            scheduledForce = null;
+            if (appendFile == null || !appendFile.isOpen() || unsyncedRecords == 0) {
+                return;
+            }
+            appendFile.force();
+            unsyncedRecords = 0;
+            lastSyncNanos = System.nanoTime();
+        } catch (IOException e) {
+            log.warn("Failed to force sync journal {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay(String runKey) throws IOException {
+        long size = appendFile.size();
+        if (size == 0) {
+            append(RUN + " " + runKey, true);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        appendFile.readFully(buffer, 0);
+        String content = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+
+        Map<Integer, JournalChunk> chunks = new LinkedHashMap<>();
+        long validLength = 0;
+        boolean ended = false;
+        boolean sameRun = false;
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = content.indexOf('\n', lineStart)) >= 0) {
+            String line = content.substring(lineStart, lineEnd);
+            int separator = line.indexOf(' ');
+            if (separator < 0 || !line.substring(0, separator).equals(checksum(line.substring(separator + 1)))) {
+                log.warn("Dropping corrupt tail of sync journal {} at byte {}", file, validLength);
+                break;
+            }
+            String[] fields = line.substring(separator + 1).split(" ", 4);
+            switch (fields[0]) {
+                case RUN -> sameRun = runKey.equals(fields.length > 1 ? line.substring(separator + 1 + RUN.length() + 1) : "");
+                case CHUNK -> {
+                    int sequence = Integer.parseInt(fields[1]);
+                    chunks.put(sequence, new JournalChunk(sequence, parseMappings(fields[2])));
+                    nextSequence = Math.max(nextSequence, sequence + 1);
+                }
+                case SUBMITTED -> chunks.get(Integer.parseInt(fields[1])).setTaskId(fields[2]);
+                case COMPLETED -> chunks.get(Integer.parseInt(fields[1])).setResult(parseResult(fields[2], fields[3]));
+                case END -> ended = true;
+                default -> log.warn("Ignoring unknown sync journal record {}", fields[0]);
+            }
+            validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            lineStart = lineEnd + 1;
+        }
+
+        if (ended || !sameRun) {
+            appendFile.truncate(0);
+            chunks.clear();
+            nextSequence = 0;
+            append(RUN + " " + runKey, true);
+            return;
+        }
+        appendFile.truncate(validLength);
+        replayedChunks.addAll(chunks.values());
+        log.info("Replayed sync journal {}: {} chunks", file, replayedChunks.size());
+    }
+
+    private static String checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    /**
+     * Formats mappings as {@code key=id,id;key=id}; keys contain commas but never {@code =} or {@code ;}.
+     */
+    private static String formatMappings(BulkMoveTasksRequestDto request) {
+        StringJoiner mappings = new StringJoiner(";");
+        request.getTargetToSourcesMapping().forEach((key, mapping) -> mappings.add(key + "=" + String.join(",", mapping.getIssueIdsOrKeys())));
+        return mappings.length() == 0 ? EMPTY : mappings.toString();
+    }
+
+    private static BulkMoveTasksRequestDto parseMappings(String value) {
+        BulkMoveTasksRequestDto.BulkMoveTasksRequestDtoBuilder builder = BulkMoveTasksRequestDto.builder();
+        if (!EMPTY.equals(value)) {
+            for (String mapping : value.split(";")) {
+                int separator = mapping.lastIndexOf('=');
+                builder.addTargetToSourcesMapping(mapping.substring(0, separator), BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                        .issueIdsOrKeys(new IssueIdList(parseIds(mapping.substring(separator + 1))))
+                        .build());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Formats a result as {@code invalidCount movedIds failed}, where failed issues are written as
+     * {@code id:error|error} with URL-encoded errors.
+     */
+    private static String formatResult(BulkMoveResult result) {
+        StringJoiner moved = new StringJoiner(",");
+        for (long id : result.getMovedIssueIds()) {
+            moved.add(Long.toString(id));
+        }
+        StringJoiner failed = new StringJoiner(",");
+        result.getFailedIssues().forEach((id, errors) -> {
+            StringJoiner encodedErrors = new StringJoiner("|");
+            errors.forEach(error -> encodedErrors.add(URLEncoder.encode(error, StandardCharsets.UTF_8)));
+            failed.add(id + ":" + encodedErrors);
+        });
+        return result.getInvalidOrInaccessibleCount() + " "
+                + (moved.length() == 0 ? EMPTY : moved.toString()) + " "
+                + (failed.length() == 0 ? EMPTY : failed.toString());
+    }
+
+    private static BulkMoveResult parseResult(String invalidCount, String rest) {
+        String[] parts = rest.split(" ", 2);
+        Map<Long, List<String>> failed = new LinkedHashMap<>();
+        if (!EMPTY.equals(parts[1])) {
+            for (String entry : parts[1].split(",")) {
+                int separator = entry.indexOf(':');
+                List<String> errors = new ArrayList<>();
+                for (String error : entry.substring(separator + 1).split("\\|")) {
+                    errors.add(URLDecoder.decode(error, StandardCharsets.UTF_8));
+                }
+                failed.put(Long.parseLong(entry.substring(0, separator)), errors);
+            }
+        }
+        return BulkMoveResult.of(EMPTY.equals(parts[0]) ? new long[0] : parseIds(parts[0]), failed, Integer.parseInt(invalidCount));
+    }
+
+    private static long[] parseIds(String value) {
+        String[] ids = value.split(",");
+        long[] parsed = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            parsed[i] = Long.parseLong(ids[i]);
+        }
+        return parsed;
+    }
+}
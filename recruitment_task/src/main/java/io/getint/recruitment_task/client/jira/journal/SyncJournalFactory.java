@@ -0,0 +1,66 @@
+package io.getint.recruitment_task.client.jira.journal;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.storage.StateFiles;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Opens the {@link SyncJournal}s of sync runs, one file per run key in {@code jira.sync.journalDir}.
+ */
+@Component
+public class SyncJournalFactory {
+    private static final String SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int fsyncBatchSize;
+    private final long fsyncIntervalMs;
+    private final ScheduledExecutorService scheduler;
+    private final Executor ioExecutor;
+
+    /**
+     * Constructs a new factory.
+     *
+     * @param enabled whether runs are journaled at all
+     * @param directory the directory holding the journal files
+     * @param fsyncBatchSize the number of records after which a journal is forced to disk
+     * @param fsyncIntervalMs the time after which unsynced records of a journal are forced to disk
+     * @param scheduler the scheduler timing the force of unsynced records, or null to check on the next append
+     * @param ioExecutor the executor the scheduled forces run on
+     */
+    public SyncJournalFactory(@Value("${jira.sync.journalEnabled}") boolean enabled,
+                              @Value("${jira.sync.journalDir}") String directory,
+                              @Value("${jira.sync.journalFsyncBatchSize}") int fsyncBatchSize,
+                              @Value("${jira.sync.journalFsyncIntervalMs}") long fsyncIntervalMs,
+                              @Qualifier("jiraScheduler") ScheduledExecutorService scheduler,
+                              @Qualifier("jiraIoExecutor") Executor ioExecutor) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.scheduler = scheduler;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Opens the journal of a run, replaying an unfinished earlier attempt of it.
+     *
+     * @param runKey the key identifying the run
+     * @return the open journal, or a disabled one if journaling is switched off
+     * @throws JiraClientException if the journal cannot be opened
+     */
+    public SyncJournal open(String runKey) throws JiraClientException {
+        if (!enabled) {
+            return SyncJournal.disabled();
+        }
+        return SyncJournal.open(directory.resolve(StateFiles.fileNameFor(runKey) + SUFFIX), runKey, fsyncBatchSize, fsyncIntervalMs,
+                scheduler, ioExecutor);
+    }
+}
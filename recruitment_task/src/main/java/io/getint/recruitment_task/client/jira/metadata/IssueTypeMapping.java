@@ -0,0 +1,116 @@
+package io.getint.recruitment_task.client.jira.metadata;
+
+import io.getint.recruitment_task.client.jira.dto.IssueTypeDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeStatusesDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.dto.StatusDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Mapping of the issue types of a source project onto the issue types of a target project.
+ * <p>
+ * Issue types are matched by name and subtask flag, as the same type usually has different ids in different
+ * projects. Issue types unknown to the source project metadata keep their id. Statuses of a source type that
+ * the matched target type does not have are reported once, when the mapping is built; JIRA moves such
+ * issues to the default status of the target workflow.
+ */
+public class IssueTypeMapping {
+    private static final Logger log = LoggerFactory.getLogger(IssueTypeMapping.class);
+
+    /**
+     * Target id of a source issue type that has no equivalent in the target project.
+     */
+    public static final long UNMAPPED = -1;
+
+    private final String sourceProjectKey;
+    private final String targetProjectKey;
+    private final Map<Long, Long> targetIssueTypeIds;
+
+    private IssueTypeMapping(String sourceProjectKey, String targetProjectKey, Map<Long, Long> targetIssueTypeIds) {
+        this.sourceProjectKey = sourceProjectKey;
+        this.targetProjectKey = targetProjectKey;
+        this.targetIssueTypeIds = targetIssueTypeIds;
+    }
+
+    /**
+     * Builds the mapping between two projects.
+     *
+     * @param source the metadata of the source project
+     * @param target the metadata of the target project
+     * @param sourceStatuses the statuses of the source issue types
+     * @param targetStatuses the statuses of the target issue types
+     * @return the mapping
+     */
+    public static IssueTypeMapping build(ProjectDto source, ProjectDto target,
+                                         List<IssueTypeStatusesDto> sourceStatuses, List<IssueTypeStatusesDto> targetStatuses) {
+        Map<String, IssueTypeDto> targetTypesByName = new HashMap<>();
+        for (IssueTypeDto issueType : target.getIssueTypes()) {
+            targetTypesByName.putIfAbsent(nameKey(issueType), issueType);
+        }
+
+        Map<Long, Long> targetIssueTypeIds = new HashMap<>();
+        for (IssueTypeDto sourceType : source.getIssueTypes()) {
+            IssueTypeDto targetType = targetTypesByName.get(nameKey(sourceType));
+            if (targetType == null) {
+                log.warn("Issue type '{}' of project {} has no equivalent in project {}", sourceType.getName(), source.getKey(), target.getKey());
+                targetIssueTypeIds.put(Long.parseLong(sourceType.getId()), UNMAPPED);
+                continue;
+            }
+            targetIssueTypeIds.put(Long.parseLong(sourceType.getId()), Long.parseLong(targetType.getId()));
+            reportMissingStatuses(sourceType, targetType, sourceStatuses, targetStatuses);
+        }
+        return new IssueTypeMapping(source.getKey(), target.getKey(), targetIssueTypeIds);
+    }
+
+    /**
+     * Returns the id of the target issue type the given source issue type maps to.
+     *
+     * @param sourceIssueTypeId the id of the source issue type
+     * @return the id of the target issue type, or {@link #UNMAPPED} if the target project has no equivalent
+     */
+    public long targetIssueTypeId(long sourceIssueTypeId) {
+        return targetIssueTypeIds.getOrDefault(sourceIssueTypeId, sourceIssueTypeId);
+    }
+
+    public String getSourceProjectKey() {
+        return sourceProjectKey;
+    }
+
+    public String getTargetProjectKey() {
+        return targetProjectKey;
+    }
+
+    private static String nameKey(IssueTypeDto issueType) {
+        return issueType.getName().toLowerCase(Locale.ROOT) + (issueType.isSubtask() ? "#subtask" : "");
+    }
+
+    private static void reportMissingStatuses(IssueTypeDto sourceType, IssueTypeDto targetType,
+                                              List<IssueTypeStatusesDto> sourceStatuses, List<IssueTypeStatusesDto> targetStatuses) {
+        Set<String> targetStatusNames = new HashSet<>();
+        statusesOf(targetType.getId(), targetStatuses).forEach(status -> targetStatusNames.add(status.getName().toLowerCase(Locale.ROOT)));
+        if (targetStatusNames.isEmpty()) {
+            return;
+        }
+        List<String> missing = new ArrayList<>();
+        for (StatusDto status : statusesOf(sourceType.getId(), sourceStatuses)) {
+            if (!targetStatusNames.contains(status.getName().toLowerCase(Locale.ROOT))) {
+                missing.add(status.getName());
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Statuses {} of issue type '{}' do not exist in the target workflow and fall back to its default status", missing, sourceType.getName());
+        }
+    }
+
+    private static List<StatusDto> statusesOf(String issueTypeId, List<IssueTypeStatusesDto> statuses) {
+        for (IssueTypeStatusesDto issueType : statuses) {
+            if (issueTypeId.equals(issueType.getId())) {
+                return issueType.getStatuses();
+            }
+        }
+        return List.of();
+    }
+}
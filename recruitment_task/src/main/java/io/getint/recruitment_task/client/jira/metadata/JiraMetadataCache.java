@@ -0,0 +1,125 @@
+package io.getint.recruitment_task.client.jira.metadata;
+
+import io.getint.recruitment_task.client.jira.dto.IssueTypeDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeStatusesDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cache of the project metadata needed by sync runs: issue types, statuses and issue type mappings between
+ * project pairs.
+ * <p>
+ * Entries expire after {@code jira.metadataCache.ttlMs} and the least recently used ones are evicted beyond
+ * {@code jira.metadataCache.maxEntries}, so repeated syncs between the same projects make no metadata calls
+ * while workflow changes are still picked up eventually. {@link #invalidate(String)} picks them up at once.
+ */
+@Component
+public class JiraMetadataCache {
+    private static final String PAIR_SEPARATOR = ",";
+
+    private final JiraProxy jiraProxy;
+    private final TtlLruCache<String, ProjectDto> projects;
+    private final TtlLruCache<String, List<IssueTypeStatusesDto>> statuses;
+    private final TtlLruCache<String, IssueTypeMapping> issueTypeMappings;
+
+    /**
+     * Constructs a new JiraMetadataCache.
+     *
+     * @param jiraProxy the proxy used to load missing metadata
+     * @param maxEntries the maximum number of entries of each kind
+     * @param ttlMillis how long loaded metadata stays valid
+     */
+    public JiraMetadataCache(JiraProxy jiraProxy,
+                             @Value("${jira.metadataCache.maxEntries}") int maxEntries,
+                             @Value("${jira.metadataCache.ttlMs}") long ttlMillis) {
+        this.jiraProxy = jiraProxy;
+        this.projects = new TtlLruCache<>(maxEntries, ttlMillis);
+        this.statuses = new TtlLruCache<>(maxEntries, ttlMillis);
+        this.issueTypeMappings = new TtlLruCache<>(maxEntries, ttlMillis);
+    }
+
+    /**
+     * Returns the metadata of a project, including its issue types.
+     *
+     * @param projectKey the key of the project
+     * @return the project metadata
+     * @throws JiraClientException if the metadata cannot be loaded
+     */
+    public ProjectDto getProject(String projectKey) throws JiraClientException {
+        return projects.get(projectKey, jiraProxy::getProject);
+    }
+
+    /**
+     * Returns the statuses available to each issue type of a project.
+     *
+     * @param projectKey the key of the project
+     * @return the statuses per issue type
+     * @throws JiraClientException if the statuses cannot be loaded
+     */
+    public List<IssueTypeStatusesDto> getStatuses(String projectKey) throws JiraClientException {
+        return statuses.get(projectKey, jiraProxy::getProjectStatuses);
+    }
+
+    /**
+     * Returns the mapping of the issue types of one project onto another.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     * @return the issue type mapping
+     * @throws JiraClientException if the metadata of either project cannot be loaded
+     */
+    public IssueTypeMapping getIssueTypeMapping(String sourceProjectKey, String targetProjectKey) throws JiraClientException {
+        return issueTypeMappings.get(sourceProjectKey + PAIR_SEPARATOR + targetProjectKey, pair -> IssueTypeMapping.build(
+                getProject(sourceProjectKey), getProject(targetProjectKey),
+                getStatuses(sourceProjectKey), getStatuses(targetProjectKey)));
+    }
+
+    /**
+     * Resolves issue type names to the ids of the matching issue types of a project.
+     *
+     * @param projectKey the key of the project
+     * @param issueTypeNames the names of the issue types, matched case-insensitively
+     * @return the ids of the issue types, in the order of the names
+     * @throws JiraClientException if a name does not match any issue type of the project
+     */
+    public List<String> resolveIssueTypeIds(String projectKey, List<String> issueTypeNames) throws JiraClientException {
+        List<IssueTypeDto> issueTypes = getProject(projectKey).getIssueTypes();
+        List<String> ids = new ArrayList<>(issueTypeNames.size());
+        for (String name : issueTypeNames) {
+            String id = issueTypes.stream()
+                    .filter(issueType -> issueType.getName().toLowerCase(Locale.ROOT).equals(name.trim().toLowerCase(Locale.ROOT)))
+                    .map(IssueTypeDto::getId)
+                    .findFirst()
+                    .orElseThrow(() -> new JiraClientException("Issue type '" + name + "' does not exist in project " + projectKey));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Drops all cached metadata of a project, including the mappings it takes part in.
+     *
+     * @param projectKey the key of the project
+     */
+    public void invalidate(String projectKey) {
+        projects.invalidate(projectKey);
+        statuses.invalidate(projectKey);
+        issueTypeMappings.invalidateIf(pair -> pair.startsWith(projectKey + PAIR_SEPARATOR) || pair.endsWith(PAIR_SEPARATOR + projectKey));
+    }
+
+    /**
+     * Drops all cached metadata.
+     */
+    public void invalidateAll() {
+        projects.invalidateAll();
+        statuses.invalidateAll();
+        issueTypeMappings.invalidateAll();
+    }
+}
@@ -0,0 +1,114 @@
+package io.getint.recruitment_task.client.jira.metadata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache with a time to live per entry, evicting the least recently used entry once full.
+ * <p>
+ * Values are loaded outside of the lock, so a slow load does not block lookups of other keys; two threads
+ * missing the same key at the same time may both load it, and the later value wins.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class TtlLruCache<K, V> {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a new empty cache.
+     *
+     * @param maxEntries the maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it was loaded
+     */
+    public TtlLruCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlLruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value of the given key, loading it if it is missing or expired.
+     *
+     * @param key the key
+     * @param loader the function loading the value of a missing key; must not return null
+     * @return the cached or loaded value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAtNanos < 0) {
+                hits++;
+                return entry.value;
+            }
+            misses++;
+        }
+        V value = loader.apply(key);
+        synchronized (this) {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+        return value;
+    }
+
+    /**
+     * Removes the entry of the given key.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries whose key matches the given predicate.
+     *
+     * @param predicate the predicate selecting the keys to remove
+     */
+    public synchronized void invalidateIf(Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
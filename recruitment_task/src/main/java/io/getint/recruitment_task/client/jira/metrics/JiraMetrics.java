@@ -0,0 +1,297 @@
+package io.getint.recruitment_task.client.jira.metrics;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraEndpointClass;
+import io.getint.recruitment_task.client.jira.utils.JiraApiEndpoints;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the JIRA client and the synchronizer.
+ * <p>
+ * Client meters are tagged with a low cardinality endpoint name derived from the request path, so that JIRA
+ * latency can be told apart per endpoint and status class. The pool gauges of the HTTP client are bound in
+ * {@code JiraClientConfiguration}. Synchronizer meters count issues per outcome and time the stages of a run,
+ * which tells whether a run waits for search pages, for bulk task slots or on its own CPU.
+ * <p>
+ * Every meter is tagged with the JIRA instance it measures, like the pool gauges. This bean measures the default
+ * instance; {@link #forInstance(String)} returns the metrics of a named one, registered in the same registry.
+ */
+@Component
+public class JiraMetrics {
+    public static final String REQUESTS = "jira.client.requests";
+    public static final String REQUEST_SIZE = "jira.client.request.size";
+    public static final String RESPONSE_SIZE = "jira.client.response.size";
+    public static final String RATE_LIMIT_WAIT = "jira.client.ratelimit.wait";
+    public static final String SYNC_ISSUES = "jira.sync.issues";
+    public static final String SYNC_RUN_ISSUES = "jira.sync.run.issues";
+    public static final String SYNC_RUNS = "jira.sync.runs";
+    public static final String SYNC_STAGE = "jira.sync.stage";
+
+    /**
+     * Status tag of requests that failed without a response.
+     */
+    public static final String IO_ERROR = "IO_ERROR";
+
+    private static final double MIN_PAYLOAD_BYTES = 64;
+    private static final double MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+
+    private final MeterRegistry registry;
+    private final String instance;
+    private final Counter issuesFetched;
+    private final Counter issuesMoved;
+    private final Counter issuesFailed;
+
+    /**
+     * Constructs the metrics of the default instance, registering its meters in the given registry.
+     *
+     * @param registry the registry to register the meters in
+     */
+    @Autowired
+    public JiraMetrics(MeterRegistry registry) {
+        this(registry, JiraInstanceRegistry.DEFAULT_INSTANCE);
+    }
+
+    private JiraMetrics(MeterRegistry registry, String instance) {
+        this.registry = registry;
+        this.instance = instance;
+        this.issuesFetched = issueCounter("fetched");
+        this.issuesMoved = issueCounter("moved");
+        this.issuesFailed = issueCounter("failed");
+    }
+
+    /**
+     * Returns the metrics of a JIRA instance, whose meters are tagged with its name.
+     *
+     * @param instance the name of the instance
+     * @return the metrics of the instance, this one for the instance it already measures
+     */
+    public JiraMetrics forInstance(String instance) {
+        return this.instance.equals(instance) ? this : new JiraMetrics(registry, instance);
+    }
+
+    /**
+     * Maps a request path to the endpoint tag of its meters.
+     *
+     * @param path the path of the request
+     * @return the endpoint name
+     */
+    public static String endpointOf(String path) {
+        if (path.startsWith(JiraApiEndpoints.SEARCH_ISSUES)) {
+            return "search";
+        } else if (path.startsWith(JiraApiEndpoints.BULK_MOVE_ISSUES)) {
+            return "bulk-move";
+        } else if (path.startsWith(JiraApiEndpoints.BULK_TASK_PROGRESS)) {
+            return "bulk-progress";
+        } else if (path.startsWith(JiraApiEndpoints.PROJECT)) {
+            return path.endsWith(JiraApiEndpoints.PROJECT_STATUSES_SUFFIX) ? "project-statuses" : "project";
+        } else if (path.startsWith(JiraApiEndpoints.BULK_CREATE_ISSUES)) {
+            return "bulk-create";
+        } else if (path.startsWith(JiraApiEndpoints.ISSUE) && path.endsWith(JiraApiEndpoints.ISSUE_COMMENTS_SUFFIX)) {
+            return "comment";
+        } else if (path.startsWith(JiraApiEndpoints.ISSUE) && path.endsWith(JiraApiEndpoints.ISSUE_TRANSITIONS_SUFFIX)) {
+            return "transition";
+        }
+        return "other";
+    }
+
+    /**
+     * Maps an HTTP status code to the status tag of its meters.
+     *
+     * @param statusCode the HTTP status code
+     * @return the status class, e.g. {@code 2xx}
+     */
+    public static String statusClassOf(int statusCode) {
+        return (statusCode / 100) + "xx";
+    }
+
+    /**
+     * Records a single request sent to JIRA, including reading its response body.
+     *
+     * @param endpoint the endpoint tag
+     * @param method the HTTP method
+     * @param status the status class, or {@link #IO_ERROR}
+     * @param nanos the duration of the request
+     */
+    public void recordRequest(String endpoint, String method, String status, long nanos) {
+        Timer.builder(REQUESTS)
+                .description("Requests sent to the JIRA API")
+                .tags("endpoint", endpoint, "method", method, "status", status, JiraInstanceRegistry.INSTANCE_TAG, instance)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time a request waited for the rate limiter.
+     *
+     * @param endpointClass the rate limit class of the request
+     * @param nanos the time spent waiting
+     */
+    public void recordRateLimitWait(JiraEndpointClass endpointClass, long nanos) {
+        registry.timer(RATE_LIMIT_WAIT, "endpointClass", endpointClass.name(), JiraInstanceRegistry.INSTANCE_TAG, instance).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Wraps a request entity so that the number of bytes sent is recorded on every write.
+     *
+     * @param endpoint the endpoint tag
+     * @param entity the entity to measure
+     * @return the measuring entity
+     */
+    public HttpEntity measureRequest(String endpoint, HttpEntity entity) {
+        DistributionSummary summary = payloadSummary(REQUEST_SIZE, "Bytes sent to the JIRA API per request", endpoint);
+        return new HttpEntityWrapper(entity) {
+            @Override
+            public void writeTo(OutputStream outStream) throws IOException {
+                CountingOutputStream counting = new CountingOutputStream(outStream);
+                super.writeTo(counting);
+                summary.record(counting.count);
+            }
+        };
+    }
+
+    /**
+     * Wraps a response body stream so that the number of bytes read is recorded when it is closed.
+     * <p>
+     * Bodies are measured after content decoding, i.e. as the size the client has to parse.
+     *
+     * @param endpoint the endpoint tag
+     * @param content the response body stream
+     * @return the measuring stream
+     */
+    public InputStream measureResponse(String endpoint, InputStream content) {
+        DistributionSummary summary = payloadSummary(RESPONSE_SIZE, "Bytes received from the JIRA API per response", endpoint);
+        return new FilterInputStream(content) {
+            private long count;
+            private boolean recorded;
+
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                if (read >= 0) {
+                    count++;
+                }
+                return read;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    count += read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!recorded) {
+                    recorded = true;
+                    summary.record(count);
+                }
+                super.close();
+            }
+        };
+    }
+
+    public void onIssuesFetched(int count) {
+        issuesFetched.increment(count);
+    }
+
+    /**
+     * Counts issues left out of a bulk move.
+     *
+     * @param reason the reason tag, e.g. {@code unmapped-type}
+     * @param count the number of skipped issues
+     */
+    public void onIssuesSkipped(String reason, int count) {
+        if (count > 0) {
+            registry.counter(SYNC_ISSUES, "outcome", "skipped", "reason", reason, JiraInstanceRegistry.INSTANCE_TAG, instance).increment(count);
+        }
+    }
+
+    /**
+     * Records the outcome of a finished sync run.
+     *
+     * @param result the aggregated result of the run, or null if the run failed
+     * @param nanos the duration of the run
+     */
+    public void onRunFinished(BulkMoveResult result, long nanos) {
+        registry.timer(SYNC_RUNS, "outcome", result == null ? "failure" : "success", JiraInstanceRegistry.INSTANCE_TAG, instance).record(nanos, TimeUnit.NANOSECONDS);
+        if (result == null) {
+            return;
+        }
+        int failed = result.getFailedIssues().size();
+        issuesMoved.increment(result.getMovedCount());
+        issuesFailed.increment(failed);
+        DistributionSummary.builder(SYNC_RUN_ISSUES)
+                .description("Issues moved per sync run")
+                .tags("outcome", "moved", JiraInstanceRegistry.INSTANCE_TAG, instance)
+                .register(registry)
+                .record(result.getMovedCount());
+    }
+
+    /**
+     * Records the time a sync run spent in one of its stages.
+     *
+     * @param stage the stage tag: {@code search}, {@code plan}, {@code payload}, {@code submit}, {@code await},
+     *              or {@code lookup}, {@code create}, {@code status} and {@code comments} of copy runs
+     * @param nanos the time spent
+     */
+    public void recordStage(String stage, long nanos) {
+        registry.timer(SYNC_STAGE, "stage", stage, JiraInstanceRegistry.INSTANCE_TAG, instance).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter issueCounter(String outcome) {
+        return Counter.builder(SYNC_ISSUES)
+                .description("Issues processed by sync runs")
+                .tags("outcome", outcome, "reason", "none", JiraInstanceRegistry.INSTANCE_TAG, instance)
+                .register(registry);
+    }
+
+    private DistributionSummary payloadSummary(String name, String description, String endpoint) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tags("endpoint", endpoint, JiraInstanceRegistry.INSTANCE_TAG, instance)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_PAYLOAD_BYTES)
+                .maximumExpectedValue(MAX_PAYLOAD_BYTES)
+                .register(registry);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+}
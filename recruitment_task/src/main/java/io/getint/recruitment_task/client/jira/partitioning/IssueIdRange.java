@@ -0,0 +1,53 @@
+package io.getint.recruitment_task.client.jira.partitioning;
+
+/**
+ * A half-open range of issue ids, one partition of a partitioned search.
+ * <p>
+ * The oldest and newest partitions are open ended, so issues created while the search runs still match one.
+ */
+public final class IssueIdRange {
+    /**
+     * The range of all issues.
+     */
+    public static final IssueIdRange ALL = new IssueIdRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final long fromId;
+    private final long toId;
+
+    /**
+     * Constructs a new range.
+     *
+     * @param fromId the inclusive lower bound, or {@link Long#MIN_VALUE} for none
+     * @param toId the exclusive upper bound, or {@link Long#MAX_VALUE} for none
+     */
+    public IssueIdRange(long fromId, long toId) {
+        if (fromId >= toId) {
+            throw new IllegalArgumentException("Empty issue id range [" + fromId + ", " + toId + ")");
+        }
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    public long getFromId() {
+        return fromId;
+    }
+
+    public long getToId() {
+        return toId;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof IssueIdRange && fromId == ((IssueIdRange) other).fromId && toId == ((IssueIdRange) other).toId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fromId) * 31 + Long.hashCode(toId);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + (fromId == Long.MIN_VALUE ? "" : fromId) + ", " + (toId == Long.MAX_VALUE ? "" : toId) + ")";
+    }
+}
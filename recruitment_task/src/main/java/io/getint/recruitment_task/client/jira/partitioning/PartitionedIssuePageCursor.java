@@ -0,0 +1,195 @@
+package io.getint.recruitment_task.client.jira.partitioning;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.search.IssueBatch;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.search.IssuePageFetcher;
+import io.getint.recruitment_task.client.jira.search.IssuePageStream;
+import io.getint.recruitment_task.client.jira.search.IssueRemovalTracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cursor over a search split into partitions that are fetched concurrently and merged into one ordered stream.
+ * <p>
+ * Every partition pages through its own {@link IssuePageCursor}, so all of them download their first page as
+ * soon as the cursor is opened and keep one page in flight, bounded by the connection budget of the proxy.
+ * Pages are handed out partition by partition, in the order the partitions were given. While the caller works
+ * through the current partition, pages the later partitions have already downloaded are buffered, up to a
+ * bounded read-ahead each, so their cursors can request the following pages instead of idling.
+ * <p>
+ * Each partition compensates its offsets only for the removed issues it returned itself, which it learns from
+ * {@link IssueRemovalTracker#isRemoved(long)} of the caller's tracker. Pages keep the offsets within their
+ * partition.
+ */
+public class PartitionedIssuePageCursor implements IssuePageStream {
+    private final List<Partition> partitions;
+    private final int limit;
+    private final int readAheadPages;
+    private int current;
+    private int returned;
+
+    /**
+     * Opens a new cursor and starts fetching the first page of every partition.
+     *
+     * @param fetchers the fetchers of the partitions, in the order their pages are returned
+     * @param executor the executor running the background page fetches
+     * @param limit the maximum number of issues to return across all partitions
+     * @param pageSize the number of issues requested per page
+     * @param removalTracker the tracker of returned issues that left the search results
+     * @param readAheadPages the number of downloaded pages buffered per partition waiting for its turn
+     */
+    public PartitionedIssuePageCursor(List<IssuePageFetcher> fetchers, Executor executor, int limit, int pageSize,
+                                      IssueRemovalTracker removalTracker, int readAheadPages) {
+        this.limit = limit;
+        this.readAheadPages = Math.max(0, readAheadPages);
+        this.partitions = new ArrayList<>(fetchers.size());
+        for (IssuePageFetcher fetcher : fetchers) {
+            PartitionRemovals removals = new PartitionRemovals(removalTracker);
+            partitions.add(new Partition(new IssuePageCursor(fetcher, executor, limit, pageSize, removals), removals));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (returned >= limit) {
+            return false;
+        }
+        for (int i = current; i < partitions.size(); i++) {
+            if (partitions.get(i).hasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the next page of the current partition, moving on to the next partition once it is exhausted.
+     *
+     * @return the next page of issues
+     * @throws JiraClientException if a page could not be fetched
+     */
+    @Override
+    public IssuePage next() throws JiraClientException {
+        while (returned < limit && current < partitions.size()) {
+            Partition partition = partitions.get(current);
+            if (!partition.hasNext()) {
+                current++;
+                continue;
+            }
+            IssuePage page = partition.take();
+            readAhead();
+            IssueBatch issues = page.getIssues();
+            issues.truncate(limit - returned);
+            returned += issues.size();
+            if (returned >= limit) {
+                close();
+            }
+            return page;
+        }
+        throw new NoSuchElementException("No more pages");
+    }
+
+    /**
+     * Cancels the page fetches of all partitions that may still be in flight.
+     */
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.close();
+        }
+    }
+
+    /**
+     * Buffers the pages later partitions have already downloaded, which lets their cursors fetch the next ones.
+     */
+    private void readAhead() throws JiraClientException {
+        for (int i = current + 1; i < partitions.size(); i++) {
+            Partition partition = partitions.get(i);
+            while (partition.buffered.size() < readAheadPages && partition.cursor.isNextReady()) {
+                partition.buffered.add(partition.fetch());
+            }
+        }
+    }
+
+    private static final class Partition {
+        private final IssuePageCursor cursor;
+        private final PartitionRemovals removals;
+        private final ArrayDeque<IssuePage> buffered = new ArrayDeque<>();
+
+        private Partition(IssuePageCursor cursor, PartitionRemovals removals) {
+            this.cursor = cursor;
+            this.removals = removals;
+        }
+
+        private boolean hasNext() {
+            return !buffered.isEmpty() || cursor.hasNext();
+        }
+
+        private IssuePage take() throws JiraClientException {
+            return buffered.isEmpty() ? fetch() : buffered.poll();
+        }
+
+        private IssuePage fetch() throws JiraClientException {
+            IssuePage page = cursor.next();
+            removals.record(page.getIssues());
+            return page;
+        }
+
+        private void close() {
+            cursor.close();
+            buffered.clear();
+        }
+    }
+
+    /**
+     * Counts the removed issues among those one partition returned.
+     * <p>
+     * Issues known to be removed are dropped from the ids still watched, so every issue is counted once. While
+     * the caller's tracker reports no new removal, only the ids recorded since the previous check are checked.
+     */
+    private static final class PartitionRemovals implements IssueRemovalTracker {
+        private final IssueRemovalTracker removalTracker;
+        private long[] watchedIds = new long[IssuePageCursor.DEFAULT_PAGE_SIZE];
+        private int watchedCount;
+        private int checkedCount;
+        private int checkedRemovals = -1;
+        private int removedCount;
+
+        private PartitionRemovals(IssueRemovalTracker removalTracker) {
+            this.removalTracker = removalTracker;
+        }
+
+        private synchronized void record(IssueBatch issues) {
+            if (watchedCount + issues.size() > watchedIds.length) {
+                watchedIds = Arrays.copyOf(watchedIds, Math.max(watchedIds.length * 2, watchedCount + issues.size()));
+            }
+            for (int i = 0; i < issues.size(); i++) {
+                watchedIds[watchedCount++] = issues.getId(i);
+            }
+        }
+
+        @Override
+        public synchronized int getRemovedCount() {
+            int removals = removalTracker.getRemovedCount();
+            int kept = removals == checkedRemovals ? checkedCount : 0;
+            for (int i = kept; i < watchedCount; i++) {
+                if (removalTracker.isRemoved(watchedIds[i])) {
+                    removedCount++;
+                } else {
+                    watchedIds[kept++] = watchedIds[i];
+                }
+            }
+            watchedCount = kept;
+            checkedCount = kept;
+            checkedRemovals = removals;
+            return removedCount;
+        }
+    }
+}
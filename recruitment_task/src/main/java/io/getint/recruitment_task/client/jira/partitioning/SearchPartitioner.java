@@ -0,0 +1,229 @@
+package io.getint.recruitment_task.client.jira.partitioning;
+
+import io.getint.recruitment_task.client.jira.builders.IssueJqlQueryBuilder;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.search.IssuePageFetcher;
+import io.getint.recruitment_task.client.jira.search.IssuePageStream;
+import io.getint.recruitment_task.client.jira.search.IssueRemovalTracker;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProbe;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.getint.recruitment_task.client.jira.utils.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Splits searches over very large projects into issue id ranges that are fetched concurrently.
+ * <p>
+ * A single search pages through its results one request at a time, so a project with hundreds of thousands of
+ * issues takes thousands of sequential round trips before the last issue is seen. Searches that may return at
+ * least {@code minIssues} issues are probed first: two single-issue searches ordered by id find the lowest and
+ * highest id and the total, the id span is cut into ranges of about {@code targetIssues} issues each, and the
+ * ranges are counted with concurrent probes, splitting crowded ones and merging sparse neighbours, as ids of
+ * one project are spread unevenly across the site. The ranges are then searched concurrently by a
+ * {@link PartitionedIssuePageCursor}, newest first, so the merged stream keeps the creation order of the
+ * unpartitioned search. All requests go through the same proxy and share its connection budget.
+ */
+public class SearchPartitioner {
+    private static final Logger log = LoggerFactory.getLogger(SearchPartitioner.class);
+    private static final int REFINEMENT_ROUNDS = 3;
+
+    private final String name;
+    private final boolean enabled;
+    private final int minIssues;
+    private final int targetIssues;
+    private final int maxPartitions;
+    private final int readAheadPages;
+
+    /**
+     * Constructs a new partitioner.
+     *
+     * @param name the name of the JIRA instance, used in log messages
+     * @param enabled whether searches are partitioned at all
+     * @param minIssues the number of issues a search must be able to return to be partitioned
+     * @param targetIssues the number of issues aimed for per partition
+     * @param maxPartitions the maximum number of partitions of a search
+     * @param readAheadPages the number of downloaded pages buffered per partition waiting for its turn
+     */
+    public SearchPartitioner(String name, boolean enabled, int minIssues, int targetIssues, int maxPartitions, int readAheadPages) {
+        if (targetIssues <= 0 || maxPartitions <= 0) {
+            throw new IllegalArgumentException("Partition target and maximum count must be positive: " + targetIssues + ", " + maxPartitions);
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.minIssues = minIssues;
+        this.targetIssues = targetIssues;
+        this.maxPartitions = maxPartitions;
+        this.readAheadPages = readAheadPages;
+    }
+
+    /**
+     * Creates a partitioner that never partitions a search.
+     *
+     * @param name the name of the JIRA instance
+     * @return the partitioner
+     */
+    public static SearchPartitioner disabled(String name) {
+        return new SearchPartitioner(name, false, Integer.MAX_VALUE, 1, 1, 0);
+    }
+
+    /**
+     * Opens a stream over the issues of a search, partitioned if the search is large enough.
+     * <p>
+     * Partitions are searched in descending creation order; searches needing another order are not partitioned
+     * and callers pass no filter for them.
+     *
+     * @param proxy the proxy of the JIRA instance
+     * @param jqlQuery the complete JQL query, used when the search is not partitioned
+     * @param filter creates a builder holding the filter clauses of the query, without ordering, or null if the
+     *               search must not be partitioned
+     * @param maxIssues the maximum number of issues to return
+     * @param symbols the dictionary shared by all decoded pages
+     * @param removalTracker the tracker of returned issues that no longer match the query
+     * @param executor the executor running the probes and page fetches
+     * @param projection the fields to return for each issue
+     * @return a stream over the search result pages; it should be closed once the caller is done with it
+     * @throws JiraClientException if the search could not be probed
+     */
+    public IssuePageStream open(JiraProxy proxy, String jqlQuery, Supplier<IssueJqlQueryBuilder> filter, int maxIssues,
+                                IssueSymbols symbols, IssueRemovalTracker removalTracker, Executor executor,
+                                SearchProjection projection) throws JiraClientException {
+        List<IssueIdRange> ranges = filter == null || !enabled || maxIssues < minIssues
+                ? List.of(IssueIdRange.ALL)
+                : plan(proxy, filter, executor);
+        if (ranges.size() <= 1) {
+            return proxy.searchIssuesPaged(jqlQuery, maxIssues, symbols, removalTracker, executor, projection);
+        }
+        log.info("Searching {} partitions concurrently on JIRA instance {}: {}", ranges.size(), name, ranges);
+        List<IssuePageFetcher> fetchers = new ArrayList<>(ranges.size());
+        for (IssueIdRange range : ranges) {
+            String partitionQuery = filter.get().setIdRange(range.getFromId(), range.getToId()).setCreatedOrder(true).build();
+            fetchers.add((startAt, maxResults) -> proxy.searchIssuesPage(partitionQuery, startAt, maxResults, symbols, projection));
+        }
+        return new PartitionedIssuePageCursor(fetchers, executor, maxIssues, IssuePageCursor.DEFAULT_PAGE_SIZE, removalTracker, readAheadPages);
+    }
+
+    /**
+     * Plans the partitions of a search from probes of its id span and of the number of issues per range.
+     *
+     * @param proxy the proxy of the JIRA instance
+     * @param filter creates a builder holding the filter clauses of the query
+     * @param executor the executor running the probes
+     * @return the partitions, newest first; a single unbounded range if the search is too small to partition
+     * @throws JiraClientException if the search could not be probed
+     */
+    List<IssueIdRange> plan(JiraProxy proxy, Supplier<IssueJqlQueryBuilder> filter, Executor executor) throws JiraClientException {
+        SearchProbe highest = proxy.probeSearch(filter.get().setIdOrder(true).build());
+        if (highest.getTotal() < minIssues || highest.getFirstIssueId() == SearchProbe.NO_ID) {
+            return List.of(IssueIdRange.ALL);
+        }
+        SearchProbe lowest = proxy.probeSearch(filter.get().setIdOrder(false).build());
+        if (lowest.getFirstIssueId() == SearchProbe.NO_ID) {
+            return List.of(IssueIdRange.ALL);
+        }
+
+        long fromId = lowest.getFirstIssueId();
+        long span = highest.getFirstIssueId() + 1 - fromId;
+        int count = (int) Math.max(1, Math.min(Math.min(maxPartitions, span), ((long) highest.getTotal() + targetIssues - 1) / targetIssues));
+        List<CountedRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranges.add(new CountedRange(fromId + span * i / count, fromId + span * (i + 1) / count));
+        }
+        for (int round = 0; round < REFINEMENT_ROUNDS; round++) {
+            count(ranges, proxy, filter, executor);
+            if (!split(ranges)) {
+                break;
+            }
+        }
+        count(ranges, proxy, filter, executor);
+        merge(ranges);
+
+        // Open the outermost ranges, so issues created or moved in during the search are not left out
+        List<IssueIdRange> partitions = new ArrayList<>(ranges.size());
+        for (int i = ranges.size() - 1; i >= 0; i--) {
+            CountedRange range = ranges.get(i);
+            partitions.add(new IssueIdRange(i == 0 ? Long.MIN_VALUE : range.fromId, i == ranges.size() - 1 ? Long.MAX_VALUE : range.toId));
+        }
+        log.debug("Planned {} search partitions of {} issues on JIRA instance {}", partitions.size(), highest.getTotal(), name);
+        return partitions;
+    }
+
+    /**
+     * Probes the number of issues of every range not counted yet, concurrently.
+     */
+    private static void count(List<CountedRange> ranges, JiraProxy proxy, Supplier<IssueJqlQueryBuilder> filter, Executor executor)
+            throws JiraClientException {
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (CountedRange range : ranges) {
+            if (range.issues < 0) {
+                String jqlQuery = filter.get().setIdRange(range.fromId, range.toId).build();
+                probes.add(CompletableFuture.runAsync(() -> range.issues = proxy.probeSearch(jqlQuery).getTotal(), executor));
+            }
+        }
+        CompletableFutures.join(CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new)), "Failed to probe search partitions");
+    }
+
+    /**
+     * Halves the ranges holding well over the target number of issues, as long as partitions are left.
+     *
+     * @return whether any range was split
+     */
+    private boolean split(List<CountedRange> ranges) {
+        boolean split = false;
+        for (int i = 0; i < ranges.size() && ranges.size() < maxPartitions; i++) {
+            CountedRange range = ranges.get(i);
+            if (range.issues > targetIssues + targetIssues / 2 && range.toId - range.fromId >= 2) {
+                long middle = range.fromId + (range.toId - range.fromId) / 2;
+                ranges.set(i, new CountedRange(range.fromId, middle));
+                ranges.add(++i, new CountedRange(middle, range.toId));
+                split = true;
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Merges neighbouring ranges as long as they hold no more than the target number of issues together.
+     */
+    private void merge(List<CountedRange> ranges) {
+        for (int i = 0; i + 1 < ranges.size(); ) {
+            CountedRange range = ranges.get(i);
+            CountedRange next = ranges.get(i + 1);
+            if (range.issues + next.issues <= targetIssues) {
+                CountedRange merged = new CountedRange(range.fromId, next.toId);
+                merged.issues = range.issues + next.issues;
+                ranges.set(i, merged);
+                ranges.remove(i + 1);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * A bounded id range with the number of issues it holds, or -1 until it has been probed.
+     */
+    private static final class CountedRange {
+        private final long fromId;
+        private final long toId;
+        private volatile int issues = -1;
+
+        private CountedRange(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + fromId + ", " + toId + "): " + issues;
+        }
+    }
+}
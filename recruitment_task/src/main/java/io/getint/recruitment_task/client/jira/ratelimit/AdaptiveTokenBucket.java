@@ -0,0 +1,157 @@
+package io.getint.recruitment_task.client.jira.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket whose refill rate adapts to the responses of the server (AIMD).
+ * <p>
+ * Every successful response raises the rate additively, so that it grows by {@link #ADDITIVE_INCREASE}
+ * permits per second for every second of sustained traffic. A throttling response halves the rate and, if the
+ * server said when to come back, blocks the bucket until then. The rate always stays between the configured
+ * minimum and maximum. Waiting happens outside of the lock.
+ */
+public class AdaptiveTokenBucket {
+    static final double ADDITIVE_INCREASE = 0.5;
+    static final double MULTIPLICATIVE_DECREASE = 0.5;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double minRate;
+    private final double maxRate;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+    private long throttledResponses;
+
+    /**
+     * Constructs a new bucket starting at half of the maximum rate.
+     *
+     * @param minRate the lowest rate in permits per second
+     * @param maxRate the highest rate in permits per second
+     */
+    public AdaptiveTokenBucket(double minRate, double maxRate) {
+        if (minRate <= 0 || maxRate < minRate) {
+            throw new IllegalArgumentException("Invalid rate bounds: " + minRate + " - " + maxRate);
+        }
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.rate = Math.max(minRate, maxRate / 2);
+        this.tokens = 1;
+        this.lastRefillNanos = System.nanoTime();
+        this.blockedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Takes a single permit, waiting until one is available.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes a single permit if one is available, without waiting.
+     *
+     * @return 0 if a permit was taken, otherwise the time in nanoseconds until one may be available
+     */
+    public long tryAcquire() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            if (now - blockedUntilNanos < 0) {
+                return blockedUntilNanos - now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) ((1 - tokens) / rate * NANOS_PER_SECOND));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a successful response and raises the rate additively.
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            rate = Math.min(maxRate, rate + ADDITIVE_INCREASE / rate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a throttling response, cuts the rate and optionally pauses the bucket.
+     *
+     * @param pauseMillis the time the server asked to wait before the next request, or 0 if unknown
+     */
+    public void onThrottled(long pauseMillis) {
+        lock.lock();
+        try {
+            throttledResponses++;
+            rate = Math.max(minRate, rate * MULTIPLICATIVE_DECREASE);
+            tokens = 0;
+            pauseFor(pauseMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lowers the rate because the server reports the quota is nearly used up, without counting a throttle.
+     *
+     * @param pauseMillis the time until the quota resets, or 0 to keep sending at the lowered rate
+     */
+    public void onNearLimit(long pauseMillis) {
+        lock.lock();
+        try {
+            rate = Math.max(minRate, rate * MULTIPLICATIVE_DECREASE);
+            pauseFor(pauseMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getThrottledResponses() {
+        lock.lock();
+        try {
+            return throttledResponses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pauseFor(long pauseMillis) {
+        if (pauseMillis > 0) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+            if (until - blockedUntilNanos > 0) {
+                blockedUntilNanos = until;
+            }
+        }
+    }
+
+    private void refill(long now) {
+        double burst = Math.max(1, rate);
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,10 @@
+package io.getint.recruitment_task.client.jira.ratelimit;
+
+/**
+ * Groups of JIRA endpoints sharing a rate limit budget.
+ */
+public enum JiraEndpointClass {
+    SEARCH,
+    BULK_MOVE,
+    OTHER
+}
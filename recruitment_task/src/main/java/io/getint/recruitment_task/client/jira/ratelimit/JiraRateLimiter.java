@@ -0,0 +1,254 @@
+package io.getint.recruitment_task.client.jira.ratelimit;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client-side rate limiter shared by all requests sent to JIRA.
+ * <p>
+ * Keeps one {@link AdaptiveTokenBucket} per {@link JiraEndpointClass}. Each bucket starts at half of its
+ * configured maximum and adapts to the responses: throttling responses (429/503) halve the rate and honor
+ * {@code Retry-After}, {@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset} and
+ * {@code X-RateLimit-NearLimit} slow it down before JIRA starts rejecting requests, and successful responses
+ * slowly raise it back up.
+ */
+@Component
+public class JiraRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(JiraRateLimiter.class);
+
+    static final String RETRY_AFTER = "Retry-After";
+    static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    static final String RATE_LIMIT_NEAR_LIMIT = "X-RateLimit-NearLimit";
+    private static final double MIN_RATE_FRACTION = 0.05;
+
+    private final Map<JiraEndpointClass, AdaptiveTokenBucket> buckets = new EnumMap<>(JiraEndpointClass.class);
+    private final Map<JiraEndpointClass, AsyncWaiters> asyncWaiters = new EnumMap<>(JiraEndpointClass.class);
+    private final boolean enabled;
+    private final int maxThrottleRetries;
+
+    /**
+     * Constructs a new JiraRateLimiter.
+     *
+     * @param enabled false to send requests without any client-side limit
+     * @param searchPerSecond the maximum rate of search requests
+     * @param bulkMovePerSecond the maximum rate of bulk move submissions
+     * @param otherPerSecond the maximum rate of all other requests
+     * @param maxThrottleRetries how many times a throttled request is sent again before giving up
+     */
+    public JiraRateLimiter(@Value("${jira.rateLimit.enabled}") boolean enabled,
+                           @Value("${jira.rateLimit.searchPerSecond}") double searchPerSecond,
+                           @Value("${jira.rateLimit.bulkMovePerSecond}") double bulkMovePerSecond,
+                           @Value("${jira.rateLimit.otherPerSecond}") double otherPerSecond,
+                           @Value("${jira.rateLimit.maxThrottleRetries}") int maxThrottleRetries) {
+        this.enabled = enabled;
+        this.maxThrottleRetries = maxThrottleRetries;
+        buckets.put(JiraEndpointClass.SEARCH, bucket(searchPerSecond));
+        buckets.put(JiraEndpointClass.BULK_MOVE, bucket(bulkMovePerSecond));
+        buckets.put(JiraEndpointClass.OTHER, bucket(otherPerSecond));
+        buckets.forEach((endpointClass, bucket) -> asyncWaiters.put(endpointClass, new AsyncWaiters(bucket)));
+    }
+
+    private static AdaptiveTokenBucket bucket(double maxPerSecond) {
+        return new AdaptiveTokenBucket(maxPerSecond * MIN_RATE_FRACTION, maxPerSecond);
+    }
+
+    /**
+     * Waits until a request of the given class may be sent.
+     *
+     * @param endpointClass the class of the request
+     * @throws JiraClientException if the thread is interrupted while waiting
+     */
+    public void acquire(JiraEndpointClass endpointClass) throws JiraClientException {
+        if (!enabled) {
+            return;
+        }
+        try {
+            buckets.get(endpointClass).acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while waiting for the JIRA rate limit", e);
+        }
+    }
+
+    /**
+     * Returns a future completed once a request of the given class may be sent, without blocking a thread
+     * while waiting. Waiting requests are served in order, with a single scheduled wakeup per permit.
+     *
+     * @param endpointClass the class of the request
+     * @param scheduler the scheduler timing the next attempt to take a permit
+     * @return the future completed when a permit was taken
+     */
+    public CompletableFuture<Void> acquireAsync(JiraEndpointClass endpointClass, ScheduledExecutorService scheduler) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return asyncWaiters.get(endpointClass).enqueue(scheduler);
+    }
+
+    /**
+     * Adapts the rate of the given class to a received response.
+     *
+     * @param endpointClass the class of the request
+     * @param response the received response
+     */
+    public void onResponse(JiraEndpointClass endpointClass, HttpResponse response) {
+        if (!enabled) {
+            return;
+        }
+        AdaptiveTokenBucket bucket = buckets.get(endpointClass);
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (isThrottled(statusCode)) {
+            long pauseMillis = retryAfterMillis(response);
+            if (pauseMillis == 0 && "0".equals(headerValue(response, RATE_LIMIT_REMAINING))) {
+                pauseMillis = resetMillis(response);
+            }
+            bucket.onThrottled(pauseMillis);
+            log.warn("JIRA throttled {} request with HTTP {}, pausing for {} ms, rate lowered to {}/s",
+                    endpointClass, statusCode, pauseMillis, String.format("%.2f", bucket.getRate()));
+        } else if (statusCode >= HttpStatus.SC_OK && statusCode < HttpStatus.SC_MULTIPLE_CHOICES) {
+            boolean exhausted = "0".equals(headerValue(response, RATE_LIMIT_REMAINING));
+            if (exhausted || Boolean.parseBoolean(headerValue(response, RATE_LIMIT_NEAR_LIMIT))) {
+                bucket.onNearLimit(exhausted ? resetMillis(response) : 0);
+            } else {
+                bucket.onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given status code means the request was throttled and may be sent again.
+     *
+     * @param statusCode the HTTP status code
+     * @return true for 429 and 503 responses
+     */
+    public boolean isThrottled(int statusCode) {
+        return statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
+    }
+
+    public int getMaxThrottleRetries() {
+        return maxThrottleRetries;
+    }
+
+    /**
+     * Returns the current rate of every endpoint class in permits per second.
+     *
+     * @return the current rates
+     */
+    public Map<JiraEndpointClass, Double> getCurrentRates() {
+        Map<JiraEndpointClass, Double> rates = new EnumMap<>(JiraEndpointClass.class);
+        buckets.forEach((endpointClass, bucket) -> rates.put(endpointClass, bucket.getRate()));
+        return Collections.unmodifiableMap(rates);
+    }
+
+    /**
+     * Returns the number of throttling responses received per endpoint class.
+     *
+     * @return the throttled response counts
+     */
+    public Map<JiraEndpointClass, Long> getThrottledResponses() {
+        Map<JiraEndpointClass, Long> throttled = new EnumMap<>(JiraEndpointClass.class);
+        buckets.forEach((endpointClass, bucket) -> throttled.put(endpointClass, bucket.getThrottledResponses()));
+        return Collections.unmodifiableMap(throttled);
+    }
+
+    /**
+     * Reads {@code Retry-After}, given either in seconds or as an HTTP date.
+     */
+    private static long retryAfterMillis(HttpResponse response) {
+        String retryAfter = headerValue(response, RETRY_AFTER);
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(retryAfter);
+            return date == null ? 0 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Reads {@code X-RateLimit-Reset}, an ISO-8601 timestamp of the moment the quota is replenished.
+     */
+    private static long resetMillis(HttpResponse response) {
+        String reset = headerValue(response, RATE_LIMIT_RESET);
+        if (reset == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, OffsetDateTime.parse(reset.trim()).toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring unparseable {} header: {}", RATE_LIMIT_RESET, reset);
+            return 0;
+        }
+    }
+
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * Queue of asynchronous requests waiting for a permit of one bucket. At most one drain runs or is scheduled
+     * at a time; it hands out permits in order and sleeps on the scheduler until the next one is due.
+     */
+    private static final class AsyncWaiters {
+        private final AdaptiveTokenBucket bucket;
+        private final Queue<CompletableFuture<Void>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private AsyncWaiters(AdaptiveTokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        private CompletableFuture<Void> enqueue(ScheduledExecutorService scheduler) {
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            queue.add(permit);
+            drain(scheduler);
+            return permit;
+        }
+
+        private void drain(ScheduledExecutorService scheduler) {
+            while (draining.compareAndSet(false, true)) {
+                CompletableFuture<Void> next;
+                while ((next = queue.peek()) != null) {
+                    long waitNanos = bucket.tryAcquire();
+                    if (waitNanos > 0) {
+                        scheduler.schedule(() -> {
+                            draining.set(false);
+                            drain(scheduler);
+                        }, waitNanos, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    queue.poll();
+                    next.complete(null);
+                }
+                draining.set(false);
+                if (queue.isEmpty()) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.getint.recruitment_task.client.jira.resilience;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraCircuitOpenException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraCommunicationException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraConnectionPoolExhaustedException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraRateLimitException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Retry and circuit breaker layer wrapped around every call to a JIRA instance.
+ * <p>
+ * Transient failures ({@link JiraCommunicationException}: I/O errors and 5xx responses) are retried with full
+ * jitter exponential backoff. Idempotent calls retry on any transient failure; other calls only when the
+ * request provably never reached the server (the connection could not be established). Throttling is left to
+ * the rate limiter, which already resent the request. While the breaker is open calls fail fast with
+ * {@link JiraCircuitOpenException}.
+ * <p>
+ * Only transient failures count against the breaker. Throttled calls, calls which found the local connection pool
+ * exhausted and calls failing for any other reason, such as a response that cannot be decoded, neither open nor
+ * close it, but always give up a half-open trial so
+ * that the next call can try again.
+ */
+@Component
+public class JiraResilience {
+    private static final Logger log = LoggerFactory.getLogger(JiraResilience.class);
+
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder backoffMillis = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    /**
+     * Constructs a new JiraResilience.
+     *
+     * @param maxAttempts the maximum number of attempts of a single call, including the first one
+     * @param backoffBaseMillis the backoff ceiling before the first retry
+     * @param backoffMaxMillis the upper bound of the backoff ceiling
+     * @param breakerFailureThreshold the number of consecutive failures opening the circuit breaker
+     * @param breakerOpenMillis how long the circuit breaker stays open
+     */
+    public JiraResilience(@Value("${jira.resilience.maxAttempts}") int maxAttempts,
+                          @Value("${jira.resilience.backoffBaseMs}") long backoffBaseMillis,
+                          @Value("${jira.resilience.backoffMaxMs}") long backoffMaxMillis,
+                          @Value("${jira.resilience.breakerFailureThreshold}") int breakerFailureThreshold,
+                          @Value("${jira.resilience.breakerOpenMs}") long breakerOpenMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMillis);
+    }
+
+    /**
+     * Executes the given call, retrying transient failures.
+     *
+     * @param operation a short description of the call used in log messages
+     * @param idempotent whether the call may be repeated after it possibly reached the server
+     * @param call the call to execute
+     * @param <T> the type produced by the call
+     * @return the value produced by the call
+     * @throws JiraCircuitOpenException if the circuit breaker is open
+     * @throws JiraClientException if the call fails and cannot be retried
+     */
+    public <T> T execute(String operation, boolean idempotent, Supplier<T> call) throws JiraClientException {
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                rejectedCalls.increment();
+                throw new JiraCircuitOpenException("JIRA API circuit breaker is open, rejecting " + operation);
+            }
+            try {
+                T result = call.get();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (JiraRateLimitException | JiraConnectionPoolExhaustedException e) {
+                circuitBreaker.onIgnored();
+                throw e;
+            } catch (JiraCommunicationException e) {
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts || !isRetryable(e, idempotent)) {
+                    throw e;
+                }
+                long delay = backoffMillis(attempt);
+                log.warn("Transient failure of {} (attempt {} of {}), retrying in {} ms: {}", operation, attempt, maxAttempts, delay, e.getMessage());
+                retries.increment();
+                backoffMillis.add(delay);
+                sleep(delay);
+            } catch (JiraClientException e) {
+                // The server answered, so it is healthy even if the request was wrong
+                circuitBreaker.onSuccess();
+                throw e;
+            } catch (RuntimeException e) {
+                circuitBreaker.onIgnored();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Executes the given asynchronous call, retrying transient failures. Backoff delays are timed by the
+     * scheduler instead of sleeping, so no thread is blocked between attempts.
+     *
+     * @param operation a short description of the call used in log messages
+     * @param idempotent whether the call may be repeated after it possibly reached the server
+     * @param call the call to execute, started again for every attempt
+     * @param scheduler the scheduler timing the retries
+     * @param <T> the type produced by the call
+     * @return the future completed with the value produced by the call, or with the exception of the last attempt
+     */
+    public <T> CompletableFuture<T> executeAsync(String operation, boolean idempotent, Supplier<CompletableFuture<T>> call,
+                                                 ScheduledExecutorService scheduler) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(operation, idempotent, call, scheduler, result, 1);
+        return result;
+    }
+
+    private <T> void attemptAsync(String operation, boolean idempotent, Supplier<CompletableFuture<T>> call,
+                                  ScheduledExecutorService scheduler, CompletableFuture<T> result, int attempt) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedCalls.increment();
+            result.completeExceptionally(new JiraCircuitOpenException("JIRA API circuit breaker is open, rejecting " + operation));
+            return;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, failure) -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (cause == null) {
+                circuitBreaker.onSuccess();
+                result.complete(value);
+            } else if (cause instanceof JiraCommunicationException e && !isNeutral(e)) {
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts || !isRetryable(e, idempotent)) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                long delay = backoffMillis(attempt);
+                log.warn("Transient failure of {} (attempt {} of {}), retrying in {} ms: {}", operation, attempt, maxAttempts, delay, e.getMessage());
+                retries.increment();
+                backoffMillis.add(delay);
+                scheduler.schedule(() -> attemptAsync(operation, idempotent, call, scheduler, result, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } else {
+                if (cause instanceof JiraClientException && !isNeutral(cause)) {
+                    // The server answered, so it is healthy even if the request was wrong
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Whether a failure says nothing about the health of the server: the call was throttled or never got a connection.
+     */
+    private static boolean isNeutral(Throwable failure) {
+        return failure instanceof JiraRateLimitException || failure instanceof JiraConnectionPoolExhaustedException;
+    }
+
+    private static boolean isRetryable(JiraCommunicationException e, boolean idempotent) {
+        if (e instanceof JiraCircuitOpenException) {
+            return false;
+        }
+        if (idempotent) {
+            return true;
+        }
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException
+                || cause instanceof ConnectTimeoutException;
+    }
+
+    /**
+     * Full jitter: a random delay between zero and the exponentially growing ceiling.
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while backing off before a JIRA API retry", e);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getBackoffMillis() {
+        return backoffMillis.sum();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+}
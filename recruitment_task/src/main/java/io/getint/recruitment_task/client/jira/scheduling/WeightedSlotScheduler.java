@@ -0,0 +1,211 @@
+package io.getint.recruitment_task.client.jira.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out a fixed number of slots to lanes in weighted round-robin order.
+ * <p>
+ * Every sync run submits its chunks through a lane of its own. While slots are free they are granted right away;
+ * once all slots are taken, every freed slot goes to the waiting lane that is furthest behind its share, so over
+ * any stretch of time each busy lane gets slots in proportion to its weight, and a run with thousands of chunks
+ * cannot queue all of them ahead of the other runs.
+ * <p>
+ * The round-robin is kept as stride scheduling: every grant moves the pass of a lane forward by the inverse of
+ * its weight and the lane with the lowest pass goes next. Unlike a ring of per-lane quotas this also holds when a
+ * lane never has more than one chunk waiting, which is the case for a sync run submitting from a single thread.
+ * A lane that was idle rejoins at the current pass, so it cannot save up grants while it had nothing to submit.
+ */
+public class WeightedSlotScheduler {
+    private static final long STRIDE_SCALE = 1L << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Lane> waitingLanes = new ArrayList<>();
+    private final int slots;
+    private int freeSlots;
+    private long currentPass;
+
+    /**
+     * Constructs a new scheduler.
+     *
+     * @param slots the number of slots shared by all lanes
+     */
+    public WeightedSlotScheduler(int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Scheduler needs at least one slot: " + slots);
+        }
+        this.slots = slots;
+        this.freeSlots = slots;
+    }
+
+    /**
+     * Creates a lane.
+     *
+     * @param name the name of the lane, used in logs
+     * @param weight the share of the lane relative to the other lanes, at least 1
+     * @return the new lane
+     */
+    public Lane lane(String name, int weight) {
+        return new Lane(name, Math.max(1, weight));
+    }
+
+    /**
+     * Returns the number of slots shared by all lanes.
+     *
+     * @return the number of slots
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Returns the number of callers waiting for a slot.
+     *
+     * @return the number of waiting callers across all lanes
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            int waiting = 0;
+            for (Lane lane : waitingLanes) {
+                waiting += lane.waiters.size();
+            }
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands a slot back, granting it to the next waiting lane.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            freeSlots++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (freeSlots > 0 && !waitingLanes.isEmpty()) {
+            // Lanes are kept in the order they started waiting, so ties go to the lane waiting longest
+            Lane next = waitingLanes.get(0);
+            for (Lane lane : waitingLanes) {
+                if (lane.pass < next.pass) {
+                    next = lane;
+                }
+            }
+            Waiter waiter = next.waiters.pollFirst();
+            if (next.waiters.isEmpty()) {
+                waitingLanes.remove(next);
+            }
+            freeSlots--;
+            next.charge();
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * A caller of the scheduler with its own share of the slots, e.g. a sync run.
+     */
+    public final class Lane {
+        private final String name;
+        private final int weight;
+        private final long stride;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private long pass;
+
+        private Lane(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+            this.stride = STRIDE_SCALE / weight;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * Waits for a slot; every successful call must be matched by {@link #release()}.
+         *
+         * @throws InterruptedException if the thread is interrupted while waiting; no slot is held then
+         */
+        public void acquire() throws InterruptedException {
+            lock.lock();
+            try {
+                pass = Math.max(pass, currentPass);
+                if (freeSlots > 0 && waitingLanes.isEmpty()) {
+                    freeSlots--;
+                    charge();
+                    return;
+                }
+                Waiter waiter = new Waiter(lock.newCondition());
+                if (waiters.isEmpty()) {
+                    waitingLanes.add(this);
+                }
+                waiters.addLast(waiter);
+                try {
+                    while (!waiter.granted) {
+                        waiter.condition.await();
+                    }
+                } catch (InterruptedException e) {
+                    onInterrupted(waiter);
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Hands a slot taken through this lane back to the scheduler, see {@link WeightedSlotScheduler#release()}.
+         */
+        public void release() {
+            WeightedSlotScheduler.this.release();
+        }
+
+        private void charge() {
+            currentPass = Math.max(currentPass, pass);
+            pass += stride;
+        }
+
+        private void onInterrupted(Waiter waiter) {
+            if (waiter.granted) {
+                // The slot was granted after the interrupt; hand it on to the next lane
+                freeSlots++;
+            } else {
+                waiters.remove(waiter);
+                if (waiters.isEmpty()) {
+                    waitingLanes.remove(this);
+                }
+            }
+            dispatch();
+        }
+
+        @Override
+        public String toString() {
+            return name + " (weight " + weight + ")";
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Column oriented, primitive storage for the issues returned by a search.
+ * <p>
+ * Only the attributes needed to plan bulk operations are kept: the issue id, the interned issue type and
+ * parent codes (see {@link IssueSymbols}), the last update time and a set of presence flags. Reading an issue
+ * never allocates.
+ */
+public class IssueBatch {
+    public static final byte HAS_FIELDS = 1;
+    public static final byte HAS_ISSUE_TYPE = 1 << 1;
+    public static final byte SUBTASK = 1 << 2;
+    public static final byte HAS_PARENT = 1 << 3;
+    public static final byte HAS_UPDATED = 1 << 4;
+
+    private final IssueSymbols symbols;
+    private long[] ids;
+    private int[] issueTypeCodes;
+    private int[] parentCodes;
+    private long[] updatedMillis;
+    private byte[] flags;
+    private int size;
+
+    /**
+     * Constructs an empty batch.
+     *
+     * @param symbols the dictionary the issue type and parent codes refer to
+     * @param initialCapacity the number of issues the batch can hold before growing
+     */
+    public IssueBatch(IssueSymbols symbols, int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.symbols = symbols;
+        this.ids = new long[capacity];
+        this.issueTypeCodes = new int[capacity];
+        this.parentCodes = new int[capacity];
+        this.updatedMillis = new long[capacity];
+        this.flags = new byte[capacity];
+    }
+
+    /**
+     * Appends a single issue.
+     *
+     * @param id the JIRA id of the issue
+     * @param issueTypeCode the interned issue type, or {@link LongInterner#NO_CODE}
+     * @param parentCode the interned parent issue, or {@link LongInterner#NO_CODE}
+     * @param updated the last update time in epoch milliseconds, or 0 if unknown
+     * @param issueFlags the presence flags of the issue
+     */
+    public void add(long id, int issueTypeCode, int parentCode, long updated, byte issueFlags) {
+        ensureCapacity(size + 1);
+        ids[size] = id;
+        issueTypeCodes[size] = issueTypeCode;
+        parentCodes[size] = parentCode;
+        updatedMillis[size] = updated;
+        flags[size] = issueFlags;
+        size++;
+    }
+
+    /**
+     * Appends all issues of another batch sharing the same dictionary.
+     *
+     * @param other the batch to copy issues from
+     */
+    public void addAll(IssueBatch other) {
+        if (other.symbols != symbols) {
+            throw new IllegalArgumentException("Batches must share the same symbols");
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.ids, 0, ids, size, other.size);
+        System.arraycopy(other.issueTypeCodes, 0, issueTypeCodes, size, other.size);
+        System.arraycopy(other.parentCodes, 0, parentCodes, size, other.size);
+        System.arraycopy(other.updatedMillis, 0, updatedMillis, size, other.size);
+        System.arraycopy(other.flags, 0, flags, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Drops the first {@code count} issues and shifts the remaining ones to the front.
+     *
+     * @param count the number of issues to drop
+     */
+    public void removeFirst(int count) {
+        int remaining = size - count;
+        System.arraycopy(ids, count, ids, 0, remaining);
+        System.arraycopy(issueTypeCodes, count, issueTypeCodes, 0, remaining);
+        System.arraycopy(parentCodes, count, parentCodes, 0, remaining);
+        System.arraycopy(updatedMillis, count, updatedMillis, 0, remaining);
+        System.arraycopy(flags, count, flags, 0, remaining);
+        size = remaining;
+    }
+
+    /**
+     * Drops all issues after the first {@code newSize} ones.
+     *
+     * @param newSize the number of issues to keep
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0) {
+            throw new IllegalArgumentException("Negative size: " + newSize);
+        }
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * Drops the issues whose id matches the given filter, keeping the order of the remaining ones.
+     *
+     * @param idFilter the filter selecting the ids to drop
+     * @return the number of dropped issues
+     */
+    public int removeIf(LongPredicate idFilter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (idFilter.test(ids[i])) {
+                continue;
+            }
+            if (kept != i) {
+                ids[kept] = ids[i];
+                issueTypeCodes[kept] = issueTypeCodes[i];
+                parentCodes[kept] = parentCodes[i];
+                updatedMillis[kept] = updatedMillis[i];
+                flags[kept] = flags[i];
+            }
+            kept++;
+        }
+        int removed = size - kept;
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * Rearranges the issues, e.g. to make the issues of a planned chunk adjacent.
+     *
+     * @param order the old index of the issue to put at each position, a permutation of all indices
+     */
+    public void reorder(int[] order) {
+        if (order.length != size) {
+            throw new IllegalArgumentException("Order covers " + order.length + " of " + size + " issues");
+        }
+        long[] oldIds = Arrays.copyOf(ids, size);
+        int[] oldIssueTypeCodes = Arrays.copyOf(issueTypeCodes, size);
+        int[] oldParentCodes = Arrays.copyOf(parentCodes, size);
+        long[] oldUpdatedMillis = Arrays.copyOf(updatedMillis, size);
+        byte[] oldFlags = Arrays.copyOf(flags, size);
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            ids[i] = oldIds[from];
+            issueTypeCodes[i] = oldIssueTypeCodes[from];
+            parentCodes[i] = oldParentCodes[from];
+            updatedMillis[i] = oldUpdatedMillis[from];
+            flags[i] = oldFlags[from];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public IssueSymbols getSymbols() {
+        return symbols;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public int getIssueTypeCode(int index) {
+        return issueTypeCodes[index];
+    }
+
+    public int getParentCode(int index) {
+        return parentCodes[index];
+    }
+
+    public long getUpdatedMillis(int index) {
+        return updatedMillis[index];
+    }
+
+    /**
+     * Checks whether the issue at the given index has the given presence flag.
+     *
+     * @param index the index of the issue
+     * @param flag one of the flag constants of this class
+     * @return true if the flag is set
+     */
+    public boolean hasFlag(int index, byte flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        issueTypeCodes = Arrays.copyOf(issueTypeCodes, capacity);
+        parentCodes = Arrays.copyOf(parentCodes, capacity);
+        updatedMillis = Arrays.copyOf(updatedMillis, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
@@ -0,0 +1,191 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.getint.recruitment_task.client.jira.utils.JiraFields;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Token streaming decoder turning a JIRA search response into an {@link IssuePage}.
+ * <p>
+ * The response is read straight from the HTTP entity stream, fields that are not needed for bulk operations
+ * are skipped without being materialized and numeric ids are parsed from the parser's character buffer.
+ */
+public final class IssueBatchDecoder {
+    private static final Logger log = LoggerFactory.getLogger(IssueBatchDecoder.class);
+    private static final long NO_ID = -1L;
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+    private IssueBatchDecoder() {
+    }
+
+    /**
+     * Decodes a search response page. The parser is closed once the page has been read.
+     *
+     * @param parser the parser positioned before the start of the response body
+     * @param requestedStartAt the offset the page was requested with, used if the response does not echo it
+     * @param symbols the dictionary shared by all pages of the search
+     * @return the decoded page
+     * @throws IOException if the stream cannot be read or does not contain a valid search response
+     */
+    public static IssuePage decode(JsonParser parser, int requestedStartAt, IssueSymbols symbols) throws IOException {
+        try (parser) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            int startAt = requestedStartAt;
+            int total = IssuePage.UNKNOWN_TOTAL;
+            IssueBatch issues = new IssueBatch(symbols, IssuePageCursor.DEFAULT_PAGE_SIZE);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (fieldName) {
+                    case JiraFields.START_AT -> startAt = parser.getIntValue();
+                    case JiraFields.TOTAL -> total = parser.getIntValue();
+                    case JiraFields.ISSUES -> {
+                        expect(parser, value, JsonToken.START_ARRAY);
+                        IssueState state = new IssueState();
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readIssue(parser, issues, state);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new IssuePage(startAt, total, issues);
+        }
+    }
+
+    private static void readIssue(JsonParser parser, IssueBatch issues, IssueState state) throws IOException {
+        state.reset();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (JiraFields.ID.equals(fieldName)) {
+                state.id = readId(parser, value);
+            } else if (JiraFields.FIELDS.equals(fieldName) && value == JsonToken.START_OBJECT) {
+                state.flags |= IssueBatch.HAS_FIELDS;
+                readFields(parser, issues.getSymbols(), state);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (state.id == NO_ID) {
+            log.warn("Skipping issue without an id in search response");
+            return;
+        }
+        issues.add(state.id, state.issueTypeCode, state.parentCode, state.updatedMillis, state.flags);
+    }
+
+    private static void readFields(JsonParser parser, IssueSymbols symbols, IssueState state) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (JiraFields.ISSUE_TYPE.equals(fieldName) && value == JsonToken.START_OBJECT) {
+                state.flags |= IssueBatch.HAS_ISSUE_TYPE;
+                readIssueType(parser, symbols, state);
+            } else if (JiraFields.PARENT.equals(fieldName) && value == JsonToken.START_OBJECT) {
+                readParent(parser, symbols, state);
+            } else if (JiraFields.UPDATED.equals(fieldName) && value == JsonToken.VALUE_STRING) {
+                readUpdated(parser, state);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readIssueType(JsonParser parser, IssueSymbols symbols, IssueState state) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (JiraFields.ID.equals(fieldName)) {
+                state.issueTypeCode = symbols.internIssueType(readId(parser, value));
+            } else if (JiraFields.SUBTASK.equals(fieldName) && value == JsonToken.VALUE_TRUE) {
+                state.flags |= IssueBatch.SUBTASK;
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readParent(JsonParser parser, IssueSymbols symbols, IssueState state) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (JiraFields.ID.equals(fieldName)) {
+                state.parentCode = symbols.internParent(readId(parser, value));
+                state.flags |= IssueBatch.HAS_PARENT;
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a JIRA timestamp such as {@code 2024-01-15T10:23:45.123+0100}; unparseable values are left unset.
+     */
+    private static void readUpdated(JsonParser parser, IssueState state) throws IOException {
+        try {
+            state.updatedMillis = OffsetDateTime.parse(parser.getText(), JIRA_TIMESTAMP).toInstant().toEpochMilli();
+            state.flags |= IssueBatch.HAS_UPDATED;
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring unparseable updated timestamp: {}", parser.getText());
+        }
+    }
+
+    /**
+     * Reads a numeric JIRA id, which the REST API usually sends as a JSON string, without creating a String.
+     */
+    private static long readId(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        expect(parser, token, JsonToken.VALUE_STRING);
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length == 0 || length > 18) {
+            throw new JsonParseException(parser, "Expected a numeric id but got: " + parser.getText());
+        }
+        long id = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new JsonParseException(parser, "Expected a numeric id but got: " + parser.getText());
+            }
+            id = id * 10 + digit;
+        }
+        return id;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Mutable holder for the attributes of the issue being decoded, reused for every issue of a page.
+     */
+    private static final class IssueState {
+        private long id;
+        private int issueTypeCode;
+        private int parentCode;
+        private long updatedMillis;
+        private byte flags;
+
+        private void reset() {
+            id = NO_ID;
+            issueTypeCode = LongInterner.NO_CODE;
+            parentCode = LongInterner.NO_CODE;
+            updatedMillis = 0;
+            flags = 0;
+        }
+    }
+}
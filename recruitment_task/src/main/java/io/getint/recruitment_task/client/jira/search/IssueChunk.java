@@ -0,0 +1,19 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A contiguous range of issues within an {@link IssueBatch} that is sent in a single bulk operation.
+ */
+@Getter
+@AllArgsConstructor
+public class IssueChunk {
+    private final IssueBatch batch;
+    private final int from;
+    private final int to;
+
+    public int size() {
+        return to - from;
+    }
+}
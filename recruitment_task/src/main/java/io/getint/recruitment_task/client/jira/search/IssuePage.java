@@ -0,0 +1,26 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single page of issues returned by the JIRA search endpoint.
+ */
+@Getter
+@AllArgsConstructor
+public class IssuePage {
+    public static final int UNKNOWN_TOTAL = -1;
+
+    private final int startAt;
+    private final int total;
+    private final IssueBatch issues;
+
+    /**
+     * Returns the number of issues contained in this page.
+     *
+     * @return the number of issues
+     */
+    public int size() {
+        return issues.size();
+    }
+}
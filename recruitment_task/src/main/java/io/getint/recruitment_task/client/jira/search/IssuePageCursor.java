@@ -0,0 +1,140 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.utils.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Lazy, offset based cursor over JIRA search results.
+ * <p>
+ * The first page is requested as soon as the cursor is opened. Every call to {@link #next()} hands out the
+ * page that is already in flight and immediately schedules the following one on the supplied executor, so
+ * the caller processes page N while page N+1 is being downloaded.
+ * <p>
+ * When the caller removes returned issues from the search results while paging, e.g. by moving them to
+ * another project, an {@link IssueRemovalTracker} keeps the offsets from jumping over the issues behind
+ * them: every offset is moved back by the removals reported since the previous page was requested. A removal
+ * reported only after the page it affects was requested may still shift a few issues past the cursor, and a
+ * removal reported late may make it return an issue twice; callers needing every issue exactly once search
+ * again for what is left and skip the issues they have seen.
+ */
+public class IssuePageCursor implements IssuePageStream {
+    private static final Logger log = LoggerFactory.getLogger(IssuePageCursor.class);
+
+    /**
+     * Largest page JIRA Cloud returns for the search endpoint.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final IssuePageFetcher fetcher;
+    private final Executor executor;
+    private final int limit;
+    private final int pageSize;
+    private final IssueRemovalTracker removalTracker;
+
+    private CompletableFuture<IssuePage> pending;
+    private int pendingRequestSize;
+    private volatile int pendingRemovedCount;
+
+    /**
+     * Opens a new cursor and starts fetching the first page.
+     *
+     * @param fetcher the fetcher used to download a single page
+     * @param executor the executor running the background page fetches
+     * @param limit the maximum number of issues to return across all pages
+     * @param pageSize the number of issues requested per page
+     */
+    public IssuePageCursor(IssuePageFetcher fetcher, Executor executor, int limit, int pageSize) {
+        this(fetcher, executor, limit, pageSize, () -> 0);
+    }
+
+    /**
+     * Opens a new cursor over search results the caller removes returned issues from, and starts fetching
+     * the first page.
+     *
+     * @param fetcher the fetcher used to download a single page
+     * @param executor the executor running the background page fetches
+     * @param limit the maximum number of issues to return across all pages
+     * @param pageSize the number of issues requested per page
+     * @param removalTracker the tracker of returned issues that left the search results
+     */
+    public IssuePageCursor(IssuePageFetcher fetcher, Executor executor, int limit, int pageSize, IssueRemovalTracker removalTracker) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.limit = limit;
+        this.pageSize = pageSize;
+        this.removalTracker = removalTracker;
+        if (limit > 0) {
+            prefetch(0);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending != null;
+    }
+
+    /**
+     * Returns whether the next page has already been downloaded, so {@link #next()} would not block.
+     *
+     * @return true if there is a next page and its fetch has finished
+     */
+    public boolean isNextReady() {
+        return pending != null && pending.isDone();
+    }
+
+    /**
+     * Returns the page that is currently being fetched and schedules the next one.
+     *
+     * @return the next page of issues
+     * @throws JiraClientException if the page could not be fetched
+     */
+    @Override
+    public IssuePage next() throws JiraClientException {
+        if (pending == null) {
+            throw new NoSuchElementException("No more pages");
+        }
+        IssuePage page = CompletableFutures.join(pending, "Failed to fetch search page");
+        int requested = pendingRequestSize;
+        pending = null;
+
+        int pageEnd = page.getStartAt() + page.size();
+        boolean morePages = page.size() > 0 && pageEnd < limit && (page.getTotal() == IssuePage.UNKNOWN_TOTAL
+                ? page.size() >= requested
+                : pageEnd < page.getTotal());
+        if (morePages) {
+            prefetch(Math.max(0, pageEnd - (removalTracker.getRemovedCount() - pendingRemovedCount)));
+        }
+        return page;
+    }
+
+    /**
+     * Cancels the page fetch that may still be in flight.
+     */
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    private void prefetch(int startAt) {
+        int requestSize = Math.min(pageSize, limit - startAt);
+        log.debug("Prefetching page at offset {} with size {}", startAt, requestSize);
+        pendingRequestSize = requestSize;
+        pending = CompletableFuture.supplyAsync(() -> {
+            // Read right before the request, so that only removals the page cannot reflect are compensated later
+            pendingRemovedCount = removalTracker.getRemovedCount();
+            return fetcher.fetch(startAt, requestSize);
+        }, executor);
+    }
+}
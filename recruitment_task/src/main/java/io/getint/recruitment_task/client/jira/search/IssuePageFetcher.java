@@ -0,0 +1,11 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+
+/**
+ * Fetches a single page of search results starting at the given offset.
+ */
+@FunctionalInterface
+public interface IssuePageFetcher {
+    IssuePage fetch(int startAt, int maxResults) throws JiraClientException;
+}
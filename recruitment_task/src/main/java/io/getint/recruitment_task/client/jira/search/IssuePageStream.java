@@ -0,0 +1,28 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+
+import java.util.Iterator;
+
+/**
+ * Ordered stream of search result pages, fetched lazily while the caller consumes them.
+ * <p>
+ * Implementations may download pages in the background; closing the stream cancels whatever is still in flight.
+ */
+public interface IssuePageStream extends Iterator<IssuePage>, AutoCloseable {
+
+    /**
+     * Returns the next page, waiting for it to be downloaded if needed.
+     *
+     * @return the next page of issues
+     * @throws JiraClientException if the page could not be fetched
+     */
+    @Override
+    IssuePage next() throws JiraClientException;
+
+    /**
+     * Cancels the page fetches that may still be in flight.
+     */
+    @Override
+    void close();
+}
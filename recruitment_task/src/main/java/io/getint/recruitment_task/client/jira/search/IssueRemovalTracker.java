@@ -0,0 +1,29 @@
+package io.getint.recruitment_task.client.jira.search;
+
+/**
+ * Tells an {@link IssuePageCursor} how many of the issues it returned no longer match the search.
+ * <p>
+ * Issues moved out of the searched project drop out of the results while the cursor pages through them, so
+ * the issues behind them move to lower offsets.
+ */
+@FunctionalInterface
+public interface IssueRemovalTracker {
+
+    /**
+     * Returns the number of returned issues known to have left the search results so far.
+     *
+     * @return the number of removed issues, never decreasing
+     */
+    int getRemovedCount();
+
+    /**
+     * Returns whether the given issue is known to have left the search results, for cursors that only page
+     * through a part of them and count the removals among their own issues.
+     *
+     * @param issueId the id of a returned issue
+     * @return true if the issue was removed, false if it was not or the tracker cannot tell
+     */
+    default boolean isRemoved(long issueId) {
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package io.getint.recruitment_task.client.jira.search;
+
+/**
+ * Dictionary of issue type ids and parent issue ids shared by all {@link IssueBatch}es of a single search.
+ * <p>
+ * Pages are decoded on a background thread while the previous page is processed, so access to the
+ * underlying tables is synchronized. Lookups are cheap and uncontended in practice.
+ */
+public class IssueSymbols {
+    private static final int EXPECTED_ISSUE_TYPES = 16;
+    private static final int EXPECTED_PARENTS = 256;
+
+    private final LongInterner issueTypeIds = new LongInterner(EXPECTED_ISSUE_TYPES);
+    private final LongInterner parentIds = new LongInterner(EXPECTED_PARENTS);
+
+    /**
+     * Interns an issue type id.
+     *
+     * @param issueTypeId the JIRA id of the issue type
+     * @return the code of the issue type
+     */
+    public synchronized int internIssueType(long issueTypeId) {
+        return issueTypeIds.intern(issueTypeId);
+    }
+
+    /**
+     * Interns a parent issue id.
+     *
+     * @param parentId the JIRA id of the parent issue
+     * @return the code of the parent issue
+     */
+    public synchronized int internParent(long parentId) {
+        return parentIds.intern(parentId);
+    }
+
+    /**
+     * Resolves the JIRA id of an interned issue type.
+     *
+     * @param code the code of the issue type
+     * @return the JIRA id of the issue type
+     */
+    public synchronized long issueTypeId(int code) {
+        return issueTypeIds.valueOf(code);
+    }
+
+    /**
+     * Resolves the JIRA id of an interned parent issue.
+     *
+     * @param code the code of the parent issue
+     * @return the JIRA id of the parent issue
+     */
+    public synchronized long parentId(int code) {
+        return parentIds.valueOf(code);
+    }
+}
@@ -0,0 +1,109 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing table assigning dense {@code int} codes to {@code long} values.
+ * <p>
+ * Codes are handed out in insertion order starting at zero, so they can be used directly as indexes into
+ * per-value arrays. The table never boxes and does not allocate on lookups. Instances are not thread-safe.
+ */
+public class LongInterner {
+    public static final int NO_CODE = -1;
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] slotValues;
+    private int[] slotCodes;
+    private long[] values;
+    private int size;
+
+    /**
+     * Constructs a new interner sized for the expected number of distinct values.
+     *
+     * @param expectedSize the expected number of distinct values
+     */
+    public LongInterner(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.slotValues = new long[capacity];
+        this.slotCodes = new int[capacity];
+        Arrays.fill(slotCodes, NO_CODE);
+        this.values = new long[Math.max(4, expectedSize)];
+    }
+
+    /**
+     * Returns the code of the given value, assigning the next free code if the value was not seen before.
+     *
+     * @param value the value to intern
+     * @return the code of the value
+     */
+    public int intern(long value) {
+        int slot = findSlot(value);
+        if (slotCodes[slot] != NO_CODE) {
+            return slotCodes[slot];
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int code = size++;
+        values[code] = value;
+        slotValues[slot] = value;
+        slotCodes[slot] = code;
+        if (size * 2 > slotCodes.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code of the given value without interning it.
+     *
+     * @param value the value to look up
+     * @return the code of the value, or {@link #NO_CODE} if the value was never interned
+     */
+    public int find(long value) {
+        return slotCodes[findSlot(value)];
+    }
+
+    /**
+     * Returns the value the given code was assigned to.
+     *
+     * @param code the code to resolve
+     * @return the interned value
+     */
+    public long valueOf(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("Unknown code: " + code);
+        }
+        return values[code];
+    }
+
+    /**
+     * Returns the number of distinct values interned so far.
+     *
+     * @return the number of interned values
+     */
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(long value) {
+        int mask = slotCodes.length - 1;
+        int slot = (int) ((value * GOLDEN_RATIO) >>> 32) & mask;
+        while (slotCodes[slot] != NO_CODE && slotValues[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        slotValues = new long[slotValues.length * 2];
+        slotCodes = new int[slotCodes.length * 2];
+        Arrays.fill(slotCodes, NO_CODE);
+        for (int code = 0; code < size; code++) {
+            int slot = findSlot(values[code]);
+            slotValues[slot] = values[code];
+            slotCodes[slot] = code;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.getint.recruitment_task.client.jira.utils.JiraFields;
+
+import java.io.IOException;
+
+/**
+ * Outcome of a cheap search asking only for the number of matching issues and the id of the first one.
+ * <p>
+ * Probes plan partitioned searches: ordered by id, the first issue of a probe is the lowest or highest id
+ * matching the search, and the total tells how many issues a range holds without downloading them.
+ */
+public final class SearchProbe {
+    /**
+     * Id of the first issue of a probe that matched no issue.
+     */
+    public static final long NO_ID = -1L;
+
+    private final int total;
+    private final long firstIssueId;
+
+    public SearchProbe(int total, long firstIssueId) {
+        this.total = total;
+        this.firstIssueId = firstIssueId;
+    }
+
+    /**
+     * Decodes the response of a probe search. The parser is closed once the response has been read.
+     *
+     * @param parser the parser positioned before the start of the response body
+     * @return the decoded probe
+     * @throws IOException if the stream cannot be read or does not contain a valid search response
+     */
+    public static SearchProbe decode(JsonParser parser) throws IOException {
+        try (parser) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            int total = 0;
+            long firstIssueId = NO_ID;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (JiraFields.TOTAL.equals(fieldName)) {
+                    total = parser.getIntValue();
+                } else if (JiraFields.ISSUES.equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        long issueId = readId(parser);
+                        if (firstIssueId == NO_ID) {
+                            firstIssueId = issueId;
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new SearchProbe(total, firstIssueId);
+        }
+    }
+
+    private static long readId(JsonParser parser) throws IOException {
+        long issueId = NO_ID;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (JiraFields.ID.equals(fieldName) && (value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NUMBER_INT)) {
+                try {
+                    issueId = Long.parseLong(parser.getText());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, "Expected a numeric id but got: " + parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return issueId;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Returns the number of issues matching the probed search.
+     *
+     * @return the total reported by JIRA
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the id of the first issue of the probe.
+     *
+     * @return the issue id, or {@link #NO_ID} if the search matched no issue
+     */
+    public long getFirstIssueId() {
+        return firstIssueId;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchProbe{total=" + total + ", firstIssueId=" + firstIssueId + "}";
+    }
+}
@@ -0,0 +1,93 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import io.getint.recruitment_task.client.jira.utils.JiraFields;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The issue fields a search asks JIRA for.
+ * <p>
+ * JIRA returns the id and key of every issue regardless of the requested fields and renders nothing unless
+ * asked to expand it, so a search for {@link #ENUMERATION} downloads little more than what a bulk move needs.
+ * Fields are sent as the comma separated list JIRA expects.
+ */
+public final class SearchProjection {
+    /**
+     * The issue type and parent of each issue, enough to build bulk move mapping keys.
+     */
+    public static final SearchProjection ENUMERATION = of(JiraFields.ISSUE_TYPE, JiraFields.PARENT);
+
+    /**
+     * The fields requested by default, for callers which read more than the mapping keys.
+     */
+    public static final SearchProjection DEFAULT = of(JiraFields.ISSUE_TYPE, JiraFields.PARENT, JiraFields.SUMMARY,
+            JiraFields.STATUS, JiraFields.UPDATED);
+
+    private final List<String> fields;
+
+    private SearchProjection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Creates a projection of the given fields.
+     *
+     * @param fields the names of the fields, e.g. {@link JiraFields#ISSUE_TYPE}
+     * @return the projection
+     */
+    public static SearchProjection of(String... fields) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null || field.isBlank() || field.contains(",")) {
+                throw new IllegalArgumentException("Invalid search field '" + field + "'");
+            }
+            distinct.add(field.trim());
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("A search projection needs at least one field");
+        }
+        return new SearchProjection(List.copyOf(distinct));
+    }
+
+    /**
+     * Creates a projection of the fields of this one and the given ones.
+     *
+     * @param moreFields the names of the additional fields
+     * @return the extended projection
+     */
+    public SearchProjection with(String... moreFields) {
+        String[] all = fields.toArray(new String[fields.size() + moreFields.length]);
+        System.arraycopy(moreFields, 0, all, fields.size(), moreFields.length);
+        return of(all);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the value of the {@code fields} query parameter.
+     *
+     * @return the comma separated field names
+     */
+    public String toParameter() {
+        return String.join(",", fields);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SearchProjection && fields.equals(((SearchProjection) other).fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toParameter();
+    }
+}
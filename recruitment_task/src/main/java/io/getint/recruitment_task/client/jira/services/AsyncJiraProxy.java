@@ -0,0 +1,344 @@
+package io.getint.recruitment_task.client.jira.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.getint.recruitment_task.client.HttpRequestFactory;
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskSubmissionDto;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraCommunicationException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraConnectionPoolExhaustedException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraRateLimitException;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraEndpointClass;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraRateLimiter;
+import io.getint.recruitment_task.client.jira.resilience.JiraResilience;
+import io.getint.recruitment_task.client.jira.search.IssueBatchDecoder;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.utils.JiraApiEndpoints;
+import io.getint.recruitment_task.client.jira.wirelog.WireExchange;
+import io.getint.recruitment_task.client.jira.wirelog.WireLogPolicy;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking counterpart of {@link JiraProxy}, returning futures instead of blocking a thread per request.
+ * <p>
+ * Requests go through the NIO reactor of {@code jiraHttpAsyncClient}, which serves all of its connections with a
+ * few I/O dispatcher threads; requests beyond the connection limits wait in the pool without holding a thread.
+ * Rate limits, retries and the circuit breaker are shared with the {@link JiraProxy} of the same JIRA instance;
+ * this bean talks to the default instance, and {@code JiraInstance} holds one per named instance created with
+ * {@link #forInstance}. Waiting for a permit and backing off are timed by {@code jiraScheduler}. Futures are completed on the I/O dispatcher threads, so
+ * callers should not block in their continuations.
+ */
+@Component
+public class AsyncJiraProxy {
+    private static final Logger log = LoggerFactory.getLogger(AsyncJiraProxy.class);
+    private static final String JIRA_CONN_FAIL = "Failed to communicate with JIRA API";
+    private static final String GZIP = "gzip";
+    private final CloseableHttpAsyncClient httpClient;
+    private final HttpRequestFactory httpRequestFactory;
+    private final ScheduledExecutorService scheduler;
+    private final JiraJsonCodec jsonCodec;
+    private final JiraRateLimiter rateLimiter;
+    private final JiraResilience resilience;
+    private final JiraMetrics metrics;
+    private final WireLogPolicy wireLog;
+
+    /**
+     * Constructs a new AsyncJiraProxy.
+     *
+     * @param httpClient the started non-blocking HTTP client used for making requests
+     * @param httpRequestFactory the factory used for creating HTTP requests
+     * @param scheduler the scheduler timing rate limit waits and retries
+     * @param jsonCodec the codec used to read and write JSON payloads
+     * @param rateLimiter the limiter pacing all requests sent to JIRA
+     * @param resilience the retry and circuit breaker layer wrapped around every request
+     * @param metrics the meters recording every request
+     * @param wireLog the policy deciding which requests and responses are logged
+     */
+    public AsyncJiraProxy(@Qualifier("jiraHttpAsyncClient") CloseableHttpAsyncClient httpClient,
+                          HttpRequestFactory httpRequestFactory,
+                          @Qualifier("jiraScheduler") ScheduledExecutorService scheduler,
+                          JiraJsonCodec jsonCodec,
+                          JiraRateLimiter rateLimiter,
+                          JiraResilience resilience,
+                          JiraMetrics metrics,
+                          WireLogPolicy wireLog) {
+        this.httpClient = httpClient;
+        this.httpRequestFactory = httpRequestFactory;
+        this.scheduler = scheduler;
+        this.jsonCodec = jsonCodec;
+        this.rateLimiter = rateLimiter;
+        this.resilience = resilience;
+        this.metrics = metrics;
+        this.wireLog = wireLog;
+    }
+
+    /**
+     * Creates a proxy sending its requests to another JIRA instance. The new proxy has its own client and records
+     * its requests in meters tagged with the name of the instance; it should share the rate limits and circuit
+     * breaker of the blocking proxy of that instance.
+     *
+     * @param name the name of the instance
+     * @param httpClient the started non-blocking HTTP client connected to the instance
+     * @param httpRequestFactory the factory creating requests for the URL of the instance
+     * @param rateLimiter the limiter pacing the requests sent to the instance
+     * @param resilience the retry and circuit breaker layer of the instance
+     * @return the new proxy
+     */
+    public AsyncJiraProxy forInstance(String name, CloseableHttpAsyncClient httpClient, HttpRequestFactory httpRequestFactory,
+                                      JiraRateLimiter rateLimiter, JiraResilience resilience) {
+        return new AsyncJiraProxy(httpClient, httpRequestFactory, scheduler, jsonCodec, rateLimiter, resilience, metrics.forInstance(name), wireLog);
+    }
+
+    /**
+     * Searches for a single page of issues and decodes it once the response arrived.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param symbols the dictionary the decoded issue type and parent codes are interned into
+     * @return the future completed with the decoded page, or with a {@link JiraClientException}
+     */
+    public CompletableFuture<IssuePage> searchIssuesAsync(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols) {
+        return searchIssuesAsync(jqlQuery, startAt, maxResults, symbols, SearchProjection.DEFAULT);
+    }
+
+    /**
+     * Searches for a single page of issues, asking only for the given fields, and decodes it once the response arrived.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param symbols the dictionary the decoded issue type and parent codes are interned into
+     * @param projection the fields to return for each issue
+     * @return the future completed with the decoded page, or with a {@link JiraClientException}
+     */
+    public CompletableFuture<IssuePage> searchIssuesAsync(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols,
+                                                          SearchProjection projection) {
+        log.debug("Searching issues with JQL: {} (startAt {}, maxResults {}, fields {})", jqlQuery, startAt, maxResults, projection);
+        HttpGet request;
+        try {
+            request = httpRequestFactory.createGetRequest(JiraProxy.buildSearchUri(jqlQuery, startAt, maxResults, projection));
+        } catch (JiraClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return execute(request, JiraEndpointClass.SEARCH, content -> IssueBatchDecoder.decode(jsonCodec.createParser(content), startAt, symbols));
+    }
+
+    /**
+     * Submits a bulk move without waiting for the response.
+     *
+     * @param requestDto the request data transfer object containing the bulk move details
+     * @return the future completed with the submission response containing the task id, or with a {@link JiraClientException}
+     */
+    public CompletableFuture<BulkTaskSubmissionDto> moveIssuesBulkAsync(BulkMoveTasksRequestDto requestDto) {
+        HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.BULK_MOVE_ISSUES);
+        post.setEntity(jsonCodec.bulkMoveEntity(requestDto));
+        return execute(post, JiraEndpointClass.BULK_MOVE, content -> {
+            BulkTaskSubmissionDto submission = jsonCodec.read(content, BulkTaskSubmissionDto.class);
+            if (submission.getTaskId() == null) {
+                throw new JiraClientException("Bulk move response did not contain a task id");
+            }
+            return submission;
+        });
+    }
+
+    /**
+     * Fetches the progress of a queued bulk task without waiting for the response.
+     *
+     * @param taskId the id of the bulk task
+     * @return the future completed with the current progress of the task, or with a {@link JiraClientException}
+     */
+    public CompletableFuture<BulkTaskProgressDto> getBulkTaskProgressAsync(String taskId) {
+        HttpGet request = httpRequestFactory.createGetRequest(JiraApiEndpoints.BULK_TASK_PROGRESS + taskId);
+        return execute(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, BulkTaskProgressDto.class));
+    }
+
+    /**
+     * Sends the given HTTP request and hands a successful response body stream to the given reader.
+     * <p>
+     * The request entity is serialized into memory once up front, as the reactor writes entities without
+     * blocking. Retries follow the same rules as {@link JiraProxy}.
+     *
+     * @param request the HTTP request to execute
+     * @param endpointClass the rate limit class of the request
+     * @param responseReader the reader consuming the response body of a successful request
+     * @param <T> the type produced by the reader
+     * @return the future completed with the value produced by the reader
+     */
+    private <T> CompletableFuture<T> execute(HttpUriRequest request, JiraEndpointClass endpointClass, JiraProxy.ResponseReader<T> responseReader) {
+        boolean idempotent = HttpGet.METHOD_NAME.equals(request.getMethod());
+        String endpoint = JiraMetrics.endpointOf(request.getURI().getPath());
+        WireExchange exchange = wireLog.begin(request);
+        if (request instanceof HttpEntityEnclosingRequest enclosingRequest && enclosingRequest.getEntity() != null) {
+            try {
+                enclosingRequest.setEntity(buffer(exchange.captureRequest(metrics.measureRequest(endpoint, enclosingRequest.getEntity()))));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(new JiraClientException("Failed to serialize request to JIRA API", e));
+            }
+        }
+        return resilience.executeAsync(request.getMethod() + " " + request.getURI().getPath(), idempotent,
+                () -> executeAttempt(request, endpointClass, endpoint, exchange, responseReader, 0), scheduler);
+    }
+
+    /**
+     * Sends the given HTTP request once, after waiting for the rate limiter, and sends it again while it is throttled.
+     *
+     * @param request the HTTP request to execute
+     * @param endpointClass the rate limit class of the request
+     * @param endpoint the endpoint tag of the request meters
+     * @param exchange the wire log exchange every attempt is reported to
+     * @param responseReader the reader consuming the response body of a successful request
+     * @param attempt the number of throttled attempts so far
+     * @param <T> the type produced by the reader
+     * @return the future completed with the value produced by the reader
+     */
+    private <T> CompletableFuture<T> executeAttempt(HttpUriRequest request, JiraEndpointClass endpointClass, String endpoint, WireExchange exchange,
+                                                    JiraProxy.ResponseReader<T> responseReader, int attempt) {
+        long waitStarted = System.nanoTime();
+        return rateLimiter.acquireAsync(endpointClass, scheduler).thenCompose(permit -> {
+            long started = System.nanoTime();
+            metrics.recordRateLimitWait(endpointClass, started - waitStarted);
+            return send(request).handle((response, failure) -> {
+                CompletableFuture<T> outcome = handleResponse(request, endpointClass, endpoint, exchange, responseReader, attempt, started, response, failure);
+                return outcome != null ? outcome : executeAttempt(request, endpointClass, endpoint, exchange, responseReader, attempt + 1);
+            }).thenCompose(Function.identity());
+        });
+    }
+
+    /**
+     * Turns the response of a single attempt into the outcome of the request.
+     *
+     * @return the outcome of the request, or null if the request was throttled and should be sent again
+     */
+    private <T> CompletableFuture<T> handleResponse(HttpUriRequest request, JiraEndpointClass endpointClass, String endpoint, WireExchange exchange,
+                                                    JiraProxy.ResponseReader<T> responseReader, int attempt, long started,
+                                                    HttpResponse response, Throwable failure) {
+        String status = JiraMetrics.IO_ERROR;
+        try {
+            if (failure instanceof TimeoutException) {
+                // Raised by the connection pool when no connection could be leased in time
+                return CompletableFuture.failedFuture(new JiraConnectionPoolExhaustedException("No JIRA connection became free: " + failure.getMessage(), failure));
+            }
+            if (failure != null) {
+                log.error(JIRA_CONN_FAIL, failure);
+                return CompletableFuture.failedFuture(new JiraCommunicationException(JIRA_CONN_FAIL, failure));
+            }
+            rateLimiter.onResponse(endpointClass, response);
+            int statusCode = response.getStatusLine().getStatusCode();
+            status = JiraMetrics.statusClassOf(statusCode);
+            exchange.onResponse(response);
+
+            if (rateLimiter.isThrottled(statusCode)) {
+                EntityUtils.consume(response.getEntity());
+                if (attempt < rateLimiter.getMaxThrottleRetries()) {
+                    log.warn("Retrying throttled request {} (attempt {} of {})", request.getURI(), attempt + 1, rateLimiter.getMaxThrottleRetries());
+                    return null;
+                }
+                throw new JiraRateLimitException("JIRA API is still throttling requests after " + attempt + " retries: HTTP " + statusCode);
+            }
+
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new JiraClientException("No response body received from the server");
+            }
+
+            if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+                String responseBody;
+                try (InputStream content = decode(entity)) {
+                    responseBody = new String(content.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                exchange.onErrorBody(responseBody);
+                throw JiraProxy.errorResponse(statusCode, responseBody);
+            }
+
+            try (InputStream content = exchange.captureResponse(metrics.measureResponse(endpoint, decode(entity)))) {
+                return CompletableFuture.completedFuture(responseReader.read(content));
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Malformed response from JIRA API", e);
+            return CompletableFuture.failedFuture(new JiraClientException("Malformed response from JIRA API: " + e.getOriginalMessage(), e));
+        } catch (IOException e) {
+            log.error(JIRA_CONN_FAIL, e);
+            return CompletableFuture.failedFuture(new JiraCommunicationException(JIRA_CONN_FAIL, e));
+        } catch (JiraClientException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            long nanos = System.nanoTime() - started;
+            metrics.recordRequest(endpoint, request.getMethod(), status, nanos);
+            exchange.complete(nanos);
+        }
+    }
+
+    private CompletableFuture<HttpResponse> send(HttpUriRequest request) {
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(HttpResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new IOException("Request to JIRA API was cancelled"));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Serializes a request entity into a repeatable in-memory entity the reactor can write without blocking.
+     */
+    private static HttpEntity buffer(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        entity.writeTo(buffer);
+        NByteArrayEntity buffered = new NByteArrayEntity(buffer.toByteArray());
+        buffered.setContentType(entity.getContentType());
+        buffered.setContentEncoding(entity.getContentEncoding());
+        return buffered;
+    }
+
+    /**
+     * Opens the body of a buffered response, inflating it if the server compressed it.
+     */
+    private static InputStream decode(HttpEntity entity) throws IOException {
+        InputStream content = entity.getContent();
+        if (entity.getContentEncoding() != null && GZIP.equalsIgnoreCase(entity.getContentEncoding().getValue())) {
+            return new GZIPInputStream(content);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,74 @@
+package io.getint.recruitment_task.client.jira.services;
+
+import io.getint.recruitment_task.client.jira.metadata.IssueTypeMapping;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.LongInterner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table of the {@code targetProjectKey,issueTypeId[,parentId]} keys used in bulk move payloads.
+ * <p>
+ * Every distinct combination of issue type and parent gets a dense key code, and its key string is built
+ * only once per sync run. Resolving the key of an issue that was seen before does not allocate. Source issue
+ * types are translated to the target project through the cached {@link IssueTypeMapping}.
+ */
+class BulkMoveMappingKeys {
+    private static final int EXPECTED_KEYS = 64;
+
+    private final String targetProjectKey;
+    private final IssueSymbols symbols;
+    private final IssueTypeMapping issueTypeMapping;
+    private final LongInterner combinations = new LongInterner(EXPECTED_KEYS);
+    private final List<String> keys = new ArrayList<>();
+
+    BulkMoveMappingKeys(String targetProjectKey, IssueSymbols symbols, IssueTypeMapping issueTypeMapping) {
+        this.targetProjectKey = targetProjectKey;
+        this.symbols = symbols;
+        this.issueTypeMapping = issueTypeMapping;
+    }
+
+    /**
+     * Returns the key code for the given issue type and parent.
+     *
+     * @param issueTypeCode the interned issue type
+     * @param parentCode the interned parent, or {@link LongInterner#NO_CODE} for issues that are not subtasks
+     * @return the key code, or {@link LongInterner#NO_CODE} if the issue type has no equivalent in the target project
+     */
+    int keyCode(int issueTypeCode, int parentCode) {
+        long combination = ((long) issueTypeCode << 32) | (parentCode & 0xFFFFFFFFL);
+        int code = combinations.intern(combination);
+        if (code == keys.size()) {
+            long targetIssueTypeId = issueTypeMapping.targetIssueTypeId(symbols.issueTypeId(issueTypeCode));
+            String key = null;
+            if (targetIssueTypeId != IssueTypeMapping.UNMAPPED) {
+                key = targetProjectKey + "," + targetIssueTypeId;
+                if (parentCode != LongInterner.NO_CODE) {
+                    key += "," + symbols.parentId(parentCode);
+                }
+            }
+            keys.add(key);
+        }
+        return keys.get(code) == null ? LongInterner.NO_CODE : code;
+    }
+
+    /**
+     * Returns the key string of the given key code.
+     *
+     * @param keyCode the key code
+     * @return the key used in the bulk move payload
+     */
+    String key(int keyCode) {
+        return keys.get(keyCode);
+    }
+
+    /**
+     * Returns the number of distinct keys seen so far.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return keys.size();
+    }
+}
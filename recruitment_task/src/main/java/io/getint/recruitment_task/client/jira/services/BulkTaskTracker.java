@@ -0,0 +1,198 @@
+package io.getint.recruitment_task.client.jira.services;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.instances.JiraInstance;
+import io.getint.recruitment_task.client.jira.scheduling.WeightedSlotScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submits JIRA bulk move tasks and tracks them until JIRA reports them as finished.
+ * <p>
+ * Every JIRA instance has {@code jira.sync.bulkMaxInFlight} bulk task slots of its own; a submission blocks until
+ * its lane is granted one of them, which keeps the synchronizer from running ahead of JIRA, while tasks stalled on
+ * one instance never hold back submissions to another. The slots of an instance are shared between sync runs in
+ * weighted round-robin order through the lane each run submits on. Every task is polled on its own backoff
+ * schedule, starting at {@code jira.sync.bulkPollInitialDelayMs} and doubling up to
+ * {@code jira.sync.bulkPollMaxDelayMs}.
+ */
+@Component
+public class BulkTaskTracker {
+    private static final Logger log = LoggerFactory.getLogger(BulkTaskTracker.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final long initialPollDelayMs;
+    private final long maxPollDelayMs;
+    private final long taskTimeoutMs;
+
+    /**
+     * Constructs a new BulkTaskTracker.
+     *
+     * @param scheduler the scheduler delaying the polls
+     * @param initialPollDelayMs the delay before a task is polled for the first time
+     * @param maxPollDelayMs the upper bound of the delay between two polls of the same task
+     * @param taskTimeoutMs the time after which a task that has not finished is reported as failed
+     */
+    public BulkTaskTracker(@Qualifier("jiraScheduler") ScheduledExecutorService scheduler,
+                           @Value("${jira.sync.bulkPollInitialDelayMs}") long initialPollDelayMs,
+                           @Value("${jira.sync.bulkPollMaxDelayMs}") long maxPollDelayMs,
+                           @Value("${jira.sync.bulkTaskTimeoutMs}") long taskTimeoutMs) {
+        this.scheduler = scheduler;
+        this.initialPollDelayMs = initialPollDelayMs;
+        this.maxPollDelayMs = maxPollDelayMs;
+        this.taskTimeoutMs = taskTimeoutMs;
+    }
+
+    /**
+     * Submits a bulk move through the given proxy, blocking until the lane is granted one of the task slots of the
+     * instance, and runs the HTTP calls of the task on the given executor, e.g. the task scope of a sync run.
+     *
+     * @param requestDto the bulk move payload
+     * @param onSubmitted called with the JIRA task id once JIRA accepted the task, before it is polled
+     * @param jiraProxy the proxy of the JIRA instance the task runs on
+     * @param stepExecutor the executor running the HTTP calls of the task
+     * @param lane the lane of the sync run, taken from {@link JiraInstance#getBulkTaskSlots()}
+     * @return a future completed with the per-issue result once JIRA finished the task
+     * @throws JiraClientException if the calling thread is interrupted while waiting for a free slot
+     */
+    public CompletableFuture<BulkMoveResult> submit(BulkMoveTasksRequestDto requestDto, Consumer<String> onSubmitted, JiraProxy jiraProxy,
+                                                    Executor stepExecutor, WeightedSlotScheduler.Lane lane) throws JiraClientException {
+        TrackedTask task = acquireSlot(requestDto, jiraProxy, stepExecutor, lane);
+        runAsync(task, () -> {
+            task.taskId = task.jiraProxy.submitBulkMove(requestDto).getTaskId();
+            log.info("Bulk move task {} submitted for {} issues", task.taskId, task.requestedIds.length);
+            onSubmitted.accept(task.taskId);
+            schedulePoll(task, initialPollDelayMs);
+        });
+        return task.result;
+    }
+
+    /**
+     * Tracks a bulk move task that was submitted earlier, e.g. by a run that was interrupted, once the lane is granted
+     * one of the task slots of the instance, and runs its polls on the given executor.
+     *
+     * @param taskId the id of the JIRA task
+     * @param requestDto the bulk move payload the task was submitted with
+     * @param jiraProxy the proxy of the JIRA instance the task runs on
+     * @param stepExecutor the executor running the HTTP calls of the task
+     * @param lane the lane of the sync run, taken from {@link JiraInstance#getBulkTaskSlots()}
+     * @return a future completed with the per-issue result once JIRA finished the task
+     * @throws JiraClientException if the calling thread is interrupted while waiting for a free slot
+     */
+    public CompletableFuture<BulkMoveResult> resume(String taskId, BulkMoveTasksRequestDto requestDto, JiraProxy jiraProxy,
+                                                    Executor stepExecutor, WeightedSlotScheduler.Lane lane) throws JiraClientException {
+        TrackedTask task = acquireSlot(requestDto, jiraProxy, stepExecutor, lane);
+        task.taskId = taskId;
+        log.info("Resuming bulk move task {} for {} issues", taskId, task.requestedIds.length);
+        runAsync(task, () -> poll(task, initialPollDelayMs));
+        return task.result;
+    }
+
+    private TrackedTask acquireSlot(BulkMoveTasksRequestDto requestDto, JiraProxy jiraProxy, Executor stepExecutor,
+                                    WeightedSlotScheduler.Lane lane) throws JiraClientException {
+        try {
+            lane.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraClientException("Interrupted while waiting for a free bulk task slot", e);
+        }
+
+        CompletableFuture<BulkMoveResult> result = new CompletableFuture<>();
+        result.whenComplete((moved, error) -> lane.release());
+        return new TrackedTask(requestedIds(requestDto), result, System.currentTimeMillis() + taskTimeoutMs, jiraProxy, stepExecutor);
+    }
+
+    private void schedulePoll(TrackedTask task, long delayMs) {
+        try {
+            scheduler.schedule(() -> runAsync(task, () -> poll(task, delayMs)), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            task.result.completeExceptionally(new JiraClientException("Bulk task scheduler is shut down", e));
+        }
+    }
+
+    private void poll(TrackedTask task, long delayMs) {
+        BulkTaskProgressDto progress = task.jiraProxy.getBulkTaskProgress(task.taskId);
+        log.info("Bulk move task {} is {} ({}%)", task.taskId, progress.getStatus(), progress.getProgressPercent());
+        if (progress.getStatus() != null && progress.getStatus().isFinished()) {
+            task.result.complete(BulkMoveResult.fromProgress(progress, task.requestedIds));
+        } else if (System.currentTimeMillis() > task.deadline) {
+            task.result.completeExceptionally(new JiraClientException(
+                    "Bulk move task " + task.taskId + " did not finish within " + taskTimeoutMs + " ms"));
+        } else {
+            schedulePoll(task, Math.min(delayMs * 2, maxPollDelayMs));
+        }
+    }
+
+    /**
+     * Runs a step of the task on its executor unless the task was already completed or cancelled,
+     * completing the task exceptionally if the step fails.
+     */
+    private void runAsync(TrackedTask task, Runnable step) {
+        try {
+            task.stepExecutor.execute(() -> {
+                if (task.result.isDone()) {
+                    return;
+                }
+                try {
+                    step.run();
+                } catch (RuntimeException e) {
+                    task.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            task.result.completeExceptionally(new JiraClientException("JIRA I/O executor is shut down", e));
+        }
+    }
+
+    private static long[] requestedIds(BulkMoveTasksRequestDto requestDto) {
+        int count = 0;
+        for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+            count += mapping.getIssueIdsOrKeys().size();
+        }
+        long[] ids = new long[count];
+        int position = 0;
+        for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+            List<String> issueIds = mapping.getIssueIdsOrKeys();
+            for (int i = 0; i < issueIds.size(); i++) {
+                ids[position++] = IssueIdList.idAt(issueIds, i);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * State of a single submitted bulk task.
+     */
+    private static final class TrackedTask {
+        private final long[] requestedIds;
+        private final CompletableFuture<BulkMoveResult> result;
+        private final long deadline;
+        private final JiraProxy jiraProxy;
+        private final Executor stepExecutor;
+        private volatile String taskId;
+
+        private TrackedTask(long[] requestedIds, CompletableFuture<BulkMoveResult> result, long deadline, JiraProxy jiraProxy,
+                            Executor stepExecutor) {
+            this.requestedIds = requestedIds;
+            this.result = result;
+            this.deadline = deadline;
+            this.jiraProxy = jiraProxy;
+            this.stepExecutor = stepExecutor;
+        }
+    }
+}
@@ -1,21 +1,57 @@
 package io.getint.recruitment_task.client.jira.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.getint.recruitment_task.client.HttpRequestFactory;
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.concurrency.ConnectionLeaseGate;
+import io.getint.recruitment_task.client.jira.dto.BulkCreateIssuesRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkCreateIssuesResponseDto;
 import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskSubmissionDto;
+import io.getint.recruitment_task.client.jira.dto.CommentDto;
+import io.getint.recruitment_task.client.jira.dto.CommentPageDto;
+import io.getint.recruitment_task.client.jira.dto.IssueDetailsDto;
+import io.getint.recruitment_task.client.jira.dto.IssueRefDto;
+import io.getint.recruitment_task.client.jira.dto.IssueSearchResultDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeStatusesDto;
+import io.getint.recruitment_task.client.jira.dto.JiraClientStatsDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.dto.StatusDto;
+import io.getint.recruitment_task.client.jira.dto.TransitionRequestDto;
+import io.getint.recruitment_task.client.jira.dto.TransitionsDto;
 import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
 import io.getint.recruitment_task.client.jira.exceptions.JiraCommunicationException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraConnectionPoolExhaustedException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraRateLimitException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraServerException;
+import io.getint.recruitment_task.client.jira.httpcache.CachedResponse;
+import io.getint.recruitment_task.client.jira.httpcache.JiraResponseCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraEndpointClass;
+import io.getint.recruitment_task.client.jira.ratelimit.JiraRateLimiter;
+import io.getint.recruitment_task.client.jira.resilience.CircuitBreaker;
+import io.getint.recruitment_task.client.jira.resilience.JiraResilience;
+import io.getint.recruitment_task.client.jira.search.IssueBatchDecoder;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.search.IssueRemovalTracker;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProbe;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
 import io.getint.recruitment_task.client.jira.utils.JiraApiEndpoints;
 import io.getint.recruitment_task.client.jira.utils.JiraFields;
+import io.getint.recruitment_task.client.jira.wirelog.WireExchange;
+import io.getint.recruitment_task.client.jira.wirelog.WireLogPolicy;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
@@ -24,10 +60,14 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Service class responsible for interacting with the JIRA API.
@@ -38,16 +78,134 @@ public class JiraProxy {
     private static final String JIRA_CONN_FAIL = "Failed to communicate with JIRA API";
     private final CloseableHttpClient httpClient;
     private final HttpRequestFactory httpRequestFactory;
+    private final Executor prefetchExecutor;
+    private final JiraJsonCodec jsonCodec;
+    private final JiraRateLimiter rateLimiter;
+    private final JiraResilience resilience;
+    private final JiraMetrics metrics;
+    private final WireLogPolicy wireLog;
+    private final ConnectionLeaseGate connectionGate;
+    private final JiraResponseCache responseCache;
 
     /**
      * Constructs a new JiraProxy.
      *
      * @param httpClient the HTTP client used for making requests
      * @param httpRequestFactory the factory used for creating HTTP requests
+     * @param prefetchExecutor the executor used to fetch search pages in the background
+     * @param jsonCodec the codec used to read and write JSON payloads
+     * @param rateLimiter the limiter pacing all requests sent to JIRA
+     * @param resilience the retry and circuit breaker layer wrapped around every request
+     * @param metrics the meters recording every request
+     * @param wireLog the policy deciding which requests and responses are logged
+     * @param connectionGate the gate admitting requests while a pooled connection is free
+     * @param responseCache the conditional request cache of GET responses
      */
-    public JiraProxy(@Qualifier("jiraHttpClient") CloseableHttpClient httpClient, HttpRequestFactory httpRequestFactory) {
+    public JiraProxy(@Qualifier("jiraHttpClient") CloseableHttpClient httpClient,
+                     HttpRequestFactory httpRequestFactory,
+                     @Qualifier("jiraIoExecutor") Executor prefetchExecutor,
+                     JiraJsonCodec jsonCodec,
+                     JiraRateLimiter rateLimiter,
+                     JiraResilience resilience,
+                     JiraMetrics metrics,
+                     WireLogPolicy wireLog,
+                     ConnectionLeaseGate connectionGate,
+                     JiraResponseCache responseCache) {
         this.httpClient = httpClient;
         this.httpRequestFactory = httpRequestFactory;
+        this.prefetchExecutor = prefetchExecutor;
+        this.jsonCodec = jsonCodec;
+        this.rateLimiter = rateLimiter;
+        this.resilience = resilience;
+        this.metrics = metrics;
+        this.wireLog = wireLog;
+        this.connectionGate = connectionGate;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Creates a proxy sending its requests to another JIRA instance. The new proxy has its own client, rate limits
+     * and circuit breaker, records its requests in meters tagged with the name of the instance, and shares the
+     * codec, wire log and response cache with this one.
+     *
+     * @param name the name of the instance
+     * @param httpClient the HTTP client connected to the instance
+     * @param httpRequestFactory the factory creating requests for the URL of the instance
+     * @param rateLimiter the limiter pacing the requests sent to the instance
+     * @param resilience the retry and circuit breaker layer of the instance
+     * @param connectionGate the gate matching the connection pool of the client
+     * @return the new proxy
+     */
+    public JiraProxy forInstance(String name, CloseableHttpClient httpClient, HttpRequestFactory httpRequestFactory,
+                                 JiraRateLimiter rateLimiter, JiraResilience resilience, ConnectionLeaseGate connectionGate) {
+        return new JiraProxy(httpClient, httpRequestFactory, prefetchExecutor, jsonCodec, rateLimiter, resilience, metrics.forInstance(name),
+                wireLog, connectionGate, responseCache);
+    }
+
+    /**
+     * Opens a lazy cursor over all issues matching the provided JQL query.
+     * <p>
+     * Pages are requested with {@code startAt} offsets and the next page is always fetched in the background
+     * while the caller works on the current one.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param maxIssues the maximum number of issues to return across all pages
+     * @param symbols the dictionary shared by all decoded pages
+     * @return a cursor over the search result pages; it should be closed once the caller is done with it
+     */
+    public IssuePageCursor searchIssuesPaged(String jqlQuery, int maxIssues, IssueSymbols symbols) {
+        return searchIssuesPaged(jqlQuery, maxIssues, symbols, null);
+    }
+
+    /**
+     * Opens a lazy cursor over all issues matching the provided JQL query, while the caller removes returned
+     * issues from the results.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param maxIssues the maximum number of issues to return across all pages
+     * @param symbols the dictionary shared by all decoded pages
+     * @param removalTracker the tracker of returned issues that no longer match the query, or null if none
+     * @return a cursor over the search result pages; it should be closed once the caller is done with it
+     */
+    public IssuePageCursor searchIssuesPaged(String jqlQuery, int maxIssues, IssueSymbols symbols, IssueRemovalTracker removalTracker) {
+        return searchIssuesPaged(jqlQuery, maxIssues, symbols, removalTracker, prefetchExecutor);
+    }
+
+    /**
+     * Opens a lazy cursor over all issues matching the provided JQL query, fetching pages in the background on
+     * the given executor, e.g. the task scope of a sync run.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param maxIssues the maximum number of issues to return across all pages
+     * @param symbols the dictionary shared by all decoded pages
+     * @param removalTracker the tracker of returned issues that no longer match the query, or null if none
+     * @param prefetchExecutor the executor fetching the pages
+     * @return a cursor over the search result pages; it should be closed once the caller is done with it
+     */
+    public IssuePageCursor searchIssuesPaged(String jqlQuery, int maxIssues, IssueSymbols symbols, IssueRemovalTracker removalTracker,
+                                             Executor prefetchExecutor) {
+        return searchIssuesPaged(jqlQuery, maxIssues, symbols, removalTracker, prefetchExecutor, SearchProjection.DEFAULT);
+    }
+
+    /**
+     * Opens a lazy cursor over all issues matching the provided JQL query, asking only for the given fields.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param maxIssues the maximum number of issues to return across all pages
+     * @param symbols the dictionary shared by all decoded pages
+     * @param removalTracker the tracker of returned issues that no longer match the query, or null if none
+     * @param prefetchExecutor the executor fetching the pages
+     * @param projection the fields to return for each issue
+     * @return a cursor over the search result pages; it should be closed once the caller is done with it
+     */
+    public IssuePageCursor searchIssuesPaged(String jqlQuery, int maxIssues, IssueSymbols symbols, IssueRemovalTracker removalTracker,
+                                             Executor prefetchExecutor, SearchProjection projection) {
+        return new IssuePageCursor(
+                (startAt, maxResults) -> searchIssuesPage(jqlQuery, startAt, maxResults, symbols, projection),
+                prefetchExecutor,
+                maxIssues,
+                IssuePageCursor.DEFAULT_PAGE_SIZE,
+                removalTracker);
     }
 
     /**
@@ -59,15 +217,122 @@ public class JiraProxy {
      * @throws JiraClientException if an error occurs while communicating with the JIRA API
      */
     public String searchIssues(String jqlQuery, int maxIssuesToMove) throws JiraClientException {
-        log.info("Searching issues with JQL: {}", jqlQuery);
+        return searchIssues(jqlQuery, 0, maxIssuesToMove);
+    }
+
+    /**
+     * Searches for a single page of issues in JIRA using the provided JQL query.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @return a JSON string representing the search results page
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public String searchIssues(String jqlQuery, int startAt, int maxResults) throws JiraClientException {
+        return searchIssues(jqlQuery, startAt, maxResults, SearchProjection.DEFAULT);
+    }
+
+    /**
+     * Searches for a single page of issues in JIRA, asking only for the given fields.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param projection the fields to return for each issue
+     * @return a JSON string representing the search results page
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public String searchIssues(String jqlQuery, int startAt, int maxResults, SearchProjection projection) throws JiraClientException {
+        log.debug("Searching issues with JQL: {} (startAt {}, maxResults {}, fields {})", jqlQuery, startAt, maxResults, projection);
+        HttpGet request = httpRequestFactory.createGetRequest(buildSearchUri(jqlQuery, startAt, maxResults, projection));
+        return executeRequest(request, JiraEndpointClass.SEARCH);
+    }
+
+    /**
+     * Searches for a single page of issues and decodes it straight from the response stream.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param symbols the dictionary the decoded issue type and parent codes are interned into
+     * @return the decoded page
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public IssuePage searchIssuesPage(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols) throws JiraClientException {
+        return searchIssuesPage(jqlQuery, startAt, maxResults, symbols, SearchProjection.DEFAULT);
+    }
+
+    /**
+     * Searches for a single page of issues, asking only for the given fields, and decodes it straight from the
+     * response stream.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param symbols the dictionary the decoded issue type and parent codes are interned into
+     * @param projection the fields to return for each issue
+     * @return the decoded page
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public IssuePage searchIssuesPage(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols,
+                                      SearchProjection projection) throws JiraClientException {
+        log.debug("Searching issues with JQL: {} (startAt {}, maxResults {}, fields {})", jqlQuery, startAt, maxResults, projection);
+        HttpGet request = httpRequestFactory.createGetRequest(buildSearchUri(jqlQuery, startAt, maxResults, projection));
+        return executeRequest(request, JiraEndpointClass.SEARCH, content -> IssueBatchDecoder.decode(jsonCodec.createParser(content), startAt, symbols));
+    }
+
+    /**
+     * Probes a search for the number of matching issues and the id of its first result, without downloading
+     * the issues themselves.
+     *
+     * @param jqlQuery the JQL query to probe, ordered by id when the first id matters
+     * @return the total and first issue id of the search
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public SearchProbe probeSearch(String jqlQuery) throws JiraClientException {
+        log.debug("Probing search with JQL: {}", jqlQuery);
+        HttpGet request = httpRequestFactory.createGetRequest(buildSearchUri(jqlQuery, 0, 1, SearchProjection.of(JiraFields.ID)));
+        return executeRequest(request, JiraEndpointClass.SEARCH, content -> SearchProbe.decode(jsonCodec.createParser(content)));
+    }
+
+    /**
+     * Searches for a single page of issues with the given fields, decoded into full issue objects. Meant for
+     * callers which need the field values themselves, such as copying issues, rather than mapping keys.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param projection the fields to return for each issue
+     * @return the decoded page
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public IssueSearchResultDto searchIssueDetails(String jqlQuery, int startAt, int maxResults, SearchProjection projection)
+            throws JiraClientException {
+        log.debug("Searching issue details with JQL: {} (startAt {}, maxResults {}, fields {})", jqlQuery, startAt, maxResults, projection);
+        HttpGet request = httpRequestFactory.createGetRequest(buildSearchUri(jqlQuery, startAt, maxResults, projection));
+        return executeRequest(request, JiraEndpointClass.SEARCH, content -> jsonCodec.read(content, IssueSearchResultDto.class));
+    }
+
+    /**
+     * Builds the relative URI of a search page request.
+     *
+     * @param jqlQuery the JQL query to execute
+     * @param startAt the offset of the first issue to return
+     * @param maxResults the maximum number of issues to return in this page
+     * @param projection the fields to return for each issue
+     * @return the relative URI including query parameters
+     * @throws JiraClientException if the URI cannot be built
+     */
+    static String buildSearchUri(String jqlQuery, int startAt, int maxResults, SearchProjection projection) throws JiraClientException {
         try {
             URI uri = new URIBuilder(JiraApiEndpoints.SEARCH_ISSUES)
                     .addParameter(JiraApiEndpoints.JQL_PARAM, jqlQuery)
-                    .addParameter(JiraApiEndpoints.MAX_RESULTS_PARAM, String.valueOf(maxIssuesToMove))
-                    .addParameter(JiraApiEndpoints.FIELDS_PARAM, Arrays.asList(JiraFields.ID, JiraFields.ISSUE_TYPE, JiraFields.SUMMARY, JiraFields.STATUS).toString())
+                    .addParameter(JiraApiEndpoints.START_AT_PARAM, String.valueOf(startAt))
+                    .addParameter(JiraApiEndpoints.MAX_RESULTS_PARAM, String.valueOf(maxResults))
+                    .addParameter(JiraApiEndpoints.FIELDS_PARAM, projection.toParameter())
                     .build();
-            HttpGet request = httpRequestFactory.createGetRequest(uri.toString());
-            return executeRequest(request);
+            return uri.toString();
         } catch (URISyntaxException e) {
             log.error("Invalid URI syntax: {}", e.getMessage());
             throw new JiraClientException("Invalid URI syntax: " + e.getMessage(), e);
@@ -82,48 +347,346 @@ public class JiraProxy {
      * @throws JiraClientException if an error occurs while communicating with the JIRA API
      */
     public String moveIssuesBulk(BulkMoveTasksRequestDto requestDto) throws JiraClientException {
+        HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.BULK_MOVE_ISSUES);
+        post.setEntity(jsonCodec.bulkMoveEntity(requestDto));
+        return executeRequest(post, JiraEndpointClass.BULK_MOVE);
+    }
+
+    /**
+     * Submits a bulk move and returns the id of the queued JIRA task.
+     *
+     * @param requestDto the request data transfer object containing the bulk move details
+     * @return the submission response containing the task id
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public BulkTaskSubmissionDto submitBulkMove(BulkMoveTasksRequestDto requestDto) throws JiraClientException {
+        String response = moveIssuesBulk(requestDto);
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonPayload = objectMapper.writeValueAsString(requestDto);
-            log.info("Bulk move payload: {}", jsonPayload);
-            HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.BULK_MOVE_ISSUES);
-            post.setEntity(new StringEntity(jsonPayload, ContentType.APPLICATION_JSON));
-            return executeRequest(post);
-        } catch (IOException e) {
-            throw new JiraClientException("Failed to execute bulk move", e);
+            BulkTaskSubmissionDto submission = jsonCodec.read(response, BulkTaskSubmissionDto.class);
+            if (submission.getTaskId() == null) {
+                throw new JiraClientException("Bulk move response did not contain a task id: " + response);
+            }
+            return submission;
+        } catch (JsonProcessingException e) {
+            throw new JiraClientException("Malformed bulk move response: " + e.getOriginalMessage(), e);
         }
     }
 
     /**
-     * Executes the given HTTP request.
+     * Fetches the progress of a queued bulk task.
+     *
+     * @param taskId the id of the bulk task
+     * @return the current progress of the task
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public BulkTaskProgressDto getBulkTaskProgress(String taskId) throws JiraClientException {
+        HttpGet request = httpRequestFactory.createGetRequest(JiraApiEndpoints.BULK_TASK_PROGRESS + taskId);
+        return executeRequest(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, BulkTaskProgressDto.class));
+    }
+
+    /**
+     * Creates up to 50 issues with a single request.
+     * <p>
+     * JIRA creates the valid issues of the request even if others fail, and answers with an error status only
+     * if none of them could be created.
+     *
+     * @param requestDto the fields of the issues to create
+     * @return the created issues and the errors of the failed ones
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public BulkCreateIssuesResponseDto createIssuesBulk(BulkCreateIssuesRequestDto requestDto) throws JiraClientException {
+        HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.BULK_CREATE_ISSUES);
+        post.setEntity(jsonCodec.bulkCreateEntity(requestDto));
+        return executeRequest(post, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, BulkCreateIssuesResponseDto.class));
+    }
+
+    /**
+     * Fetches a page of the comments of an issue, oldest first.
+     *
+     * @param issueId the id of the issue
+     * @param startAt the offset of the first comment to return
+     * @param maxResults the maximum number of comments to return
+     * @return the page of comments
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public CommentPageDto getComments(String issueId, int startAt, int maxResults) throws JiraClientException {
+        String path = JiraApiEndpoints.ISSUE + issueId + JiraApiEndpoints.ISSUE_COMMENTS_SUFFIX;
+        try {
+            URI uri = new URIBuilder(path)
+                    .addParameter(JiraApiEndpoints.START_AT_PARAM, String.valueOf(startAt))
+                    .addParameter(JiraApiEndpoints.MAX_RESULTS_PARAM, String.valueOf(maxResults))
+                    .build();
+            HttpGet request = httpRequestFactory.createGetRequest(uri.toString());
+            return executeRequest(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, CommentPageDto.class));
+        } catch (URISyntaxException e) {
+            throw new JiraClientException("Invalid URI syntax: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds a comment to an issue.
+     *
+     * @param issueId the id of the issue
+     * @param comment the comment to add; only its body is sent
+     * @return the created comment
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public CommentDto addComment(String issueId, CommentDto comment) throws JiraClientException {
+        HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.ISSUE + issueId + JiraApiEndpoints.ISSUE_COMMENTS_SUFFIX);
+        post.setEntity(jsonCodec.commentEntity(comment));
+        return executeRequest(post, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, CommentDto.class));
+    }
+
+    /**
+     * Fetches the current status of an issue.
+     *
+     * @param issueId the id of the issue
+     * @return the status of the issue, or null if JIRA did not return it
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public StatusDto getIssueStatus(String issueId) throws JiraClientException {
+        try {
+            URI uri = new URIBuilder(JiraApiEndpoints.ISSUE + issueId)
+                    .addParameter(JiraApiEndpoints.FIELDS_PARAM, JiraFields.STATUS)
+                    .build();
+            HttpGet request = httpRequestFactory.createGetRequest(uri.toString());
+            IssueDetailsDto issue = executeRequest(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, IssueDetailsDto.class));
+            return issue.getFields() == null ? null : issue.getFields().getStatus();
+        } catch (URISyntaxException e) {
+            throw new JiraClientException("Invalid URI syntax: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches the transitions available to an issue in its current status.
+     *
+     * @param issueId the id of the issue
+     * @return the available transitions with the statuses they lead to
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public TransitionsDto getTransitions(String issueId) throws JiraClientException {
+        HttpGet request = httpRequestFactory.createGetRequest(JiraApiEndpoints.ISSUE + issueId + JiraApiEndpoints.ISSUE_TRANSITIONS_SUFFIX);
+        return executeRequest(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, TransitionsDto.class));
+    }
+
+    /**
+     * Performs a transition on an issue. JIRA answers with an empty response.
+     *
+     * @param issueId the id of the issue
+     * @param transitionId the id of a transition available to the issue
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public void transitionIssue(String issueId, String transitionId) throws JiraClientException {
+        HttpPost post = httpRequestFactory.createPostRequest(JiraApiEndpoints.ISSUE + issueId + JiraApiEndpoints.ISSUE_TRANSITIONS_SUFFIX);
+        post.setEntity(jsonCodec.transitionEntity(TransitionRequestDto.builder()
+                .transition(IssueRefDto.builder().id(transitionId).build())
+                .build()));
+        executeRequest(post, JiraEndpointClass.OTHER, content -> null);
+    }
+
+    /**
+     * Fetches the metadata of a project, including its issue types.
+     *
+     * @param projectKey the key of the project
+     * @return the project metadata
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public ProjectDto getProject(String projectKey) throws JiraClientException {
+        HttpGet request = httpRequestFactory.createGetRequest(JiraApiEndpoints.PROJECT + projectKey);
+        return executeRequest(request, JiraEndpointClass.OTHER, content -> jsonCodec.read(content, ProjectDto.class));
+    }
+
+    /**
+     * Fetches the statuses available to each issue type of a project.
+     *
+     * @param projectKey the key of the project
+     * @return the statuses per issue type
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    public List<IssueTypeStatusesDto> getProjectStatuses(String projectKey) throws JiraClientException {
+        HttpGet request = httpRequestFactory.createGetRequest(JiraApiEndpoints.PROJECT + projectKey + JiraApiEndpoints.PROJECT_STATUSES_SUFFIX);
+        return executeRequest(request, JiraEndpointClass.OTHER, content -> List.of(jsonCodec.read(content, IssueTypeStatusesDto[].class)));
+    }
+
+    /**
+     * Returns the resilience and rate limit counters of this client.
+     *
+     * @return the current client statistics
+     */
+    public JiraClientStatsDto getClientStats() {
+        CircuitBreaker circuitBreaker = resilience.getCircuitBreaker();
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rateLimiter.getCurrentRates().forEach((endpointClass, rate) -> rates.put(endpointClass.name(), rate));
+        Map<String, Long> throttled = new LinkedHashMap<>();
+        rateLimiter.getThrottledResponses().forEach((endpointClass, count) -> throttled.put(endpointClass.name(), count));
+        return JiraClientStatsDto.builder()
+                .circuitBreakerState(circuitBreaker.getState().name())
+                .consecutiveFailures(circuitBreaker.getConsecutiveFailures())
+                .circuitBreakerOpenedCount(circuitBreaker.getOpenedCount())
+                .rejectedCalls(resilience.getRejectedCalls())
+                .retries(resilience.getRetries())
+                .backoffMs(resilience.getBackoffMillis())
+                .requestsPerSecond(rates)
+                .throttledResponses(throttled)
+                .responseCacheHits(responseCache.getHits())
+                .responseCacheMisses(responseCache.getMisses())
+                .responseCacheRevalidations(responseCache.getRevalidations())
+                .build();
+    }
+
+    /**
+     * Executes the given HTTP request and returns the response body as a string.
      *
      * @param request the HTTP request to execute
+     * @param endpointClass the rate limit class of the request
      * @return a JSON string representing the response from the JIRA API
      * @throws JiraClientException if an error occurs while communicating with the JIRA API
      */
-    private String executeRequest(HttpUriRequest request) throws JiraClientException {
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            HttpEntity entity = response.getEntity();
-            if (entity == null) {
-                throw new JiraClientException("No response body received from the server");
-            }
+    private String executeRequest(HttpUriRequest request, JiraEndpointClass endpointClass) throws JiraClientException {
+        return executeRequest(request, endpointClass, content -> new String(content.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Executes the given HTTP request and hands a successful response body stream to the given reader.
+     * <p>
+     * Transient failures are retried by the resilience layer; only GET requests count as idempotent, so a bulk move
+     * is sent again only if it never reached the server. All attempts are reported to the same wire log exchange.
+     *
+     * @param request the HTTP request to execute
+     * @param endpointClass the rate limit class of the request
+     * @param responseReader the reader consuming the response body of a successful request
+     * @param <T> the type produced by the reader
+     * @return the value produced by the reader
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    private <T> T executeRequest(HttpUriRequest request, JiraEndpointClass endpointClass, ResponseReader<T> responseReader) throws JiraClientException {
+        boolean idempotent = HttpGet.METHOD_NAME.equals(request.getMethod());
+        String endpoint = JiraMetrics.endpointOf(request.getURI().getPath());
+        WireExchange exchange = wireLog.begin(request);
+        if (request instanceof HttpEntityEnclosingRequest enclosingRequest && enclosingRequest.getEntity() != null) {
+            enclosingRequest.setEntity(exchange.captureRequest(metrics.measureRequest(endpoint, enclosingRequest.getEntity())));
+        }
+        return resilience.execute(request.getMethod() + " " + request.getURI().getPath(), idempotent,
+                () -> executeAttempt(request, endpointClass, endpoint, exchange, responseReader));
+    }
+
+    /**
+     * Sends the given HTTP request once and hands a successful response body stream to the given reader.
+     * <p>
+     * Error responses are still buffered, as their body is only used to build the exception message. Every
+     * attempt waits for the rate limiter first; throttled responses (429/503) are sent again up to the configured
+     * number of retries, which is safe as all request entities are repeatable.
+     * <p>
+     * Every request sent is timed per endpoint and status class, from sending it until its body was read. The
+     * connection gate is held from sending the request until its response was closed.
+     * <p>
+     * GET requests are made conditional on the response cached for their URI; a {@code 304 Not Modified} answer
+     * is read from the cache, and a successful response with validators is cached once it was read.
+     *
+     * @param request the HTTP request to execute
+     * @param endpointClass the rate limit class of the request
+     * @param endpoint the endpoint tag of the request meters
+     * @param exchange the wire log exchange every attempt is reported to
+     * @param responseReader the reader consuming the response body of a successful request
+     * @param <T> the type produced by the reader
+     * @return the value produced by the reader
+     * @throws JiraRateLimitException if JIRA keeps throttling the request after all retries
+     * @throws JiraServerException if JIRA answers with a server error
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    private <T> T executeAttempt(HttpUriRequest request, JiraEndpointClass endpointClass, String endpoint, WireExchange exchange,
+                                 ResponseReader<T> responseReader) throws JiraClientException {
+        CachedResponse cached = responseCache.prepare(request);
+        for (int attempt = 0; ; attempt++) {
+            long waitStarted = System.nanoTime();
+            rateLimiter.acquire(endpointClass);
+            long started = System.nanoTime();
+            metrics.recordRateLimitWait(endpointClass, started - waitStarted);
+            String status = JiraMetrics.IO_ERROR;
+            connectionGate.acquire();
+            try (CloseableHttpResponse response = httpClient.execute(request)) {
+                rateLimiter.onResponse(endpointClass, response);
+                int statusCode = response.getStatusLine().getStatusCode();
+                status = JiraMetrics.statusClassOf(statusCode);
+                exchange.onResponse(response);
+
+                if (rateLimiter.isThrottled(statusCode)) {
+                    EntityUtils.consume(response.getEntity());
+                    if (attempt < rateLimiter.getMaxThrottleRetries()) {
+                        log.warn("Retrying throttled request {} (attempt {} of {})", request.getURI(), attempt + 1, rateLimiter.getMaxThrottleRetries());
+                        continue;
+                    }
+                    throw new JiraRateLimitException("JIRA API is still throttling requests after " + attempt + " retries: HTTP " + statusCode);
+                }
+
+                if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                    EntityUtils.consume(response.getEntity());
+                    try (InputStream content = responseCache.onNotModified(cached)) {
+                        return responseReader.read(content);
+                    }
+                }
+
+                HttpEntity entity = response.getEntity();
+                if (entity == null && statusCode == HttpStatus.SC_NO_CONTENT) {
+                    return responseReader.read(InputStream.nullInputStream());
+                }
+                if (entity == null) {
+                    throw new JiraClientException("No response body received from the server");
+                }
+
+                if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+                    String responseBody = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+                    exchange.onErrorBody(responseBody);
+                    throw errorResponse(statusCode, responseBody);
+                }
 
-            String responseBody = EntityUtils.toString(entity, StandardCharsets.UTF_8);
-            EntityUtils.consume(entity);
-
-            int statusCode = response.getStatusLine().getStatusCode();
-            log.info("HTTP Status: {}", statusCode);
-            log.info("Response body: {}", responseBody);
-
-            return switch (statusCode) {
-                case HttpStatus.SC_OK -> responseBody;
-                case HttpStatus.SC_NOT_FOUND -> throw new JiraClientException("No issues found or endpoint does not exist: Status Code " + statusCode);
-                case HttpStatus.SC_UNAUTHORIZED, HttpStatus.SC_FORBIDDEN -> throw new JiraClientException("Authentication or permission issue: Status Code " + statusCode);
-                default -> throw new JiraClientException("Unexpected response from JIRA API: HTTP " + statusCode + " with body " + responseBody);
-            };
-        } catch (IOException e) {
-            log.error(JIRA_CONN_FAIL, e);
-            throw new JiraCommunicationException(JIRA_CONN_FAIL, e);
+                JiraResponseCache.CapturedBody body = responseCache.capture(request, response, metrics.measureResponse(endpoint, entity.getContent()));
+                try (InputStream content = exchange.captureResponse(body.getContent())) {
+                    T value = responseReader.read(content);
+                    body.store();
+                    return value;
+                }
+            } catch (JsonProcessingException e) {
+                log.error("Malformed response from JIRA API", e);
+                throw new JiraClientException("Malformed response from JIRA API: " + e.getOriginalMessage(), e);
+            } catch (ConnectionPoolTimeoutException e) {
+                throw new JiraConnectionPoolExhaustedException("No JIRA connection became free: " + e.getMessage(), e);
+            } catch (IOException e) {
+                log.error(JIRA_CONN_FAIL, e);
+                throw new JiraCommunicationException(JIRA_CONN_FAIL, e);
+            } finally {
+                connectionGate.release();
+                long nanos = System.nanoTime() - started;
+                metrics.recordRequest(endpoint, request.getMethod(), status, nanos);
+                exchange.complete(nanos);
+            }
         }
     }
+
+    /**
+     * Builds the exception thrown for an unsuccessful response.
+     *
+     * @param statusCode the status code of the response
+     * @param responseBody the body of the response
+     * @return a {@link JiraServerException} for server errors, a {@link JiraClientException} otherwise
+     */
+    static JiraClientException errorResponse(int statusCode, String responseBody) {
+        return switch (statusCode) {
+            case HttpStatus.SC_NOT_FOUND -> new JiraClientException("No issues found or endpoint does not exist: Status Code " + statusCode);
+            case HttpStatus.SC_UNAUTHORIZED, HttpStatus.SC_FORBIDDEN -> new JiraClientException("Authentication or permission issue: Status Code " + statusCode);
+            default -> statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR
+                    ? new JiraServerException("JIRA API server error: HTTP " + statusCode + " with body " + responseBody)
+                    : new JiraClientException("Unexpected response from JIRA API: HTTP " + statusCode + " with body " + responseBody);
+        };
+    }
+
+    /**
+     * Consumes the body stream of a successful response.
+     *
+     * @param <T> the type produced from the body
+     */
+    @FunctionalInterface
+    interface ResponseReader<T> {
+        T read(InputStream content) throws IOException;
+    }
 }
\ No newline at end of file
@@ -1,17 +1,55 @@
 package io.getint.recruitment_task.client.jira.services;
 
 import io.getint.recruitment_task.client.jira.builders.IssueJqlQueryBuilder;
+import io.getint.recruitment_task.client.jira.chunking.AdaptiveChunkSizer;
+import io.getint.recruitment_task.client.jira.chunking.ChunkPlan;
+import io.getint.recruitment_task.client.jira.chunking.ChunkPlanner;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScope;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScopes;
+import io.getint.recruitment_task.client.jira.copy.JiraIssueCopier;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
 import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.dto.SyncMode;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
 import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncCancelledException;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.instances.JiraInstance;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueSet;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.journal.JournalChunk;
+import io.getint.recruitment_task.client.jira.journal.SyncJournal;
+import io.getint.recruitment_task.client.jira.journal.SyncJournalFactory;
+import io.getint.recruitment_task.client.jira.metadata.IssueTypeMapping;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.partitioning.SearchPartitioner;
+import io.getint.recruitment_task.client.jira.scheduling.WeightedSlotScheduler;
+import io.getint.recruitment_task.client.jira.search.IssueBatch;
+import io.getint.recruitment_task.client.jira.search.IssueChunk;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.search.IssuePageStream;
+import io.getint.recruitment_task.client.jira.search.IssueRemovalTracker;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.LongInterner;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.utils.CompletableFutures;
 import io.getint.recruitment_task.client.jira.utils.JiraFields;
+import io.getint.recruitment_task.client.jira.watermark.SyncWatermark;
+import io.getint.recruitment_task.client.jira.watermark.WatermarkStore;
 import lombok.AllArgsConstructor;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Service class responsible for synchronizing tasks between JIRA projects.
@@ -20,8 +58,14 @@ import java.util.*;
 @AllArgsConstructor
 public class JiraSynchronizer {
     private static final Logger log = LoggerFactory.getLogger(JiraSynchronizer.class);
-    private final JiraProxy jiraProxy;
-    private static final int MAX_BULK_OPERATION_SIZE = 1000;
+    private final JiraInstanceRegistry instances;
+    private final BulkTaskTracker bulkTaskTracker;
+    private final WatermarkStore watermarkStore;
+    private final SyncJournalFactory journalFactory;
+    private final MovedIssueIndex movedIssueIndex;
+    private final JiraMetrics metrics;
+    private final RunTaskScopes taskScopes;
+    private final JiraIssueCopier issueCopier;
 
     /**
      * Moves tasks from one JIRA project to another.
@@ -30,141 +74,758 @@ public class JiraSynchronizer {
      * @param targetProjectKey the key of the target project
      * @param maxIssuesToMove  the maximum number of issues to move
      * @param issueTypeNames   the list of issue types to move
+     * @return the aggregated per-issue result of all bulk tasks
      */
-    public void moveTasksToOtherProject(String sourceProjectKey, String targetProjectKey, int maxIssuesToMove, List<String> issueTypeNames) throws JiraClientException {
-        String jqlQuery = buildJqlQuery(sourceProjectKey, issueTypeNames);
-        log.info("Executing JQL: {}", jqlQuery);
+    public BulkMoveResult moveTasksToOtherProject(String sourceProjectKey, String targetProjectKey, int maxIssuesToMove, List<String> issueTypeNames) throws JiraClientException {
+        SyncTasksRequest request = SyncTasksRequest.builder()
+                .sourceProjectKey(sourceProjectKey)
+                .targetProjectKey(targetProjectKey)
+                .maxIssuesToMove(maxIssuesToMove)
+                .issueTypeNames(issueTypeNames)
+                .build();
+        return moveTasksToOtherProject(request, new SyncProgress());
+    }
+
+    /**
+     * Moves tasks from one JIRA project to another, reporting progress as it goes.
+     * <p>
+     * Search results are consumed page by page; issues are buffered until a full bulk operation can be sent,
+     * while the search cursor already downloads the next page in the background. Full syncs of very large
+     * projects are searched in issue id partitions fetched concurrently, see {@link SearchPartitioner}. Bulk operations run as
+     * queued JIRA tasks, several at a time, and the method returns once all of them have finished.
+     * <p>
+     * In incremental mode only issues updated after the watermark of the previous run are synced, oldest first,
+     * and the watermark is advanced once the run has finished.
+     * <p>
+     * Every chunk is recorded in a {@link SyncJournal}. If an earlier attempt of the same run did not finish,
+     * its chunks are resumed from the journal and their issues are left out of the chunks of this attempt.
+     * Issues the {@link MovedIssueIndex} knows as already moved to the target project are never submitted again.
+     * <p>
+     * The background work of the run, prefetching pages and tracking bulk tasks, is forked in a
+     * {@link RunTaskScope} which is closed before the journal, so none of it outlives the run. Its bulk tasks
+     * share the task slots with concurrent runs in proportion to the weight of the request.
+     * <p>
+     * All requests of the run go to the JIRA instance named by the request, which stays leased until the run
+     * has finished. Watermarks, journals and moved issues of named instances are kept apart from each other.
+     * <p>
+     * Requests in {@link SyncMode#COPY} mode recreate the issues in the target project instead, see
+     * {@link JiraIssueCopier}; they are never incremental.
+     *
+     * @param request the sync request
+     * @param progress the counters updated during the run; cancelling it stops the run
+     * @return the aggregated per-issue result of all bulk tasks
+     * @throws SyncCancelledException if the run was cancelled through the progress
+     */
+    public BulkMoveResult moveTasksToOtherProject(SyncTasksRequest request, SyncProgress progress) throws JiraClientException {
+        try (JiraInstanceRegistry.Lease lease = instances.lease(request.getInstance())) {
+            return moveTasksToOtherProject(request, progress, lease.getInstance());
+        }
+    }
+
+    private BulkMoveResult moveTasksToOtherProject(SyncTasksRequest request, SyncProgress progress, JiraInstance instance) throws JiraClientException {
+        if (request.getMode() == SyncMode.COPY) {
+            return copyTasksToOtherProject(request, progress, instance);
+        }
+        String watermarkKey = instance.qualify(WatermarkStore.key(request.getSourceProjectKey(), request.getTargetProjectKey(), request.getIssueTypeNames()));
+        SyncWatermark watermark = request.isIncremental() ? watermarkStore.find(watermarkKey).orElse(null) : null;
+        Supplier<IssueJqlQueryBuilder> searchFilter = buildSearchFilter(instance, request.getSourceProjectKey(), request.getIssueTypeNames());
+        String jqlQuery = buildJqlQuery(searchFilter.get(), request.isIncremental(), watermark);
+        log.info("Executing JQL on JIRA instance {}: {}", instance, jqlQuery);
+        IssueTypeMapping issueTypeMapping = instance.getMetadataCache().getIssueTypeMapping(request.getSourceProjectKey(), request.getTargetProjectKey());
+        IssueSymbols symbols = new IssueSymbols();
+        String runKey = watermarkKey + (request.isIncremental() ? " incremental" : "");
+        JiraMetrics runMetrics = metrics.forInstance(instance.getName());
+        long started = System.nanoTime();
+        BulkMoveResult result = null;
+        try (SyncJournal journal = journalFactory.open(runKey); RunTaskScope scope = taskScopes.open()) {
+            SyncRun run = new SyncRun(new BulkMoveMappingKeys(request.getTargetProjectKey(), symbols, issueTypeMapping), progress,
+                    request.isIncremental() ? new WatermarkTracker(watermark) : null, journal,
+                    movedIssueIndex.forPair(instance.qualify(request.getSourceProjectKey()), instance.qualify(request.getTargetProjectKey())),
+                    instance.getProxy(), instance.getChunkSizer(), instance.getSearchPartitioner(), request.isIncremental() ? null : searchFilter,
+                    scope, instance.getBulkTaskSlots().lane(runKey, request.getWeight()), runMetrics);
+            result = moveTasks(jqlQuery, request.getMaxIssuesToMove(), symbols, run);
+            journal.complete();
+            if (run.watermarkTracker != null && !run.resumed) {
+                SyncWatermark next = run.watermarkTracker.next(result);
+                if (next != null && !next.equals(watermark)) {
+                    watermarkStore.save(watermarkKey, next);
+                    log.info("Advanced incremental sync watermark {} to {}", watermarkKey, next);
+                }
+            }
+            return result;
+        } finally {
+            runMetrics.onRunFinished(result, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Copies the issues of the source project into the target project, oldest first so that the parent of a
+     * subtask is usually created before the subtask itself.
+     */
+    private BulkMoveResult copyTasksToOtherProject(SyncTasksRequest request, SyncProgress progress, JiraInstance instance) throws JiraClientException {
+        if (request.isIncremental()) {
+            throw new JiraClientException("Incremental sync is not supported when copying issues");
+        }
+        String jqlQuery = buildSearchFilter(instance, request.getSourceProjectKey(), request.getIssueTypeNames()).get()
+                .setCreatedOrder(false)
+                .build();
+        log.info("Copying issues on JIRA instance {}: {}", instance, jqlQuery);
+        IssueTypeMapping issueTypeMapping = instance.getMetadataCache().getIssueTypeMapping(request.getSourceProjectKey(), request.getTargetProjectKey());
+        long started = System.nanoTime();
+        BulkMoveResult result = null;
+        try {
+            result = issueCopier.copyIssues(instance, jqlQuery, request.getMaxIssuesToMove(), request.getSourceProjectKey(),
+                    request.getTargetProjectKey(), issueTypeMapping, progress);
+            return result;
+        } finally {
+            metrics.forInstance(instance.getName()).onRunFinished(result, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Runs the search and bulk move loop of a sync run, resuming the chunks of an earlier attempt first.
+     * <p>
+     * Moved issues leave the search results while the search pages through them, which can shift issues past
+     * its offsets. When bulk tasks ran during a search pass, the remaining results are searched once more after
+     * the tasks have finished, until a pass finds no issue it has not seen before.
+     *
+     * @param jqlQuery the JQL query selecting the issues to move
+     * @param maxIssuesToMove the maximum number of issues to move
+     * @param symbols the dictionary of the run
+     * @param run the state of the current sync run
+     * @return the aggregated per-issue result of all bulk tasks
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    private BulkMoveResult moveTasks(String jqlQuery, int maxIssuesToMove, IssueSymbols symbols, SyncRun run) throws JiraClientException {
         try {
-            JSONArray issues = fetchIssues(jqlQuery, maxIssuesToMove);
-            List<JSONArray> chunks = chunkIssues(issues, MAX_BULK_OPERATION_SIZE);
-            for (JSONArray chunk : chunks) {
-                BulkMoveTasksRequestDto requestDto = createBulkMoveDto(chunk, targetProjectKey);
-                log.info("Sending bulk move request: {}", requestDto);
-                String response = jiraProxy.moveIssuesBulk(requestDto);
-                log.info("Bulk move response: {}", response);
+            resumeJournaledChunks(run);
+            int remaining = maxIssuesToMove;
+            while (remaining > 0) {
+                boolean movesOverlapSearch = run.bulkTasks.stream().anyMatch(bulkTask -> !bulkTask.isDone());
+                SearchPass pass = searchAndMoveIssues(jqlQuery, remaining, symbols, run);
+                remaining -= pass.newIssues;
+                if (pass.newIssues == 0 || !(movesOverlapSearch || pass.movedWhileSearching)) {
+                    break;
+                }
+                awaitBulkTasks(run);
+                log.info("Searching again for issues shifted past the search while {} were moved", pass.newIssues);
             }
+            long awaitStarted = System.nanoTime();
+            BulkMoveResult result = awaitBulkTasks(run);
+            run.metrics.recordStage("await", System.nanoTime() - awaitStarted);
+            log.info("Bulk move finished: {}", result);
+            return result;
         } catch (JiraClientException e) {
+            run.cancelBulkTasks();
             log.error("Error during bulk move operation", e);
             throw e;
+        } finally {
+            run.movedIssues.flush();
         }
     }
 
     /**
-     * Chunks the given JSONArray into smaller arrays of specified maximum size.
+     * Pages through the search results once, moving the issues not seen earlier in the run.
+     * <p>
+     * The search only asks for the issue type and parent each mapping key is made of, plus the update time
+     * incremental runs track their watermark with.
      *
-     * @param issues the JSONArray to chunk
-     * @param maxSize the maximum size of each chunk
-     * @return a list of JSONArrays, each containing a subset of the original array's elements
+     * @param jqlQuery the JQL query selecting the issues to move
+     * @param maxIssues the maximum number of search results to read
+     * @param symbols the dictionary of the run
+     * @param run the state of the current sync run
+     * @return the outcome of the pass
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
      */
-    private List<JSONArray> chunkIssues(JSONArray issues, int maxSize) {
-        List<JSONArray> chunks = new ArrayList<>();
-        JSONArray currentChunk = new JSONArray();
-        for (int i = 0; i < issues.length(); i++) {
-            currentChunk.put(issues.get(i));
-            if ((i + 1) % maxSize == 0 || i + 1 == issues.length()) {
-                chunks.add(currentChunk);
-                currentChunk = new JSONArray();
+    private SearchPass searchAndMoveIssues(String jqlQuery, int maxIssues, IssueSymbols symbols, SyncRun run) throws JiraClientException {
+        SearchPass pass = new SearchPass();
+        SearchProjection projection = run.watermarkTracker != null ? SearchProjection.ENUMERATION.with(JiraFields.UPDATED) : SearchProjection.ENUMERATION;
+        try (IssuePageStream cursor = run.searchPartitioner.open(run.jiraProxy, jqlQuery, run.searchFilter, maxIssues, symbols, run, run.scope, projection)) {
+            IssueBatch pendingIssues = new IssueBatch(symbols, run.chunkSizer.getMaxChunkSize() + IssuePageCursor.DEFAULT_PAGE_SIZE);
+            while (cursor.hasNext()) {
+                long searchStarted = System.nanoTime();
+                IssueBatch page = cursor.next().getIssues();
+                run.metrics.recordStage("search", System.nanoTime() - searchStarted);
+                run.addFetched(page);
+                pass.newIssues += page.size();
+                run.progress.onIssuesFetched(page.size());
+                run.metrics.onIssuesFetched(page.size());
+                run.checkNotCancelled();
+                if (run.watermarkTracker != null) {
+                    run.watermarkTracker.track(page);
+                }
+                pendingIssues.addAll(page);
+                if (pendingIssues.size() - run.heldIssues >= run.chunkSizer.getChunkSize() && moveChunks(pendingIssues, false, run) > 0) {
+                    pass.movedWhileSearching |= cursor.hasNext();
+                }
             }
+            moveHeldIssues(pendingIssues, run);
         }
-        return chunks;
+        return pass;
     }
 
     /**
-     * Creates a BulkMoveTasksRequestDto for moving the given issues to the target project.
+     * Moves the issues left pending once a search pass is done, releasing held subtasks as their parents are moved.
+     * <p>
+     * Parents and subtasks that do not wait for anything are submitted right away, in parallel. Every time
+     * a bulk task finishes, the subtasks whose parents it moved are planned and submitted, so each subtask
+     * group waits only for its own parent. Subtasks whose parent could not be moved are reported as failed.
      *
-     * @param issues the issues to move
-     * @param targetProjectKey the key of the target project
-     * @return the BulkMoveTasksRequestDto for the bulk move operation
+     * @param pendingIssues the issues left pending by the search pass
+     * @param run the state of the current sync run
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
      */
-    private BulkMoveTasksRequestDto createBulkMoveDto(JSONArray issues, String targetProjectKey) {
-        BulkMoveTasksRequestDto.BulkMoveTasksRequestDtoBuilder builder = BulkMoveTasksRequestDto.builder();
+    private void moveHeldIssues(IssueBatch pendingIssues, SyncRun run) throws JiraClientException {
+        moveChunks(pendingIssues, true, run);
+        while (!pendingIssues.isEmpty()) {
+            CompletableFuture<?>[] running = run.settlements.stream()
+                    .filter(settlement -> !settlement.isDone())
+                    .toArray(CompletableFuture[]::new);
+            if (running.length == 0) {
+                failHeldIssues(pendingIssues, run);
+                return;
+            }
+            log.debug("Waiting for one of {} bulk tasks to release {} held subtasks", running.length, pendingIssues.size());
+            CompletableFuture.anyOf(CompletableFuture.anyOf(running), run.progress.getCancellation()).exceptionally(error -> null).join();
+            run.checkNotCancelled();
+            moveChunks(pendingIssues, true, run);
+        }
+    }
 
-        for (int i = 0; i < issues.length(); i++) {
-            JSONObject issue = issues.getJSONObject(i);
-            log.info("Processing issue: {}", issue);
+    /**
+     * Reports held issues as failed when no bulk task is left that could move their parents.
+     */
+    private void failHeldIssues(IssueBatch pendingIssues, SyncRun run) {
+        Map<Long, List<String>> failedIssues = new LinkedHashMap<>();
+        for (int i = 0; i < pendingIssues.size(); i++) {
+            long parentId = pendingIssues.getSymbols().parentId(pendingIssues.getParentCode(i));
+            failedIssues.put(pendingIssues.getId(i), List.of("Parent issue " + parentId + " was never moved"));
+        }
+        log.warn("Giving up on {} subtasks whose parents were never moved", failedIssues.size());
+        run.metrics.onIssuesSkipped("parent-not-moved", failedIssues.size());
+        run.bulkTasks.add(CompletableFuture.completedFuture(BulkMoveResult.unsubmitted(failedIssues)));
+        pendingIssues.removeFirst(pendingIssues.size());
+    }
 
-            String key = getKeyForIssue(issue, targetProjectKey);
-            if (key == null) {
-                continue;
+    /**
+     * Picks up the chunks recorded by an interrupted earlier attempt of the run.
+     * <p>
+     * Finished chunks only contribute their result, chunks JIRA accepted are tracked by their task id and
+     * chunks that may not have reached JIRA are submitted again. The search of the run starts over, as moved
+     * issues no longer match it, and skips every issue of a resumed chunk.
+     *
+     * @param run the state of the current sync run
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    private void resumeJournaledChunks(SyncRun run) throws JiraClientException {
+        List<JournalChunk> chunks = run.journal.getReplayedChunks();
+        if (chunks.isEmpty()) {
+            return;
+        }
+        run.resumed = true;
+        log.info("Resuming {} journaled chunks of an interrupted run", chunks.size());
+        for (JournalChunk chunk : chunks) {
+            for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : chunk.getRequest().getTargetToSourcesMapping().values()) {
+                List<String> issueIds = mapping.getIssueIdsOrKeys();
+                for (int i = 0; i < issueIds.size(); i++) {
+                    run.journaledIssueIds.addLong(IssueIdList.idAt(issueIds, i));
+                }
+            }
+            if (chunk.getResult() != null) {
+                run.movedIssues.addAll(chunk.getResult().getMovedIssueIds());
+                run.progress.onChunkSubmitted();
+                run.progress.onChunkCompleted(chunk.getResult());
+                run.bulkTasks.add(CompletableFuture.completedFuture(chunk.getResult()));
+            } else if (chunk.getTaskId() != null) {
+                trackBulkTask(chunk.getSequence(), chunk.getRequest(),
+                        bulkTaskTracker.resume(chunk.getTaskId(), chunk.getRequest(), run.jiraProxy, run.scope, run.lane), run);
+            } else {
+                submitChunk(chunk.getSequence(), chunk.getRequest(), run);
             }
+        }
+    }
 
-            log.info("Mapping key: {}", key);
+    /**
+     * Plans chunks of the pending issues and submits a bulk move task for each of them.
+     * <p>
+     * Chunks are sized by the {@link AdaptiveChunkSizer} of the JIRA instance and packed by the
+     * {@link ChunkPlanner}, which keeps the issues of each mapping key together. Until the search is done only
+     * chunks that are full enough are submitted; the other issues stay pending for the next plan. Subtasks
+     * whose parent is still waiting to be moved stay pending as well.
+     * <p>
+     * Submission blocks while the maximum number of bulk tasks is in flight. A task that already failed
+     * stops the run before further chunks are submitted. Every chunk is journaled before it is submitted.
+     *
+     * @param pendingIssues the issues waiting to be moved; the planned and skipped ones are removed from it
+     * @param flush true to submit all pending issues, e.g. once the search is done
+     * @param run the state of the current sync run
+     * @return the number of submitted chunks
+     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     */
+    private int moveChunks(IssueBatch pendingIssues, boolean flush, SyncRun run) throws JiraClientException {
+        long planStarted = System.nanoTime();
+        int[] keyCodes = keyIssues(pendingIssues, flush, run);
+        ChunkPlan plan = ChunkPlanner.plan(keyCodes, run.chunkSizer.getChunkSize(), run.chunkSizer.getMaxMappingKeys(), flush);
+        int[] order = plan.getOrder();
+        int[] orderedKeyCodes = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            orderedKeyCodes[i] = keyCodes[order[i]];
+        }
+        pendingIssues.reorder(order);
+        run.metrics.recordStage("plan", System.nanoTime() - planStarted);
+        for (int chunk = 0; chunk < plan.getChunkCount(); chunk++) {
+            long payloadStarted = System.nanoTime();
+            BulkMoveTasksRequestDto requestDto = createBulkMoveDto(
+                    new IssueChunk(pendingIssues, plan.getChunkFrom(chunk), plan.getChunkTo(chunk)), orderedKeyCodes, run);
+            run.metrics.recordStage("payload", System.nanoTime() - payloadStarted);
+            long submitStarted = System.nanoTime();
+            submitChunk(run.journal.recordChunk(requestDto), requestDto, run);
+            run.metrics.recordStage("submit", System.nanoTime() - submitStarted);
+        }
+        pendingIssues.removeFirst(plan.getConsumed());
+        run.heldIssues = plan.getHeld();
+        return plan.getChunkCount();
+    }
 
-            BulkMoveTasksRequestDto.TargetToSourcesMapping.TargetToSourcesMappingBuilder targetBuilder =
-                    BulkMoveTasksRequestDto.TargetToSourcesMapping.builder();
+    /**
+     * Submits the bulk move task of a single journaled chunk.
+     *
+     * @param sequence the journal sequence number of the chunk
+     * @param requestDto the bulk move payload of the chunk
+     * @param run the state of the current sync run
+     * @throws JiraClientException if an earlier task failed or the run was cancelled
+     */
+    private void submitChunk(int sequence, BulkMoveTasksRequestDto requestDto, SyncRun run) throws JiraClientException {
+        run.checkNotCancelled();
+        for (CompletableFuture<BulkMoveResult> bulkTask : run.bulkTasks) {
+            if (bulkTask.isCompletedExceptionally()) {
+                CompletableFutures.join(bulkTask, "Bulk move task failed");
+            }
+        }
+        log.info("Submitting bulk move request {} with {} mapping keys", sequence, requestDto.getTargetToSourcesMapping().size());
+        CompletableFuture<BulkMoveResult> bulkTask = bulkTaskTracker.submit(requestDto, taskId -> run.journal.recordSubmitted(sequence, taskId),
+                run.jiraProxy, run.scope, run.lane);
+        observeBulkTask(bulkTask, requestDto, run.chunkSizer);
+        trackBulkTask(sequence, requestDto, bulkTask, run);
+    }
 
-            BulkMoveTasksRequestDto.TargetToSourcesMapping mapping = builder.getTargetToSourcesMapping().getOrDefault(key,
-                    targetBuilder.issueIdsOrKeys(new ArrayList<>()).build());
+    /**
+     * Reports the duration and outcome of a bulk task to the chunk sizer once JIRA finished it. Tasks cancelled
+     * by the run say nothing about JIRA and are left out.
+     */
+    private static void observeBulkTask(CompletableFuture<BulkMoveResult> bulkTask, BulkMoveTasksRequestDto requestDto, AdaptiveChunkSizer chunkSizer) {
+        int mappingKeys = requestDto.getTargetToSourcesMapping().size();
+        int issues = requestDto.getTargetToSourcesMapping().values().stream()
+                .mapToInt(mapping -> mapping.getIssueIdsOrKeys().size())
+                .sum();
+        long submitted = System.nanoTime();
+        bulkTask.whenComplete((result, error) -> {
+            if (error == null) {
+                chunkSizer.onTaskFinished(issues, mappingKeys, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted),
+                        result.getFailedIssues().size());
+            } else if (!(error instanceof CancellationException)) {
+                chunkSizer.onTaskFailed();
+            }
+        });
+    }
 
-            mapping.getIssueIdsOrKeys().add(issue.getString(JiraFields.ID));
+    private void trackBulkTask(int sequence, BulkMoveTasksRequestDto requestDto, CompletableFuture<BulkMoveResult> bulkTask, SyncRun run) {
+        run.progress.onChunkSubmitted();
+        run.unsettle(requestDto);
+        run.settlements.add(bulkTask.thenAccept(result -> {
+            run.onIssuesMoved(result.getMovedIssueIds());
+            run.movedIssues.addAll(result.getMovedIssueIds());
+            run.journal.recordCompleted(sequence, result);
+            run.progress.onChunkCompleted(result);
+        }).whenComplete((ignored, error) -> run.settle(requestDto)));
+        run.bulkTasks.add(bulkTask);
+    }
 
-            builder.addTargetToSourcesMapping(key, mapping);
+    /**
+     * Waits for all submitted bulk tasks and combines their results. The run also waits for every task to be
+     * settled, so that its moved issues are journaled and counted in the progress before the run finishes.
+     *
+     * @param run the state of the current sync run
+     * @return the aggregated result
+     * @throws JiraClientException if any of the tasks failed
+     * @throws SyncCancelledException if the run was cancelled while waiting
+     */
+    private BulkMoveResult awaitBulkTasks(SyncRun run) throws JiraClientException {
+        BulkMoveResult result = new BulkMoveResult();
+        for (CompletableFuture<BulkMoveResult> bulkTask : run.bulkTasks) {
+            CompletableFuture.anyOf(bulkTask, run.progress.getCancellation()).exceptionally(error -> null).join();
+            run.checkNotCancelled();
+            result.merge(CompletableFutures.join(bulkTask, "Bulk move task failed"));
+        }
+        for (CompletableFuture<Void> settlement : run.settlements) {
+            CompletableFuture.anyOf(settlement, run.progress.getCancellation()).exceptionally(error -> null).join();
+            run.checkNotCancelled();
         }
+        return result;
+    }
 
-        return builder.build();
+    /**
+     * Resolves the mapping key of every pending issue, skipping the issues that must not be moved: issues of
+     * resumed chunks, issues already moved to the target project, issues covered by the previous incremental run
+     * and issues without a valid mapping key.
+     * <p>
+     * JIRA can only move a subtask once its parent is in the target project, so subtasks are held back while
+     * their parent is pending or its bulk task is running. Until the search is done, subtasks whose parent
+     * has not been fetched are held back too, as the parent may still turn up; afterwards they are left to JIRA.
+     * Subtasks whose parent was fetched but not moved are skipped and reported as failed.
+     *
+     * @param issues the pending issues
+     * @param searchDone true once no further issues will be fetched in the current search pass
+     * @param run the state of the current sync run
+     * @return the key code of each issue, {@link LongInterner#NO_CODE} for skipped issues or
+     *         {@link ChunkPlanner#HELD} for held subtasks
+     */
+    private int[] keyIssues(IssueBatch issues, boolean searchDone, SyncRun run) {
+        int[] keyCodes = new int[issues.size()];
+        int covered = 0;
+        int alreadyMoved = 0;
+        int journaled = 0;
+        for (int i = 0; i < issues.size(); i++) {
+            long issueId = issues.getId(i);
+            if (run.journaledIssueIds.contains(issueId)) {
+                keyCodes[i] = LongInterner.NO_CODE;
+                journaled++;
+            } else if (run.movedIssues.contains(issueId)) {
+                keyCodes[i] = LongInterner.NO_CODE;
+                alreadyMoved++;
+            } else if (run.watermarkTracker != null && !run.watermarkTracker.isNew(issues, i)) {
+                keyCodes[i] = LongInterner.NO_CODE;
+                covered++;
+            } else {
+                keyCodes[i] = getKeyForIssue(issues, i, run);
+            }
+        }
+        run.unsettle(issues, keyCodes);
+        Map<Long, List<String>> orphanedSubtasks = null;
+        for (int i = 0; i < issues.size(); i++) {
+            if (keyCodes[i] < 0 || !issues.hasFlag(i, IssueBatch.SUBTASK)) {
+                continue;
+            }
+            // A bulk task adds its moved issues before it settles them, so check in the opposite order
+            long parentId = issues.getSymbols().parentId(issues.getParentCode(i));
+            if (run.isUnsettled(parentId)) {
+                keyCodes[i] = ChunkPlanner.HELD;
+            } else if (run.movedIssues.contains(parentId)) {
+                continue;
+            } else if (!run.isFetched(parentId)) {
+                if (!searchDone) {
+                    keyCodes[i] = ChunkPlanner.HELD;
+                }
+            } else {
+                keyCodes[i] = LongInterner.NO_CODE;
+                if (orphanedSubtasks == null) {
+                    orphanedSubtasks = new LinkedHashMap<>();
+                }
+                orphanedSubtasks.put(issues.getId(i), List.of("Parent issue " + parentId + " was not moved"));
+            }
+        }
+        if (orphanedSubtasks != null) {
+            log.warn("Skipping {} subtasks whose parents were not moved", orphanedSubtasks.size());
+            run.metrics.onIssuesSkipped("parent-not-moved", orphanedSubtasks.size());
+            run.bulkTasks.add(CompletableFuture.completedFuture(BulkMoveResult.unsubmitted(orphanedSubtasks)));
+        }
+        if (covered > 0) {
+            log.info("Skipping {} issues already covered by the previous incremental run", covered);
+        }
+        if (alreadyMoved > 0) {
+            log.info("Skipping {} issues already moved to {}", alreadyMoved, run.movedIssues.getKey());
+        }
+        run.metrics.onIssuesSkipped("journaled", journaled);
+        run.metrics.onIssuesSkipped("already-moved", alreadyMoved);
+        run.metrics.onIssuesSkipped("watermark", covered);
+        return keyCodes;
     }
 
     /**
-     * Generates a unique key for the given issue in the context of the target project.
+     * Creates a BulkMoveTasksRequestDto for moving the issues of the given chunk to the target project.
+     * <p>
+     * Issues are grouped by mapping key in two passes over the chunk, so the ids of each key end up in a
+     * single primitive array and no object is created per issue.
      *
-     * @param issue the issue to generate the key for
-     * @param targetProjectKey the key of the target project
-     * @return the generated key, or null if the issue is invalid
+     * @param chunk the issues to move
+     * @param keyCodes the mapping key code of each issue of the batch of the chunk
+     * @param run the state of the current sync run
+     * @return the BulkMoveTasksRequestDto for the bulk move operation
      */
-    private String getKeyForIssue(JSONObject issue, String targetProjectKey) {
-        if (!issue.has(JiraFields.FIELDS)) {
-            log.warn("Issue {} does not have a 'fields' field", issue.getString(JiraFields.ID));
-            return null;
+    private BulkMoveTasksRequestDto createBulkMoveDto(IssueChunk chunk, int[] keyCodes, SyncRun run) {
+        BulkMoveMappingKeys mappingKeys = run.mappingKeys;
+        IssueBatch issues = chunk.getBatch();
+
+        int[] issuesPerKey = new int[mappingKeys.size()];
+        for (int i = chunk.getFrom(); i < chunk.getTo(); i++) {
+            issuesPerKey[keyCodes[i]]++;
         }
 
-        JSONObject fields = issue.getJSONObject(JiraFields.FIELDS);
+        long[][] idsPerKey = new long[issuesPerKey.length][];
+        int[] filled = new int[issuesPerKey.length];
+        for (int i = chunk.getFrom(); i < chunk.getTo(); i++) {
+            int keyCode = keyCodes[i];
+            if (idsPerKey[keyCode] == null) {
+                idsPerKey[keyCode] = new long[issuesPerKey[keyCode]];
+            }
+            idsPerKey[keyCode][filled[keyCode]++] = issues.getId(i);
+        }
 
-        if (!fields.has(JiraFields.ISSUE_TYPE)) {
-            log.warn("Issue {} does not have an 'issuetype' field in 'fields'", issue.getString(JiraFields.ID));
-            return null;
+        BulkMoveTasksRequestDto.BulkMoveTasksRequestDtoBuilder builder = BulkMoveTasksRequestDto.builder();
+        for (int keyCode = 0; keyCode < idsPerKey.length; keyCode++) {
+            if (idsPerKey[keyCode] != null) {
+                builder.addTargetToSourcesMapping(mappingKeys.key(keyCode), BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                        .issueIdsOrKeys(new IssueIdList(idsPerKey[keyCode]))
+                        .build());
+            }
         }
+        return builder.build();
+    }
 
-        JSONObject issueType = fields.getJSONObject(JiraFields.ISSUE_TYPE);
-        String key = targetProjectKey + "," + issueType.getString(JiraFields.ID);
+    /**
+     * Resolves the mapping key of the given issue in the context of the target project.
+     *
+     * @param issues the batch containing the issue
+     * @param index the index of the issue in the batch
+     * @param run the state of the current sync run
+     * @return the key code, or {@link LongInterner#NO_CODE} if the issue is invalid
+     */
+    private int getKeyForIssue(IssueBatch issues, int index, SyncRun run) {
+        if (!issues.hasFlag(index, IssueBatch.HAS_FIELDS)) {
+            log.warn("Issue {} does not have a 'fields' field", issues.getId(index));
+            run.metrics.onIssuesSkipped("no-fields", 1);
+            return LongInterner.NO_CODE;
+        }
+
+        int issueTypeCode = issues.getIssueTypeCode(index);
+        if (!issues.hasFlag(index, IssueBatch.HAS_ISSUE_TYPE) || issueTypeCode == LongInterner.NO_CODE) {
+            log.warn("Issue {} does not have an 'issuetype' field in 'fields'", issues.getId(index));
+            run.metrics.onIssuesSkipped("no-issue-type", 1);
+            return LongInterner.NO_CODE;
+        }
 
-        if (issueType.optBoolean(JiraFields.SUBTASK, false)) {
-            if (!fields.has(JiraFields.PARENT)) {
-                log.warn("Issue {} is a subtask but has no parent field", issue.getString(JiraFields.ID));
-                return null;
+        int parentCode = LongInterner.NO_CODE;
+        if (issues.hasFlag(index, IssueBatch.SUBTASK)) {
+            if (!issues.hasFlag(index, IssueBatch.HAS_PARENT)) {
+                log.warn("Issue {} is a subtask but has no parent field", issues.getId(index));
+                run.metrics.onIssuesSkipped("no-parent", 1);
+                return LongInterner.NO_CODE;
             }
-            JSONObject parent = fields.getJSONObject(JiraFields.PARENT);
-            key += "," + parent.getString(JiraFields.ID);
+            parentCode = issues.getParentCode(index);
         }
 
-        return key;
+        int keyCode = run.mappingKeys.keyCode(issueTypeCode, parentCode);
+        if (keyCode == LongInterner.NO_CODE) {
+            log.warn("Issue {} has an issue type that does not exist in the target project", issues.getId(index));
+            run.metrics.onIssuesSkipped("unmapped-type", 1);
+        }
+        return keyCode;
     }
 
     /**
-     * Builds a JQL query to retrieve issues from the source project.
+     * Creates the builders of the filter clauses of the JQL query, which partitioned searches extend with id ranges.
+     * <p>
+     * Issue type names are resolved to ids through the metadata cache, once per run.
      *
+     * @param instance the JIRA instance of the source project
      * @param sourceProjectKey the key of the source project
      * @param issueTypeNames the list of issue types to include in the query
-     * @return the constructed JQL query
+     * @return a supplier of new builders holding the filter clauses
+     * @throws JiraClientException if an issue type does not exist in the source project
      */
-    private String buildJqlQuery(String sourceProjectKey, List<String> issueTypeNames) {
-        return new IssueJqlQueryBuilder()
+    private Supplier<IssueJqlQueryBuilder> buildSearchFilter(JiraInstance instance, String sourceProjectKey, List<String> issueTypeNames)
+            throws JiraClientException {
+        List<String> issueTypeIds = issueTypeNames.isEmpty() ? List.of() : instance.getMetadataCache().resolveIssueTypeIds(sourceProjectKey, issueTypeNames);
+        return () -> new IssueJqlQueryBuilder()
                 .setProjectKey(sourceProjectKey)
-                .setIssueTypes(issueTypeNames)
-                .setCreatedOrder(true)
-                .build();
+                .setIssueTypeIds(issueTypeIds);
     }
 
     /**
-     * Fetches issues from JIRA using the given JQL query.
+     * Builds a JQL query to retrieve issues from the source project.
+     * <p>
+     * Incremental queries walk the project in ascending {@code updated} order, starting at the watermark if there
+     * is one.
      *
-     * @param jqlQuery the JQL query to execute
-     * @param maxIssuesToMove the maximum number of issues to fetch
-     * @return a JSONArray of issues
-     * @throws JiraClientException if an error occurs while communicating with the JIRA API
+     * @param builder the builder holding the filter clauses of the query
+     * @param incremental whether the query is for an incremental run
+     * @param watermark the watermark of the previous incremental run, or null
+     * @return the constructed JQL query
+     */
+    private String buildJqlQuery(IssueJqlQueryBuilder builder, boolean incremental, SyncWatermark watermark) {
+        if (!incremental) {
+            return builder.setCreatedOrder(true).build();
+        }
+        if (watermark != null) {
+            builder.setUpdatedSince(watermark.getUpdatedMillis(), System.currentTimeMillis());
+        }
+        return builder.setUpdatedOrder(false).build();
+    }
+
+    /**
+     * Outcome of a single pass over the search results.
      */
-    private JSONArray fetchIssues(String jqlQuery, int maxIssuesToMove) throws JiraClientException {
-        String issuesResponse = jiraProxy.searchIssues(jqlQuery, maxIssuesToMove);
-        JSONObject issuesJson = new JSONObject(issuesResponse);
-        return issuesJson.getJSONArray(JiraFields.ISSUES);
+    private static final class SearchPass {
+        private int newIssues;
+        private boolean movedWhileSearching;
+    }
+
+    /**
+     * State of a single sync run shared by the steps of {@link #moveTasksToOtherProject(SyncTasksRequest, SyncProgress)}.
+     * <p>
+     * Also tells the search cursor how many, and which, of the issues it returned have been moved out of the source
+     * project.
+     */
+    private static final class SyncRun implements IssueRemovalTracker {
+        private final BulkMoveMappingKeys mappingKeys;
+        private final SyncProgress progress;
+        private final WatermarkTracker watermarkTracker;
+        private final SyncJournal journal;
+        private final List<CompletableFuture<BulkMoveResult>> bulkTasks = new ArrayList<>();
+        private final List<CompletableFuture<Void>> settlements = new ArrayList<>();
+        private final MovedIssueSet movedIssues;
+        private final JiraProxy jiraProxy;
+        private final AdaptiveChunkSizer chunkSizer;
+        private final SearchPartitioner searchPartitioner;
+        private final Supplier<IssueJqlQueryBuilder> searchFilter;
+        private final RunTaskScope scope;
+        private final WeightedSlotScheduler.Lane lane;
+        private final JiraMetrics metrics;
+        private final Roaring64Bitmap journaledIssueIds = new Roaring64Bitmap();
+        private final Roaring64Bitmap fetchedIssueIds = new Roaring64Bitmap();
+        private final Roaring64Bitmap unsettledIssueIds = new Roaring64Bitmap();
+        private final Roaring64Bitmap removedIssueIds = new Roaring64Bitmap();
+        private final AtomicInteger removedFetchedIssues = new AtomicInteger();
+        private boolean resumed;
+        private int heldIssues;
+
+        private SyncRun(BulkMoveMappingKeys mappingKeys, SyncProgress progress, WatermarkTracker watermarkTracker,
+                        SyncJournal journal, MovedIssueSet movedIssues, JiraProxy jiraProxy, AdaptiveChunkSizer chunkSizer,
+                        SearchPartitioner searchPartitioner, Supplier<IssueJqlQueryBuilder> searchFilter, RunTaskScope scope,
+                        WeightedSlotScheduler.Lane lane, JiraMetrics metrics) {
+            this.mappingKeys = mappingKeys;
+            this.progress = progress;
+            this.watermarkTracker = watermarkTracker;
+            this.journal = journal;
+            this.movedIssues = movedIssues;
+            this.jiraProxy = jiraProxy;
+            this.chunkSizer = chunkSizer;
+            this.searchPartitioner = searchPartitioner;
+            this.searchFilter = searchFilter;
+            this.scope = scope;
+            this.lane = lane;
+            this.metrics = metrics;
+        }
+
+        /**
+         * Drops the issues returned by earlier pages or passes from a page and remembers the others.
+         *
+         * @param page the page to filter
+         */
+        private void addFetched(IssueBatch page) {
+            synchronized (fetchedIssueIds) {
+                page.removeIf(fetchedIssueIds::contains);
+                for (int i = 0; i < page.size(); i++) {
+                    fetchedIssueIds.addLong(page.getId(i));
+                }
+            }
+        }
+
+        private boolean isFetched(long issueId) {
+            synchronized (fetchedIssueIds) {
+                return fetchedIssueIds.contains(issueId);
+            }
+        }
+
+        /**
+         * Marks the keyed issues of a batch as on their way to the target project until their bulk task finishes.
+         *
+         * @param issues the pending issues
+         * @param keyCodes the key code of each issue
+         */
+        private void unsettle(IssueBatch issues, int[] keyCodes) {
+            synchronized (unsettledIssueIds) {
+                for (int i = 0; i < issues.size(); i++) {
+                    if (keyCodes[i] >= 0) {
+                        unsettledIssueIds.addLong(issues.getId(i));
+                    }
+                }
+            }
+        }
+
+        private void unsettle(BulkMoveTasksRequestDto requestDto) {
+            synchronized (unsettledIssueIds) {
+                for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+                    List<String> issueIds = mapping.getIssueIdsOrKeys();
+                    for (int i = 0; i < issueIds.size(); i++) {
+                        unsettledIssueIds.addLong(IssueIdList.idAt(issueIds, i));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Marks the issues of a finished bulk task as settled, whether they were moved or not.
+         *
+         * @param requestDto the bulk move payload of the task
+         */
+        private void settle(BulkMoveTasksRequestDto requestDto) {
+            synchronized (unsettledIssueIds) {
+                for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+                    List<String> issueIds = mapping.getIssueIdsOrKeys();
+                    for (int i = 0; i < issueIds.size(); i++) {
+                        unsettledIssueIds.removeLong(IssueIdList.idAt(issueIds, i));
+                    }
+                }
+            }
+        }
+
+        private boolean isUnsettled(long issueId) {
+            synchronized (unsettledIssueIds) {
+                return unsettledIssueIds.contains(issueId);
+            }
+        }
+
+        @Override
+        public int getRemovedCount() {
+            return removedFetchedIssues.get();
+        }
+
+        @Override
+        public boolean isRemoved(long issueId) {
+            synchronized (fetchedIssueIds) {
+                return removedIssueIds.contains(issueId);
+            }
+        }
+
+        /**
+         * Counts the moved issues the search has returned, as only those shift the results it still pages through.
+         *
+         * @param movedIssueIds the ids of the issues moved by a finished bulk task
+         */
+        private void onIssuesMoved(long[] movedIssueIds) {
+            int removed = 0;
+            synchronized (fetchedIssueIds) {
+                for (long issueId : movedIssueIds) {
+                    if (fetchedIssueIds.contains(issueId)) {
+                        removedIssueIds.addLong(issueId);
+                        removed++;
+                    }
+                }
+            }
+            // Counted only once the ids are known, so partitions check them as soon as the count changes
+            removedFetchedIssues.addAndGet(removed);
+        }
+
+        private void checkNotCancelled() throws SyncCancelledException {
+            if (progress.isCancelled()) {
+                cancelBulkTasks();
+                throw new SyncCancelledException("Sync run was cancelled");
+            }
+        }
+
+        private void cancelBulkTasks() {
+            bulkTasks.forEach(bulkTask -> bulkTask.cancel(false));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package io.getint.recruitment_task.client.jira.services;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.search.IssueBatch;
+import io.getint.recruitment_task.client.jira.watermark.SyncWatermark;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Tracks the issues of an incremental sync run to compute the watermark of the next run.
+ * <p>
+ * The watermark may only move past issues that were handled: it advances to the latest handled issue that
+ * lies before every issue JIRA failed to move, so failed issues are picked up again next time. JIRA does not
+ * order issues updated at the same time by id, so this does not rely on the fetch order.
+ */
+class WatermarkTracker {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final SyncWatermark previous;
+    private long[] updatedMillis = new long[INITIAL_CAPACITY];
+    private long[] issueIds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    WatermarkTracker(SyncWatermark previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Checks whether an issue was not covered by the previous run.
+     *
+     * @param batch the batch containing the issue
+     * @param index the index of the issue in the batch
+     * @return true if the issue has to be synced
+     */
+    boolean isNew(IssueBatch batch, int index) {
+        return previous == null
+                || !batch.hasFlag(index, IssueBatch.HAS_UPDATED)
+                || previous.isBefore(batch.getUpdatedMillis(index), batch.getId(index));
+    }
+
+    /**
+     * Records the new issues of a fetched page, in fetch order.
+     *
+     * @param batch the fetched page
+     */
+    void track(IssueBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.hasFlag(i, IssueBatch.HAS_UPDATED) && isNew(batch, i)) {
+                if (size == issueIds.length) {
+                    updatedMillis = Arrays.copyOf(updatedMillis, size * 2);
+                    issueIds = Arrays.copyOf(issueIds, size * 2);
+                }
+                updatedMillis[size] = batch.getUpdatedMillis(i);
+                issueIds[size] = batch.getId(i);
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Computes the watermark of the next run.
+     *
+     * @param result the result of the finished run
+     * @return the new watermark, or the previous one (possibly null) if no issue was handled
+     */
+    SyncWatermark next(BulkMoveResult result) {
+        Map<Long, ?> failedIssues = result.getFailedIssues();
+        SyncWatermark firstFailed = null;
+        for (int i = 0; i < size; i++) {
+            if (failedIssues.containsKey(issueIds[i])
+                    && (firstFailed == null || !firstFailed.isBefore(updatedMillis[i], issueIds[i]))) {
+                firstFailed = new SyncWatermark(updatedMillis[i], issueIds[i]);
+            }
+        }
+
+        SyncWatermark next = previous;
+        for (int i = 0; i < size; i++) {
+            boolean beforeFailures = firstFailed == null
+                    || updatedMillis[i] < firstFailed.getUpdatedMillis()
+                    || (updatedMillis[i] == firstFailed.getUpdatedMillis() && issueIds[i] < firstFailed.getIssueId());
+            if (beforeFailures && (next == null || next.isBefore(updatedMillis[i], issueIds[i]))) {
+                next = new SyncWatermark(updatedMillis[i], issueIds[i]);
+            }
+        }
+        return next;
+    }
+}
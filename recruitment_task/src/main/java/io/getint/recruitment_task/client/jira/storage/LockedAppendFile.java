@@ -0,0 +1,178 @@
+package io.getint.recruitment_task.client.jira.storage;
+
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * A file records are only ever appended to, held under an exclusive file lock for as long as it is open.
+ * <p>
+ * An interrupt during a write closes the underlying {@link FileChannel}. Rather than losing the record, the file
+ * is then reopened and locked again, whatever part of the record made it to the file is dropped and the record is
+ * written again; the interrupt is restored once the record is written.
+ * <p>
+ * The file is not thread-safe, its owner serializes access to it.
+ */
+public class LockedAppendFile implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LockedAppendFile.class);
+
+    private final Path file;
+    private final Supplier<SyncRunInProgressException> inUse;
+    private FileChannel channel;
+
+    private LockedAppendFile(Path file, Supplier<SyncRunInProgressException> inUse, FileChannel channel) {
+        this.file = file;
+        this.inUse = inUse;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens and locks a file, creating it and its directory if they do not exist yet.
+     *
+     * @param file the file
+     * @param inUse creates the exception thrown if the file is locked by someone else
+     * @return the open file, positioned at its start
+     * @throws SyncRunInProgressException if the file is locked by someone else
+     * @throws IOException if the file cannot be opened
+     */
+    public static LockedAppendFile open(Path file, Supplier<SyncRunInProgressException> inUse) throws IOException {
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lockExclusively(channel, inUse);
+        return new LockedAppendFile(file, inUse, channel);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Returns the current size of the file.
+     *
+     * @return the size in bytes
+     * @throws IOException if the size cannot be read
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Reads from the file until the buffer is full or the end of the file is reached.
+     *
+     * @param buffer the buffer to read into, from its position
+     * @param position the position in the file to read from
+     * @throws IOException if the file cannot be read
+     */
+    public void readFully(ByteBuffer buffer, long position) throws IOException {
+        int read;
+        while (buffer.hasRemaining() && (read = channel.read(buffer, position)) >= 0) {
+            position += read;
+        }
+    }
+
+    /**
+     * Cuts the file to the given length and continues appending from there, e.g. to drop a torn record.
+     *
+     * @param length the new length of the file
+     * @throws IOException if the file cannot be truncated
+     */
+    public void truncate(long length) throws IOException {
+        channel.truncate(length);
+        channel.position(length);
+    }
+
+    /**
+     * Appends a record, reopening the file if an interrupt closed it on the way.
+     *
+     * @param record the record, written from its position to its limit
+     * @param force whether to force the file to disk before returning
+     * @throws IOException if the record cannot be written
+     */
+    public void append(ByteBuffer record, boolean force) throws IOException {
+        // A pending interrupt would close the channel on the first write, so it is held back until the record is written
+        boolean interrupted = Thread.interrupted();
+        int recordStart = record.position();
+        try {
+            long start = channel.position();
+            while (true) {
+                try {
+                    record.position(recordStart);
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    if (force) {
+                        channel.force(false);
+                    }
+                    return;
+                } catch (ClosedByInterruptException e) {
+                    interrupted |= Thread.interrupted();
+                    reopen(start);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Forces the records appended so far to disk.
+     *
+     * @throws IOException if the file cannot be forced
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Closes the file, releasing its lock.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reopens the file after an interrupt closed its channel, dropping whatever part of the interrupted record
+     * made it to the file.
+     */
+    private void reopen(long recordStart) throws IOException {
+        log.warn("{} was closed by an interrupt, reopening it", file);
+        FileChannel reopened = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lockExclusively(reopened, inUse);
+        reopened.truncate(recordStart);
+        reopened.position(recordStart);
+        channel = reopened;
+    }
+
+    private static void lockExclusively(FileChannel channel, Supplier<SyncRunInProgressException> inUse) throws IOException {
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw inUse.get();
+        }
+    }
+}
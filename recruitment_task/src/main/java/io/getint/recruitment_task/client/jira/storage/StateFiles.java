@@ -0,0 +1,21 @@
+package io.getint.recruitment_task.client.jira.storage;
+
+/**
+ * Naming of the files local sync state is kept in, such as journals and issue indexes.
+ */
+public class StateFiles {
+
+    private StateFiles() {
+    }
+
+    /**
+     * Turns a key of sync state into a file name. Characters which are not safe in file names are replaced, and
+     * the hash of the key is appended so that keys differing only in replaced characters get files of their own.
+     *
+     * @param key the key of the state, e.g. a run or pair key
+     * @return the file name, without a suffix
+     */
+    public static String fileNameFor(String key) {
+        return key.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Integer.toHexString(key.hashCode());
+    }
+}
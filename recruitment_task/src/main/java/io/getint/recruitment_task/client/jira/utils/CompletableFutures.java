@@ -0,0 +1,35 @@
+package io.getint.recruitment_task.client.jira.utils;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class CompletableFutures {
+
+    private CompletableFutures() {
+    }
+
+    /**
+     * Waits for the given future and rethrows its failure as a {@link JiraClientException}.
+     *
+     * @param future the future to wait for
+     * @param failureMessage the message used when the failure is not a JiraClientException already
+     * @param <T> the result type of the future
+     * @return the result of the future
+     * @throws JiraClientException if the future completed exceptionally or was cancelled
+     */
+    public static <T> T join(CompletableFuture<T> future, String failureMessage) throws JiraClientException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof JiraClientException) {
+                throw (JiraClientException) e.getCause();
+            }
+            throw new JiraClientException(failureMessage, e.getCause());
+        } catch (CancellationException e) {
+            throw new JiraClientException(failureMessage + ": cancelled", e);
+        }
+    }
+}
@@ -3,9 +3,17 @@ package io.getint.recruitment_task.client.jira.utils;
 public class JiraApiEndpoints {
     public static final String SEARCH_ISSUES = "/rest/api/3/search";
     public static final String BULK_MOVE_ISSUES = "/rest/api/3/bulk/issues/move";
+    public static final String BULK_TASK_PROGRESS = "/rest/api/3/bulk/queue/";
+    public static final String PROJECT = "/rest/api/3/project/";
+    public static final String PROJECT_STATUSES_SUFFIX = "/statuses";
+    public static final String BULK_CREATE_ISSUES = "/rest/api/3/issue/bulk";
+    public static final String ISSUE = "/rest/api/3/issue/";
+    public static final String ISSUE_COMMENTS_SUFFIX = "/comment";
+    public static final String ISSUE_TRANSITIONS_SUFFIX = "/transitions";
 
     //params
     public static final String JQL_PARAM = "jql";
+    public static final String START_AT_PARAM = "startAt";
     public static final String MAX_RESULTS_PARAM = "maxResults";
     public static final String FIELDS_PARAM = "fields";
-}
\ No newline at end of file
+}
@@ -13,6 +13,8 @@ public class JiraFields {
     public static final String ISSUE_TYPE = "issuetype";
     public static final String PARENT = "parent";
     public static final String SUBTASK = "subtask";
+    public static final String UPDATED = "updated";
+    public static final String LABELS = "labels";
 
     // Fields related to identifiers
     public static final String ID = "id";
@@ -25,4 +27,9 @@ public class JiraFields {
     // Additional JSON fields commonly used in Jira API responses
     public static final String ISSUES = "issues"; // Field in JSON response containing an array of issues
     public static final String FIELDS = "fields"; // Field in JSON response containing details of an issue
+
+    // Fields related to paginated search responses
+    public static final String START_AT = "startAt";
+    public static final String MAX_RESULTS = "maxResults";
+    public static final String TOTAL = "total";
 }
\ No newline at end of file
@@ -3,9 +3,12 @@ package io.getint.recruitment_task.client.jira.utils;
 public class JqlQueryFields {
     public static final String PROJECT = "project";
     public static final String ISSUE_TYPE = "issuetype";
+    public static final String ID = "id";
     public static final String ORDER_BY = "ORDER BY";
+    public static final String IN = "in";
     public static final String CREATED = "created";
     public static final String UPDATED = "updated";
+    public static final String LABELS = "labels";
     public static final String PRIORITY = "priority";
     public static final String ASSIGNEE = "assignee";
     public static final String REPORTER = "reporter";
@@ -0,0 +1,50 @@
+package io.getint.recruitment_task.client.jira.watermark;
+
+import lombok.Value;
+
+/**
+ * Position of an incremental sync in the {@code updated} order of the source project.
+ * <p>
+ * JQL compares timestamps with minute precision only, so the issue id breaks ties between issues updated
+ * within the same millisecond and the exact comparison is done on the client.
+ */
+@Value
+public class SyncWatermark {
+    long updatedMillis;
+    long issueId;
+
+    /**
+     * Checks whether an issue lies after this watermark, i.e. was not covered by a previous run.
+     *
+     * @param updatedMillis the last update time of the issue
+     * @param issueId the id of the issue
+     * @return true if the issue was updated after the watermark
+     */
+    public boolean isBefore(long updatedMillis, long issueId) {
+        return this.updatedMillis < updatedMillis || (this.updatedMillis == updatedMillis && this.issueId < issueId);
+    }
+
+    /**
+     * Formats the watermark for the store.
+     *
+     * @return the watermark as {@code updatedMillis:issueId}
+     */
+    String format() {
+        return updatedMillis + ":" + issueId;
+    }
+
+    /**
+     * Parses a watermark written by {@link #format()}.
+     *
+     * @param value the formatted watermark
+     * @return the watermark
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    static SyncWatermark parse(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed watermark: " + value);
+        }
+        return new SyncWatermark(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+    }
+}
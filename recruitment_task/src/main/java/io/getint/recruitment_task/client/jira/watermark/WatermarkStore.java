@@ -0,0 +1,130 @@
+package io.getint.recruitment_task.client.jira.watermark;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Local file-backed store of incremental sync watermarks.
+ * <p>
+ * All watermarks are kept in memory and the whole file is rewritten on every update: the new content goes to
+ * a temporary file next to it, is forced to disk and then atomically renamed over the old file, so a crash
+ * leaves either the old or the new watermarks, never a torn file. Writers are serialized by a
+ * {@link ReentrantLock}, which does not pin the carrier of a virtual thread while the file is forced to disk.
+ */
+@Component
+public class WatermarkStore {
+    private static final Logger log = LoggerFactory.getLogger(WatermarkStore.class);
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final Map<String, SyncWatermark> watermarks = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Constructs a new store and loads the watermarks saved so far.
+     *
+     * @param file the path of the watermark file
+     * @throws JiraClientException if an existing file cannot be read
+     */
+    public WatermarkStore(@Value("${jira.sync.watermarkFile}") String file) {
+        this.file = Paths.get(file).toAbsolutePath();
+        load();
+    }
+
+    /**
+     * Builds the store key of a sync between two projects restricted to the given issue types.
+     *
+     * @param sourceProjectKey the key of the source project
+     * @param targetProjectKey the key of the target project
+     * @param issueTypeNames the issue type filter of the sync
+     * @return the store key
+     */
+    public static String key(String sourceProjectKey, String targetProjectKey, List<String> issueTypeNames) {
+        return sourceProjectKey + "->" + targetProjectKey + issueTypeNames.stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /**
+     * Looks up the watermark of a sync.
+     *
+     * @param key the store key built with {@link #key(String, String, List)}
+     * @return the watermark, or empty if the sync never completed
+     */
+    public Optional<SyncWatermark> find(String key) {
+        return Optional.ofNullable(watermarks.get(key));
+    }
+
+    /**
+     * Saves the watermark of a sync and persists the store.
+     *
+     * @param key the store key built with {@link #key(String, String, List)}
+     * @param watermark the new watermark
+     * @throws JiraClientException if the store cannot be written
+     */
+    public void save(String key, SyncWatermark watermark) {
+        writeLock.lock();
+        try {
+            watermarks.put(key, watermark);
+            Properties properties = new Properties();
+            watermarks.forEach((name, value) -> properties.setProperty(name, value.format()));
+            Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                properties.store(out, "Incremental sync watermarks (updatedMillis:issueId)");
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to write watermark file " + file, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to read watermark file " + file, e);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                watermarks.put(name, SyncWatermark.parse(properties.getProperty(name)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed watermark {} in {}", name, file);
+            }
+        }
+        log.info("Loaded {} sync watermarks from {}", watermarks.size(), file);
+    }
+}
@@ -0,0 +1,258 @@
+package io.getint.recruitment_task.client.jira.wirelog;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire log of a single request to JIRA, spanning all attempts of sending it.
+ * <p>
+ * Every attempt is written as one log line once {@link #complete(long)} is called. The line, its headers and its
+ * bodies are only formatted when the logger actually writes it.
+ */
+public final class WireExchange {
+    static final WireExchange DISABLED = new WireExchange(null, null, false);
+    private static final String REDACTED = "<redacted>";
+
+    private final WireLogPolicy policy;
+    private final HttpUriRequest request;
+    private final boolean sampled;
+    private BodyCapture requestBody;
+    private BodyCapture responseBody;
+    private String errorBody;
+    private int statusCode;
+    private Header[] responseHeaders;
+
+    WireExchange(WireLogPolicy policy, HttpUriRequest request, boolean sampled) {
+        this.policy = policy;
+        this.request = request;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Wraps the request entity so that the bytes written by the HTTP client are captured, if bodies of this
+     * exchange are logged. Only the length of compressed entities is recorded.
+     *
+     * @param entity the request entity
+     * @return the entity to send
+     */
+    public HttpEntity captureRequest(HttpEntity entity) {
+        if (!capturesBodies()) {
+            return entity;
+        }
+        return new HttpEntityWrapper(entity) {
+            @Override
+            public void writeTo(OutputStream outStream) throws IOException {
+                BodyCapture capture = getContentEncoding() == null
+                        ? new BodyCapture(policy.captureLimit())
+                        : new BodyCapture(0, getContentEncoding().getValue());
+                requestBody = capture;
+                super.writeTo(new FilterOutputStream(outStream) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        capture.write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        out.write(buffer, offset, length);
+                        capture.write(buffer, offset, length);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Records the status and headers of a response.
+     *
+     * @param response the response received
+     */
+    public void onResponse(HttpResponse response) {
+        if (policy != null) {
+            statusCode = response.getStatusLine().getStatusCode();
+            responseHeaders = response.getAllHeaders();
+        }
+    }
+
+    /**
+     * Wraps the body stream of a successful response so that the bytes read are captured, if bodies of this
+     * exchange are logged.
+     *
+     * @param content the response body stream
+     * @return the stream to read the body from
+     */
+    public InputStream captureResponse(InputStream content) {
+        if (!capturesBodies()) {
+            return content;
+        }
+        BodyCapture capture = new BodyCapture(policy.captureLimit());
+        responseBody = capture;
+        return new FilterInputStream(content) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    capture.write(new byte[]{(byte) b}, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    capture.write(buffer, offset, read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * Records the body of an error response, which is buffered anyway to build the exception message.
+     *
+     * @param body the error response body
+     */
+    public void onErrorBody(String body) {
+        if (policy != null && policy.getLevel().logsBodies()) {
+            errorBody = body;
+        }
+    }
+
+    /**
+     * Writes the log line of the current attempt, if it is sampled or failed, and resets the attempt state.
+     *
+     * @param nanos the duration of the attempt
+     */
+    public void complete(long nanos) {
+        if (policy == null) {
+            return;
+        }
+        boolean failed = statusCode == 0
+                || statusCode >= HttpStatus.SC_BAD_REQUEST && statusCode != HttpStatus.SC_TOO_MANY_REQUESTS;
+        if (sampled || failed) {
+            BodyCapture errorCapture = errorBody == null ? null : BodyCapture.of(errorBody, policy.captureLimit());
+            WireLogPolicy.log.info("{} {} -> {} in {} ms{}", request.getMethod(), request.getURI(),
+                    statusCode == 0 ? "I/O error" : statusCode, TimeUnit.NANOSECONDS.toMillis(nanos),
+                    new Details(policy.getLevel(), request.getAllHeaders(), responseHeaders,
+                            granted(requestBody), granted(responseBody != null ? responseBody : errorCapture)));
+        }
+        requestBody = null;
+        responseBody = null;
+        errorBody = null;
+        statusCode = 0;
+        responseHeaders = null;
+    }
+
+    private boolean capturesBodies() {
+        return sampled && policy.getLevel().logsBodies();
+    }
+
+    private BodyCapture granted(BodyCapture capture) {
+        if (capture != null) {
+            capture.logged = policy.reserve(capture.size);
+        }
+        return capture;
+    }
+
+    /**
+     * The first bytes of a body together with its full length.
+     */
+    private static final class BodyCapture {
+        private final int limit;
+        private final String encoding;
+        private byte[] bytes = new byte[0];
+        private int size;
+        private long total;
+        private int logged;
+
+        private BodyCapture(int limit) {
+            this(limit, null);
+        }
+
+        private BodyCapture(int limit, String encoding) {
+            this.limit = limit;
+            this.encoding = encoding;
+        }
+
+        private static BodyCapture of(String body, int limit) {
+            BodyCapture capture = new BodyCapture(limit);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            capture.write(bytes, 0, bytes.length);
+            return capture;
+        }
+
+        private void write(byte[] buffer, int offset, int length) {
+            total += length;
+            int copied = Math.min(length, limit - size);
+            if (copied <= 0) {
+                return;
+            }
+            if (size + copied > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(limit, Math.max(size + copied, 2L * bytes.length)));
+            }
+            System.arraycopy(buffer, offset, bytes, size, copied);
+            size += copied;
+        }
+
+        @Override
+        public String toString() {
+            if (encoding != null) {
+                return "(" + total + " bytes, " + encoding + " encoded)";
+            }
+            String text = new String(bytes, 0, logged, StandardCharsets.UTF_8);
+            return logged < total ? text + "... (" + (total - logged) + " more bytes)" : text;
+        }
+    }
+
+    /**
+     * Lazily formatted headers and bodies of an attempt.
+     */
+    private record Details(WireLogLevel level, Header[] requestHeaders, Header[] responseHeaders,
+                           BodyCapture requestBody, BodyCapture responseBody) {
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(System.lineSeparator()).append("  request headers: ").append(format(requestHeaders));
+            builder.append(System.lineSeparator()).append("  response headers: ").append(format(responseHeaders));
+            if (level.logsBodies() && requestBody != null) {
+                builder.append(System.lineSeparator()).append("  request body: ").append(requestBody);
+            }
+            if (level.logsBodies() && responseBody != null) {
+                builder.append(System.lineSeparator()).append("  response body: ").append(responseBody);
+            }
+            return builder.toString();
+        }
+
+        private static String format(Header[] headers) {
+            if (headers == null) {
+                return "-";
+            }
+            StringBuilder builder = new StringBuilder("[");
+            for (Header header : headers) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(header.getName()).append(": ")
+                        .append(HttpHeaders.AUTHORIZATION.equalsIgnoreCase(header.getName()) ? REDACTED : header.getValue());
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
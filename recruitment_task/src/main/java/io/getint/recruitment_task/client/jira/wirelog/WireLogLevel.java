@@ -0,0 +1,24 @@
+package io.getint.recruitment_task.client.jira.wirelog;
+
+/**
+ * How much of every sampled request and response exchanged with JIRA is written to the wire log.
+ */
+public enum WireLogLevel {
+    /** Nothing is logged. */
+    OFF,
+    /** Request line, status, duration and headers only. */
+    HEADERS,
+    /** Headers plus the first {@code jira.wireLog.maxBodyBytes} bytes of every body. */
+    TRUNCATED,
+    /** Headers plus complete bodies. */
+    FULL;
+
+    /**
+     * Tells whether bodies are logged at this level.
+     *
+     * @return true for {@link #TRUNCATED} and {@link #FULL}
+     */
+    public boolean logsBodies() {
+        return this == TRUNCATED || this == FULL;
+    }
+}
@@ -0,0 +1,139 @@
+package io.getint.recruitment_task.client.jira.wirelog;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which requests exchanged with JIRA are written to the wire log and how much of them.
+ * <p>
+ * Only one in {@code jira.wireLog.sampleRate} exchanges is logged; error responses other than throttling are
+ * logged regardless of sampling. Bodies are captured while the HTTP client writes and reads them, so nothing is
+ * serialized a second time for logging, and they are only turned into strings once the log line is written.
+ * Logged body bytes are limited by a per-second budget; bodies beyond it are cut short.
+ */
+@Component
+public class WireLogPolicy {
+    static final Logger log = LoggerFactory.getLogger(WireLogPolicy.class);
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final WireLogLevel level;
+    private final int maxBodyBytes;
+    private final int sampleRate;
+    private final long bytesPerSecond;
+    private final AtomicLong exchanges = new AtomicLong();
+    private final AtomicLong omittedBytes = new AtomicLong();
+    private double budget;
+    private long lastRefillNanos;
+
+    /**
+     * Constructs a new policy.
+     *
+     * @param level how much of every sampled exchange is logged
+     * @param maxBodyBytes the number of body bytes logged at {@link WireLogLevel#TRUNCATED}
+     * @param sampleRate log one in this many exchanges
+     * @param bytesPerSecond the number of body bytes logged per second, 0 for no limit
+     */
+    public WireLogPolicy(@Value("${jira.wireLog.level}") WireLogLevel level,
+                         @Value("${jira.wireLog.maxBodyBytes}") int maxBodyBytes,
+                         @Value("${jira.wireLog.sampleRate}") int sampleRate,
+                         @Value("${jira.wireLog.bytesPerSecond}") long bytesPerSecond) {
+        if (maxBodyBytes < 0 || sampleRate < 1 || bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid wire log settings: maxBodyBytes " + maxBodyBytes
+                    + ", sampleRate " + sampleRate + ", bytesPerSecond " + bytesPerSecond);
+        }
+        this.level = level;
+        this.maxBodyBytes = maxBodyBytes;
+        this.sampleRate = sampleRate;
+        this.bytesPerSecond = bytesPerSecond;
+        this.budget = bytesPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a policy which logs nothing.
+     *
+     * @return the disabled policy
+     */
+    public static WireLogPolicy off() {
+        return new WireLogPolicy(WireLogLevel.OFF, 0, 1, 0);
+    }
+
+    /**
+     * Starts logging an exchange, covering all attempts of sending the given request.
+     *
+     * @param request the request about to be sent
+     * @return the exchange to report the request and its responses to
+     */
+    public WireExchange begin(HttpUriRequest request) {
+        if (level == WireLogLevel.OFF || !log.isInfoEnabled()) {
+            return WireExchange.DISABLED;
+        }
+        boolean sampled = exchanges.getAndIncrement() % sampleRate == 0;
+        return new WireExchange(this, request, sampled);
+    }
+
+    /**
+     * Returns how much of every sampled exchange is logged.
+     *
+     * @return the wire log level
+     */
+    public WireLogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the number of captured body bytes left out of the log because the byte budget was used up.
+     *
+     * @return the omitted byte count
+     */
+    public long getOmittedBytes() {
+        return omittedBytes.get();
+    }
+
+    /**
+     * Returns how many body bytes a new capture may hold: the level limit, further capped by the budget left.
+     *
+     * @return the capture limit in bytes
+     */
+    int captureLimit() {
+        int levelLimit = level == WireLogLevel.FULL ? Integer.MAX_VALUE : maxBodyBytes;
+        if (bytesPerSecond == 0) {
+            return levelLimit;
+        }
+        synchronized (this) {
+            refill(System.nanoTime());
+            return (int) Math.min(levelLimit, (long) budget);
+        }
+    }
+
+    /**
+     * Takes up to the given number of bytes from the budget.
+     *
+     * @param wanted the number of bytes about to be logged
+     * @return the number of bytes which may be logged
+     */
+    int reserve(int wanted) {
+        int granted = wanted;
+        if (bytesPerSecond != 0) {
+            synchronized (this) {
+                refill(System.nanoTime());
+                granted = (int) Math.min(wanted, (long) budget);
+                budget -= granted;
+            }
+        }
+        if (granted < wanted) {
+            omittedBytes.addAndGet(wanted - granted);
+        }
+        return granted;
+    }
+
+    private void refill(long now) {
+        budget = Math.min(bytesPerSecond, budget + (now - lastRefillNanos) / NANOS_PER_SECOND * bytesPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,36 @@
+package io.getint.recruitment_task.client.jira.chunking;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveChunkSizerTests {
+
+    @Test
+    public void shouldShrinkAfterSlowTasksAndGrowAtMostTwofoldAfterFastOnes() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer("default", 50, 1000, 1_000, 100, 0);
+
+        sizer.onTaskFinished(1000, 1, 4_000, 0);
+        assertEquals(250, sizer.getChunkSize());
+
+        sizer.onTaskFinished(250, 1, 1, 0);
+        int grown = sizer.getChunkSize();
+        assertTrue(grown > 250 && grown <= 500);
+    }
+
+    @Test
+    public void shouldHalveAfterFailedTasksDownToTheMinimumSize() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer("default", 50, 5000, 60_000, 100, 5);
+        assertEquals(AdaptiveChunkSizer.JIRA_MAX_CHUNK_SIZE, sizer.getChunkSize());
+
+        sizer.onTaskFailed();
+        assertEquals(500, sizer.getChunkSize());
+
+        for (int i = 0; i < 10; i++) {
+            sizer.onTaskFailed();
+        }
+        assertEquals(50, sizer.getChunkSize());
+        assertTrue(sizer.getFailureRate() > 0.9);
+    }
+}
@@ -0,0 +1,78 @@
+package io.getint.recruitment_task.client.jira.chunking;
+
+import io.getint.recruitment_task.client.jira.search.LongInterner;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ChunkPlannerTests {
+
+    @Test
+    public void shouldFillWholeChunksPerKeyAndPackTheRemaindersWithoutSplittingThem() {
+        int[] keyCodes = keyCodes();
+
+        ChunkPlan plan = ChunkPlanner.plan(keyCodes, 10, 100, true);
+
+        assertEquals(2, plan.getSkipped());
+        assertEquals(4, plan.getChunkCount());
+        assertArrayEquals(new int[]{10, 10, 10, 5}, chunkSizes(plan));
+        assertArrayEquals(new int[]{1, 1, 2, 1}, chunkKeyCounts(plan, keyCodes));
+        assertEquals(keyCodes.length, plan.getConsumed());
+    }
+
+    @Test
+    public void shouldKeepBackRemaindersThatDoNotFillAChunkWhileSearching() {
+        int[] keyCodes = keyCodes();
+
+        ChunkPlan plan = ChunkPlanner.plan(keyCodes, 10, 100, false);
+
+        assertEquals(3, plan.getChunkCount());
+        assertEquals(32, plan.getConsumed());
+        int[] keptBack = Arrays.copyOfRange(plan.getOrder(), plan.getConsumed(), keyCodes.length);
+        assertArrayEquals(new int[]{30, 31, 32, 33, 34}, keptBack);
+    }
+
+    /**
+     * 25 issues of key 0, 7 of key 1 and 3 of key 2, interleaved, with two issues without a key.
+     */
+    private static int[] keyCodes() {
+        int[] keyCodes = new int[37];
+        int[] remaining = {25, 7, 3};
+        int next = 0;
+        for (int i = 0; i < 35; i++) {
+            while (remaining[next % 3] == 0) {
+                next++;
+            }
+            keyCodes[i] = next % 3;
+            remaining[next++ % 3]--;
+        }
+        keyCodes[35] = LongInterner.NO_CODE;
+        keyCodes[36] = LongInterner.NO_CODE;
+        return keyCodes;
+    }
+
+    private static int[] chunkSizes(ChunkPlan plan) {
+        int[] sizes = new int[plan.getChunkCount()];
+        for (int chunk = 0; chunk < sizes.length; chunk++) {
+            sizes[chunk] = plan.getChunkTo(chunk) - plan.getChunkFrom(chunk);
+        }
+        return sizes;
+    }
+
+    private static int[] chunkKeyCounts(ChunkPlan plan, int[] keyCodes) {
+        int[] counts = new int[plan.getChunkCount()];
+        for (int chunk = 0; chunk < counts.length; chunk++) {
+            Set<Integer> keys = new HashSet<>();
+            for (int i = plan.getChunkFrom(chunk); i < plan.getChunkTo(chunk); i++) {
+                keys.add(keyCodes[plan.getOrder()[i]]);
+            }
+            counts[chunk] = keys.size();
+        }
+        return counts;
+    }
+}
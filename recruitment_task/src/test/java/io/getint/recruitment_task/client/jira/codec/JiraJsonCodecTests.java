@@ -0,0 +1,60 @@
+package io.getint.recruitment_task.client.jira.codec;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import org.apache.http.HttpEntity;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JiraJsonCodecTests {
+
+    private static BulkMoveTasksRequestDto requestDto() {
+        return BulkMoveTasksRequestDto.builder()
+                .addTargetToSourcesMapping("TARGET,10001", BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                        .issueIdsOrKeys(new IssueIdList(new long[]{0L, 10002L, Long.MAX_VALUE}))
+                        .build())
+                .build();
+    }
+
+    @Test
+    public void shouldWriteIssueIdsAsStrings() throws IOException {
+        String json = new JiraJsonCodec(false).writeBulkMoveAsString(requestDto());
+
+        assertEquals("{\"targetToSourcesMapping\":{\"TARGET,10001\":{\"inferFieldDefaults\":true,\"inferStatusDefaults\":true,"
+                + "\"inferSubtaskTypeDefault\":true,\"issueIdsOrKeys\":[\"0\",\"10002\",\"9223372036854775807\"]}}}", json);
+    }
+
+    @Test
+    public void shouldStreamTheSamePayloadAsTheStringForm() throws IOException {
+        JiraJsonCodec codec = new JiraJsonCodec(false);
+        HttpEntity entity = codec.bulkMoveEntity(requestDto());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        entity.writeTo(out);
+
+        assertTrue(entity.isChunked());
+        assertEquals(codec.writeBulkMoveAsString(requestDto()), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldGzipStreamedPayloadWhenEnabled() throws IOException {
+        JiraJsonCodec codec = new JiraJsonCodec(true);
+        HttpEntity entity = codec.bulkMoveEntity(requestDto());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        entity.writeTo(out);
+
+        assertEquals("gzip", entity.getContentEncoding().getValue());
+        try (GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(codec.writeBulkMoveAsString(requestDto()), new String(unzipped.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.getint.recruitment_task.client.jira.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RunTaskScopeTests {
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldInterruptRunningTasksAndWaitForThemOnClose() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean ended = new AtomicBoolean();
+        RunTaskScope scope = new RunTaskScope(executor);
+        scope.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            ended.set(true);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scope.close();
+
+        assertTrue(interrupted.get());
+        assertTrue(ended.get());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldRejectTasksOnceClosed() {
+        RunTaskScope scope = new RunTaskScope(executor);
+        scope.close();
+
+        scope.execute(() -> { });
+    }
+
+    @Test
+    public void shouldNotLeakTheInterruptIntoLaterTasksOfThePooledThread() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            RunTaskScope scope = new RunTaskScope(singleThread);
+            scope.execute(() -> {
+                started.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            scope.close();
+
+            assertFalse(singleThread.submit(() -> Thread.currentThread().isInterrupted()).get(5, TimeUnit.SECONDS));
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldFallBackToPlatformThreadsWithoutVirtualThreadSupport() throws Exception {
+        JiraThreading threading = new JiraThreading(true);
+        assertEquals(JiraThreading.supportsVirtualThreads(), threading.isVirtual());
+
+        ExecutorService taskExecutor = threading.newTaskExecutor("test-io-", 1);
+        try {
+            assertTrue(taskExecutor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS).startsWith("test-io-"));
+        } finally {
+            taskExecutor.shutdownNow();
+        }
+    }
+}
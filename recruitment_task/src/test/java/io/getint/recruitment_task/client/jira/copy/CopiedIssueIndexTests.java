@@ -0,0 +1,131 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CopiedIssueIndexTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReloadIssuesCopiedByEarlierRuns() {
+        String directory = temporaryFolder.getRoot().toPath().resolve("copied-index").toString();
+        CopiedIssueIndex index = new CopiedIssueIndex(true, directory);
+        try (CopiedIssueMap copied = index.open("SRC", "TARGET", 10)) {
+            copied.putAll(new long[]{10001L, 10002L, 4_000_000_000L}, new long[]{90001L, 90002L, 90003L}, 2);
+            copied.putAll(new long[]{10003L}, new long[]{90004L}, 1);
+        }
+
+        try (CopiedIssueMap reloaded = new CopiedIssueIndex(true, directory).open("SRC", "TARGET", 10)) {
+            assertEquals(3, reloaded.size());
+            assertEquals(90001L, reloaded.get(10001L));
+            assertEquals(90004L, reloaded.get(10003L));
+            assertEquals(IssueIdMap.NO_ID, reloaded.get(4_000_000_000L));
+        }
+        try (CopiedIssueMap other = index.open("SRC", "OTHER", 10)) {
+            assertEquals(IssueIdMap.NO_ID, other.get(10001L));
+        }
+    }
+
+    @Test
+    public void shouldDropTornRecords() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("copied-index");
+        CopiedIssueIndex index = new CopiedIssueIndex(true, directory.toString());
+        try (CopiedIssueMap copied = index.open("SRC", "TARGET", 10)) {
+            copied.putAll(new long[]{10001L}, new long[]{90001L}, 1);
+        }
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertEquals(1, reloaded.size());
+            reloaded.putAll(new long[]{10002L}, new long[]{90002L}, 1);
+        }
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertEquals(90001L, reloaded.get(10001L));
+            assertEquals(90002L, reloaded.get(10002L));
+        }
+    }
+
+    @Test
+    public void shouldKeepSubmittedIssuesUnconfirmedUntilJiraAnswered() {
+        CopiedIssueIndex index = new CopiedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("copied-index").toString());
+        try (CopiedIssueMap copied = index.open("SRC", "TARGET", 10)) {
+            copied.recordSubmitted(new long[]{10001L, 10002L, 10003L}, 3);
+            copied.putAll(new long[]{10001L}, new long[]{90001L}, 1);
+            copied.recordNotCreated(new long[]{10002L}, 1);
+            assertArrayEquals(new long[]{10003L}, copied.getUnconfirmed());
+        }
+
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertArrayEquals(new long[]{10003L}, reloaded.getUnconfirmed());
+            assertEquals(90001L, reloaded.get(10001L));
+            assertEquals(IssueIdMap.NO_ID, reloaded.get(10002L));
+            reloaded.putAll(new long[]{10003L}, new long[]{90003L}, 1);
+        }
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertEquals(0, reloaded.getUnconfirmed().length);
+            assertEquals(90003L, reloaded.get(10003L));
+        }
+    }
+
+    @Test
+    public void shouldReloadHowFarTheStatusAndCommentsWereCopied() {
+        CopiedIssueIndex index = new CopiedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("copied-index").toString());
+        try (CopiedIssueMap copied = index.open("SRC", "TARGET", 10)) {
+            copied.putAll(new long[]{10001L, 10002L}, new long[]{90001L, 90002L}, 2);
+            copied.recordFollowUps(10001L, false, 1);
+            copied.recordFollowUps(10002L, true, 0);
+        }
+
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertFalse(reloaded.isStatusCopied(10001L));
+            assertEquals(1, reloaded.getCopiedComments(10001L));
+            assertTrue(reloaded.isStatusCopied(10002L));
+            assertEquals(0, reloaded.getCopiedComments(10002L));
+            assertFalse(reloaded.isStatusCopied(10003L));
+            reloaded.recordFollowUps(10001L, true, 3);
+        }
+        try (CopiedIssueMap reloaded = index.open("SRC", "TARGET", 10)) {
+            assertTrue(reloaded.isStatusCopied(10001L));
+            assertEquals(3, reloaded.getCopiedComments(10001L));
+        }
+    }
+
+    @Test
+    public void shouldRejectSecondRunOfThePairWhileTheMapIsOpen() {
+        CopiedIssueIndex index = new CopiedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("copied-index").toString());
+        try (CopiedIssueMap held = index.open("SRC", "TARGET", 10)) {
+            try {
+                index.open("SRC", "TARGET", 10);
+                fail("Expected the second run to be rejected");
+            } catch (SyncRunInProgressException e) {
+                assertTrue(e.getMessage().contains(held.getKey()));
+            }
+        }
+        index.open("SRC", "TARGET", 10).close();
+    }
+
+    @Test
+    public void shouldKeepCopiesInMemoryWhenDisabled() {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("copied-index");
+        try (CopiedIssueMap copied = new CopiedIssueIndex(false, directory.toString()).open("SRC", "TARGET", 10)) {
+            copied.putAll(new long[]{10001L}, new long[]{90001L}, 1);
+            assertEquals(90001L, copied.get(10001L));
+        }
+        assertFalse(Files.exists(directory));
+    }
+}
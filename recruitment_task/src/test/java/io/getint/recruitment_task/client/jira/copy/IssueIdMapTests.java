@@ -0,0 +1,29 @@
+package io.getint.recruitment_task.client.jira.copy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IssueIdMapTests {
+
+    @Test
+    public void shouldResolveCopiedIssuesBeyondTheExpectedSize() {
+        IssueIdMap ids = new IssueIdMap(4);
+
+        for (long sourceId = 100_000; sourceId < 100_100; sourceId++) {
+            ids.put(sourceId, sourceId + 800_000);
+        }
+
+        assertEquals(100, ids.size());
+        assertEquals(900_000, ids.get(100_000));
+        assertEquals(900_099, ids.get(100_099));
+    }
+
+    @Test
+    public void shouldReportIssuesThatWereNotCopied() {
+        IssueIdMap ids = new IssueIdMap(16);
+        ids.put(1, 2);
+
+        assertEquals(IssueIdMap.NO_ID, ids.get(2));
+    }
+}
@@ -0,0 +1,97 @@
+package io.getint.recruitment_task.client.jira.httpcache;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JiraResponseCacheTests {
+    private static final String URL = "http://jira.local/rest/api/3/project/";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldMakeRepeatedRequestsConditionalOnTheCachedValidators() throws IOException {
+        JiraResponseCache cache = new JiraResponseCache(true, 1024 * 1024, 1024, "", 0);
+        fetch(cache, URL + "SRC", "\"v1\"", "{\"key\":\"SRC\"}");
+
+        HttpGet request = new HttpGet(URL + "SRC");
+        CachedResponse cached = cache.prepare(request);
+
+        assertNotNull(cached);
+        assertEquals("\"v1\"", request.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        try (InputStream content = cache.onNotModified(cached)) {
+            assertEquals("{\"key\":\"SRC\"}", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getRevalidations());
+    }
+
+    @Test
+    public void shouldNotCacheResponsesWithoutValidatorsOrAboveTheEntryLimit() throws IOException {
+        JiraResponseCache cache = new JiraResponseCache(true, 1024 * 1024, 16, "", 0);
+        fetch(cache, URL + "A", null, "{\"key\":\"A\"}");
+        String large = "{\"key\":\"" + "B".repeat(64) + "\"}";
+        assertEquals(large, fetch(cache, URL + "B", "\"v1\"", large));
+
+        assertNull(cache.prepare(new HttpGet(URL + "A")));
+        assertNull(cache.prepare(new HttpGet(URL + "B")));
+        assertNull(cache.prepare(new HttpPost(URL + "A")));
+    }
+
+    @Test
+    public void shouldOverflowEvictedEntriesToDiskAndKeepThemAcrossRestarts() throws IOException {
+        String directory = temporaryFolder.getRoot().toPath().resolve("responses").toString();
+        JiraResponseCache cache = new JiraResponseCache(true, 600, 400, directory, 1024 * 1024);
+        byte[] body = "x".repeat(300).getBytes(StandardCharsets.UTF_8);
+        fetch(cache, URL + "A", "\"a\"", new String(body, StandardCharsets.UTF_8));
+        fetch(cache, URL + "B", "\"b\"", new String(body, StandardCharsets.UTF_8));
+
+        assertTrue(cache.getMemoryBytes() <= 600);
+        assertTrue(cache.getDiskBytes() > 0);
+
+        JiraResponseCache restarted = new JiraResponseCache(true, 600, 400, directory, 1024 * 1024);
+        HttpGet request = new HttpGet(URL + "A");
+        CachedResponse cached = restarted.prepare(request);
+
+        assertNotNull(cached);
+        assertEquals("\"a\"", request.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        assertArrayEquals(body, cached.getBody());
+    }
+
+    private static String fetch(JiraResponseCache cache, String url, String etag, String body) throws IOException {
+        HttpGet request = new HttpGet(url);
+        cache.prepare(request);
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(body.getBytes(StandardCharsets.UTF_8)));
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        JiraResponseCache.CapturedBody captured = cache.capture(request, response,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        try (InputStream content = captured.getContent()) {
+            String read = new String(content.readAllBytes(), StandardCharsets.UTF_8);
+            captured.store();
+            return read;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.getint.recruitment_task.client.jira.idempotency;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MovedIssueIndexTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldMapPersistedSetsAtStartup() {
+        String directory = temporaryFolder.getRoot().toPath().resolve("moved-index").toString();
+        MovedIssueSet set = new MovedIssueIndex(true, directory).forPair("SRC", "TARGET");
+        set.addAll(new long[]{10001L, 10002L, 4_000_000_000L, -1L, 5_000_000_000L});
+        set.flush();
+        set.addAll(new long[]{10003L, 10001L});
+        set.flush();
+
+        MovedIssueIndex reloaded = new MovedIssueIndex(true, directory);
+        MovedIssueSet reloadedSet = reloaded.forPair("SRC", "TARGET");
+        assertEquals(4, reloadedSet.size());
+        assertTrue(reloadedSet.contains(10001L));
+        assertTrue(reloadedSet.contains(10003L));
+        assertTrue(reloadedSet.contains(4_000_000_000L));
+        assertFalse(reloadedSet.contains(5_000_000_000L));
+        assertFalse(reloadedSet.contains(10004L));
+        assertFalse(reloaded.forPair("SRC", "OTHER").contains(10001L));
+    }
+
+    @Test
+    public void shouldStayCompactForMillionsOfIds() throws Exception {
+        String directory = temporaryFolder.getRoot().toPath().resolve("moved-index").toString();
+        MovedIssueSet set = new MovedIssueIndex(true, directory).forPair("SRC", "TARGET");
+        long[] ids = new long[2_000_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 10_000L + i * 3L;
+        }
+        set.addAll(ids);
+        set.flush();
+
+        try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath().resolve("moved-index"))) {
+            assertTrue(files.allMatch(file -> file.toFile().length() < 4 * 1024 * 1024));
+        }
+        assertTrue(set.contains(10_000L + 3L * 1_999_999));
+        assertFalse(set.contains(10_001L));
+    }
+
+    @Test
+    public void shouldForgetClearedPairs() {
+        String directory = temporaryFolder.getRoot().toPath().resolve("moved-index").toString();
+        MovedIssueIndex index = new MovedIssueIndex(true, directory);
+        index.forPair("SRC", "TARGET").addAll(new long[]{10001L});
+        index.forPair("SRC", "TARGET").flush();
+
+        index.clear("SRC", "TARGET");
+
+        assertFalse(index.forPair("SRC", "TARGET").contains(10001L));
+        assertFalse(new MovedIssueIndex(true, directory).forPair("SRC", "TARGET").contains(10001L));
+        assertFalse(new MovedIssueIndex(false, directory).forPair("SRC", "TARGET").contains(10001L));
+    }
+}
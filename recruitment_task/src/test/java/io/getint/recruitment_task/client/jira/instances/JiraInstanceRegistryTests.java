@@ -0,0 +1,151 @@
+package io.getint.recruitment_task.client.jira.instances;
+
+import io.getint.recruitment_task.client.jira.concurrency.JiraThreading;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.services.BulkTaskTracker;
+import io.getint.recruitment_task.client.jira.services.JiraProxyMock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JiraInstanceRegistryTests {
+    private JiraProxyMock defaultProxy;
+    private SimpleMeterRegistry meterRegistry;
+    private JiraInstanceRegistry registry;
+
+    @Before
+    public void setup() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jira.api.username", "user");
+        properties.put("jira.api.token", "token");
+        properties.put("jira.api.connectTimeoutMs", "1000");
+        properties.put("jira.api.socketTimeoutMs", "1000");
+        properties.put("jira.api.connectionRequestTimeoutMs", "1000");
+        properties.put("jira.api.maxTotalConnections", "10");
+        properties.put("jira.api.maxConnectionsPerRoute", "5");
+        properties.put("jira.rateLimit.enabled", "true");
+        properties.put("jira.rateLimit.searchPerSecond", "10");
+        properties.put("jira.rateLimit.bulkMovePerSecond", "2");
+        properties.put("jira.rateLimit.otherPerSecond", "10");
+        properties.put("jira.rateLimit.maxThrottleRetries", "3");
+        properties.put("jira.resilience.maxAttempts", "3");
+        properties.put("jira.resilience.backoffBaseMs", "1");
+        properties.put("jira.resilience.backoffMaxMs", "5");
+        properties.put("jira.resilience.breakerFailureThreshold", "5");
+        properties.put("jira.resilience.breakerOpenMs", "1000");
+        properties.put("jira.metadataCache.maxEntries", "10");
+        properties.put("jira.metadataCache.ttlMs", "60000");
+        properties.put("jira.instances.eu.api.url", "http://eu.jira.local");
+        properties.put("jira.instances.eu.api.maxConnectionsPerRoute", "2");
+        properties.put("jira.sync.bulkMaxInFlight", "3");
+        properties.put("jira.instances.eu.sync.bulkMaxInFlight", "1");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        defaultProxy = new JiraProxyMock();
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new JiraInstanceRegistry(defaultProxy, null, new JiraMetadataCache(defaultProxy, 10, 60_000), new JiraThreading(false),
+                environment, meterRegistry, null, 0);
+    }
+
+    @Test
+    public void shouldServeTheDefaultInstanceWithoutOpeningAnything() {
+        try (JiraInstanceRegistry.Lease lease = registry.lease(null)) {
+            assertSame(defaultProxy, lease.getInstance().getProxy());
+            assertTrue(lease.getInstance().isDefault());
+            assertEquals("SRC->TARGET", lease.getInstance().qualify("SRC->TARGET"));
+        }
+        assertEquals(0, registry.getOpenInstances());
+    }
+
+    @Test(expected = JiraClientException.class)
+    public void shouldRejectUnknownInstances() {
+        assertFalse(registry.isConfigured("us"));
+        registry.lease("us");
+    }
+
+    @Test
+    public void shouldOpenNamedInstancesLazilyAndEvictThemOnceIdle() {
+        JiraInstanceRegistry.Lease first = registry.lease("eu");
+        JiraInstanceRegistry.Lease second = registry.lease("eu");
+
+        assertSame(first.getInstance(), second.getInstance());
+        assertNotSame(defaultProxy, first.getInstance().getProxy());
+        assertEquals("eu:SRC->TARGET", first.getInstance().qualify("SRC->TARGET"));
+        assertEquals(1, registry.getOpenInstances());
+        assertEquals(2.0, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default").tag("instance", "eu").gauge().value(), 0);
+
+        first.close();
+        registry.evictIdle();
+        assertEquals(1, registry.getOpenInstances());
+
+        second.close();
+        registry.evictIdle();
+        assertEquals(0, registry.getOpenInstances());
+        assertNull(meterRegistry.find("httpcomponents.httpclient.pool.route.max.default").tag("instance", "eu").gauge());
+        try (JiraInstanceRegistry.Lease reopened = registry.lease("eu")) {
+            assertNotSame(first.getInstance(), reopened.getInstance());
+            assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.route.max.default").tag("instance", "eu").gauge());
+        }
+    }
+
+    @Test
+    public void shouldNotDelayBulkTasksOfAnInstanceWhileAnotherInstanceIsStalled() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService ioExecutor = Executors.newCachedThreadPool();
+        BulkTaskTracker bulkTaskTracker = new BulkTaskTracker(scheduler, 1, 5, 60_000);
+        JiraProxyMock stalledProxy = new JiraProxyMock();
+        stalledProxy.setStalled("EU-TARGET", true);
+        try (JiraInstanceRegistry.Lease eu = registry.lease("eu"); JiraInstanceRegistry.Lease defaultInstance = registry.lease(null)) {
+            assertEquals(1, eu.getInstance().getBulkTaskSlots().getSlots());
+            assertEquals(3, defaultInstance.getInstance().getBulkTaskSlots().getSlots());
+
+            CompletableFuture<BulkMoveResult> stalled = bulkTaskTracker.submit(request("EU-TARGET", 1), taskId -> { }, stalledProxy,
+                    ioExecutor, eu.getInstance().getBulkTaskSlots().lane("eu", 1));
+            CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> bulkTaskTracker.submit(request("EU-TARGET", 2), taskId -> { },
+                    stalledProxy, ioExecutor, eu.getInstance().getBulkTaskSlots().lane("eu", 1)), ioExecutor);
+            while (eu.getInstance().getBulkTaskSlots().getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+
+            BulkMoveResult moved = bulkTaskTracker.submit(request("TARGET", 3), taskId -> { }, defaultProxy, ioExecutor,
+                    defaultInstance.getInstance().getBulkTaskSlots().lane("default", 1)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, moved.getMovedIssueIds().length);
+            assertFalse(stalled.isDone());
+            assertFalse(waiting.isDone());
+        } finally {
+            ioExecutor.shutdownNow();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static BulkMoveTasksRequestDto request(String targetProjectKey, long... ids) {
+        return BulkMoveTasksRequestDto.builder()
+                .addTargetToSourcesMapping(targetProjectKey + ",10001", BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                        .issueIdsOrKeys(new IssueIdList(ids))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package io.getint.recruitment_task.client.jira.jobs;
+
+import io.getint.recruitment_task.client.jira.concurrency.JiraThreading;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScopes;
+import io.getint.recruitment_task.client.jira.config.JiraSyncConfiguration;
+import io.getint.recruitment_task.client.jira.copy.CopiedIssueIndex;
+import io.getint.recruitment_task.client.jira.copy.JiraIssueCopier;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import io.getint.recruitment_task.client.jira.exceptions.SyncBacklogFullException;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.journal.SyncJournalFactory;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.services.BulkTaskTracker;
+import io.getint.recruitment_task.client.jira.services.JiraProxyMock;
+import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
+import io.getint.recruitment_task.client.jira.watermark.WatermarkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SyncJobServiceTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JiraProxyMock jiraProxy;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService syncExecutor;
+    private SyncJobRegistry jobRegistry;
+    private JiraSynchronizer jiraSynchronizer;
+    private SyncJobService syncJobService;
+
+    @Before
+    public void setup() {
+        jiraProxy = new JiraProxyMock();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        syncExecutor = new JiraSyncConfiguration().jiraSyncExecutor(new JiraThreading(false), 100);
+        ExecutorService ioExecutor = Executors.newCachedThreadPool();
+        BulkTaskTracker bulkTaskTracker = new BulkTaskTracker(scheduler, 1, 5, 60_000);
+        jobRegistry = new SyncJobRegistry(2, 60_000);
+        RunTaskScopes taskScopes = new RunTaskScopes(ioExecutor);
+        JiraMetrics metrics = new JiraMetrics(new SimpleMeterRegistry());
+        jiraSynchronizer = new JiraSynchronizer(JiraInstanceRegistry.single(jiraProxy, new JiraMetadataCache(jiraProxy, 100, 60_000)), bulkTaskTracker,
+                new WatermarkStore(temporaryFolder.getRoot().toPath().resolve("watermarks.properties").toString()),
+                new SyncJournalFactory(true, temporaryFolder.getRoot().toPath().resolve("journal").toString(), 32, 200, null, null),
+                new MovedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("moved-index").toString()),
+                metrics, taskScopes, new JiraIssueCopier(metrics, taskScopes,
+                new CopiedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("copied-index").toString()), 50, 4, 8));
+        syncJobService = new SyncJobService(jiraSynchronizer, jobRegistry, syncExecutor, 100, 30);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        syncExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRunJobInBackgroundAndReportProgress() throws InterruptedException {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(1500) + "}");
+        jiraProxy.setSubmissionsUntilComplete(2);
+
+        SyncJob job = syncJobService.submit(request(1500));
+        awaitFinished(job);
+
+        assertEquals(SyncJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(1500, job.getProgress().getIssuesFetched());
+        assertEquals(2, job.getProgress().getChunksSubmitted());
+        assertEquals(1500, job.getProgress().getIssuesMoved());
+        assertTrue(syncJobService.find(job.getId()).isPresent());
+    }
+
+    @Test
+    public void shouldCancelRunningJob() throws InterruptedException {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(100) + "}");
+        jiraProxy.setPollsUntilComplete(Integer.MAX_VALUE);
+
+        SyncJob job = syncJobService.submit(request(100));
+        while (job.getProgress().getChunksSubmitted() == 0) {
+            Thread.sleep(5);
+        }
+        syncJobService.cancel(job.getId());
+        awaitFinished(job);
+
+        assertEquals(SyncJobStatus.CANCELLED, job.getStatus());
+        assertEquals(0, job.getProgress().getIssuesMoved());
+    }
+
+    @Test
+    public void shouldEvictOldestFinishedJobsBeyondRetentionLimit() throws InterruptedException {
+        SyncJob first = syncJobService.submit(request(10));
+        awaitFinished(first);
+        SyncJob second = syncJobService.submit(request(10));
+        awaitFinished(second);
+
+        syncJobService.submit(request(10));
+
+        assertFalse(syncJobService.find(first.getId()).isPresent());
+        assertTrue(syncJobService.find(second.getId()).isPresent());
+        assertEquals(2, jobRegistry.size());
+    }
+
+    @Test
+    public void shouldRejectSubmissionsBeyondTheBacklogAsAWhole() throws InterruptedException {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(10) + "}");
+        jiraProxy.setPollsUntilComplete(Integer.MAX_VALUE);
+        SyncJobService service = new SyncJobService(jiraSynchronizer, jobRegistry, syncExecutor, 2, 15);
+
+        try {
+            service.submitAll(List.of(request(10), request(10), request(10)));
+            fail("Expected the batch to be rejected");
+        } catch (SyncBacklogFullException e) {
+            assertEquals(15, e.getRetryAfterSeconds());
+        }
+        assertEquals(0, jobRegistry.size());
+
+        List<SyncJob> jobs = service.submitAll(List.of(request(10), request(10)));
+        try {
+            service.submit(request(10));
+            fail("Expected the job to be rejected");
+        } catch (SyncBacklogFullException e) {
+            assertEquals(2, jobRegistry.size());
+        }
+
+        jobs.forEach(job -> service.cancel(job.getId()));
+        for (SyncJob job : jobs) {
+            awaitFinished(job);
+        }
+        jiraProxy.setPollsUntilComplete(0);
+        SyncJob admitted = service.submit(request(10));
+        awaitFinished(admitted);
+        assertEquals(SyncJobStatus.SUCCEEDED, admitted.getStatus());
+    }
+
+    @Test
+    public void shouldFinishSmallPairsOfABatchWhileALargePairIsStillRunning() throws InterruptedException {
+        jiraProxy.setSearchIssuesResult("BIG", "{\"issues\":" + movableIssues(20000, 1500) + "}");
+        jiraProxy.setStalled("BIG-TARGET", true);
+        List<SyncTasksRequest> requests = new ArrayList<>();
+        requests.add(request("BIG", "BIG-TARGET", 1500));
+        for (int i = 0; i < 6; i++) {
+            jiraProxy.setSearchIssuesResult("SMALL" + i, "{\"issues\":" + movableIssues(30000 + i * 100, 10) + "}");
+            requests.add(request("SMALL" + i, "TARGET", 10));
+        }
+
+        List<SyncJob> jobs = syncJobService.submitAll(requests);
+        for (SyncJob small : jobs.subList(1, jobs.size())) {
+            awaitFinished(small);
+            assertEquals(SyncJobStatus.SUCCEEDED, small.getStatus());
+            assertEquals(10, small.getProgress().getIssuesMoved());
+        }
+        SyncJob big = jobs.get(0);
+        assertEquals(SyncJobStatus.RUNNING, big.getStatus());
+
+        jiraProxy.setStalled("BIG-TARGET", false);
+        awaitFinished(big);
+        assertEquals(SyncJobStatus.SUCCEEDED, big.getStatus());
+        assertEquals(1500, big.getProgress().getIssuesMoved());
+    }
+
+    private static SyncTasksRequest request(int maxIssuesToMove) {
+        return request("SRC", "TARGET", maxIssuesToMove);
+    }
+
+    private static SyncTasksRequest request(String sourceProjectKey, String targetProjectKey, int maxIssuesToMove) {
+        return SyncTasksRequest.builder()
+                .sourceProjectKey(sourceProjectKey)
+                .targetProjectKey(targetProjectKey)
+                .maxIssuesToMove(maxIssuesToMove)
+                .build();
+    }
+
+    private static void awaitFinished(SyncJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static JSONArray movableIssues(int count) {
+        return movableIssues(10000, count);
+    }
+
+    private static JSONArray movableIssues(int firstId, int count) {
+        JSONArray issues = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            issues.put(new JSONObject()
+                    .put("id", String.valueOf(firstId + i))
+                    .put("fields", new JSONObject().put("issuetype", new JSONObject().put("id", "10001"))));
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,178 @@
+package io.getint.recruitment_task.client.jira.journal;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.SyncRunInProgressException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SyncJournalTests {
+    private static final String RUN_KEY = "SRC->TARGET[]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldResumeChunksOfAnInterruptedRun() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200)) {
+            assertEquals(0, journal.recordChunk(request("TARGET,10001", 1L, 2L, 3L)));
+            assertEquals(1, journal.recordChunk(request("TARGET,10004", 4L, 5L, 6L)));
+            assertEquals(2, journal.recordChunk(request("TARGET,10001", 7L, 8L, 9L)));
+            journal.recordSubmitted(0, "task-0");
+            journal.recordSubmitted(1, "task-1");
+            journal.recordCompleted(0, BulkMoveResult.of(new long[]{1L, 2L}, Map.of(3L, List.of("No permission, 100%")), 0));
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200)) {
+            List<JournalChunk> chunks = journal.getReplayedChunks();
+            assertEquals(3, chunks.size());
+
+            assertEquals("task-0", chunks.get(0).getTaskId());
+            assertArrayEquals(new long[]{1L, 2L}, chunks.get(0).getResult().getMovedIssueIds());
+            assertEquals(List.of("No permission, 100%"), chunks.get(0).getResult().getFailedIssues().get(3L));
+
+            assertEquals("task-1", chunks.get(1).getTaskId());
+            assertNull(chunks.get(1).getResult());
+            assertEquals(List.of("4", "5", "6"), chunks.get(1).getRequest().getTargetToSourcesMapping().get("TARGET,10004").getIssueIdsOrKeys());
+
+            assertNull(chunks.get(2).getTaskId());
+            assertEquals(3, journal.recordChunk(request("TARGET,10001", 10L)));
+        }
+    }
+
+    @Test
+    public void shouldForceUnsyncedRecordsOnceTheIntervalHasPassed() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger forces = new AtomicInteger();
+        Executor forceExecutor = task -> {
+            forces.incrementAndGet();
+            task.run();
+        };
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 50, scheduler, forceExecutor)) {
+            journal.recordChunk(request("TARGET,10001", 1L));
+            journal.recordChunk(request("TARGET,10001", 2L));
+            journal.recordChunk(request("TARGET,10001", 3L));
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (forces.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, forces.get());
+
+            journal.recordChunk(request("TARGET,10001", 4L));
+            journal.recordSubmitted(3, "task-3");
+            Thread.sleep(150);
+            assertEquals(1, forces.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldDropTornTailAndStartOverForOtherRuns() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 1, 0)) {
+            journal.recordChunk(request("TARGET,10001", 1L, 2L, 3L));
+        }
+        Files.write(file, "0badc0de CHUNK 1 TARGET,10001=4".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 1, 0)) {
+            assertEquals(1, journal.getReplayedChunks().size());
+        }
+        try (SyncJournal journal = SyncJournal.open(file, "SRC->OTHER[]", 1, 0)) {
+            assertTrue(journal.getReplayedChunks().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldDeleteJournalOfFinishedRun() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200)) {
+            journal.recordChunk(request("TARGET,10001", 1L, 2L, 3L));
+            journal.complete();
+        }
+
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void shouldRejectSecondRunWhileJournalIsOpen() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200)) {
+            journal.recordChunk(request("TARGET,10001", 1L, 2L, 3L));
+            try {
+                SyncJournal.open(file, RUN_KEY, 32, 200);
+                fail("Expected the second run to be rejected");
+            } catch (SyncRunInProgressException e) {
+                assertTrue(e.getMessage().contains(RUN_KEY));
+            }
+            journal.recordSubmitted(0, "task-0");
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200)) {
+            assertEquals("task-0", journal.getReplayedChunks().get(0).getTaskId());
+        }
+    }
+
+    @Test
+    public void shouldKeepRecordsAppendedByInterruptedThreads() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 1, 0)) {
+            journal.recordChunk(request("TARGET,10001", 1L, 2L, 3L));
+            Thread.currentThread().interrupt();
+            try {
+                journal.recordSubmitted(0, "task-0");
+                journal.recordCompleted(0, BulkMoveResult.of(new long[]{1L, 2L, 3L}, Map.of(), 0));
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, RUN_KEY, 1, 0)) {
+            JournalChunk chunk = journal.getReplayedChunks().get(0);
+            assertEquals("task-0", chunk.getTaskId());
+            assertArrayEquals(new long[]{1L, 2L, 3L}, chunk.getResult().getMovedIssueIds());
+        }
+    }
+
+    @Test
+    public void shouldRejectRecordsAfterClose() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.journal");
+        SyncJournal journal = SyncJournal.open(file, RUN_KEY, 32, 200);
+        journal.recordChunk(request("TARGET,10001", 1L));
+        journal.close();
+
+        try {
+            journal.recordSubmitted(0, "task-0");
+            fail("Expected the record to be rejected");
+        } catch (JiraClientException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    private static BulkMoveTasksRequestDto request(String key, long... ids) {
+        return BulkMoveTasksRequestDto.builder()
+                .addTargetToSourcesMapping(key, BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                        .issueIdsOrKeys(new IssueIdList(ids))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package io.getint.recruitment_task.client.jira.metadata;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class TtlLruCacheTests {
+
+    @Test
+    public void shouldLoadOnceUntilInvalidated() {
+        TtlLruCache<String, Integer> cache = new TtlLruCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("SRC", key -> loads.incrementAndGet());
+        cache.get("SRC", key -> loads.incrementAndGet());
+        cache.invalidate("SRC");
+        cache.get("SRC", key -> loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void shouldReloadExpiredEntries() throws InterruptedException {
+        TtlLruCache<String, Integer> cache = new TtlLruCache<>(10, 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("SRC", key -> loads.incrementAndGet());
+        Thread.sleep(30);
+
+        assertEquals(2, (int) cache.get("SRC", key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedEntry() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(2, 60_000);
+        cache.get("A", key -> key);
+        cache.get("B", key -> key);
+        cache.get("A", key -> key);
+        cache.get("C", key -> key);
+
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.get("A", key -> "reloaded"));
+        assertEquals("C", cache.get("C", key -> "reloaded"));
+        assertEquals("reloaded", cache.get("B", key -> "reloaded"));
+    }
+}
@@ -0,0 +1,98 @@
+package io.getint.recruitment_task.client.jira.partitioning;
+
+import io.getint.recruitment_task.client.jira.builders.IssueJqlQueryBuilder;
+import io.getint.recruitment_task.client.jira.search.IssueBatch;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.search.IssuePageStream;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.getint.recruitment_task.client.jira.standin.StandInDataset;
+import io.getint.recruitment_task.client.jira.standin.StandInSyncHarness;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SearchPartitionerTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Supplier<IssueJqlQueryBuilder> filter = () -> new IssueJqlQueryBuilder().setProjectKey("SRC");
+
+    @Test
+    public void shouldPlanAdjacentPartitionsOfAboutTheTargetSizeNewestFirst() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 5_000, 3);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            SearchPartitioner partitioner = new SearchPartitioner("default", true, 2_000, 1_000, 16, 4);
+
+            List<IssueIdRange> partitions = partitioner.plan(harness.getBean(JiraProxy.class), filter, Runnable::run);
+
+            assertTrue("Expected several partitions, got " + partitions, partitions.size() >= 4);
+            assertEquals(Long.MAX_VALUE, partitions.get(0).getToId());
+            assertEquals(Long.MIN_VALUE, partitions.get(partitions.size() - 1).getFromId());
+            int issues = 0;
+            for (int i = 0; i < partitions.size(); i++) {
+                IssueIdRange partition = partitions.get(i);
+                if (i > 0) {
+                    assertEquals(partitions.get(i - 1).getFromId(), partition.getToId());
+                }
+                int partitionIssues = dataset.search("SRC", Set.of(), partition.getFromId(), partition.getToId(), false).length;
+                assertTrue("Partition " + partition + " holds " + partitionIssues + " issues", partitionIssues <= 1_500);
+                issues += partitionIssues;
+            }
+            assertEquals(5_000, issues);
+        }
+    }
+
+    @Test
+    public void shouldMergePartitionsIntoOneStreamInCreationOrder() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 3_000, 5);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraProxy proxy = harness.getBean(JiraProxy.class);
+            SearchPartitioner partitioner = new SearchPartitioner("default", true, 1_000, 500, 8, 2);
+            String jqlQuery = filter.get().setCreatedOrder(true).build();
+
+            long previousId = Long.MAX_VALUE;
+            int issues = 0;
+            try (IssuePageStream stream = partitioner.open(proxy, jqlQuery, filter, 2_900, new IssueSymbols(), () -> 0, executor,
+                    SearchProjection.ENUMERATION)) {
+                assertFalse(stream instanceof IssuePageCursor);
+                while (stream.hasNext()) {
+                    IssueBatch page = stream.next().getIssues();
+                    for (int i = 0; i < page.size(); i++) {
+                        assertTrue(page.getId(i) < previousId);
+                        previousId = page.getId(i);
+                        issues++;
+                    }
+                }
+            }
+
+            assertEquals(2_900, issues);
+            assertEquals(dataset.getIssueId(100), previousId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldNotPartitionSearchesBelowTheThreshold() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 800, 7);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            SearchPartitioner partitioner = new SearchPartitioner("default", true, 1_000, 100, 16, 4);
+
+            assertEquals(List.of(IssueIdRange.ALL), partitioner.plan(harness.getBean(JiraProxy.class), filter, Runnable::run));
+        }
+    }
+}
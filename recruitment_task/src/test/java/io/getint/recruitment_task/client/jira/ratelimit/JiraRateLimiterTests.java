@@ -0,0 +1,100 @@
+package io.getint.recruitment_task.client.jira.ratelimit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JiraRateLimiterTests {
+
+    private static JiraRateLimiter limiter() {
+        return new JiraRateLimiter(true, 10, 2, 10, 3);
+    }
+
+    private static HttpResponse response(int statusCode) {
+        return new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+    }
+
+    @Test
+    public void shouldHalveTheRateAndHonorRetryAfterWhenThrottled() throws InterruptedException {
+        JiraRateLimiter limiter = limiter();
+        HttpResponse throttled = response(429);
+        throttled.addHeader(JiraRateLimiter.RETRY_AFTER, "1");
+
+        limiter.onResponse(JiraEndpointClass.SEARCH, throttled);
+
+        assertEquals(2.5, limiter.getCurrentRates().get(JiraEndpointClass.SEARCH), 0.001);
+        assertEquals(1L, (long) limiter.getThrottledResponses().get(JiraEndpointClass.SEARCH));
+        assertEquals(0L, (long) limiter.getThrottledResponses().get(JiraEndpointClass.BULK_MOVE));
+
+        long start = System.nanoTime();
+        limiter.acquire(JiraEndpointClass.SEARCH);
+        assertTrue("Retry-After should pause the bucket", System.nanoTime() - start >= 900_000_000L);
+    }
+
+    @Test
+    public void shouldSlowDownWhenNearTheLimit() {
+        JiraRateLimiter limiter = limiter();
+        HttpResponse nearLimit = response(200);
+        nearLimit.addHeader(JiraRateLimiter.RATE_LIMIT_NEAR_LIMIT, "true");
+
+        limiter.onResponse(JiraEndpointClass.OTHER, nearLimit);
+
+        assertEquals(2.5, limiter.getCurrentRates().get(JiraEndpointClass.OTHER), 0.001);
+        assertEquals(0L, (long) limiter.getThrottledResponses().get(JiraEndpointClass.OTHER));
+    }
+
+    @Test
+    public void shouldRecoverAdditivelyUpToTheMaximum() {
+        JiraRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.onResponse(JiraEndpointClass.BULK_MOVE, response(200));
+        }
+
+        assertEquals(2.0, limiter.getCurrentRates().get(JiraEndpointClass.BULK_MOVE), 0.001);
+    }
+
+    @Test
+    public void shouldNotGoBelowTheMinimumRate() {
+        JiraRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onResponse(JiraEndpointClass.SEARCH, response(503));
+        }
+
+        assertEquals(0.5, limiter.getCurrentRates().get(JiraEndpointClass.SEARCH), 0.001);
+    }
+
+    @Test
+    public void shouldHandOutAsyncPermitsInOrderAtTheCurrentRate() throws Exception {
+        JiraRateLimiter limiter = limiter();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ConcurrentLinkedQueue<Integer> order = new ConcurrentLinkedQueue<>();
+            List<CompletableFuture<Void>> permits = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                int index = i;
+                permits.add(limiter.acquireAsync(JiraEndpointClass.SEARCH, scheduler).thenRun(() -> order.add(index)));
+            }
+            CompletableFuture.allOf(permits.toArray(CompletableFuture<?>[]::new)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of(0, 1, 2, 3), new ArrayList<>(order));
+            assertTrue("Three permits at 5/s should take about 600 ms", System.nanoTime() - start >= 500_000_000L);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
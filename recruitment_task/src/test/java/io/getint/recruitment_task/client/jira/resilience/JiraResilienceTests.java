@@ -0,0 +1,170 @@
+package io.getint.recruitment_task.client.jira.resilience;
+
+import io.getint.recruitment_task.client.jira.exceptions.JiraCircuitOpenException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraCommunicationException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraConnectionPoolExhaustedException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraRateLimitException;
+import io.getint.recruitment_task.client.jira.exceptions.JiraServerException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JiraResilienceTests {
+
+    private static JiraResilience resilience(int breakerFailureThreshold, long breakerOpenMillis) {
+        return new JiraResilience(3, 1, 5, breakerFailureThreshold, breakerOpenMillis);
+    }
+
+    @Test
+    public void shouldRetryIdempotentCallsOnTransientFailures() {
+        JiraResilience resilience = resilience(10, 1000);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = resilience.execute("GET /search", true, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new JiraServerException("HTTP 502");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, resilience.getRetries());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void shouldRetryNonIdempotentCallsOnlyWhenTheRequestWasNotSent() {
+        JiraResilience resilience = resilience(10, 1000);
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            resilience.execute("POST /bulk", false, () -> {
+                calls.incrementAndGet();
+                throw new JiraCommunicationException("read timed out", new IOException("Read timed out"));
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (JiraCommunicationException e) {
+            assertEquals(1, calls.get());
+        }
+
+        calls.set(0);
+        String result = resilience.execute("POST /bulk", false, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new JiraCommunicationException("refused", new ConnectException("Connection refused"));
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        JiraResilience resilience = resilience(1, 1000);
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            resilience.execute("GET /search", true, () -> {
+                calls.incrementAndGet();
+                throw new JiraClientException("HTTP 400");
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (JiraClientException e) {
+            assertEquals(1, calls.get());
+            assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+        }
+    }
+
+    @Test
+    public void shouldFailFastWhileOpenAndCloseAfterASuccessfulTrial() throws InterruptedException {
+        JiraResilience resilience = resilience(3, 50);
+        try {
+            resilience.execute("GET /search", true, () -> {
+                throw new JiraServerException("HTTP 500");
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (JiraServerException e) {
+            assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker().getState());
+        }
+
+        try {
+            resilience.execute("GET /search", true, () -> "ok");
+            fail("Expected the breaker to reject the call");
+        } catch (JiraCircuitOpenException e) {
+            assertEquals(1, resilience.getRejectedCalls());
+        }
+
+        Thread.sleep(60);
+        assertEquals("ok", resilience.execute("GET /search", true, () -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void shouldNotCountThrottlingAgainstTheBreaker() {
+        JiraResilience resilience = resilience(1, 1000);
+
+        try {
+            resilience.execute("POST /bulk", false, () -> {
+                throw new JiraRateLimitException("HTTP 429");
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (JiraRateLimitException e) {
+            assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+            assertEquals(0, resilience.getRetries());
+        }
+    }
+
+    @Test
+    public void shouldReleaseTheTrialWhenItFailsUnexpectedly() throws InterruptedException {
+        JiraResilience resilience = resilience(3, 50);
+        try {
+            resilience.execute("GET /search", true, () -> {
+                throw new JiraServerException("HTTP 500");
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (JiraServerException e) {
+            assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker().getState());
+        }
+
+        Thread.sleep(60);
+        try {
+            resilience.execute("GET /search", true, () -> {
+                throw new DateTimeParseException("Unparseable date", "yesterday", 0);
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (DateTimeParseException e) {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, resilience.getCircuitBreaker().getState());
+        }
+
+        assertEquals("ok", resilience.execute("GET /search", true, () -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void shouldNotCountLocalConnectionPoolExhaustionAgainstTheBreaker() {
+        JiraResilience resilience = resilience(1, 1000);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                resilience.execute("POST /bulk", false, () -> {
+                    calls.incrementAndGet();
+                    throw new JiraConnectionPoolExhaustedException("No JIRA connection became free within 10 ms", null);
+                });
+                fail("Expected the failure to be rethrown");
+            } catch (JiraConnectionPoolExhaustedException e) {
+                assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+            }
+        }
+        assertEquals(3, calls.get());
+        assertEquals(0, resilience.getRetries());
+    }
+}
@@ -0,0 +1,85 @@
+package io.getint.recruitment_task.client.jira.scheduling;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WeightedSlotSchedulerTests {
+
+    @Test
+    public void shouldGrantFreedSlotsInProportionToTheLaneWeights() throws InterruptedException {
+        WeightedSlotScheduler scheduler = new WeightedSlotScheduler(1);
+        scheduler.lane("holder", 1).acquire();
+        WeightedSlotScheduler.Lane heavy = scheduler.lane("heavy", 3);
+        WeightedSlotScheduler.Lane light = scheduler.lane("light", 1);
+        List<String> grants = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            waiters.add(startWaiter(heavy, grants));
+            waiters.add(startWaiter(light, grants));
+        }
+        awaitCondition(() -> scheduler.getWaiting() == 8);
+
+        for (int granted = 1; granted <= 4; granted++) {
+            scheduler.release();
+            int expected = granted;
+            awaitCondition(() -> grants.size() == expected);
+        }
+
+        assertEquals(3, Collections.frequency(grants, "heavy"));
+        assertEquals(1, Collections.frequency(grants, "light"));
+        waiters.forEach(Thread::interrupt);
+    }
+
+    @Test
+    public void shouldNotHoldASlotForAnInterruptedWaiter() throws InterruptedException {
+        WeightedSlotScheduler scheduler = new WeightedSlotScheduler(1);
+        scheduler.lane("holder", 1).acquire();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                scheduler.lane("waiter", 1).acquire();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        waiter.start();
+        awaitCondition(() -> scheduler.getWaiting() == 1);
+
+        waiter.interrupt();
+        waiter.join(5_000);
+        scheduler.release();
+
+        assertTrue(interrupted.get());
+        assertEquals(0, scheduler.getWaiting());
+        scheduler.lane("next", 1).acquire();
+    }
+
+    private static Thread startWaiter(WeightedSlotScheduler.Lane lane, List<String> grants) {
+        Thread thread = new Thread(() -> {
+            try {
+                lane.acquire();
+                grants.add(lane.getName());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
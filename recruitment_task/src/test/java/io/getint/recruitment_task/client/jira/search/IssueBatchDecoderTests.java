@@ -0,0 +1,80 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IssueBatchDecoderTests {
+    private static final JiraJsonCodec JSON_CODEC = new JiraJsonCodec(false);
+
+    private static IssuePage decode(String json, IssueSymbols symbols) throws IOException {
+        return IssueBatchDecoder.decode(JSON_CODEC.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))), 0, symbols);
+    }
+
+    @Test
+    public void shouldDecodeIssuesIntoColumns() throws IOException {
+        IssueSymbols symbols = new IssueSymbols();
+        IssuePage page = decode("{\"expand\":\"names\",\"startAt\":100,\"maxResults\":2,\"total\":250,\"issues\":["
+                + "{\"id\":\"10001\",\"key\":\"SRC-1\",\"fields\":{\"summary\":\"A\",\"issuetype\":{\"id\":\"3\",\"name\":\"Task\",\"subtask\":false}}},"
+                + "{\"id\":\"10002\",\"key\":\"SRC-2\",\"fields\":{\"issuetype\":{\"id\":\"5\",\"subtask\":true},"
+                + "\"parent\":{\"id\":\"10001\",\"fields\":{\"summary\":\"A\"}}}}]}", symbols);
+
+        IssueBatch issues = page.getIssues();
+        assertEquals(100, page.getStartAt());
+        assertEquals(250, page.getTotal());
+        assertEquals(2, issues.size());
+
+        assertEquals(10001L, issues.getId(0));
+        assertEquals(3L, symbols.issueTypeId(issues.getIssueTypeCode(0)));
+        assertFalse(issues.hasFlag(0, IssueBatch.SUBTASK));
+        assertFalse(issues.hasFlag(0, IssueBatch.HAS_PARENT));
+
+        assertEquals(10002L, issues.getId(1));
+        assertEquals(5L, symbols.issueTypeId(issues.getIssueTypeCode(1)));
+        assertTrue(issues.hasFlag(1, IssueBatch.SUBTASK));
+        assertEquals(10001L, symbols.parentId(issues.getParentCode(1)));
+    }
+
+    @Test
+    public void shouldShareIssueTypeCodesAcrossPages() throws IOException {
+        IssueSymbols symbols = new IssueSymbols();
+        String json = "{\"issues\":[{\"id\":\"1\",\"fields\":{\"issuetype\":{\"id\":\"7\"}}}]}";
+
+        IssueBatch first = decode(json, symbols).getIssues();
+        IssueBatch second = decode(json, symbols).getIssues();
+
+        assertEquals(first.getIssueTypeCode(0), second.getIssueTypeCode(0));
+        assertEquals(IssuePage.UNKNOWN_TOTAL, decode(json, symbols).getTotal());
+    }
+
+    @Test
+    public void shouldKeepIssuesWithoutFieldsFlagged() throws IOException {
+        IssueBatch issues = decode("{\"issues\":[{\"id\":\"123\",\"type\":\"Bug\"}]}", new IssueSymbols()).getIssues();
+
+        assertEquals(1, issues.size());
+        assertFalse(issues.hasFlag(0, IssueBatch.HAS_FIELDS));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonNumericIds() throws IOException {
+        decode("{\"issues\":[{\"id\":\"SRC-1\"}]}", new IssueSymbols());
+    }
+
+    @Test
+    public void shouldDecodeUpdatedTimestamps() throws IOException {
+        IssueBatch issues = decode("{\"issues\":["
+                + "{\"id\":\"1\",\"fields\":{\"updated\":\"2024-01-15T10:23:45.123+0100\"}},"
+                + "{\"id\":\"2\",\"fields\":{\"updated\":\"yesterday\"}}]}", new IssueSymbols()).getIssues();
+
+        assertTrue(issues.hasFlag(0, IssueBatch.HAS_UPDATED));
+        assertEquals(1705310625123L, issues.getUpdatedMillis(0));
+        assertFalse(issues.hasFlag(1, IssueBatch.HAS_UPDATED));
+    }
+}
@@ -0,0 +1,19 @@
+package io.getint.recruitment_task.client.jira.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchProjectionTests {
+
+    @Test
+    public void shouldSendFieldsAsACommaSeparatedList() {
+        assertEquals("issuetype,parent", SearchProjection.ENUMERATION.toParameter());
+        assertEquals("issuetype,parent,updated", SearchProjection.ENUMERATION.with("updated", "parent").toParameter());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFieldsThatWouldSplitTheList() {
+        SearchProjection.of("summary,status");
+    }
+}
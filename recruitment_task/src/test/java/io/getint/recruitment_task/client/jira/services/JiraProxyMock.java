@@ -1,22 +1,74 @@
 package io.getint.recruitment_task.client.jira.services;
 
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.concurrency.ConnectionLeaseGate;
 import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeStatusesDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
 import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.httpcache.JiraResponseCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.IssueBatchDecoder;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.wirelog.WireLogPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class JiraProxyMock extends JiraProxy {
+    private static final JiraJsonCodec JSON_CODEC = new JiraJsonCodec(false);
+    private static final Pattern PROJECT_CLAUSE = Pattern.compile("project=(\\S+)");
 
     private String searchIssuesResult = "{\"issues\":[]}";
-    private String moveIssuesBulkResult = "{\"status\": \"success\"}";
+    private final Map<String, String> projectSearchResults = new ConcurrentHashMap<>();
+    private final Set<String> stalledTargetProjects = ConcurrentHashMap.newKeySet();
+    private String moveIssuesBulkResult;
     private Exception exceptionToThrow;
+    private int pollsUntilComplete;
+    private int submissionsUntilComplete;
+    private final Set<Long> failingIssueIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> movedIssueIds = ConcurrentHashMap.newKeySet();
+    private final List<Integer> searchOffsets = new ArrayList<>();
+    private final List<BulkMoveTasksRequestDto> bulkMoveRequests = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, AtomicInteger> pollsPerTask = new ConcurrentHashMap<>();
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    private final AtomicInteger maxRunningTasks = new AtomicInteger();
+    private final Map<String, ProjectDto> projects = new ConcurrentHashMap<>();
+    private final AtomicInteger metadataCalls = new AtomicInteger();
+    private volatile String lastJqlQuery;
+    private volatile SearchProjection lastProjection;
 
     public JiraProxyMock() {
-        super(null, null); // Nie używamy httpClient ani httpRequestFactory
+        super(null, null, ForkJoinPool.commonPool(), JSON_CODEC, null, null, new JiraMetrics(new SimpleMeterRegistry()), WireLogPolicy.off(), ConnectionLeaseGate.open(), JiraResponseCache.disabled()); // Nie używamy httpClient ani httpRequestFactory
     }
 
     public void setSearchIssuesResult(String result) {
         this.searchIssuesResult = result;
     }
 
+    public void setSearchIssuesResult(String projectKey, String result) {
+        projectSearchResults.put(projectKey, result);
+    }
+
     public void setMoveIssuesBulkResult(String result) {
         this.moveIssuesBulkResult = result;
     }
@@ -25,15 +77,116 @@ public class JiraProxyMock extends JiraProxy {
         this.exceptionToThrow = exception;
     }
 
+    public void setPollsUntilComplete(int polls) {
+        this.pollsUntilComplete = polls;
+    }
+
+    public void setSubmissionsUntilComplete(int submissions) {
+        this.submissionsUntilComplete = submissions;
+    }
+
+    public void setStalled(String targetProjectKey, boolean stalled) {
+        if (stalled) {
+            stalledTargetProjects.add(targetProjectKey);
+        } else {
+            stalledTargetProjects.remove(targetProjectKey);
+        }
+    }
+
+    public void addFailingIssueId(long issueId) {
+        failingIssueIds.add(issueId);
+    }
+
+    public void setProject(ProjectDto project) {
+        projects.put(project.getKey(), project);
+    }
+
+    public int getMetadataCalls() {
+        return metadataCalls.get();
+    }
+
+    public String getLastJqlQuery() {
+        return lastJqlQuery;
+    }
+
+    public SearchProjection getLastProjection() {
+        return lastProjection;
+    }
+
+    public int getMaxRunningTasks() {
+        return maxRunningTasks.get();
+    }
+
+    public List<Integer> getSearchOffsets() {
+        return searchOffsets;
+    }
+
+    public List<BulkMoveTasksRequestDto> getBulkMoveRequests() {
+        return bulkMoveRequests;
+    }
+
     @Override
-    public String searchIssues(String jqlQuery, int maxIssuesToMove) throws JiraClientException {
+    public String searchIssues(String jqlQuery, int startAt, int maxResults) throws JiraClientException {
         if (exceptionToThrow != null) {
             if (exceptionToThrow instanceof JiraClientException)
                 throw (JiraClientException) exceptionToThrow;
             else
                 throw new RuntimeException(exceptionToThrow);
         }
-        return searchIssuesResult;
+        synchronized (searchOffsets) {
+            searchOffsets.add(startAt);
+        }
+        lastJqlQuery = jqlQuery;
+        Matcher project = PROJECT_CLAUSE.matcher(jqlQuery);
+        String result = project.find() ? projectSearchResults.getOrDefault(project.group(1), searchIssuesResult) : searchIssuesResult;
+        // Moved issues leave the source project, and with it the search results, like in JIRA
+        JSONArray allIssues = new JSONArray();
+        for (Object issue : new JSONObject(result).getJSONArray("issues")) {
+            if (!movedIssueIds.contains(((JSONObject) issue).optString("id"))) {
+                allIssues.put(issue);
+            }
+        }
+        JSONArray page = new JSONArray();
+        for (int i = startAt; i < Math.min(allIssues.length(), startAt + maxResults); i++) {
+            page.put(allIssues.get(i));
+        }
+        return new JSONObject()
+                .put("startAt", startAt)
+                .put("maxResults", maxResults)
+                .put("total", allIssues.length())
+                .put("issues", page)
+                .toString();
+    }
+
+    @Override
+    public IssuePage searchIssuesPage(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols,
+                                      SearchProjection projection) throws JiraClientException {
+        lastProjection = projection;
+        byte[] body = searchIssues(jqlQuery, startAt, maxResults).getBytes(StandardCharsets.UTF_8);
+        try {
+            return IssueBatchDecoder.decode(JSON_CODEC.createParser(new ByteArrayInputStream(body)), startAt, symbols);
+        } catch (IOException e) {
+            throw new JiraClientException("Malformed search response", e);
+        }
+    }
+
+    @Override
+    public ProjectDto getProject(String projectKey) throws JiraClientException {
+        metadataCalls.incrementAndGet();
+        return projects.getOrDefault(projectKey, ProjectDto.builder()
+                .id("1")
+                .key(projectKey)
+                .issueTypes(List.of(
+                        IssueTypeDto.builder().id("10001").name("Task").build(),
+                        IssueTypeDto.builder().id("10003").name("Sub-task").subtask(true).build(),
+                        IssueTypeDto.builder().id("10004").name("Bug").build()))
+                .build());
+    }
+
+    @Override
+    public List<IssueTypeStatusesDto> getProjectStatuses(String projectKey) throws JiraClientException {
+        metadataCalls.incrementAndGet();
+        return List.of();
     }
 
     @Override
@@ -44,6 +197,55 @@ public class JiraProxyMock extends JiraProxy {
             else
                 throw new RuntimeException(exceptionToThrow);
         }
-        return moveIssuesBulkResult;
+        if (moveIssuesBulkResult != null) {
+            bulkMoveRequests.add(requestDto);
+            return moveIssuesBulkResult;
+        }
+        String taskId;
+        synchronized (bulkMoveRequests) {
+            taskId = String.valueOf(bulkMoveRequests.size());
+            bulkMoveRequests.add(requestDto);
+        }
+        pollsPerTask.put(taskId, new AtomicInteger());
+        maxRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+        return "{\"taskId\":\"" + taskId + "\"}";
+    }
+
+    @Override
+    public BulkTaskProgressDto getBulkTaskProgress(String taskId) throws JiraClientException {
+        BulkMoveTasksRequestDto request = bulkMoveRequests.get(Integer.parseInt(taskId));
+        if (pollsPerTask.get(taskId).incrementAndGet() <= pollsUntilComplete || bulkMoveRequests.size() < submissionsUntilComplete
+                || isStalled(request)) {
+            return BulkTaskProgressDto.builder().taskId(taskId).status(BulkTaskProgressDto.Status.RUNNING).build();
+        }
+        runningTasks.decrementAndGet();
+        Map<String, List<String>> failed = new HashMap<>();
+        List<Long> processed = new ArrayList<>();
+        for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : request.getTargetToSourcesMapping().values()) {
+            for (String id : mapping.getIssueIdsOrKeys()) {
+                if (failingIssueIds.contains(Long.parseLong(id))) {
+                    failed.put(id, List.of("Issue cannot be moved"));
+                } else {
+                    processed.add(Long.parseLong(id));
+                    movedIssueIds.add(id);
+                }
+            }
+        }
+        return BulkTaskProgressDto.builder()
+                .taskId(taskId)
+                .status(BulkTaskProgressDto.Status.COMPLETE)
+                .progressPercent(100)
+                .processedAccessibleIssues(processed.stream().mapToLong(Long::longValue).toArray())
+                .failedAccessibleIssues(failed)
+                .build();
+    }
+
+    private boolean isStalled(BulkMoveTasksRequestDto request) {
+        for (String key : request.getTargetToSourcesMapping().keySet()) {
+            if (stalledTargetProjects.contains(key.substring(0, key.indexOf(',')))) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
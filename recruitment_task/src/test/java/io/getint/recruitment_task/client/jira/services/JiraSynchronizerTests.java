@@ -1,22 +1,74 @@
 package io.getint.recruitment_task.client.jira.services;
 
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScopes;
+import io.getint.recruitment_task.client.jira.copy.CopiedIssueIndex;
+import io.getint.recruitment_task.client.jira.copy.JiraIssueCopier;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
 import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.journal.SyncJournal;
+import io.getint.recruitment_task.client.jira.journal.SyncJournalFactory;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.watermark.WatermarkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class JiraSynchronizerTests {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private JiraProxyMock jiraProxy;
     private JiraSynchronizer jiraSynchronizer;
+    private ScheduledExecutorService scheduler;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Before
     public void setup() {
         jiraProxy = new JiraProxyMock();
-        jiraSynchronizer = new JiraSynchronizer(jiraProxy);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService ioExecutor = Executors.newCachedThreadPool();
+        BulkTaskTracker bulkTaskTracker = new BulkTaskTracker(scheduler, 1, 5, 10_000);
+        RunTaskScopes taskScopes = new RunTaskScopes(ioExecutor);
+        JiraMetrics metrics = new JiraMetrics(meterRegistry);
+        jiraSynchronizer = new JiraSynchronizer(JiraInstanceRegistry.single(jiraProxy, new JiraMetadataCache(jiraProxy, 100, 60_000)), bulkTaskTracker,
+                new WatermarkStore(temporaryFolder.getRoot().toPath().resolve("watermarks.properties").toString()),
+                new SyncJournalFactory(true, temporaryFolder.getRoot().toPath().resolve("journal").toString(), 32, 200, null, null),
+                new MovedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("moved-index").toString()),
+                metrics, taskScopes, new JiraIssueCopier(metrics, taskScopes,
+                new CopiedIssueIndex(true, temporaryFolder.getRoot().toPath().resolve("copied-index").toString()), 50, 4, 8));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
     }
 
     @Test
@@ -102,4 +154,298 @@ public class JiraSynchronizerTests {
         jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of("Bug"));
         // Assertions to ensure only "Bug" type issues are processed
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFetchAllPagesOfSearchResults() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(250) + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 250, List.of("Task"));
+
+        assertEquals(List.of(0, 100, 200), jiraProxy.getSearchOffsets());
+        assertEquals(1, jiraProxy.getBulkMoveRequests().size());
+        assertEquals(250, jiraProxy.getBulkMoveRequests().get(0)
+                .getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys().size());
+    }
+
+    @Test
+    public void shouldSplitPagesIntoBulkOperationsAndRespectLimit() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(1500) + "}");
+        jiraProxy.setSubmissionsUntilComplete(2);
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 1200, List.of("Task"));
+
+        assertEquals(12, jiraProxy.getSearchOffsets().size());
+        assertEquals(2, jiraProxy.getBulkMoveRequests().size());
+        assertEquals(1000, jiraProxy.getBulkMoveRequests().get(0)
+                .getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys().size());
+        assertEquals(200, jiraProxy.getBulkMoveRequests().get(1)
+                .getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys().size());
+    }
+
+    @Test
+    public void shouldFindIssuesShiftedByMovesDuringSearch() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(5500) + "}");
+
+        BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 5500, List.of("Task"));
+
+        Set<String> submitted = new HashSet<>();
+        int submissions = 0;
+        for (BulkMoveTasksRequestDto request : jiraProxy.getBulkMoveRequests()) {
+            List<String> ids = request.getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys();
+            submitted.addAll(ids);
+            submissions += ids.size();
+        }
+        assertEquals(5500, result.getMovedCount());
+        assertEquals(5500, submitted.size());
+        assertEquals(5500, submissions);
+    }
+
+    @Test
+    public void shouldEnumerateIssuesWithOnlyTheFieldsOfTheMappingKeys() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(3) + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(SearchProjection.ENUMERATION, jiraProxy.getLastProjection());
+    }
+
+    @Test
+    public void shouldRecordIssueMetrics() {
+        JSONArray issues = movableIssues(3);
+        issues.put(new JSONObject().put("id", "999"));
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(4, meterRegistry.get(JiraMetrics.SYNC_ISSUES).tag("outcome", "fetched").counter().count(), 0);
+        assertEquals(1, meterRegistry.get(JiraMetrics.SYNC_ISSUES).tags("outcome", "skipped", "reason", "no-fields").counter().count(), 0);
+        assertEquals(3, meterRegistry.get(JiraMetrics.SYNC_ISSUES).tag("outcome", "moved").counter().count(), 0);
+        assertEquals(1, meterRegistry.get(JiraMetrics.SYNC_RUNS).tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(JiraMetrics.SYNC_STAGE).tag("stage", "payload").timer().count());
+    }
+
+    @Test
+    public void shouldResumeInterruptedRunFromJournal() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(1200) + "}");
+        SyncJournalFactory journalFactory = new SyncJournalFactory(true, temporaryFolder.getRoot().toPath().resolve("journal").toString(), 32, 200, null, null);
+        long[] movedIds = new long[1000];
+        for (int i = 0; i < movedIds.length; i++) {
+            movedIds[i] = 10000 + i;
+        }
+        try (SyncJournal journal = journalFactory.open(WatermarkStore.key("SRC", "TARGET", List.of("Task")))) {
+            BulkMoveTasksRequestDto firstChunk = BulkMoveTasksRequestDto.builder()
+                    .addTargetToSourcesMapping("TARGET,10001", BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                            .issueIdsOrKeys(new IssueIdList(movedIds))
+                            .build())
+                    .build();
+            int sequence = journal.recordChunk(firstChunk);
+            journal.recordSubmitted(sequence, "earlier-task");
+            journal.recordCompleted(sequence, BulkMoveResult.of(movedIds, Map.of(), 0));
+        }
+
+        BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 1200, List.of("Task"));
+
+        assertEquals(1, jiraProxy.getBulkMoveRequests().size());
+        List<String> resubmitted = jiraProxy.getBulkMoveRequests().get(0).getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys();
+        assertEquals(200, resubmitted.size());
+        assertEquals("11000", resubmitted.get(0));
+        assertEquals(1200, result.getMovedCount());
+        assertEquals(2, result.getCompletedTasks());
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 1200, List.of("Task"));
+        assertEquals(1, jiraProxy.getBulkMoveRequests().size());
+    }
+
+    @Test
+    public void shouldNotResubmitIssuesAlreadyMoved() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(5) + "}");
+        jiraProxy.addFailingIssueId(10002);
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(7) + "}");
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(2, jiraProxy.getBulkMoveRequests().size());
+        assertEquals(List.of("10002", "10005", "10006"), jiraProxy.getBulkMoveRequests().get(1)
+                .getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys());
+    }
+
+    @Test
+    public void shouldKeySubtasksByParent() {
+        JSONArray issues = movableIssues(2);
+        JSONObject subtaskType = new JSONObject().put("id", "10003").put("subtask", true);
+        issues.put(new JSONObject().put("id", "20001").put("fields", new JSONObject()
+                .put("issuetype", subtaskType).put("parent", new JSONObject().put("id", "10000"))));
+        issues.put(new JSONObject().put("id", "20002").put("fields", new JSONObject().put("issuetype", subtaskType)));
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(2, jiraProxy.getBulkMoveRequests().size());
+        assertEquals(List.of("10000", "10001"), jiraProxy.getBulkMoveRequests().get(0).getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys());
+        assertEquals(List.of("20001"), jiraProxy.getBulkMoveRequests().get(1).getTargetToSourcesMapping().get("TARGET,10003,10000").getIssueIdsOrKeys());
+    }
+
+    @Test
+    public void shouldMoveSubtasksOnlyOnceTheBulkTaskOfTheirParentFinished() {
+        JSONArray issues = new JSONArray();
+        for (int i = 0; i < 40; i++) {
+            issues.put(subtask(20000 + i, 10000 + i % 4));
+        }
+        movableIssues(4).forEach(issues::put);
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+        jiraProxy.setPollsUntilComplete(2);
+
+        BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(44, result.getMovedCount());
+        List<BulkMoveTasksRequestDto> requests = jiraProxy.getBulkMoveRequests();
+        Map<String, Integer> requestOfIssue = new HashMap<>();
+        for (int request = 0; request < requests.size(); request++) {
+            for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requests.get(request).getTargetToSourcesMapping().values()) {
+                for (String id : mapping.getIssueIdsOrKeys()) {
+                    requestOfIssue.put(id, request);
+                }
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            assertTrue(requestOfIssue.get(String.valueOf(20000 + i)) > requestOfIssue.get(String.valueOf(10000 + i % 4)));
+        }
+    }
+
+    @Test
+    public void shouldReportSubtasksOfParentsThatWereNotMoved() {
+        JSONArray issues = new JSONArray();
+        issues.put(subtask(20000, 10000));
+        issues.put(subtask(20001, 10001));
+        movableIssues(2).forEach(issues::put);
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+        jiraProxy.addFailingIssueId(10000);
+
+        BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        assertEquals(2, result.getMovedCount());
+        assertEquals(List.of("Parent issue 10000 was not moved"), result.getFailedIssues().get(20000L));
+        assertTrue(jiraProxy.getBulkMoveRequests().stream()
+                .noneMatch(request -> request.getTargetToSourcesMapping().containsKey("TARGET,10003,10000")));
+    }
+
+    @Test
+    public void shouldRunBulkTasksConcurrentlyAndAggregateResults() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(3500) + "}");
+        jiraProxy.setPollsUntilComplete(3);
+        jiraProxy.setSubmissionsUntilComplete(4);
+        jiraProxy.addFailingIssueId(10005);
+
+        BulkMoveResult result = jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 3500, List.of());
+
+        assertEquals(4, jiraProxy.getBulkMoveRequests().size());
+        assertEquals(4, jiraProxy.getMaxRunningTasks());
+        assertEquals(4, result.getCompletedTasks());
+        assertEquals(3499, result.getMovedCount());
+        assertEquals(List.of("Issue cannot be moved"), result.getFailedIssues().get(10005L));
+    }
+
+    @Test(expected = JiraClientException.class)
+    public void shouldFailWhenBulkMoveResponseHasNoTaskId() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(10) + "}");
+        jiraProxy.setMoveIssuesBulkResult("{\"status\": \"success\"}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 10, List.of());
+    }
+
+    @Test
+    public void shouldResolveIssueTypeNamesToIds() {
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of("bug", "Sub-task"));
+
+        assertEquals("project=SRC AND issuetype in (10004, 10003) ORDER BY created DESC", jiraProxy.getLastJqlQuery());
+    }
+
+    @Test(expected = JiraClientException.class)
+    public void shouldRejectUnknownIssueTypeNames() {
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of("Epic"));
+    }
+
+    @Test
+    public void shouldMakeNoMetadataCallsOnRepeatedSyncs() {
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + movableIssues(10) + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 10, List.of("Task"));
+        int metadataCalls = jiraProxy.getMetadataCalls();
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 10, List.of("Task"));
+
+        assertEquals(4, metadataCalls);
+        assertEquals(4, jiraProxy.getMetadataCalls());
+    }
+
+    @Test
+    public void shouldMapIssueTypesToTargetProjectByName() {
+        jiraProxy.setProject(ProjectDto.builder().id("2").key("TARGET").issueTypes(List.of(
+                IssueTypeDto.builder().id("20001").name("Task").build())).build());
+        JSONArray issues = movableIssues(2);
+        issues.put(new JSONObject().put("id", "30001").put("fields", new JSONObject()
+                .put("issuetype", new JSONObject().put("id", "10004").put("subtask", false))));
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+
+        jiraSynchronizer.moveTasksToOtherProject("SRC", "TARGET", 50, List.of());
+
+        BulkMoveTasksRequestDto requestDto = jiraProxy.getBulkMoveRequests().get(0);
+        assertEquals(1, requestDto.getTargetToSourcesMapping().size());
+        assertEquals(List.of("10000", "10001"), requestDto.getTargetToSourcesMapping().get("TARGET,20001").getIssueIdsOrKeys());
+    }
+
+    @Test
+    public void shouldSyncOnlyIssuesUpdatedAfterTheWatermark() {
+        SyncTasksRequest request = SyncTasksRequest.builder()
+                .sourceProjectKey("SRC")
+                .targetProjectKey("TARGET")
+                .maxIssuesToMove(50)
+                .incremental(true)
+                .build();
+        JSONArray issues = new JSONArray();
+        issues.put(updatedIssue(1, "2024-01-15T10:00:00.000+0000"));
+        issues.put(updatedIssue(3, "2024-01-15T10:05:00.000+0000"));
+        issues.put(updatedIssue(2, "2024-01-15T10:05:00.000+0000"));
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+        jiraProxy.addFailingIssueId(2);
+
+        jiraSynchronizer.moveTasksToOtherProject(request, new SyncProgress());
+        assertEquals("project=SRC ORDER BY updated ASC", jiraProxy.getLastJqlQuery());
+        assertEquals("issuetype,parent,updated", jiraProxy.getLastProjection().toParameter());
+
+        issues.put(updatedIssue(4, "2024-01-15T10:06:00.000+0000"));
+        jiraProxy.setSearchIssuesResult("{\"issues\":" + issues + "}");
+        jiraSynchronizer.moveTasksToOtherProject(request, new SyncProgress());
+
+        // The failed issue 2 keeps the watermark at issue 1; issue 3 updated at the same time is found again
+        // but dropped by the moved issue index
+        assertTrue(jiraProxy.getLastJqlQuery().matches("project=SRC AND updated >= \"-\\d+m\" ORDER BY updated ASC"));
+        assertEquals(List.of("2", "4"), jiraProxy.getBulkMoveRequests().get(1)
+                .getTargetToSourcesMapping().get("TARGET,10001").getIssueIdsOrKeys());
+    }
+
+    private static JSONObject updatedIssue(int id, String updated) {
+        return new JSONObject()
+                .put("id", String.valueOf(id))
+                .put("fields", new JSONObject()
+                        .put("issuetype", new JSONObject().put("id", "10001").put("subtask", false))
+                        .put("updated", updated));
+    }
+
+    private static JSONObject subtask(long id, long parentId) {
+        return new JSONObject().put("id", String.valueOf(id)).put("fields", new JSONObject()
+                .put("issuetype", new JSONObject().put("id", "10003").put("subtask", true))
+                .put("parent", new JSONObject().put("id", String.valueOf(parentId))));
+    }
+
+    private static JSONArray movableIssues(int count) {
+        JSONArray issues = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            JSONObject issueType = new JSONObject().put("id", "10001").put("subtask", false);
+            issues.put(new JSONObject()
+                    .put("id", String.valueOf(10000 + i))
+                    .put("fields", new JSONObject().put("issuetype", issueType)));
+        }
+        return issues;
+    }
+}
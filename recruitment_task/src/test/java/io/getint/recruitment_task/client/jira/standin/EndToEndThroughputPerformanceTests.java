@@ -0,0 +1,126 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * End-to-end throughput regression suite: full sync runs through the HTTP client stack against a
+ * {@link JiraStandInServer} holding 100k issues.
+ * <p>
+ * Every scenario reports issues per second and the server-side p50/p99 latency of each endpoint to
+ * {@code target/standin/}, and fails when it falls behind {@code standin/throughput-baseline.properties} by
+ * more than the tolerance given there. Excluded from the default build; run with
+ * {@code mvn -B test -Pperformance -Dtest=EndToEndThroughputPerformanceTests}. The issue count can be
+ * lowered with {@code -Dstandin.issueCount=...}, which skips the baseline checks.
+ */
+public class EndToEndThroughputPerformanceTests {
+    private static final int DEFAULT_ISSUE_COUNT = 100_000;
+    private static final String BASELINE = "/standin/throughput-baseline.properties";
+    private static final Path REPORT_DIRECTORY = Paths.get("target", "standin");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepThroughputOfFullSync() throws Exception {
+        runScenario("fullSync", harness -> {
+            harness.getServer().setLatencyMs(5);
+            harness.getServer().setBulkTaskDurationMs(250);
+        });
+    }
+
+    @Test
+    public void shouldKeepThroughputUnderThrottlingAndServerErrors() throws Exception {
+        runScenario("throttled", harness -> {
+            harness.getServer().setLatencyMs(5);
+            harness.getServer().setBulkTaskDurationMs(250);
+            harness.getServer().setThrottleRate(0.05);
+            harness.getServer().setServerErrorRate(0.01);
+        });
+    }
+
+    private void runScenario(String scenario, ScenarioSetup setup) throws Exception {
+        int issueCount = Integer.getInteger("standin.issueCount", DEFAULT_ISSUE_COUNT);
+        StandInDataset dataset = new StandInDataset("SRC", issueCount, 42);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath(),
+                "jira.resilience.maxAttempts=8", "jira.rateLimit.maxThrottleRetries=20")) {
+            setup.apply(harness);
+
+            long started = System.nanoTime();
+            BulkMoveResult result = harness.moveAll("TARGET", List.of());
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            assertEquals(issueCount, result.getMovedCount());
+            assertEquals(0, dataset.countInProject("SRC"));
+
+            JiraStandInServer server = harness.getServer();
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("scenario", scenario);
+            report.put("issueCount", issueCount);
+            report.put("seconds", seconds);
+            report.put("issuesPerSecond", issueCount / seconds);
+            report.put("throttledResponses", server.getThrottledResponses());
+            report.put("serverErrorResponses", server.getServerErrorResponses());
+            for (JiraStandInServer.Endpoint endpoint : JiraStandInServer.Endpoint.values()) {
+                LatencyRecorder latencies = server.getLatencies(endpoint);
+                Map<String, Object> endpointReport = new LinkedHashMap<>();
+                endpointReport.put("requests", latencies.getCount());
+                endpointReport.put("p50Ms", latencies.percentileMillis(50));
+                endpointReport.put("p99Ms", latencies.percentileMillis(99));
+                report.put(endpoint.name(), endpointReport);
+            }
+            writeReport(scenario, report);
+
+            if (issueCount == DEFAULT_ISSUE_COUNT) {
+                assertWithinBaseline(scenario, report);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertWithinBaseline(String scenario, Map<String, Object> report) throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = EndToEndThroughputPerformanceTests.class.getResourceAsStream(BASELINE)) {
+            baseline.load(in);
+        }
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance"));
+        double minIssuesPerSecond = Double.parseDouble(baseline.getProperty(scenario + ".issuesPerSecond")) * (1 - tolerance);
+        double issuesPerSecond = (double) report.get("issuesPerSecond");
+        assertTrue(String.format("%s: %.0f issues/s is below the baseline minimum of %.0f", scenario, issuesPerSecond, minIssuesPerSecond),
+                issuesPerSecond >= minIssuesPerSecond);
+        for (JiraStandInServer.Endpoint endpoint : List.of(JiraStandInServer.Endpoint.SEARCH, JiraStandInServer.Endpoint.BULK_MOVE)) {
+            double maxP99Ms = Double.parseDouble(baseline.getProperty(scenario + "." + endpoint.name() + ".p99Ms")) * (1 + tolerance);
+            double p99Ms = (double) ((Map<String, Object>) report.get(endpoint.name())).get("p99Ms");
+            assertTrue(String.format("%s: %s p99 of %.1f ms is above the baseline maximum of %.1f ms", scenario, endpoint, p99Ms, maxP99Ms),
+                    p99Ms <= maxP99Ms);
+        }
+    }
+
+    private static void writeReport(String scenario, Map<String, Object> report) throws IOException {
+        Files.createDirectories(REPORT_DIRECTORY);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(REPORT_DIRECTORY.resolve("throughput-" + scenario + ".json").toFile(), report);
+    }
+
+    @FunctionalInterface
+    private interface ScenarioSetup {
+        void apply(StandInSyncHarness harness);
+    }
+}
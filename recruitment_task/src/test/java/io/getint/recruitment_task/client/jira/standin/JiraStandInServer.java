@@ -0,0 +1,799 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process HTTP server standing in for JIRA Cloud, for tests that exercise the real HTTP client path.
+ * <p>
+ * It serves {@code /rest/api/3/search} paging, filtered by project, issue type and id range clauses, queued
+ * bulk moves with their progress endpoint, bulk issue creation, issue comments, statuses and transitions and
+ * project metadata over a {@link StandInDataset}. Created issues are kept apart from the dataset and are only
+ * returned by searches for their labels; they start in {@link StandInDataset#INITIAL_STATUS}, from which a transition leads to every
+ * other status of the dataset except {@link StandInDataset#UNREACHABLE_STATUS}. Project metadata carries an {@code ETag} and is answered with
+ * {@code 304 Not Modified} when the request already holds it. Latency, 429 and 5xx responses and the time bulk tasks take can be
+ * set at any time; latencies are recorded per endpoint as seen by the server.
+ */
+public class JiraStandInServer implements AutoCloseable {
+    private static final String SEARCH = "/rest/api/3/search";
+    private static final String BULK_MOVE = "/rest/api/3/bulk/issues/move";
+    private static final String BULK_QUEUE = "/rest/api/3/bulk/queue/";
+    private static final String PROJECT = "/rest/api/3/project/";
+    private static final String ISSUE = "/rest/api/3/issue/";
+    private static final String BULK_CREATE = "/rest/api/3/issue/bulk";
+    private static final Pattern ISSUE_COMMENTS = Pattern.compile("/rest/api/3/issue/(\\d+)/comment");
+    private static final Pattern ISSUE_TRANSITIONS = Pattern.compile("/rest/api/3/issue/(\\d+)/transitions");
+    private static final Pattern ISSUE_STATUS = Pattern.compile("/rest/api/3/issue/(\\d+)");
+    private static final Map<String, String> TRANSITIONS = Map.of("11", "In Progress", "31", "Done");
+    private static final long FIRST_CREATED_ISSUE_ID = 900_000L;
+    private static final int EMBEDDED_COMMENTS = 2;
+    private static final Pattern PROJECT_CLAUSE = Pattern.compile("project\\s*=\\s*\"?([A-Za-z0-9_]+)\"?");
+    private static final Pattern ISSUE_TYPE_CLAUSE = Pattern.compile("issuetype\\s+in\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LABELS_CLAUSE = Pattern.compile("labels\\s+in\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ID_CLAUSE = Pattern.compile("\\bid\\s*(>=|<)\\s*(\\d+)");
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ").withZone(ZoneOffset.UTC);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        // Responses are written as headers and body; without this every small one waits for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    /**
+     * Endpoints served by the stand-in, used to select recorded latencies.
+     */
+    public enum Endpoint {
+        SEARCH, BULK_MOVE, BULK_PROGRESS, PROJECT, ISSUE
+    }
+
+    private final StandInDataset dataset;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Endpoint, LatencyRecorder> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<String, BulkTask> bulkTasks = new ConcurrentHashMap<>();
+    private final AtomicLong taskIds = new AtomicLong();
+    private final Map<Long, CreatedIssue> createdIssues = new ConcurrentHashMap<>();
+    private final AtomicLong createdIssueIds = new AtomicLong(FIRST_CREATED_ISSUE_ID);
+    private final AtomicInteger throttledResponses = new AtomicInteger();
+    private final AtomicInteger serverErrorResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger lostCreateResponses = new AtomicInteger();
+    private final AtomicInteger failedCommentResponses = new AtomicInteger();
+
+    private volatile long latencyMs;
+    private volatile double throttleRate;
+    private volatile double serverErrorRate;
+    private volatile long bulkTaskDurationMs;
+
+    private JiraStandInServer(StandInDataset dataset, int threads) throws IOException {
+        this.dataset = dataset;
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new LatencyRecorder());
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stand-in on a free loopback port.
+     *
+     * @param dataset the issues to serve
+     * @return the running server
+     * @throws IOException if the server cannot be bound
+     */
+    public static JiraStandInServer start(StandInDataset dataset) throws IOException {
+        JiraStandInServer standIn = new JiraStandInServer(dataset, 32);
+        standIn.server.start();
+        return standIn;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public StandInDataset getDataset() {
+        return dataset;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * Sets the share of requests answered with 429 and {@code Retry-After: 0}.
+     *
+     * @param throttleRate the share of throttled requests, between 0 and 1
+     */
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    /**
+     * Sets the share of GET requests answered with 502. Bulk move submissions are not failed, as the client
+     * does not retry them once they may have reached JIRA.
+     *
+     * @param serverErrorRate the share of failed GET requests, between 0 and 1
+     */
+    public void setServerErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    /**
+     * Makes the next bulk issue creations create their issues but answer 502, like a gateway giving up on JIRA
+     * after JIRA did the work.
+     *
+     * @param count the number of bulk creations whose answer is lost
+     */
+    public void loseCreateResponses(int count) {
+        lostCreateResponses.set(count);
+    }
+
+    /**
+     * Makes the next comments added to created issues fail with 500 without adding them.
+     *
+     * @param count the number of failed comments
+     */
+    public void failComments(int count) {
+        failedCommentResponses.set(count);
+    }
+
+    public void setBulkTaskDurationMs(long bulkTaskDurationMs) {
+        this.bulkTaskDurationMs = bulkTaskDurationMs;
+    }
+
+    public LatencyRecorder getLatencies(Endpoint endpoint) {
+        return latencies.get(endpoint);
+    }
+
+    public int getThrottledResponses() {
+        return throttledResponses.get();
+    }
+
+    public int getServerErrorResponses() {
+        return serverErrorResponses.get();
+    }
+
+    public int getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    /**
+     * Returns the issues created through bulk issue creation, in creation order.
+     *
+     * @return the created issues
+     */
+    public List<CreatedIssue> getCreatedIssues() {
+        List<CreatedIssue> issues = new ArrayList<>(createdIssues.values());
+        issues.sort(Comparator.comparingLong(CreatedIssue::getId));
+        return issues;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
+        String path = exchange.getRequestURI().getPath();
+        boolean get = "GET".equals(exchange.getRequestMethod());
+        Endpoint endpoint = path.startsWith(SEARCH) ? Endpoint.SEARCH
+                : path.startsWith(BULK_MOVE) ? Endpoint.BULK_MOVE
+                : path.startsWith(BULK_QUEUE) ? Endpoint.BULK_PROGRESS
+                : path.startsWith(ISSUE) ? Endpoint.ISSUE
+                : Endpoint.PROJECT;
+        try (exchange) {
+            byte[] requestBody = readBody(exchange);
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            if (ThreadLocalRandom.current().nextDouble() < throttleRate) {
+                throttledResponses.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "0");
+                respond(exchange, 429, "{\"errorMessages\":[\"Rate limit exceeded\"]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (get && ThreadLocalRandom.current().nextDouble() < serverErrorRate) {
+                serverErrorResponses.incrementAndGet();
+                respond(exchange, 502, "{\"errorMessages\":[\"Bad gateway\"]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            switch (endpoint) {
+                case SEARCH -> respond(exchange, 200, search(queryParameters(exchange)));
+                case BULK_MOVE -> respond(exchange, 201, submitBulkMove(requestBody));
+                case BULK_PROGRESS -> bulkProgress(exchange, path.substring(BULK_QUEUE.length()));
+                case PROJECT -> project(exchange, path.substring(PROJECT.length()));
+                case ISSUE -> issue(exchange, path, get, requestBody);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            respond(exchange, 500, ("{\"errorMessages\":[\"" + e + "\"]}").getBytes(StandardCharsets.UTF_8));
+        } finally {
+            latencies.get(endpoint).record(System.nanoTime() - started);
+        }
+    }
+
+    private byte[] search(Map<String, String> parameters) throws IOException {
+        String jql = parameters.getOrDefault("jql", "");
+        int startAt = Integer.parseInt(parameters.getOrDefault("startAt", "0"));
+        int maxResults = Math.min(100, Integer.parseInt(parameters.getOrDefault("maxResults", "50")));
+        Matcher project = PROJECT_CLAUSE.matcher(jql);
+        String projectKey = project.find() ? project.group(1) : dataset.getSourceProjectKey();
+        Matcher labels = LABELS_CLAUSE.matcher(jql);
+        if (labels.find()) {
+            return searchCreated(projectKey, labels.group(1), startAt, maxResults);
+        }
+        Set<Long> issueTypeIds = new HashSet<>();
+        Matcher issueTypes = ISSUE_TYPE_CLAUSE.matcher(jql);
+        if (issueTypes.find()) {
+            for (String id : issueTypes.group(1).split(",")) {
+                issueTypeIds.add(Long.parseLong(id.trim()));
+            }
+        }
+        long fromId = Long.MIN_VALUE;
+        long toId = Long.MAX_VALUE;
+        Matcher idBounds = ID_CLAUSE.matcher(jql);
+        while (idBounds.find()) {
+            long bound = Long.parseLong(idBounds.group(2));
+            if (idBounds.group(1).equals(">=")) {
+                fromId = Math.max(fromId, bound);
+            } else {
+                toId = Math.min(toId, bound);
+            }
+        }
+        int[] matches = dataset.search(projectKey, issueTypeIds, fromId, toId, jql.contains("ORDER BY updated"));
+        if (jql.contains("ORDER BY id ASC") || jql.contains("ORDER BY created ASC")) {
+            for (int i = 0, j = matches.length - 1; i < j; i++, j--) {
+                int swapped = matches[i];
+                matches[i] = matches[j];
+                matches[j] = swapped;
+            }
+        }
+        // Like JIRA, return only the requested fields, and all of them if none are requested
+        String fieldsParameter = parameters.getOrDefault("fields", "*all");
+        Set<String> fields = Set.of(fieldsParameter.split(","));
+        boolean allFields = fields.contains("*all") || fields.contains("*navigable");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + maxResults * 256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("startAt", startAt);
+            generator.writeNumberField("maxResults", maxResults);
+            generator.writeNumberField("total", matches.length);
+            generator.writeArrayFieldStart("issues");
+            for (int i = startAt; i < Math.min(matches.length, startAt + maxResults); i++) {
+                writeIssue(generator, matches[i], projectKey, field -> allFields || fields.contains(field));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Searches the created issues of a project carrying any of the given labels, oldest first, returning their labels.
+     */
+    private byte[] searchCreated(String projectKey, String labelList, int startAt, int maxResults) throws IOException {
+        Set<String> labels = new HashSet<>();
+        for (String label : labelList.split(",")) {
+            labels.add(label.trim().replace("\"", ""));
+        }
+        List<CreatedIssue> matches = new ArrayList<>();
+        for (CreatedIssue issue : getCreatedIssues()) {
+            if (issue.projectKey.equals(projectKey) && issue.labels.stream().anyMatch(labels::contains)) {
+                matches.add(issue);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("startAt", startAt);
+            generator.writeNumberField("maxResults", maxResults);
+            generator.writeNumberField("total", matches.size());
+            generator.writeArrayFieldStart("issues");
+            for (CreatedIssue issue : matches.subList(Math.min(startAt, matches.size()), Math.min(matches.size(), startAt + maxResults))) {
+                generator.writeStartObject();
+                generator.writeStringField("id", Long.toString(issue.id));
+                generator.writeObjectFieldStart("fields");
+                generator.writeArrayFieldStart("labels");
+                for (String label : issue.labels) {
+                    generator.writeString(label);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private void writeIssue(JsonGenerator generator, int index, String projectKey, Predicate<String> requested) throws IOException {
+        long issueTypeId = dataset.getIssueTypeId(index);
+        generator.writeStartObject();
+        generator.writeStringField("id", Long.toString(dataset.getIssueId(index)));
+        generator.writeStringField("key", projectKey + "-" + (index + 1));
+        generator.writeObjectFieldStart("fields");
+        if (requested.test("summary")) {
+            generator.writeStringField("summary", "Stand-in issue " + (index + 1));
+        }
+        if (requested.test("issuetype")) {
+            generator.writeObjectFieldStart("issuetype");
+            generator.writeStringField("id", Long.toString(issueTypeId));
+            generator.writeBooleanField("subtask", issueTypeId == StandInDataset.SUBTASK_TYPE_ID);
+            generator.writeEndObject();
+        }
+        if (requested.test("parent") && dataset.getParentId(index) >= 0) {
+            generator.writeObjectFieldStart("parent");
+            generator.writeStringField("id", Long.toString(dataset.getParentId(index)));
+            generator.writeEndObject();
+        }
+        if (requested.test("status")) {
+            generator.writeObjectFieldStart("status");
+            generator.writeStringField("name", dataset.getStatusName(index));
+            generator.writeEndObject();
+        }
+        if (requested.test("updated")) {
+            generator.writeStringField("updated", JIRA_TIMESTAMP.format(Instant.ofEpochMilli(dataset.getUpdatedMillis(index))));
+        }
+        if (requested.test("description")) {
+            generator.writeFieldName("description");
+            writeDocument(generator, "Description of stand-in issue " + (index + 1));
+        }
+        if (requested.test("priority")) {
+            generator.writeObjectFieldStart("priority");
+            generator.writeStringField("id", Integer.toString(1 + index % 5));
+            generator.writeEndObject();
+        }
+        if (requested.test("comment")) {
+            // Like JIRA, embed only the first comments and leave the rest to the comment endpoint
+            generator.writeFieldName("comment");
+            writeComments(generator, index, 0, EMBEDDED_COMMENTS);
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeDocument(JsonGenerator generator, String text) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "doc");
+        generator.writeNumberField("version", 1);
+        generator.writeArrayFieldStart("content");
+        generator.writeStartObject();
+        generator.writeStringField("type", "paragraph");
+        generator.writeArrayFieldStart("content");
+        generator.writeStartObject();
+        generator.writeStringField("type", "text");
+        generator.writeStringField("text", text);
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeComments(JsonGenerator generator, int index, int startAt, int maxResults) throws IOException {
+        int total = dataset.getCommentCount(index);
+        generator.writeStartObject();
+        generator.writeNumberField("startAt", startAt);
+        generator.writeNumberField("maxResults", maxResults);
+        generator.writeNumberField("total", total);
+        generator.writeArrayFieldStart("comments");
+        for (int i = startAt; i < Math.min(total, startAt + maxResults); i++) {
+            generator.writeStartObject();
+            generator.writeStringField("id", Long.toString(dataset.getIssueId(index) * 10 + i));
+            generator.writeFieldName("body");
+            writeDocument(generator, "Comment " + (i + 1) + " of stand-in issue " + (index + 1));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void issue(HttpExchange exchange, String path, boolean get, byte[] requestBody) throws IOException {
+        if (path.equals(BULK_CREATE) && !get) {
+            createIssues(exchange, requestBody);
+            return;
+        }
+        Matcher transitions = ISSUE_TRANSITIONS.matcher(path);
+        Matcher status = ISSUE_STATUS.matcher(path);
+        if (transitions.matches() || status.matches()) {
+            CreatedIssue issue = createdIssues.get(Long.parseLong(transitions.matches() ? transitions.group(1) : status.group(1)));
+            if (issue == null) {
+                respond(exchange, 404, "{\"errorMessages\":[\"Issue does not exist\"]}".getBytes(StandardCharsets.UTF_8));
+            } else if (status.matches() && get) {
+                respond(exchange, 200, ("{\"id\":\"" + issue.id + "\",\"fields\":{\"status\":{\"name\":\"" + issue.status + "\"}}}")
+                        .getBytes(StandardCharsets.UTF_8));
+            } else if (transitions.matches() && get) {
+                respond(exchange, 200, transitions(issue));
+            } else if (transitions.matches()) {
+                transition(exchange, issue, OBJECT_MAPPER.readTree(requestBody).path("transition").path("id").asText());
+            } else {
+                respond(exchange, 405, "{\"errorMessages\":[\"Method not allowed\"]}".getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        Matcher comments = ISSUE_COMMENTS.matcher(path);
+        if (!comments.matches()) {
+            respond(exchange, 404, "{\"errorMessages\":[\"Not found\"]}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        long issueId = Long.parseLong(comments.group(1));
+        if (get) {
+            int index = dataset.indexOf(issueId);
+            if (index < 0) {
+                respond(exchange, 404, "{\"errorMessages\":[\"Issue does not exist\"]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            Map<String, String> parameters = queryParameters(exchange);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+                writeComments(generator, index, Integer.parseInt(parameters.getOrDefault("startAt", "0")),
+                        Math.min(100, Integer.parseInt(parameters.getOrDefault("maxResults", "50"))));
+            }
+            respond(exchange, 200, out.toByteArray());
+            return;
+        }
+        CreatedIssue issue = createdIssues.get(issueId);
+        JsonNode body = OBJECT_MAPPER.readTree(requestBody).path("body");
+        if (issue == null) {
+            respond(exchange, 404, "{\"errorMessages\":[\"Issue does not exist\"]}".getBytes(StandardCharsets.UTF_8));
+        } else if (!body.isObject()) {
+            respond(exchange, 400, "{\"errorMessages\":[\"Comment body is required\"]}".getBytes(StandardCharsets.UTF_8));
+        } else if (failedCommentResponses.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            respond(exchange, 500, "{\"errorMessages\":[\"Internal server error\"]}".getBytes(StandardCharsets.UTF_8));
+        } else {
+            String text = body.path("content").path(0).path("content").path(0).path("text").asText();
+            issue.comments.add(text);
+            respond(exchange, 201, ("{\"id\":\"" + (issueId * 10 + issue.comments.size()) + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Lists the transitions out of the initial status, none once an issue has left it.
+     */
+    private static byte[] transitions(CreatedIssue issue) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("transitions");
+            if (StandInDataset.INITIAL_STATUS.equals(issue.status)) {
+                for (Map.Entry<String, String> transition : new TreeMap<>(TRANSITIONS).entrySet()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("id", transition.getKey());
+                    generator.writeStringField("name", "Move to " + transition.getValue());
+                    generator.writeObjectFieldStart("to");
+                    generator.writeStringField("name", transition.getValue());
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Performs a transition out of the initial status, answering 204 like JIRA.
+     */
+    private static void transition(HttpExchange exchange, CreatedIssue issue, String transitionId) throws IOException {
+        synchronized (issue) {
+            String status = TRANSITIONS.get(transitionId);
+            if (status == null || !StandInDataset.INITIAL_STATUS.equals(issue.status)) {
+                respond(exchange, 400, "{\"errorMessages\":[\"Transition is not valid for this issue\"]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            issue.status = status;
+        }
+        respond(exchange, 204, new byte[0]);
+    }
+
+    /**
+     * Creates the valid issues of a bulk request and reports the others by their index, answering 400 if none
+     * could be created, like JIRA.
+     */
+    private void createIssues(HttpExchange exchange, byte[] requestBody) throws IOException {
+        JsonNode issueUpdates = OBJECT_MAPPER.readTree(requestBody).path("issueUpdates");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int created = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("issues");
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < issueUpdates.size(); i++) {
+                JsonNode fields = issueUpdates.get(i).path("fields");
+                String error = validate(fields);
+                if (error != null) {
+                    errors.add("{\"failedElementNumber\":" + i + ",\"status\":400,\"elementErrors\":{\"errors\":{" + error + "}}}");
+                    continue;
+                }
+                long id = createdIssueIds.getAndIncrement();
+                String projectKey = fields.path("project").path("key").asText();
+                List<String> labels = new ArrayList<>();
+                fields.path("labels").forEach(label -> labels.add(label.asText()));
+                createdIssues.put(id, new CreatedIssue(id, projectKey, fields.path("summary").asText(),
+                        fields.path("issuetype").path("id").asLong(), fields.path("parent").path("id").asLong(-1),
+                        fields.path("priority").path("id").asText(null), fields.path("description").isObject(), labels));
+                generator.writeStartObject();
+                generator.writeStringField("id", Long.toString(id));
+                generator.writeStringField("key", projectKey + "-" + (id - FIRST_CREATED_ISSUE_ID + 1));
+                generator.writeEndObject();
+                created++;
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("errors");
+            generator.writeRawValue("[" + String.join(",", errors) + "]");
+            generator.writeEndObject();
+        }
+        if (lostCreateResponses.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            respond(exchange, 502, "{\"errorMessages\":[\"Gateway timeout\"]}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        respond(exchange, created == 0 && !issueUpdates.isEmpty() ? 400 : 201, out.toByteArray());
+    }
+
+    private String validate(JsonNode fields) {
+        if (fields.path("project").path("key").asText().isEmpty()) {
+            return "\"project\":\"Specify a valid project\"";
+        }
+        if (fields.path("summary").asText().isBlank()) {
+            return "\"summary\":\"You must specify a summary of the issue.\"";
+        }
+        boolean subtask = fields.path("issuetype").path("id").asLong() == StandInDataset.SUBTASK_TYPE_ID;
+        long parentId = fields.path("parent").path("id").asLong(-1);
+        if (subtask && !createdIssues.containsKey(parentId)) {
+            return "\"parent\":\"Could not find issue by id or key.\"";
+        }
+        if (!subtask && parentId >= 0) {
+            return "\"parent\":\"Only subtasks can have a parent.\"";
+        }
+        return null;
+    }
+
+    private byte[] submitBulkMove(byte[] requestBody) throws IOException {
+        JsonNode mappings = OBJECT_MAPPER.readTree(requestBody).path("targetToSourcesMapping");
+        Map<String, long[]> idsPerProject = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = mappings.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> mapping = fields.next();
+            String targetProjectKey = mapping.getKey().split(",")[0];
+            JsonNode ids = mapping.getValue().path("issueIdsOrKeys");
+            long[] parsed = new long[ids.size()];
+            for (int i = 0; i < parsed.length; i++) {
+                parsed[i] = Long.parseLong(ids.get(i).asText());
+            }
+            idsPerProject.merge(targetProjectKey, parsed, (a, b) -> {
+                long[] merged = Arrays.copyOf(a, a.length + b.length);
+                System.arraycopy(b, 0, merged, a.length, b.length);
+                return merged;
+            });
+        }
+        String taskId = Long.toString(taskIds.incrementAndGet());
+        bulkTasks.put(taskId, new BulkTask(idsPerProject, System.nanoTime() + bulkTaskDurationMs * 1_000_000L));
+        return ("{\"taskId\":\"" + taskId + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void bulkProgress(HttpExchange exchange, String taskId) throws IOException {
+        BulkTask task = bulkTasks.get(taskId);
+        if (task == null) {
+            respond(exchange, 404, "{\"errorMessages\":[\"Task not found\"]}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        long[] moved = task.completeIfDue();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("taskId", taskId);
+            generator.writeStringField("status", moved == null ? "RUNNING" : "COMPLETE");
+            generator.writeNumberField("progressPercent", moved == null ? 50 : 100);
+            generator.writeNumberField("totalIssueCount", task.size());
+            generator.writeArrayFieldStart("processedAccessibleIssues");
+            if (moved != null) {
+                for (long id : moved) {
+                    generator.writeNumber(id);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeObjectFieldStart("failedAccessibleIssues");
+            generator.writeEndObject();
+            generator.writeNumberField("invalidOrInaccessibleIssueCount", moved == null ? 0 : task.size() - moved.length);
+            generator.writeEndObject();
+        }
+        respond(exchange, 200, out.toByteArray());
+    }
+
+    private void project(HttpExchange exchange, String rest) throws IOException {
+        String body = rest.endsWith("/statuses") ? "[]" : "{\"id\":\"1\",\"key\":\"" + rest + "\",\"issueTypes\":["
+                + "{\"id\":\"" + StandInDataset.TASK_TYPE_ID + "\",\"name\":\"Task\",\"subtask\":false},"
+                + "{\"id\":\"" + StandInDataset.SUBTASK_TYPE_ID + "\",\"name\":\"Sub-task\",\"subtask\":true},"
+                + "{\"id\":\"" + StandInDataset.BUG_TYPE_ID + "\",\"name\":\"Bug\",\"subtask\":false}]}";
+        String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        respond(exchange, 200, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        return in.readAllBytes();
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip") && body.length > 512) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if (body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * An issue created through bulk issue creation, with its current status and the text of the comments added to it.
+     */
+    public static final class CreatedIssue {
+        private final long id;
+        private final String projectKey;
+        private final String summary;
+        private final long issueTypeId;
+        private final long parentId;
+        private final String priorityId;
+        private final boolean described;
+        private final List<String> labels;
+        private final List<String> comments = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = StandInDataset.INITIAL_STATUS;
+
+        private CreatedIssue(long id, String projectKey, String summary, long issueTypeId, long parentId, String priorityId, boolean described,
+                             List<String> labels) {
+            this.id = id;
+            this.projectKey = projectKey;
+            this.summary = summary;
+            this.issueTypeId = issueTypeId;
+            this.parentId = parentId;
+            this.priorityId = priorityId;
+            this.described = described;
+            this.labels = List.copyOf(labels);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getProjectKey() {
+            return projectKey;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public long getIssueTypeId() {
+            return issueTypeId;
+        }
+
+        public long getParentId() {
+            return parentId;
+        }
+
+        public String getPriorityId() {
+            return priorityId;
+        }
+
+        public boolean isDescribed() {
+            return described;
+        }
+
+        public List<String> getLabels() {
+            return labels;
+        }
+
+        public List<String> getComments() {
+            return List.copyOf(comments);
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * A queued bulk move; its issues are moved by the first progress poll after it is due.
+     */
+    private final class BulkTask {
+        private final Map<String, long[]> idsPerProject;
+        private final long dueNanos;
+        private long[] moved;
+
+        private BulkTask(Map<String, long[]> idsPerProject, long dueNanos) {
+            this.idsPerProject = idsPerProject;
+            this.dueNanos = dueNanos;
+        }
+
+        private int size() {
+            return idsPerProject.values().stream().mapToInt(ids -> ids.length).sum();
+        }
+
+        private synchronized long[] completeIfDue() {
+            if (moved == null && System.nanoTime() >= dueNanos) {
+                long[] all = new long[0];
+                for (Map.Entry<String, long[]> entry : idsPerProject.entrySet()) {
+                    long[] ids = dataset.move(entry.getValue(), entry.getKey());
+                    long[] merged = Arrays.copyOf(all, all.length + ids.length);
+                    System.arraycopy(ids, 0, merged, all.length, ids.length);
+                    all = merged;
+                }
+                moved = all;
+            }
+            return moved;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskSubmissionDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.dto.SyncMode;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import io.getint.recruitment_task.client.jira.httpcache.JiraResponseCache;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.IssueBatch;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.services.AsyncJiraProxy;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JiraStandInServerTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldMoveAllIssuesThroughTheHttpStack() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 3_500, 42);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            harness.getServer().setBulkTaskDurationMs(20);
+
+            BulkMoveResult result = harness.moveAll("TARGET", List.of());
+
+            assertEquals(3_500, result.getMovedCount());
+            assertEquals(0, dataset.countInProject("SRC"));
+            assertEquals(3_500, dataset.countInProject("TARGET"));
+        }
+    }
+
+    @Test
+    public void shouldMoveAllIssuesDespiteThrottlingAndServerErrors() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 2_000, 7);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath(),
+                "jira.resilience.maxAttempts=8", "jira.rateLimit.maxThrottleRetries=20")) {
+            harness.getServer().setLatencyMs(2);
+            harness.getServer().setThrottleRate(0.1);
+            harness.getServer().setServerErrorRate(0.05);
+
+            BulkMoveResult result = harness.moveAll("TARGET", List.of("Task", "Sub-task", "Bug"));
+
+            assertEquals(2_000, result.getMovedCount());
+            assertEquals(0, dataset.countInProject("SRC"));
+            assertTrue(harness.getServer().getThrottledResponses() > 0);
+        }
+    }
+
+    @Test
+    public void shouldRecordClientMetrics() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 1_500, 11);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            harness.moveAll("TARGET", List.of());
+
+            MeterRegistry registry = harness.getBean(MeterRegistry.class);
+            Timer searches = registry.get(JiraMetrics.REQUESTS).tags("endpoint", "search", "status", "2xx").timer();
+            assertEquals(harness.getServer().getLatencies(JiraStandInServer.Endpoint.SEARCH).getCount(), searches.count());
+            assertEquals(harness.getServer().getLatencies(JiraStandInServer.Endpoint.BULK_MOVE).getCount(),
+                    registry.get(JiraMetrics.REQUESTS).tags("endpoint", "bulk-move", "method", "POST").timer().count());
+            assertTrue(registry.get(JiraMetrics.REQUEST_SIZE).tag("endpoint", "bulk-move").summary().totalAmount() > 1_500 * 6);
+            assertTrue(registry.get(JiraMetrics.RESPONSE_SIZE).tag("endpoint", "search").summary().totalAmount() > 0);
+            assertEquals(1_500, registry.get(JiraMetrics.SYNC_ISSUES).tag("outcome", "moved").counter().count(), 0);
+            assertNotNull(registry.find("httpcomponents.httpclient.pool.total.connections").tags("httpclient", "jira", "state", "leased").gauge());
+        }
+    }
+
+    @Test
+    public void shouldServeUnchangedProjectMetadataFromTheResponseCache() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 10, 1);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraProxy proxy = harness.getBean(JiraProxy.class);
+            JiraResponseCache cache = harness.getBean(JiraResponseCache.class);
+
+            ProjectDto first = proxy.getProject("SRC");
+            ProjectDto second = proxy.getProject("SRC");
+
+            assertEquals(first.getIssueTypes().size(), second.getIssueTypes().size());
+            assertEquals(1, harness.getServer().getNotModifiedResponses());
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getRevalidations());
+            assertEquals(1.0, harness.getBean(MeterRegistry.class).get("jira.client.cache.lookups").tag("result", "hit")
+                    .functionCounter().count(), 0);
+        }
+    }
+
+    @Test
+    public void shouldSyncNamedInstancesThroughClientsOfTheirOwn() throws Exception {
+        StandInDataset otherDataset = new StandInDataset("OTHER", 1_200, 5);
+        try (JiraStandInServer otherServer = JiraStandInServer.start(otherDataset);
+             StandInSyncHarness harness = StandInSyncHarness.start(new StandInDataset("SRC", 100, 1), temporaryFolder.getRoot().toPath(),
+                     "jira.instances.second.api.url=" + otherServer.getBaseUrl(),
+                     "jira.instances.second.api.maxConnectionsPerRoute=2")) {
+            JiraInstanceRegistry registry = harness.getBean(JiraInstanceRegistry.class);
+            assertEquals(0, registry.getOpenInstances());
+
+            BulkMoveResult result = harness.getBean(JiraSynchronizer.class).moveTasksToOtherProject(SyncTasksRequest.builder()
+                    .sourceProjectKey("OTHER")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(1_200)
+                    .instance("second")
+                    .build(), new SyncProgress());
+
+            assertEquals(1_200, result.getMovedCount());
+            assertEquals(1_200, otherDataset.countInProject("TARGET"));
+            assertEquals(100, harness.getServer().getDataset().countInProject("SRC"));
+            assertEquals(0, harness.getServer().getLatencies(JiraStandInServer.Endpoint.SEARCH).getCount());
+            assertEquals(1, registry.getOpenInstances());
+            assertFalse(registry.isConfigured("unknown"));
+            MeterRegistry meters = harness.getBean(MeterRegistry.class);
+            assertEquals(otherServer.getLatencies(JiraStandInServer.Endpoint.SEARCH).getCount(), meters.get(JiraMetrics.REQUESTS)
+                    .tags("endpoint", "search", JiraInstanceRegistry.INSTANCE_TAG, "second").timer().count());
+            assertNull(meters.find(JiraMetrics.REQUESTS).tags("endpoint", "search", JiraInstanceRegistry.INSTANCE_TAG, JiraInstanceRegistry.DEFAULT_INSTANCE).timer());
+            assertEquals(1_200, meters.get(JiraMetrics.SYNC_ISSUES).tags("outcome", "moved", JiraInstanceRegistry.INSTANCE_TAG, "second").counter().count(), 0);
+            assertTrue(meters.get(JiraMetrics.SYNC_STAGE).tags("stage", "search", JiraInstanceRegistry.INSTANCE_TAG, "second").timer().count() > 0);
+
+            Timer searches = meters.get(JiraMetrics.REQUESTS).tags("endpoint", "search", JiraInstanceRegistry.INSTANCE_TAG, "second").timer();
+            long searchCount = searches.count();
+            try (JiraInstanceRegistry.Lease lease = registry.lease("second")) {
+                AsyncJiraProxy asyncProxy = lease.getInstance().getAsyncProxy();
+                assertNotSame(harness.getBean(AsyncJiraProxy.class), asyncProxy);
+                assertEquals(100, asyncProxy.searchIssuesAsync("project = TARGET", 0, 100, new IssueSymbols()).get(10, TimeUnit.SECONDS).size());
+            }
+            assertEquals(searchCount + 1, searches.count());
+            assertNotNull(meters.find("httpcomponents.httpclient.pool.total.max").tags("httpclient", "jira-async", JiraInstanceRegistry.INSTANCE_TAG, "second").gauge());
+            registry.close();
+            assertEquals(0, registry.getOpenInstances());
+            assertNull(meters.find("httpcomponents.httpclient.pool.total.max").tags("httpclient", "jira-async", JiraInstanceRegistry.INSTANCE_TAG, "second").gauge());
+        }
+    }
+
+    @Test
+    public void shouldOnlyMoveRequestedIssueTypes() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 1_000, 3);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            int bugs = dataset.search("SRC", Set.of(StandInDataset.BUG_TYPE_ID), false).length;
+
+            BulkMoveResult result = harness.moveAll("TARGET", List.of("Bug"));
+
+            assertEquals(bugs, result.getMovedCount());
+            assertEquals(bugs, dataset.countInProject("TARGET"));
+        }
+    }
+
+    @Test
+    public void shouldMoveAllIssuesOfALargeProjectThroughPartitionedSearches() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 6_000, 13);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath(),
+                "jira.sync.partition.minIssues=2000", "jira.sync.partition.targetIssues=1000")) {
+            harness.getServer().setLatencyMs(2);
+
+            BulkMoveResult result = harness.moveAll("TARGET", List.of());
+
+            assertEquals(6_000, result.getMovedCount());
+            assertEquals(0, dataset.countInProject("SRC"));
+            assertEquals(6_000, dataset.countInProject("TARGET"));
+        }
+    }
+
+    @Test
+    public void shouldCopyIssuesWithTheirSubtaskParentsStatusesAndCommentsLeavingTheSourceUntouched() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 1_200, 17);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            harness.getServer().setLatencyMs(1);
+
+            BulkMoveResult result = harness.getBean(JiraSynchronizer.class).moveTasksToOtherProject(SyncTasksRequest.builder()
+                    .sourceProjectKey("SRC")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(10_000)
+                    .mode(SyncMode.COPY)
+                    .build(), new SyncProgress());
+
+            assertEquals(1_200, result.getMovedCount());
+            assertEquals(120, result.getFailedIssues().size());
+            for (long failedId : result.getFailedIssues().keySet()) {
+                assertEquals(StandInDataset.UNREACHABLE_STATUS, dataset.getStatusName(dataset.indexOf(failedId)));
+            }
+            assertEquals(1_200, dataset.countInProject("SRC"));
+            Map<String, JiraStandInServer.CreatedIssue> copies = new HashMap<>();
+            for (JiraStandInServer.CreatedIssue copy : harness.getServer().getCreatedIssues()) {
+                assertEquals("TARGET", copy.getProjectKey());
+                assertNotNull(copy.getPriorityId());
+                assertTrue(copy.isDescribed());
+                copies.put(copy.getSummary(), copy);
+            }
+            assertEquals(1_200, copies.size());
+            for (int i = 0; i < dataset.size(); i++) {
+                JiraStandInServer.CreatedIssue copy = copies.get("Stand-in issue " + (i + 1));
+                assertEquals(dataset.getIssueTypeId(i), copy.getIssueTypeId());
+                String status = dataset.getStatusName(i);
+                assertEquals(status.equals(StandInDataset.UNREACHABLE_STATUS) ? StandInDataset.INITIAL_STATUS : status, copy.getStatus());
+                if (dataset.getParentId(i) >= 0) {
+                    int parentIndex = dataset.indexOf(dataset.getParentId(i));
+                    assertEquals(copies.get("Stand-in issue " + (parentIndex + 1)).getId(), copy.getParentId());
+                }
+                List<String> comments = new ArrayList<>();
+                for (int c = 0; c < dataset.getCommentCount(i); c++) {
+                    comments.add("Comment " + (c + 1) + " of stand-in issue " + (i + 1));
+                }
+                assertEquals(comments, copy.getComments());
+            }
+        }
+    }
+
+    @Test
+    public void shouldSkipIssuesCopiedByAnEarlierRun() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 300, 19);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraSynchronizer synchronizer = harness.getBean(JiraSynchronizer.class);
+            SyncTasksRequest first = SyncTasksRequest.builder()
+                    .sourceProjectKey("SRC")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(100)
+                    .mode(SyncMode.COPY)
+                    .build();
+            assertEquals(100, synchronizer.moveTasksToOtherProject(first, new SyncProgress()).getMovedCount());
+
+            BulkMoveResult result = synchronizer.moveTasksToOtherProject(SyncTasksRequest.builder()
+                    .sourceProjectKey("SRC")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(10_000)
+                    .mode(SyncMode.COPY)
+                    .build(), new SyncProgress());
+
+            assertEquals(200, result.getMovedCount());
+            assertEquals(300, harness.getServer().getCreatedIssues().size());
+            assertEquals(0, synchronizer.moveTasksToOtherProject(first, new SyncProgress()).getMovedCount());
+            assertEquals(300, harness.getServer().getCreatedIssues().size());
+        }
+    }
+
+    @Test
+    public void shouldLookUpIssuesWhoseCreationWasNotConfirmedInsteadOfCreatingThemAgain() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 200, 23);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraSynchronizer synchronizer = harness.getBean(JiraSynchronizer.class);
+            SyncTasksRequest request = SyncTasksRequest.builder()
+                    .sourceProjectKey("SRC")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(10_000)
+                    .mode(SyncMode.COPY)
+                    .build();
+            harness.getServer().loseCreateResponses(1);
+
+            BulkMoveResult first = synchronizer.moveTasksToOtherProject(request, new SyncProgress());
+            assertTrue(first.getMovedCount() < 200);
+            synchronizer.moveTasksToOtherProject(request, new SyncProgress());
+
+            Set<String> summaries = new HashSet<>();
+            for (JiraStandInServer.CreatedIssue copy : harness.getServer().getCreatedIssues()) {
+                assertTrue("Copied twice: " + copy.getSummary(), summaries.add(copy.getSummary()));
+                assertEquals(1, copy.getLabels().size());
+                assertTrue(copy.getLabels().get(0).startsWith("copied-from-"));
+            }
+            assertEquals(200, summaries.size());
+        }
+    }
+
+    @Test
+    public void shouldCopyOnlyTheMissingCommentsOfIssuesCreatedByAnEarlierRun() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 200, 29);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraSynchronizer synchronizer = harness.getBean(JiraSynchronizer.class);
+            SyncTasksRequest request = SyncTasksRequest.builder()
+                    .sourceProjectKey("SRC")
+                    .targetProjectKey("TARGET")
+                    .maxIssuesToMove(10_000)
+                    .mode(SyncMode.COPY)
+                    .build();
+            int commentCount = 0;
+            for (int i = 0; i < dataset.size(); i++) {
+                commentCount += dataset.getCommentCount(i);
+            }
+            harness.getServer().failComments(4);
+
+            BulkMoveResult first = synchronizer.moveTasksToOtherProject(request, new SyncProgress());
+            assertEquals(200, first.getMovedCount());
+            assertTrue(countComments(harness.getServer().getCreatedIssues()) <= commentCount - 4);
+            BulkMoveResult second = synchronizer.moveTasksToOtherProject(request, new SyncProgress());
+
+            assertEquals(0, second.getMovedCount());
+            assertEquals(20, second.getFailedIssues().size());
+            Map<String, JiraStandInServer.CreatedIssue> copies = new HashMap<>();
+            for (JiraStandInServer.CreatedIssue copy : harness.getServer().getCreatedIssues()) {
+                copies.put(copy.getSummary(), copy);
+            }
+            assertEquals(200, copies.size());
+            for (int i = 0; i < dataset.size(); i++) {
+                List<String> comments = new ArrayList<>();
+                for (int c = 0; c < dataset.getCommentCount(i); c++) {
+                    comments.add("Comment " + (c + 1) + " of stand-in issue " + (i + 1));
+                }
+                assertEquals(comments, copies.get("Stand-in issue " + (i + 1)).getComments());
+            }
+        }
+    }
+
+    @Test
+    public void shouldDownloadOnlyTheProjectedFields() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 500, 11);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath())) {
+            JiraProxy proxy = harness.getBean(JiraProxy.class);
+
+            String full = proxy.searchIssues("project = SRC", 0, 100, SearchProjection.DEFAULT);
+            String enumeration = proxy.searchIssues("project = SRC", 0, 100, SearchProjection.ENUMERATION);
+            IssuePage page = proxy.searchIssuesPage("project = SRC", 0, 100, new IssueSymbols(), SearchProjection.ENUMERATION);
+
+            assertTrue(full.contains("\"summary\"") && full.contains("\"updated\""));
+            assertFalse(enumeration.contains("\"summary\"") || enumeration.contains("\"status\"") || enumeration.contains("\"updated\""));
+            assertTrue("Expected at most 60% of " + full.length() + " bytes, got " + enumeration.length(),
+                    enumeration.length() < full.length() * 0.6);
+            for (int i = 0; i < page.size(); i++) {
+                assertTrue(page.getIssues().hasFlag(i, IssueBatch.HAS_ISSUE_TYPE));
+                assertEquals(page.getIssues().hasFlag(i, IssueBatch.SUBTASK), page.getIssues().hasFlag(i, IssueBatch.HAS_PARENT));
+            }
+        }
+    }
+
+    @Test
+    public void shouldServeConcurrentAsyncRequestsOnReactorThreads() throws Exception {
+        StandInDataset dataset = new StandInDataset("SRC", 5_000, 5);
+        try (StandInSyncHarness harness = StandInSyncHarness.start(dataset, temporaryFolder.getRoot().toPath(),
+                "jira.api.reactorThreads=2", "jira.api.gzipRequests=true")) {
+            harness.getServer().setLatencyMs(10);
+            AsyncJiraProxy proxy = harness.getBean(AsyncJiraProxy.class);
+            IssueSymbols symbols = new IssueSymbols();
+
+            List<CompletableFuture<IssuePage>> pages = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                pages.add(proxy.searchIssuesAsync("project = SRC", (i % 50) * 100, 100, symbols));
+            }
+            CompletableFuture.allOf(pages.toArray(CompletableFuture<?>[]::new)).get(60, TimeUnit.SECONDS);
+
+            for (CompletableFuture<IssuePage> page : pages) {
+                assertEquals(100, page.join().size());
+            }
+            long dispatchers = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("I/O dispatcher"))
+                    .count();
+            assertTrue("Expected at most 2 dispatcher threads, found " + dispatchers, dispatchers <= 2);
+
+            BulkTaskSubmissionDto submission = proxy.moveIssuesBulkAsync(BulkMoveTasksRequestDto.builder()
+                    .addTargetToSourcesMapping("TARGET,10001", BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                            .issueIdsOrKeys(List.of(Long.toString(dataset.getIssueId(0)), Long.toString(dataset.getIssueId(1))))
+                            .build())
+                    .build()).get(10, TimeUnit.SECONDS);
+            BulkTaskProgressDto progress = proxy.getBulkTaskProgressAsync(submission.getTaskId()).get(10, TimeUnit.SECONDS);
+            assertEquals(submission.getTaskId(), progress.getTaskId());
+        }
+    }
+
+    private static int countComments(List<JiraStandInServer.CreatedIssue> issues) {
+        int count = 0;
+        for (JiraStandInServer.CreatedIssue issue : issues) {
+            count += issue.getComments().size();
+        }
+        return count;
+    }
+}
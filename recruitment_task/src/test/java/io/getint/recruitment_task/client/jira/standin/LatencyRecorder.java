@@ -0,0 +1,42 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import java.util.Arrays;
+
+/**
+ * Collects request latencies of one endpoint and reports their percentiles.
+ */
+public class LatencyRecorder {
+    private long[] nanos = new long[1024];
+    private int count;
+
+    public synchronized void record(long latencyNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in milliseconds, 0 if nothing was recorded
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+    }
+}
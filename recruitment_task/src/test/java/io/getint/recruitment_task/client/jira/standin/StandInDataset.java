@@ -0,0 +1,199 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generated issues served by the {@link JiraStandInServer}.
+ * <p>
+ * All issues start in the source project as a mix of tasks, bugs and subtasks of recent standard issues, most of
+ * them in one of the statuses of the stand-in workflow and every tenth in {@link #UNREACHABLE_STATUS}. Bulk
+ * moves reassign issues to other projects, so later searches no longer return them, as in JIRA.
+ */
+public class StandInDataset {
+    public static final long TASK_TYPE_ID = 10001L;
+    public static final long SUBTASK_TYPE_ID = 10003L;
+    public static final long BUG_TYPE_ID = 10004L;
+    public static final long FIRST_ISSUE_ID = 100_000L;
+    public static final String INITIAL_STATUS = "To Do";
+    public static final String UNREACHABLE_STATUS = "In Review";
+
+    private static final int SUBTASK_PERCENT = 20;
+    private static final int BUG_PERCENT = 25;
+    private static final int PARENT_WINDOW = 200;
+    private static final long FIRST_UPDATED_MILLIS = 1_704_067_200_000L;
+    private static final String[] STATUS_NAMES = {"To Do", "In Progress", "Done"};
+
+    private final String sourceProjectKey;
+    private final long[] issueTypeIds;
+    private final long[] parentIds;
+    private final long[] updatedMillis;
+    private final String[] projectKeys;
+
+    /**
+     * Generates a dataset. The same seed always produces the same issues.
+     *
+     * @param sourceProjectKey the project all issues start in
+     * @param issueCount the number of issues
+     * @param seed the seed of the issue type and parent mix
+     */
+    public StandInDataset(String sourceProjectKey, int issueCount, long seed) {
+        this.sourceProjectKey = sourceProjectKey;
+        issueTypeIds = new long[issueCount];
+        parentIds = new long[issueCount];
+        updatedMillis = new long[issueCount];
+        projectKeys = new String[issueCount];
+        Arrays.fill(projectKeys, sourceProjectKey);
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] recentStandardIds = new long[PARENT_WINDOW];
+        int standardCount = 0;
+        for (int i = 0; i < issueCount; i++) {
+            int roll = random.nextInt(100);
+            updatedMillis[i] = FIRST_UPDATED_MILLIS + random.nextInt(1_000_000) * 1_000L;
+            if (roll < SUBTASK_PERCENT && standardCount > 0) {
+                issueTypeIds[i] = SUBTASK_TYPE_ID;
+                parentIds[i] = recentStandardIds[random.nextInt(Math.min(standardCount, PARENT_WINDOW))];
+            } else {
+                issueTypeIds[i] = roll < SUBTASK_PERCENT + BUG_PERCENT ? BUG_TYPE_ID : TASK_TYPE_ID;
+                parentIds[i] = -1L;
+                recentStandardIds[standardCount++ % PARENT_WINDOW] = FIRST_ISSUE_ID + i;
+            }
+        }
+    }
+
+    public int size() {
+        return issueTypeIds.length;
+    }
+
+    public String getSourceProjectKey() {
+        return sourceProjectKey;
+    }
+
+    /**
+     * Returns the indexes of the issues matching a search, in result order.
+     *
+     * @param projectKey the project of the issues
+     * @param issueTypeIds the issue types to match, empty for all
+     * @param updatedOrder whether issues are ordered by ascending update time instead of descending creation
+     * @return the matching issue indexes
+     */
+    public int[] search(String projectKey, Set<Long> issueTypeIds, boolean updatedOrder) {
+        return search(projectKey, issueTypeIds, Long.MIN_VALUE, Long.MAX_VALUE, updatedOrder);
+    }
+
+    /**
+     * Returns the indexes of the issues within an id range matching a search, in result order. Issue ids grow
+     * with creation, so descending creation order is descending id order.
+     *
+     * @param projectKey the project of the issues
+     * @param issueTypeIds the issue types to match, empty for all
+     * @param fromId the inclusive lower bound of the issue ids
+     * @param toId the exclusive upper bound of the issue ids
+     * @param updatedOrder whether issues are ordered by ascending update time instead of descending creation
+     * @return the matching issue indexes
+     */
+    public synchronized int[] search(String projectKey, Set<Long> issueTypeIds, long fromId, long toId, boolean updatedOrder) {
+        int[] matches = new int[projectKeys.length];
+        int count = 0;
+        for (int i = projectKeys.length - 1; i >= 0; i--) {
+            long issueId = getIssueId(i);
+            if (issueId >= fromId && issueId < toId && projectKey.equals(projectKeys[i])
+                    && (issueTypeIds.isEmpty() || issueTypeIds.contains(this.issueTypeIds[i]))) {
+                matches[count++] = i;
+            }
+        }
+        matches = Arrays.copyOf(matches, count);
+        if (updatedOrder) {
+            matches = Arrays.stream(matches)
+                    .boxed()
+                    .sorted((a, b) -> updatedMillis[a] != updatedMillis[b] ? Long.compare(updatedMillis[a], updatedMillis[b]) : Integer.compare(a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return matches;
+    }
+
+    /**
+     * Moves issues to another project.
+     *
+     * @param issueIds the ids of the issues
+     * @param targetProjectKey the project to move them to
+     * @return the ids of the issues that were moved, unknown ids are skipped
+     */
+    public synchronized long[] move(long[] issueIds, String targetProjectKey) {
+        long[] moved = new long[issueIds.length];
+        int count = 0;
+        for (long issueId : issueIds) {
+            int index = indexOf(issueId);
+            if (index >= 0) {
+                projectKeys[index] = targetProjectKey;
+                moved[count++] = issueId;
+            }
+        }
+        return Arrays.copyOf(moved, count);
+    }
+
+    /**
+     * Counts the issues currently in a project.
+     *
+     * @param projectKey the project key
+     * @return the number of issues in the project
+     */
+    public synchronized int countInProject(String projectKey) {
+        int count = 0;
+        for (String key : projectKeys) {
+            if (projectKey.equals(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getIssueId(int index) {
+        return FIRST_ISSUE_ID + index;
+    }
+
+    public long getIssueTypeId(int index) {
+        return issueTypeIds[index];
+    }
+
+    public long getParentId(int index) {
+        return parentIds[index];
+    }
+
+    public long getUpdatedMillis(int index) {
+        return updatedMillis[index];
+    }
+
+    /**
+     * Returns the number of comments of an issue; issues carry up to three comments, in turn.
+     *
+     * @param index the index of the issue
+     * @return the number of comments
+     */
+    public int getCommentCount(int index) {
+        return index % 4;
+    }
+
+    /**
+     * Returns the name of the status of an issue.
+     *
+     * @param index the index of the issue
+     * @return {@link #UNREACHABLE_STATUS} for every tenth issue, otherwise one of the statuses of the stand-in workflow in turn
+     */
+    public String getStatusName(int index) {
+        return index % 10 == 9 ? UNREACHABLE_STATUS : STATUS_NAMES[index % STATUS_NAMES.length];
+    }
+
+    /**
+     * Returns the index of an issue.
+     *
+     * @param issueId the id of the issue
+     * @return the index, or -1 if the issue is not part of the dataset
+     */
+    public int indexOf(long issueId) {
+        long index = issueId - FIRST_ISSUE_ID;
+        return index >= 0 && index < projectKeys.length ? (int) index : -1;
+    }
+}
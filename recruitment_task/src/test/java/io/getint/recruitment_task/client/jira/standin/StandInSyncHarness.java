@@ -0,0 +1,103 @@
+package io.getint.recruitment_task.client.jira.standin;
+
+import io.getint.recruitment_task.SynchronizerApplication;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.dto.SyncTasksRequest;
+import io.getint.recruitment_task.client.jira.jobs.SyncProgress;
+import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the real application context, HTTP client stack included, against a {@link JiraStandInServer}.
+ * <p>
+ * Rate limits and poll delays are lowered so that runs are bound by the client and the stand-in, not by the
+ * production pacing; all local state goes to the given directory.
+ */
+public class StandInSyncHarness implements AutoCloseable {
+    private final JiraStandInServer server;
+    private final ConfigurableApplicationContext context;
+
+    private StandInSyncHarness(JiraStandInServer server, ConfigurableApplicationContext context) {
+        this.server = server;
+        this.context = context;
+    }
+
+    /**
+     * Starts a stand-in serving the given dataset and an application context talking to it.
+     *
+     * @param dataset the issues to serve
+     * @param stateDirectory the directory for watermarks, journals and the moved and copied issue indexes
+     * @param extraProperties additional {@code key=value} properties overriding the defaults
+     * @return the running harness
+     * @throws IOException if the stand-in cannot be started
+     */
+    public static StandInSyncHarness start(StandInDataset dataset, Path stateDirectory, String... extraProperties) throws IOException {
+        JiraStandInServer server = JiraStandInServer.start(dataset);
+        String[] properties = {
+                "jira.api.url=" + server.getBaseUrl(),
+                "jira.rateLimit.searchPerSecond=1000",
+                "jira.rateLimit.bulkMovePerSecond=500",
+                "jira.rateLimit.otherPerSecond=1000",
+                "jira.resilience.backoffBaseMs=5",
+                "jira.resilience.backoffMaxMs=50",
+                "jira.sync.watermarkFile=" + stateDirectory.resolve("sync-watermarks.properties"),
+                "jira.sync.journalDir=" + stateDirectory.resolve("journal"),
+                "jira.sync.movedIndexDir=" + stateDirectory.resolve("moved-index"),
+                "jira.sync.copiedIndexDir=" + stateDirectory.resolve("copied-index"),
+                "jira.sync.bulkMaxInFlight=8",
+                "jira.sync.bulkPollInitialDelayMs=5",
+                "jira.sync.bulkPollMaxDelayMs=50",
+                "logging.level.io.getint=WARN"
+        };
+        // Passed as arguments, as default properties would not override application.properties
+        String[] arguments = Stream.concat(Arrays.stream(properties), Arrays.stream(extraProperties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SynchronizerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(arguments);
+        return new StandInSyncHarness(server, context);
+    }
+
+    public JiraStandInServer getServer() {
+        return server;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Moves all issues of the dataset to the given target project through {@link JiraSynchronizer}.
+     *
+     * @param targetProjectKey the key of the target project
+     * @param issueTypeNames the issue types to move, all if empty
+     * @return the aggregated result of the run
+     */
+    public BulkMoveResult moveAll(String targetProjectKey, List<String> issueTypeNames) {
+        SyncTasksRequest request = SyncTasksRequest.builder()
+                .sourceProjectKey(server.getDataset().getSourceProjectKey())
+                .targetProjectKey(targetProjectKey)
+                .maxIssuesToMove(server.getDataset().size())
+                .issueTypeNames(issueTypeNames)
+                .build();
+        return context.getBean(JiraSynchronizer.class).moveTasksToOtherProject(request, new SyncProgress());
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        server.close();
+    }
+}
@@ -0,0 +1,32 @@
+package io.getint.recruitment_task.client.jira.watermark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class WatermarkStoreTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldPersistWatermarksAcrossInstances() {
+        Path file = temporaryFolder.getRoot().toPath().resolve("nested/watermarks.properties");
+        String key = WatermarkStore.key("SRC", "TARGET", List.of("Task", " bug"));
+
+        new WatermarkStore(file.toString()).save(key, new SyncWatermark(1705310625123L, 10001L));
+
+        assertEquals("SRC->TARGET[bug,task]", key);
+        assertFalse(Files.exists(file.resolveSibling("watermarks.properties.tmp")));
+        assertEquals(Optional.of(new SyncWatermark(1705310625123L, 10001L)), new WatermarkStore(file.toString()).find(key));
+        assertEquals(Optional.empty(), new WatermarkStore(file.toString()).find(WatermarkStore.key("SRC", "TARGET", List.of())));
+    }
+}
@@ -0,0 +1,102 @@
+package io.getint.recruitment_task.client.jira.wirelog;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WireLogPolicyTests {
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @Before
+    public void attachAppender() {
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(WireLogPolicy.class)).addAppender(appender);
+    }
+
+    @After
+    public void detachAppender() {
+        ((Logger) LoggerFactory.getLogger(WireLogPolicy.class)).detachAppender(appender);
+    }
+
+    @Test
+    public void shouldLogOneInSampleRateExchanges() throws IOException {
+        WireLogPolicy policy = new WireLogPolicy(WireLogLevel.HEADERS, 0, 3, 0);
+
+        for (int i = 0; i < 6; i++) {
+            exchange(policy, 200, "{}");
+        }
+
+        assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    public void shouldLogFailedExchangesRegardlessOfSampling() throws IOException {
+        WireLogPolicy policy = new WireLogPolicy(WireLogLevel.HEADERS, 0, 100, 0);
+
+        exchange(policy, 200, "{}");
+        exchange(policy, 200, "{}");
+        exchange(policy, 502, "Bad Gateway");
+        exchange(policy, 429, "");
+
+        assertEquals(2, appender.list.size());
+        assertTrue(appender.list.get(1).getFormattedMessage().contains("-> 502"));
+    }
+
+    @Test
+    public void shouldTruncateBodiesToMaxBodyBytes() throws IOException {
+        WireLogPolicy policy = new WireLogPolicy(WireLogLevel.TRUNCATED, 10, 1, 0);
+
+        exchange(policy, 200, "0123456789abcdefghij");
+
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message, message.contains("response body: 0123456789... (10 more bytes)"));
+    }
+
+    @Test
+    public void shouldCutBodiesOnceTheByteBudgetIsUsedUp() throws IOException {
+        WireLogPolicy policy = new WireLogPolicy(WireLogLevel.FULL, 0, 1, 15);
+
+        exchange(policy, 200, "0123456789");
+        exchange(policy, 200, "abcdefghij");
+
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("response body: 0123456789"));
+        String message = appender.list.get(1).getFormattedMessage();
+        assertTrue(message, message.contains("response body: abcde... (5 more bytes)"));
+    }
+
+    @Test
+    public void shouldNotLogAnythingWhenOff() throws IOException {
+        exchange(WireLogPolicy.off(), 500, "Internal Server Error");
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    private static void exchange(WireLogPolicy policy, int statusCode, String body) throws IOException {
+        WireExchange exchange = policy.begin(new HttpGet("http://localhost/rest/api/3/search"));
+        exchange.onResponse(new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, null)));
+        if (statusCode >= 300) {
+            exchange.onErrorBody(body);
+        } else {
+            try (InputStream content = exchange.captureResponse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))) {
+                content.readAllBytes();
+            }
+        }
+        exchange.complete(1_000_000);
+    }
+}
@@ -0,0 +1,86 @@
+package io.getint.recruitment_task.benchmarks;
+
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing bulk move payloads, i.e. what {@code JiraProxy.moveIssuesBulk} writes to the wire.
+ * <p>
+ * Issues are grouped by mapping key the way the synchronizer does it: one key per standard issue type and one
+ * per subtask parent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkMovePayloadBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int issueCount;
+
+    private JiraJsonCodec jsonCodec;
+    private BulkMoveTasksRequestDto requestDto;
+
+    @Setup
+    public void setup() {
+        jsonCodec = new JiraJsonCodec(false);
+        SyntheticSearchPayloads payloads = new SyntheticSearchPayloads(issueCount, 42L);
+        Map<String, long[]> idsPerKey = new LinkedHashMap<>();
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (int i = 0; i < payloads.size(); i++) {
+            sizes.merge(key(payloads, i), 1, Integer::sum);
+        }
+        sizes.forEach((key, size) -> idsPerKey.put(key, new long[size]));
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < payloads.size(); i++) {
+            String key = key(payloads, i);
+            int position = positions.merge(key, 1, Integer::sum) - 1;
+            idsPerKey.get(key)[position] = payloads.getIssueIds()[i];
+        }
+        BulkMoveTasksRequestDto.BulkMoveTasksRequestDtoBuilder builder = BulkMoveTasksRequestDto.builder();
+        idsPerKey.forEach((key, ids) -> builder.addTargetToSourcesMapping(key, BulkMoveTasksRequestDto.TargetToSourcesMapping.builder()
+                .issueIdsOrKeys(new IssueIdList(ids))
+                .build()));
+        requestDto = builder.build();
+    }
+
+    @Benchmark
+    public void serializeBulkMove(Blackhole blackhole) throws IOException {
+        jsonCodec.bulkMoveEntity(requestDto).writeTo(new BlackholeOutputStream(blackhole));
+    }
+
+    private static String key(SyntheticSearchPayloads payloads, int index) {
+        long parentId = payloads.getParentIds()[index];
+        return "TARGET," + payloads.getIssueTypeIds()[index] + (parentId < 0 ? "" : "," + parentId);
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.getint.recruitment_task.benchmarks;
+
+import io.getint.recruitment_task.client.jira.builders.IssueJqlQueryBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the JQL queries of full and incremental sync runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JqlQueryBenchmark {
+    private static final List<String> ISSUE_TYPE_IDS = List.of("10001", "10003", "10004");
+    private static final long NOW_MILLIS = 1_717_200_000_000L;
+
+    @Benchmark
+    public String fullSyncQuery() {
+        return new IssueJqlQueryBuilder()
+                .setProjectKey("SRC")
+                .setIssueTypeIds(ISSUE_TYPE_IDS)
+                .setCreatedOrder(true)
+                .build();
+    }
+
+    @Benchmark
+    public String incrementalSyncQuery() {
+        return new IssueJqlQueryBuilder()
+                .setProjectKey("SRC")
+                .setIssueTypeIds(ISSUE_TYPE_IDS)
+                .setUpdatedSince(NOW_MILLIS - 90 * 60_000L, NOW_MILLIS)
+                .setUpdatedOrder(false)
+                .build();
+    }
+}
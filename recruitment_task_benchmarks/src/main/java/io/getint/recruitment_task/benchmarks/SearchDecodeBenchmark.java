@@ -0,0 +1,40 @@
+package io.getint.recruitment_task.benchmarks;
+
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.search.IssueBatchDecoder;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding a search response into an issue batch, as done for every page fetched by a sync run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchDecodeBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int issueCount;
+
+    private JiraJsonCodec jsonCodec;
+    private byte[] searchResponse;
+
+    @Setup
+    public void setup() {
+        jsonCodec = new JiraJsonCodec(false);
+        searchResponse = new SyntheticSearchPayloads(issueCount, 42L).searchResponse();
+    }
+
+    @Benchmark
+    public IssuePage decodeSearchResponse() throws IOException {
+        return IssueBatchDecoder.decode(jsonCodec.createParser(new ByteArrayInputStream(searchResponse)), 0, new IssueSymbols());
+    }
+}
@@ -0,0 +1,157 @@
+package io.getint.recruitment_task.benchmarks;
+
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.concurrency.ConnectionLeaseGate;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveTasksRequestDto;
+import io.getint.recruitment_task.client.jira.dto.BulkTaskProgressDto;
+import io.getint.recruitment_task.client.jira.dto.IssueIdList;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeDto;
+import io.getint.recruitment_task.client.jira.dto.IssueTypeStatusesDto;
+import io.getint.recruitment_task.client.jira.dto.ProjectDto;
+import io.getint.recruitment_task.client.jira.exceptions.JiraClientException;
+import io.getint.recruitment_task.client.jira.httpcache.JiraResponseCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.IssueBatchDecoder;
+import io.getint.recruitment_task.client.jira.search.IssuePage;
+import io.getint.recruitment_task.client.jira.search.IssueSymbols;
+import io.getint.recruitment_task.client.jira.search.SearchProbe;
+import io.getint.recruitment_task.client.jira.search.SearchProjection;
+import io.getint.recruitment_task.client.jira.services.JiraProxy;
+import io.getint.recruitment_task.client.jira.wirelog.WireLogPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link JiraProxy} serving pre-encoded search pages and completing bulk moves immediately.
+ * <p>
+ * Search pages still go through {@link IssueBatchDecoder} and bulk move payloads are still serialized by
+ * {@link JiraJsonCodec}, only the network is left out, so the synchronizer's own CPU and allocation cost is
+ * what gets measured.
+ */
+public class StubJiraProxy extends JiraProxy {
+    private final JiraJsonCodec jsonCodec;
+    private final byte[][] searchPages;
+    private final int pageSize;
+    private final Map<String, BulkMoveTasksRequestDto> runningTasks = new ConcurrentHashMap<>();
+    private final AtomicLong taskIds = new AtomicLong();
+    private final AtomicLong payloadBytes = new AtomicLong();
+
+    /**
+     * Constructs a new stub.
+     *
+     * @param jsonCodec the codec used for search responses and bulk move payloads
+     * @param searchPages the encoded search pages, in page order
+     * @param pageSize the number of issues per page
+     */
+    public StubJiraProxy(JiraJsonCodec jsonCodec, byte[][] searchPages, int pageSize) {
+        super(null, null, Runnable::run, jsonCodec, null, null, new JiraMetrics(new SimpleMeterRegistry()), WireLogPolicy.off(), ConnectionLeaseGate.open(), JiraResponseCache.disabled());
+        this.jsonCodec = jsonCodec;
+        this.searchPages = searchPages;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public IssuePage searchIssuesPage(String jqlQuery, int startAt, int maxResults, IssueSymbols symbols,
+                                      SearchProjection projection) throws JiraClientException {
+        try {
+            return IssueBatchDecoder.decode(jsonCodec.createParser(new ByteArrayInputStream(searchPages[startAt / pageSize])), startAt, symbols);
+        } catch (IOException e) {
+            throw new JiraClientException("Malformed search response", e);
+        }
+    }
+
+    /**
+     * Reports every probe as empty, so searches are never partitioned; the pre-encoded pages cannot be filtered
+     * by issue id.
+     */
+    @Override
+    public SearchProbe probeSearch(String jqlQuery) throws JiraClientException {
+        return new SearchProbe(0, SearchProbe.NO_ID);
+    }
+
+    @Override
+    public String moveIssuesBulk(BulkMoveTasksRequestDto requestDto) throws JiraClientException {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            jsonCodec.bulkMoveEntity(requestDto).writeTo(out);
+        } catch (IOException e) {
+            throw new JiraClientException("Failed to serialize bulk move", e);
+        }
+        payloadBytes.addAndGet(out.count);
+        String taskId = Long.toString(taskIds.incrementAndGet());
+        runningTasks.put(taskId, requestDto);
+        return "{\"taskId\":\"" + taskId + "\"}";
+    }
+
+    @Override
+    public BulkTaskProgressDto getBulkTaskProgress(String taskId) throws JiraClientException {
+        BulkMoveTasksRequestDto requestDto = runningTasks.remove(taskId);
+        int total = 0;
+        for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+            total += mapping.getIssueIdsOrKeys().size();
+        }
+        long[] processed = new long[total];
+        int index = 0;
+        for (BulkMoveTasksRequestDto.TargetToSourcesMapping mapping : requestDto.getTargetToSourcesMapping().values()) {
+            IssueIdList ids = (IssueIdList) mapping.getIssueIdsOrKeys();
+            for (int i = 0; i < ids.size(); i++) {
+                processed[index++] = ids.getId(i);
+            }
+        }
+        return BulkTaskProgressDto.builder()
+                .taskId(taskId)
+                .status(BulkTaskProgressDto.Status.COMPLETE)
+                .progressPercent(100)
+                .totalIssueCount(total)
+                .processedAccessibleIssues(processed)
+                .failedAccessibleIssues(Map.of())
+                .build();
+    }
+
+    @Override
+    public ProjectDto getProject(String projectKey) throws JiraClientException {
+        return ProjectDto.builder()
+                .id("1")
+                .key(projectKey)
+                .issueTypes(List.of(
+                        IssueTypeDto.builder().id(Long.toString(SyntheticSearchPayloads.TASK_TYPE_ID)).name("Task").build(),
+                        IssueTypeDto.builder().id(Long.toString(SyntheticSearchPayloads.SUBTASK_TYPE_ID)).name("Sub-task").subtask(true).build(),
+                        IssueTypeDto.builder().id(Long.toString(SyntheticSearchPayloads.BUG_TYPE_ID)).name("Bug").build()))
+                .build();
+    }
+
+    @Override
+    public List<IssueTypeStatusesDto> getProjectStatuses(String projectKey) throws JiraClientException {
+        return List.of();
+    }
+
+    /**
+     * Returns the number of bulk move payload bytes serialized so far.
+     *
+     * @return the payload bytes
+     */
+    public long getPayloadBytes() {
+        return payloadBytes.get();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
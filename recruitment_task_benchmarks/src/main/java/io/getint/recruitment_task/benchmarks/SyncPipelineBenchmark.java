@@ -0,0 +1,81 @@
+package io.getint.recruitment_task.benchmarks;
+
+import io.getint.recruitment_task.client.jira.codec.JiraJsonCodec;
+import io.getint.recruitment_task.client.jira.concurrency.RunTaskScopes;
+import io.getint.recruitment_task.client.jira.copy.CopiedIssueIndex;
+import io.getint.recruitment_task.client.jira.copy.JiraIssueCopier;
+import io.getint.recruitment_task.client.jira.dto.BulkMoveResult;
+import io.getint.recruitment_task.client.jira.idempotency.MovedIssueIndex;
+import io.getint.recruitment_task.client.jira.instances.JiraInstanceRegistry;
+import io.getint.recruitment_task.client.jira.journal.SyncJournalFactory;
+import io.getint.recruitment_task.client.jira.metadata.JiraMetadataCache;
+import io.getint.recruitment_task.client.jira.metrics.JiraMetrics;
+import io.getint.recruitment_task.client.jira.search.IssuePageCursor;
+import io.getint.recruitment_task.client.jira.services.BulkTaskTracker;
+import io.getint.recruitment_task.client.jira.services.JiraSynchronizer;
+import io.getint.recruitment_task.client.jira.watermark.WatermarkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a whole sync run against an in-memory JIRA: page decoding, chunking, mapping key lookup, bulk move
+ * payload building and serialization, and bulk task tracking.
+ * <p>
+ * Journaling and the moved issue index are switched off, as they would turn repeated runs into no-ops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncPipelineBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int issueCount;
+
+    private ExecutorService ioExecutor;
+    private ScheduledExecutorService scheduler;
+    private Path dataDirectory;
+    private JiraSynchronizer synchronizer;
+
+    @Setup
+    public void setup() throws IOException {
+        JiraJsonCodec jsonCodec = new JiraJsonCodec(false);
+        byte[][] pages = new SyntheticSearchPayloads(issueCount, 42L).searchPages(IssuePageCursor.DEFAULT_PAGE_SIZE);
+        StubJiraProxy jiraProxy = new StubJiraProxy(jsonCodec, pages, IssuePageCursor.DEFAULT_PAGE_SIZE);
+        ioExecutor = Executors.newCachedThreadPool();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        dataDirectory = Files.createTempDirectory("sync-benchmark");
+        BulkTaskTracker bulkTaskTracker = new BulkTaskTracker(jiraProxy, ioExecutor, scheduler, 4, 0, 0, 60_000);
+        RunTaskScopes taskScopes = new RunTaskScopes(ioExecutor);
+        JiraMetrics metrics = new JiraMetrics(new SimpleMeterRegistry());
+        synchronizer = new JiraSynchronizer(JiraInstanceRegistry.single(jiraProxy, new JiraMetadataCache(jiraProxy, 16, 3_600_000)), bulkTaskTracker,
+                new WatermarkStore(dataDirectory.resolve("watermarks.properties").toString()),
+                new SyncJournalFactory(false, dataDirectory.resolve("journal").toString(), 32, 200),
+                new MovedIssueIndex(false, dataDirectory.resolve("moved-index").toString()),
+                metrics, taskScopes, new JiraIssueCopier(metrics, taskScopes,
+                new CopiedIssueIndex(false, dataDirectory.resolve("copied-index").toString()), 50, 4, 8));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ioExecutor.shutdownNow();
+        scheduler.shutdownNow();
+        Files.deleteIfExists(dataDirectory);
+    }
+
+    @Benchmark
+    public BulkMoveResult moveTasks() {
+        return synchronizer.moveTasksToOtherProject("SRC", "TARGET", issueCount, List.of());
+    }
+}
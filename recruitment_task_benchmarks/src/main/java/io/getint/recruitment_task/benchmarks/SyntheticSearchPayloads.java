@@ -0,0 +1,154 @@
+package io.getint.recruitment_task.benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of synthetic JIRA search responses shaped like the ones the synchronizer requests.
+ * <p>
+ * Issues are a fixed mix of tasks, bugs and subtasks; subtasks point at one of the recent standard issues,
+ * so bulk move payloads end up with a realistic number of parent mapping keys. The same seed always
+ * produces the same issues.
+ */
+public final class SyntheticSearchPayloads {
+    public static final long TASK_TYPE_ID = 10001L;
+    public static final long SUBTASK_TYPE_ID = 10003L;
+    public static final long BUG_TYPE_ID = 10004L;
+
+    private static final long FIRST_ISSUE_ID = 100_000L;
+    private static final int SUBTASK_PERCENT = 20;
+    private static final int BUG_PERCENT = 25;
+    private static final int PARENT_WINDOW = 200;
+    private static final long FIRST_UPDATED_MILLIS = 1_704_067_200_000L;
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ").withZone(ZoneOffset.UTC);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final long[] issueIds;
+    private final long[] issueTypeIds;
+    private final long[] parentIds;
+
+    /**
+     * Generates the issues of a synthetic search.
+     *
+     * @param issueCount the number of issues
+     * @param seed the seed of the issue type and parent mix
+     */
+    public SyntheticSearchPayloads(int issueCount, long seed) {
+        issueIds = new long[issueCount];
+        issueTypeIds = new long[issueCount];
+        parentIds = new long[issueCount];
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] recentStandardIds = new long[PARENT_WINDOW];
+        int standardCount = 0;
+        for (int i = 0; i < issueCount; i++) {
+            issueIds[i] = FIRST_ISSUE_ID + i;
+            int roll = random.nextInt(100);
+            if (roll < SUBTASK_PERCENT && standardCount > 0) {
+                issueTypeIds[i] = SUBTASK_TYPE_ID;
+                parentIds[i] = recentStandardIds[random.nextInt(Math.min(standardCount, PARENT_WINDOW))];
+            } else {
+                issueTypeIds[i] = roll < SUBTASK_PERCENT + BUG_PERCENT ? BUG_TYPE_ID : TASK_TYPE_ID;
+                parentIds[i] = -1L;
+                recentStandardIds[standardCount++ % PARENT_WINDOW] = issueIds[i];
+            }
+        }
+    }
+
+    public int size() {
+        return issueIds.length;
+    }
+
+    public long[] getIssueIds() {
+        return issueIds;
+    }
+
+    public long[] getIssueTypeIds() {
+        return issueTypeIds;
+    }
+
+    public long[] getParentIds() {
+        return parentIds;
+    }
+
+    /**
+     * Encodes the issues as one search response.
+     *
+     * @return the UTF-8 response body
+     */
+    public byte[] searchResponse() {
+        return searchResponse(0, issueIds.length);
+    }
+
+    /**
+     * Encodes the issues as search response pages, as returned for consecutive {@code startAt} offsets.
+     *
+     * @param pageSize the number of issues per page
+     * @return the UTF-8 response bodies, in page order
+     */
+    public byte[][] searchPages(int pageSize) {
+        byte[][] pages = new byte[Math.max(1, (issueIds.length + pageSize - 1) / pageSize)][];
+        for (int page = 0; page < pages.length; page++) {
+            int startAt = page * pageSize;
+            pages[page] = searchResponse(startAt, Math.min(pageSize, issueIds.length - startAt));
+        }
+        return pages;
+    }
+
+    private byte[] searchResponse(int startAt, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + count * 320);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("expand", "schema,names");
+            generator.writeNumberField("startAt", startAt);
+            generator.writeNumberField("maxResults", count);
+            generator.writeNumberField("total", issueIds.length);
+            generator.writeArrayFieldStart("issues");
+            for (int i = startAt; i < startAt + count; i++) {
+                writeIssue(generator, i);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeIssue(JsonGenerator generator, int index) throws IOException {
+        boolean subtask = issueTypeIds[index] == SUBTASK_TYPE_ID;
+        generator.writeStartObject();
+        generator.writeStringField("expand", "operations,versionedRepresentations,editmeta,changelog,renderedFields");
+        generator.writeStringField("id", Long.toString(issueIds[index]));
+        generator.writeStringField("self", "https://example.atlassian.net/rest/api/3/issue/" + issueIds[index]);
+        generator.writeStringField("key", "SRC-" + (index + 1));
+        generator.writeObjectFieldStart("fields");
+        generator.writeStringField("summary", "Synthetic issue " + (index + 1));
+        generator.writeObjectFieldStart("issuetype");
+        generator.writeStringField("id", Long.toString(issueTypeIds[index]));
+        generator.writeStringField("name", subtask ? "Sub-task" : issueTypeIds[index] == BUG_TYPE_ID ? "Bug" : "Task");
+        generator.writeBooleanField("subtask", subtask);
+        generator.writeEndObject();
+        if (subtask) {
+            generator.writeObjectFieldStart("parent");
+            generator.writeStringField("id", Long.toString(parentIds[index]));
+            generator.writeStringField("key", "SRC-" + (parentIds[index] - FIRST_ISSUE_ID + 1));
+            generator.writeEndObject();
+        }
+        generator.writeObjectFieldStart("status");
+        generator.writeStringField("id", "10000");
+        generator.writeStringField("name", "To Do");
+        generator.writeEndObject();
+        generator.writeStringField("updated", JIRA_TIMESTAMP.format(Instant.ofEpochMilli(FIRST_UPDATED_MILLIS + index * 1_000L)));
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}